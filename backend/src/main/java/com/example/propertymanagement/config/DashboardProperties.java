@@ -0,0 +1,69 @@
+package com.example.propertymanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 仪表盘模块配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.dashboard")
+public class DashboardProperties {
+
+    /**
+     * 汇总查询线程池大小（同时执行的查询上限）
+     */
+    private int queryThreads = 8;
+
+    /**
+     * 汇总查询等待队列容量，队列满时新查询直接记为失败
+     */
+    private int queryQueueCapacity = 200;
+
+    /**
+     * 单个查询的超时时间(毫秒)，超时的查询在汇总结果中缺省
+     */
+    private long queryTimeoutMillis = 3000;
+
+    /**
+     * 运行时支持时是否使用虚拟线程执行查询
+     */
+    private boolean virtualThreads = true;
+
+    /**
+     * 是否启用仪表盘响应缓存
+     */
+    private boolean cacheEnabled = true;
+
+    /**
+     * 仪表盘响应缓存的最大条目数
+     */
+    private int cacheMaxEntries = 5000;
+
+    /**
+     * 仪表盘响应缓存的存活时间(秒)，数据变更事件会提前失效相关条目
+     */
+    private long cacheTtlSeconds = 60;
+
+    /**
+     * 实时推送：每个订阅者待发送队列的容量，超出时丢弃最旧的增量
+     */
+    private int streamQueueCapacity = 256;
+
+    /**
+     * 实时推送：连接超时时间(毫秒)，超时后由客户端自动重连
+     */
+    private long streamTimeoutMillis = 30 * 60 * 1000L;
+
+    /**
+     * 实时推送：发送线程数
+     */
+    private int streamSendThreads = 2;
+
+    /**
+     * 实时推送：心跳间隔(毫秒)，用于保持连接并及时清理断开的订阅者
+     */
+    private long streamHeartbeatMillis = 25000;
+}
@@ -0,0 +1,44 @@
+package com.example.propertymanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 异步导出任务与组合报表配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.export")
+public class ExportProperties {
+
+    /**
+     * 同时执行的导出任务数
+     */
+    private int workerThreads = 2;
+
+    /**
+     * 排队等待的导出任务上限，队满时拒绝新任务
+     */
+    private int queueCapacity = 20;
+
+    /**
+     * 导出文件的保留时间(分钟)，过期后文件与任务记录被清理
+     */
+    private long resultTtlMinutes = 60;
+
+    /**
+     * 清理过期导出文件的间隔(毫秒)
+     */
+    private long cleanupIntervalMillis = 600000;
+
+    /**
+     * 组合报表并发读取各工作表数据的线程数（所有报表共用）
+     */
+    private int reportThreads = 4;
+
+    /**
+     * 组合报表读取任务的排队上限，队满时拒绝新报表
+     */
+    private int reportQueueCapacity = 16;
+}
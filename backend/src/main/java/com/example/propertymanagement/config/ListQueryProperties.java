@@ -0,0 +1,34 @@
+package com.example.propertymanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 列表查询配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.list")
+public class ListQueryProperties {
+
+    /**
+     * 近似总数缓存的最大条目数
+     */
+    private int countCacheMaxEntries = 2000;
+
+    /**
+     * 近似总数的缓存时间(秒)，期间翻页不再重新计数
+     */
+    private long countTtlSeconds = 30;
+
+    /**
+     * 分面统计缓存的最大条目数（按筛选条件）
+     */
+    private int facetCacheMaxEntries = 1000;
+
+    /**
+     * 分面统计的缓存时间(秒)；物业或租约变更时提前失效
+     */
+    private long facetCacheTtlSeconds = 60;
+}
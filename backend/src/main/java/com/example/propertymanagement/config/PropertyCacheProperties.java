@@ -0,0 +1,24 @@
+package com.example.propertymanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 物业详情缓存配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.property-cache")
+public class PropertyCacheProperties {
+
+    /**
+     * 是否启用缓存；关闭后每次都查询数据库，便于对比压测
+     */
+    private boolean enabled = true;
+
+    /**
+     * 缓存占用上限（按快照估算的字节数）
+     */
+    private long maxBytes = 16L * 1024 * 1024;
+}
@@ -1,76 +1,80 @@
 package com.example.propertymanagement.controller;
 
-import com.example.propertymanagement.model.*;
-import com.example.propertymanagement.repository.*;
+import com.example.propertymanagement.dto.dashboard.ActivityFeedResponse;
+import com.example.propertymanagement.dto.dashboard.TrendGranularity;
 import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.service.DashboardCacheService;
+import com.example.propertymanagement.service.DashboardService;
+import com.example.propertymanagement.service.DashboardStreamService;
+import com.example.propertymanagement.util.ConditionalResponses;
+import com.example.propertymanagement.util.TtlCache;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.YearMonth;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * 仪表盘统计数据控制器
- * 提供各种可视化图表所需的统计数据
+ * 提供各种可视化图表所需的统计数据，结果经 {@link DashboardCacheService} 按角色与用户缓存，
+ * 并支持 ETag 条件请求：数据未变化时返回 304，不读取缓存也不序列化响应体
  */
 @RestController
 @RequestMapping("/api/dashboard")
 public class DashboardController {
 
     @Autowired
-    private PropertyRepository propertyRepository;
+    private DashboardService dashboardService;
 
     @Autowired
-    private LeaseRepository leaseRepository;
+    private DashboardCacheService dashboardCacheService;
 
     @Autowired
-    private MaintenanceRequestRepository maintenanceRequestRepository;
+    private DashboardStreamService dashboardStreamService;
 
-    @Autowired
-    private PaymentRepository paymentRepository;
+    /**
+     * 仪表盘汇总数据：概览与当前角色可见的全部图表数据一次返回。
+     * 各查询并发执行，单个查询超时或失败时返回部分结果（partial=true，failedQueries 列出缺失项）。
+     */
+    @GetMapping("/summary")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> getSummary(@AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest request) {
+        return ConditionalResponses.ok(request, dashboardCacheService.getETag(currentUser, "summary"), -1,
+                () -> dashboardCacheService.get(currentUser, "summary",
+                        () -> dashboardService.getSummary(currentUser),
+                        DashboardController::isComplete),
+                DashboardController::isComplete);
+    }
 
-    @Autowired
-    private UserRepository userRepository;
+    /**
+     * 实时计数推送（Server-Sent Events）。
+     * 连接后先调用 /summary 获取全量数据，再将 counters 事件中的增量累加上去；
+     * 事件的 dropped 大于0时表示有增量丢失，需重新拉取 /summary。
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public SseEmitter stream(@AuthenticationPrincipal UserPrincipal currentUser) {
+        return dashboardStreamService.subscribe(currentUser);
+    }
 
     /**
      * 获取基本统计概览
      */
     @GetMapping("/overview")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Map<String, Object>> getOverview(@AuthenticationPrincipal UserPrincipal currentUser) {
-        Map<String, Object> overview = new HashMap<>();
-        
-        Long userId = currentUser.getId();
-        boolean isAdmin = currentUser.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
-        boolean isOwner = currentUser.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_OWNER"));
-
-        if (isAdmin) {
-            // 管理员看所有数据
-            overview.put("totalProperties", propertyRepository.count());
-            overview.put("totalLeases", leaseRepository.count());
-            overview.put("totalUsers", userRepository.count());
-            overview.put("pendingMaintenances", maintenanceRequestRepository.countByStatus(MaintenanceStatus.PENDING));
-        } else if (isOwner) {
-            // 业主看自己的物业相关数据
-            overview.put("totalProperties", propertyRepository.countByOwnerId(userId));
-            overview.put("totalLeases", leaseRepository.countByOwnerId(userId));
-            overview.put("pendingMaintenances", maintenanceRequestRepository.countByPropertyOwnerIdAndStatus(userId, MaintenanceStatus.PENDING));
-        } else {
-            // 租户看自己相关数据
-            overview.put("totalLeases", leaseRepository.countByTenantId(userId));
-            overview.put("pendingMaintenances", maintenanceRequestRepository.countByTenantId(userId));
-        }
-
-        return ResponseEntity.ok(overview);
+    public ResponseEntity<Map<String, Object>> getOverview(@AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest request) {
+        return ConditionalResponses.ok(request, dashboardCacheService.getETag(currentUser, "overview"),
+                () -> dashboardCacheService.get(currentUser, "overview",
+                        () -> dashboardService.getOverview(currentUser)));
     }
 
     /**
@@ -78,25 +82,11 @@ public class DashboardController {
      */
     @GetMapping("/property-status")
     @PreAuthorize("hasAnyRole('ADMIN', 'OWNER')")
-    public ResponseEntity<Map<String, Long>> getPropertyStatusDistribution(@AuthenticationPrincipal UserPrincipal currentUser) {
-        List<Property> properties;
-        
-        boolean isAdmin = currentUser.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
-
-        if (isAdmin) {
-            properties = propertyRepository.findAll();
-        } else {
-            properties = propertyRepository.findByOwnerId(currentUser.getId());
-        }
-
-        Map<String, Long> distribution = properties.stream()
-                .collect(Collectors.groupingBy(
-                    p -> p.getStatus() != null ? p.getStatus().name() : "UNKNOWN",
-                    Collectors.counting()
-                ));
-
-        return ResponseEntity.ok(distribution);
+    public ResponseEntity<Map<String, Long>> getPropertyStatusDistribution(@AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest request) {
+        return ConditionalResponses.ok(request, dashboardCacheService.getETag(currentUser, "property-status"),
+                () -> dashboardCacheService.get(currentUser, "property-status",
+                        () -> dashboardService.getPropertyStatusDistribution(currentUser)));
     }
 
     /**
@@ -104,25 +94,11 @@ public class DashboardController {
      */
     @GetMapping("/property-type")
     @PreAuthorize("hasAnyRole('ADMIN', 'OWNER')")
-    public ResponseEntity<Map<String, Long>> getPropertyTypeDistribution(@AuthenticationPrincipal UserPrincipal currentUser) {
-        List<Property> properties;
-        
-        boolean isAdmin = currentUser.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
-
-        if (isAdmin) {
-            properties = propertyRepository.findAll();
-        } else {
-            properties = propertyRepository.findByOwnerId(currentUser.getId());
-        }
-
-        Map<String, Long> distribution = properties.stream()
-                .collect(Collectors.groupingBy(
-                    p -> p.getPropertyType() != null ? p.getPropertyType().name() : "UNKNOWN",
-                    Collectors.counting()
-                ));
-
-        return ResponseEntity.ok(distribution);
+    public ResponseEntity<Map<String, Long>> getPropertyTypeDistribution(@AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest request) {
+        return ConditionalResponses.ok(request, dashboardCacheService.getETag(currentUser, "property-type"),
+                () -> dashboardCacheService.get(currentUser, "property-type",
+                        () -> dashboardService.getPropertyTypeDistribution(currentUser)));
     }
 
     /**
@@ -130,77 +106,33 @@ public class DashboardController {
      */
     @GetMapping("/maintenance-status")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Map<String, Long>> getMaintenanceStatusDistribution(@AuthenticationPrincipal UserPrincipal currentUser) {
-        List<MaintenanceRequest> requests;
-        
-        boolean isAdmin = currentUser.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
-        boolean isOwner = currentUser.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_OWNER"));
-
-        if (isAdmin) {
-            requests = maintenanceRequestRepository.findAll();
-        } else if (isOwner) {
-            requests = maintenanceRequestRepository.findByPropertyOwnerId(currentUser.getId());
-        } else {
-            requests = maintenanceRequestRepository.findByTenantId(currentUser.getId());
-        }
-
-        Map<String, Long> distribution = requests.stream()
-                .collect(Collectors.groupingBy(
-                    r -> r.getStatus() != null ? r.getStatus().name() : "UNKNOWN",
-                    Collectors.counting()
-                ));
-
-        return ResponseEntity.ok(distribution);
+    public ResponseEntity<Map<String, Long>> getMaintenanceStatusDistribution(@AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest request) {
+        return ConditionalResponses.ok(request, dashboardCacheService.getETag(currentUser, "maintenance-status"),
+                () -> dashboardCacheService.get(currentUser, "maintenance-status",
+                        () -> dashboardService.getMaintenanceStatusDistribution(currentUser)));
     }
 
     /**
-     * 月度收支趋势（近6个月）
+     * 收支趋势，默认近6个月按月统计
+     *
+     * @param granularity 时间粒度：day/week/month，默认 month
+     * @param from        开始日期（可选）
+     * @param to          结束日期（可选，默认今天）
      */
     @GetMapping("/payment-trend")
     @PreAuthorize("hasAnyRole('ADMIN', 'OWNER')")
-    public ResponseEntity<Map<String, Object>> getPaymentTrend(@AuthenticationPrincipal UserPrincipal currentUser) {
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusMonths(5).withDayOfMonth(1);
-        
-        List<Payment> payments;
-        boolean isAdmin = currentUser.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
-
-        if (isAdmin) {
-            payments = paymentRepository.findByPaymentDateBetween(startDate, endDate);
-        } else {
-            payments = paymentRepository.findByLeasePropertyOwnerIdAndPaymentDateBetween(
-                currentUser.getId(), startDate, endDate);
-        }
-
-        // 按月份分组统计（所有支付视为租金收入）
-        Map<YearMonth, BigDecimal> incomeByMonth = new TreeMap<>();
-        
-        // 初始化所有月份为0
-        for (int i = 0; i < 6; i++) {
-            YearMonth month = YearMonth.from(startDate.plusMonths(i));
-            incomeByMonth.put(month, BigDecimal.ZERO);
-        }
-
-        // 累加租金收入
-        for (Payment payment : payments) {
-            YearMonth month = YearMonth.from(payment.getPaymentDate());
-            incomeByMonth.merge(month, payment.getAmount(), BigDecimal::add);
-        }
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("months", incomeByMonth.keySet().stream()
-                .map(ym -> ym.getYear() + "-" + String.format("%02d", ym.getMonthValue()))
-                .collect(Collectors.toList()));
-        result.put("income", incomeByMonth.values());
-        // 暂时不追踪支出，返回空列表
-        result.put("expense", incomeByMonth.keySet().stream()
-                .map(m -> BigDecimal.ZERO)
-                .collect(Collectors.toList()));
-
-        return ResponseEntity.ok(result);
+    public ResponseEntity<Map<String, Object>> getPaymentTrend(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestParam(required = false) String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletRequest request) {
+        TrendGranularity trendGranularity = TrendGranularity.parse(granularity);
+        String endpoint = "payment-trend:" + trendGranularity + ":" + from + ":" + to;
+        return ConditionalResponses.ok(request, dashboardCacheService.getETag(currentUser, endpoint),
+                () -> dashboardCacheService.get(currentUser, endpoint,
+                        () -> dashboardService.getPaymentTrend(currentUser, trendGranularity, from, to)));
     }
 
     /**
@@ -208,39 +140,11 @@ public class DashboardController {
      */
     @GetMapping("/lease-expiring")
     @PreAuthorize("hasAnyRole('ADMIN', 'OWNER')")
-    public ResponseEntity<Map<String, Object>> getLeaseExpiring(@AuthenticationPrincipal UserPrincipal currentUser) {
-        LocalDate today = LocalDate.now();
-        LocalDate threeMonthsLater = today.plusMonths(3);
-        
-        List<Lease> leases;
-        boolean isAdmin = currentUser.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
-
-        if (isAdmin) {
-            leases = leaseRepository.findByEndDateBetweenAndStatus(today, threeMonthsLater, LeaseStatus.ACTIVE);
-        } else {
-            leases = leaseRepository.findByOwnerIdAndEndDateBetweenAndStatus(
-                currentUser.getId(), today, threeMonthsLater, LeaseStatus.ACTIVE);
-        }
-
-        // 按月份分组
-        Map<YearMonth, Long> expiringByMonth = new TreeMap<>();
-        for (int i = 0; i < 3; i++) {
-            expiringByMonth.put(YearMonth.from(today.plusMonths(i)), 0L);
-        }
-
-        for (Lease lease : leases) {
-            YearMonth month = YearMonth.from(lease.getEndDate());
-            expiringByMonth.merge(month, 1L, Long::sum);
-        }
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("months", expiringByMonth.keySet().stream()
-                .map(ym -> ym.getYear() + "-" + String.format("%02d", ym.getMonthValue()))
-                .collect(Collectors.toList()));
-        result.put("counts", expiringByMonth.values());
-
-        return ResponseEntity.ok(result);
+    public ResponseEntity<Map<String, Object>> getLeaseExpiring(@AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest request) {
+        return ConditionalResponses.ok(request, dashboardCacheService.getETag(currentUser, "lease-expiring"),
+                () -> dashboardCacheService.get(currentUser, "lease-expiring",
+                        () -> dashboardService.getLeaseExpiring(currentUser)));
     }
 
     /**
@@ -248,59 +152,50 @@ public class DashboardController {
      */
     @GetMapping("/recent-activities")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Map<String, Object>>> getRecentActivities(@AuthenticationPrincipal UserPrincipal currentUser) {
-        List<Map<String, Object>> activities = new ArrayList<>();
-        
-        boolean isAdmin = currentUser.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
-        boolean isOwner = currentUser.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_OWNER"));
-
-        // 获取最新租约
-        List<Lease> recentLeases;
-        if (isAdmin) {
-            recentLeases = leaseRepository.findTop5ByOrderByIdDesc();
-        } else if (isOwner) {
-            recentLeases = leaseRepository.findTop5ByOwnerIdOrderByIdDesc(currentUser.getId());
-        } else {
-            recentLeases = leaseRepository.findTop5ByTenantIdOrderByIdDesc(currentUser.getId());
-        }
-
-        for (Lease lease : recentLeases) {
-            Map<String, Object> activity = new HashMap<>();
-            activity.put("type", "lease");
-            activity.put("title", "新租约创建");
-            activity.put("description", "物业: " + (lease.getPropertyAddress() != null ? lease.getPropertyAddress() : "N/A"));
-            activity.put("date", lease.getStartDate());
-            activities.add(activity);
-        }
-
-        // 获取最新维修请求
-        List<MaintenanceRequest> recentMaintenance;
-        if (isAdmin) {
-            recentMaintenance = maintenanceRequestRepository.findTop5ByOrderByIdDesc();
-        } else if (isOwner) {
-            recentMaintenance = maintenanceRequestRepository.findTop5ByPropertyOwnerIdOrderByIdDesc(currentUser.getId());
-        } else {
-            recentMaintenance = maintenanceRequestRepository.findTop5ByTenantIdOrderByIdDesc(currentUser.getId());
-        }
+    public ResponseEntity<List<Map<String, Object>>> getRecentActivities(@AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest request) {
+        return ConditionalResponses.ok(request, dashboardCacheService.getETag(currentUser, "recent-activities"),
+                () -> dashboardCacheService.get(currentUser, "recent-activities",
+                        () -> dashboardService.getRecentActivities(currentUser)));
+    }
 
-        for (MaintenanceRequest request : recentMaintenance) {
-            Map<String, Object> activity = new HashMap<>();
-            activity.put("type", "maintenance");
-            activity.put("title", "维修请求");
-            activity.put("description", request.getDescription());
-            activity.put("date", request.getReportedAt() != null ? request.getReportedAt().toLocalDate() : LocalDate.now());
-            activities.add(activity);
-        }
+    /**
+     * 动态流（游标分页，按时间倒序）
+     *
+     * @param before 上一页返回的 nextBefore，首页不传
+     * @param size   每页条数，默认20，最大100
+     */
+    @GetMapping("/activities")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ActivityFeedResponse> getActivities(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(dashboardService.getActivities(currentUser, before, size));
+    }
 
-        // 按日期排序并限制数量
-        activities.sort((a, b) -> {
-            LocalDate dateA = (LocalDate) a.get("date");
-            LocalDate dateB = (LocalDate) b.get("date");
-            return dateB.compareTo(dateA);
-        });
+    /**
+     * 仪表盘缓存统计（命中、未命中、淘汰、失效次数及命中率）
+     */
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        TtlCache.Stats stats = dashboardCacheService.getStats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hits", stats.hits());
+        result.put("misses", stats.misses());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictions());
+        result.put("invalidations", stats.invalidations());
+        result.put("size", stats.size());
+        result.put("maxEntries", stats.maxEntries());
+        return ResponseEntity.ok(result);
+    }
 
-        return ResponseEntity.ok(activities.stream().limit(10).collect(Collectors.toList()));
+    /**
+     * 汇总结果完整（无超时或失败的查询）时才可缓存、才可附带 ETag
+     */
+    private static boolean isComplete(Map<String, Object> summary) {
+        return !Boolean.TRUE.equals(summary.get("partial"));
     }
 }
@@ -0,0 +1,73 @@
+package com.example.propertymanagement.controller;
+
+import com.example.propertymanagement.dto.export.ExportJobDto;
+import com.example.propertymanagement.dto.export.ExportJobRequest;
+import com.example.propertymanagement.service.ExportJobService;
+import jakarta.validation.Valid;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Asynchronous exports: a job is queued and generated in the background, the client polls its
+ * progress and downloads the file once it is completed. Identical requests over unchanged data
+ * share one job.
+ */
+@RestController
+@RequestMapping("/api/exports")
+@PreAuthorize("isAuthenticated()")
+public class ExportController {
+
+    private final ExportJobService exportJobService;
+
+    public ExportController(ExportJobService exportJobService) {
+        this.exportJobService = exportJobService;
+    }
+
+    /**
+     * Queues an export job and returns it immediately (202), or the existing job for the same data.
+     * @param request 导出类型与筛选条件
+     */
+    @PostMapping
+    public ResponseEntity<ExportJobDto> createJob(@Valid @RequestBody ExportJobRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(exportJobService.submit(request));
+    }
+
+    /**
+     * Returns the status and progress of an export job.
+     * @param id 导出任务ID
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ExportJobDto> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(exportJobService.getJob(id));
+    }
+
+    /**
+     * Downloads the file of a completed export job. Range requests are supported, so interrupted
+     * downloads can be resumed.
+     * @param id 导出任务ID
+     */
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> download(@PathVariable String id) {
+        ExportJobService.ExportDownload download = exportJobService.download(id);
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(download.fileName(), StandardCharsets.UTF_8)
+                .build()
+                .toString())
+            .contentType(MediaType.parseMediaType(download.contentType()))
+            .body(download.resource());
+    }
+}
@@ -1,16 +1,27 @@
 package com.example.propertymanagement.controller;
 
+import com.example.propertymanagement.dto.common.CursorPageResponse;
 import com.example.propertymanagement.dto.common.PageResponse;
+import com.example.propertymanagement.dto.common.SliceResponse;
+import com.example.propertymanagement.dto.export.ExportFormat;
 import com.example.propertymanagement.dto.lease.LeaseDto;
 import com.example.propertymanagement.dto.lease.LeaseRequest;
+import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.service.BulkExportService;
 import com.example.propertymanagement.service.ExcelExportService;
 import com.example.propertymanagement.service.LeaseService;
+import com.example.propertymanagement.util.ConditionalResponses;
+import com.example.propertymanagement.util.ExportQuery;
+import com.example.propertymanagement.util.ExportResponses;
+import com.example.propertymanagement.util.ExportSheet;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -20,10 +31,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -35,10 +44,13 @@ public class LeaseController {
 
     private final LeaseService leaseService;
     private final ExcelExportService excelExportService;
+    private final BulkExportService bulkExportService;
 
-    public LeaseController(LeaseService leaseService, ExcelExportService excelExportService) {
+    public LeaseController(LeaseService leaseService, ExcelExportService excelExportService,
+                           BulkExportService bulkExportService) {
         this.leaseService = leaseService;
         this.excelExportService = excelExportService;
+        this.bulkExportService = bulkExportService;
     }
 
     /**
@@ -49,11 +61,51 @@ public class LeaseController {
     @GetMapping
     public ResponseEntity<PageResponse<LeaseDto>> listLeases(
             @PageableDefault Pageable pageable,
-            @RequestParam(required = false) String keyword) {
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            return ResponseEntity.ok(leaseService.searchLeases(pageable, keyword));
-        }
-        return ResponseEntity.ok(leaseService.getLeases(pageable));
+            @RequestParam(required = false) String keyword,
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest httpRequest) {
+        String etag = leaseService.getLeasesVersion(keyword).toETag("leases", currentUser.getId(), pageable, keyword);
+        return ConditionalResponses.ok(httpRequest, etag, () -> {
+            if (keyword != null && !keyword.trim().isEmpty()) {
+                return leaseService.searchLeases(pageable, keyword);
+            }
+            return leaseService.getLeases(pageable);
+        });
+    }
+
+    /**
+     * Cursor (keyset) variant of the lease list, selected by the {@code after} parameter; no COUNT is executed.
+     * Keyword searches keep using the paged list.
+     * @param after 上一页返回的游标，首页传空字符串
+     * @param pageable 每页条数与排序（页码被忽略）
+     */
+    @GetMapping(params = {"after", "!keyword"})
+    public ResponseEntity<CursorPageResponse<LeaseDto>> scrollLeases(
+            @RequestParam String after,
+            @PageableDefault Pageable pageable,
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest httpRequest) {
+        String etag = leaseService.getLeasesVersion(null).toETag("leases-cursor", currentUser.getId(),
+            after, pageable.getPageSize(), pageable.getSort());
+        return ConditionalResponses.ok(httpRequest, etag, () -> leaseService.scrollLeases(after, pageable));
+    }
+
+    /**
+     * Count-free variant of the lease list, selected by {@code slice=true}: returns {@code hasNext} instead of totals.
+     * @param keyword 搜索关键词（可选）
+     * @param approximateTotal 是否附带近似总数（短时缓存）
+     */
+    @GetMapping(params = {"slice=true", "!after"})
+    public ResponseEntity<SliceResponse<LeaseDto>> sliceLeases(
+            @PageableDefault Pageable pageable,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "false") boolean approximateTotal,
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest httpRequest) {
+        String etag = leaseService.getLeasesVersion(keyword).toETag("leases-slice", currentUser.getId(), pageable,
+            keyword, approximateTotal);
+        return ConditionalResponses.ok(httpRequest, etag,
+            () -> leaseService.sliceLeases(pageable, keyword, approximateTotal));
     }
 
     /**
@@ -93,46 +145,27 @@ public class LeaseController {
 
     /**
      * Exports leases to Excel file.
+     * The workbook is streamed to the response while rows are read in batches, so memory use does not
+     * grow with the number of exported rows; access checks run before the response starts.
+     * With {@code format=csv} or {@code format=ndjson} rows are serialized straight from a forward-only
+     * database cursor instead, gzip-compressed on the fly when the client accepts it.
+     * @param format 导出格式：xlsx（默认）、csv、ndjson
      */
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportLeases() throws IOException {
-        // 获取所有租约数据（不分页）
-        PageResponse<LeaseDto> leases = leaseService.getLeases(Pageable.unpaged());
-        
-        // 定义表头
-        List<String> headers = Arrays.asList(
-            "租约ID", "物业ID", "物业地址", "租户ID", "租户用户名",
-            "开始日期", "结束日期", "租金", "状态", "创建时间"
-        );
-        
-        // 转换数据为行列表
-        List<List<Object>> dataRows = new ArrayList<>();
-        for (LeaseDto lease : leases.content()) {
-            List<Object> row = Arrays.asList(
-                lease.id(),
-                lease.propertyId(),
-                lease.propertyAddress(),
-                lease.tenantId(),
-                lease.tenantUsername(),
-                lease.startDate(),
-                lease.endDate(),
-                lease.rentAmount(),
-                lease.status() != null ? lease.status().name() : "",
-                lease.createdAt()
-            );
-            dataRows.add(row);
+    public ResponseEntity<StreamingResponseBody> exportLeases(@RequestParam(required = false) String format,
+                                                              HttpServletRequest httpRequest) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        if (exportFormat != ExportFormat.XLSX) {
+            ExportQuery<?> query = leaseService.exportQuery();
+            return ExportResponses.attachment(httpRequest,
+                excelExportService.generateFileName(query.name(), exportFormat.extension()), exportFormat,
+                out -> bulkExportService.write(query, exportFormat, out));
         }
-        
-        // 生成 Excel
-        byte[] excelBytes = excelExportService.generateExcel("租约列表", headers, dataRows);
-        
-        // 生成文件名
-        String filename = excelExportService.generateFileName("租约列表");
-        
-        // 返回文件
+        ExportSheet sheet = leaseService.exportLeases();
+        String filename = excelExportService.generateFileName(sheet.name());
         return ResponseEntity.ok()
             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
             .contentType(MediaType.APPLICATION_OCTET_STREAM)
-            .body(excelBytes);
+            .body(out -> excelExportService.writeExcel(List.of(sheet), out));
     }
 }
@@ -1,18 +1,29 @@
 package com.example.propertymanagement.controller;
 
+import com.example.propertymanagement.dto.common.CursorPageResponse;
 import com.example.propertymanagement.dto.common.PageResponse;
+import com.example.propertymanagement.dto.common.SliceResponse;
+import com.example.propertymanagement.dto.export.ExportFormat;
 import com.example.propertymanagement.dto.maintenance.MaintenanceRequestCreate;
 import com.example.propertymanagement.dto.maintenance.MaintenanceRequestDto;
 import com.example.propertymanagement.dto.maintenance.MaintenanceStatusUpdate;
 import com.example.propertymanagement.model.MaintenanceStatus;
+import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.service.BulkExportService;
 import com.example.propertymanagement.service.ExcelExportService;
 import com.example.propertymanagement.service.MaintenanceRequestService;
+import com.example.propertymanagement.util.ConditionalResponses;
+import com.example.propertymanagement.util.ExportQuery;
+import com.example.propertymanagement.util.ExportResponses;
+import com.example.propertymanagement.util.ExportSheet;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -21,10 +32,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -36,11 +45,14 @@ public class MaintenanceRequestController {
 
     private final MaintenanceRequestService maintenanceRequestService;
     private final ExcelExportService excelExportService;
+    private final BulkExportService bulkExportService;
 
     public MaintenanceRequestController(MaintenanceRequestService maintenanceRequestService, 
-                                       ExcelExportService excelExportService) {
+                                       ExcelExportService excelExportService,
+                                        BulkExportService bulkExportService) {
         this.maintenanceRequestService = maintenanceRequestService;
         this.excelExportService = excelExportService;
+        this.bulkExportService = bulkExportService;
     }
 
     /**
@@ -55,17 +67,67 @@ public class MaintenanceRequestController {
             @PageableDefault Pageable pageable,
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) MaintenanceStatus status,
-            @RequestParam(required = false) Long propertyId) {
-        // 如果有关键词搜索，使用搜索方法
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            return ResponseEntity.ok(maintenanceRequestService.searchRequests(pageable, keyword));
-        }
-        // 如果有状态或物业ID筛选，使用筛选方法
-        if (status != null || propertyId != null) {
-            return ResponseEntity.ok(maintenanceRequestService.getRequestsWithFilters(pageable, status, propertyId));
-        }
-        // 否则返回所有数据
-        return ResponseEntity.ok(maintenanceRequestService.getRequests(pageable));
+            @RequestParam(required = false) Long propertyId,
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest httpRequest) {
+        String etag = maintenanceRequestService.getRequestsVersion(keyword)
+            .toETag("maintenance", currentUser.getId(), pageable, keyword, status, propertyId);
+        return ConditionalResponses.ok(httpRequest, etag, () -> {
+            // 如果有关键词搜索，使用搜索方法
+            if (keyword != null && !keyword.trim().isEmpty()) {
+                return maintenanceRequestService.searchRequests(pageable, keyword);
+            }
+            // 如果有状态或物业ID筛选，使用筛选方法
+            if (status != null || propertyId != null) {
+                return maintenanceRequestService.getRequestsWithFilters(pageable, status, propertyId);
+            }
+            // 否则返回所有数据
+            return maintenanceRequestService.getRequests(pageable);
+        });
+    }
+
+    /**
+     * Cursor (keyset) variant of the ticket list, selected by the {@code after} parameter; no COUNT is executed.
+     * Keyword searches keep using the paged list.
+     * @param after 上一页返回的游标，首页传空字符串
+     * @param pageable 每页条数与排序（页码被忽略）
+     * @param status 状态筛选（可选）
+     * @param propertyId 物业ID筛选（可选）
+     */
+    @GetMapping(params = {"after", "!keyword"})
+    public ResponseEntity<CursorPageResponse<MaintenanceRequestDto>> scrollRequests(
+            @RequestParam String after,
+            @PageableDefault Pageable pageable,
+            @RequestParam(required = false) MaintenanceStatus status,
+            @RequestParam(required = false) Long propertyId,
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest httpRequest) {
+        String etag = maintenanceRequestService.getRequestsVersion(null).toETag("maintenance-cursor",
+            currentUser.getId(), after, pageable.getPageSize(), pageable.getSort(), status, propertyId);
+        return ConditionalResponses.ok(httpRequest, etag,
+            () -> maintenanceRequestService.scrollRequests(after, pageable, status, propertyId));
+    }
+
+    /**
+     * Count-free variant of the ticket list, selected by {@code slice=true}: returns {@code hasNext} instead of totals.
+     * @param keyword 搜索关键词（可选）
+     * @param status 状态筛选（可选）
+     * @param propertyId 物业ID筛选（可选）
+     * @param approximateTotal 是否附带近似总数（短时缓存）
+     */
+    @GetMapping(params = {"slice=true", "!after"})
+    public ResponseEntity<SliceResponse<MaintenanceRequestDto>> sliceRequests(
+            @PageableDefault Pageable pageable,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) MaintenanceStatus status,
+            @RequestParam(required = false) Long propertyId,
+            @RequestParam(defaultValue = "false") boolean approximateTotal,
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest httpRequest) {
+        String etag = maintenanceRequestService.getRequestsVersion(keyword)
+            .toETag("maintenance-slice", currentUser.getId(), pageable, keyword, status, propertyId, approximateTotal);
+        return ConditionalResponses.ok(httpRequest, etag,
+            () -> maintenanceRequestService.sliceRequests(pageable, keyword, status, propertyId, approximateTotal));
     }
 
     /**
@@ -89,45 +151,27 @@ public class MaintenanceRequestController {
 
     /**
      * Exports maintenance requests to Excel file.
+     * The workbook is streamed to the response while rows are read in batches, so memory use does not
+     * grow with the number of exported rows; access checks run before the response starts.
+     * With {@code format=csv} or {@code format=ndjson} rows are serialized straight from a forward-only
+     * database cursor instead, gzip-compressed on the fly when the client accepts it.
+     * @param format 导出格式：xlsx（默认）、csv、ndjson
      */
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportMaintenanceRequests() throws IOException {
-        // 获取所有维修记录数据（不分页）
-        PageResponse<MaintenanceRequestDto> requests = maintenanceRequestService.getRequests(Pageable.unpaged());
-        
-        // 定义表头
-        List<String> headers = Arrays.asList(
-            "维修ID", "物业ID", "物业地址", "租户ID", "租户用户名",
-            "描述", "状态", "报修时间", "完成时间"
-        );
-        
-        // 转换数据为行列表
-        List<List<Object>> dataRows = new ArrayList<>();
-        for (MaintenanceRequestDto request : requests.content()) {
-            List<Object> row = Arrays.asList(
-                request.id(),
-                request.propertyId(),
-                request.propertyAddress(),
-                request.tenantId(),
-                request.tenantUsername(),
-                request.description(),
-                request.status() != null ? request.status().name() : "",
-                request.reportedAt(),
-                request.completedAt()
-            );
-            dataRows.add(row);
+    public ResponseEntity<StreamingResponseBody> exportMaintenanceRequests(@RequestParam(required = false) String format,
+                                                                           HttpServletRequest httpRequest) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        if (exportFormat != ExportFormat.XLSX) {
+            ExportQuery<?> query = maintenanceRequestService.exportQuery();
+            return ExportResponses.attachment(httpRequest,
+                excelExportService.generateFileName(query.name(), exportFormat.extension()), exportFormat,
+                out -> bulkExportService.write(query, exportFormat, out));
         }
-        
-        // 生成 Excel
-        byte[] excelBytes = excelExportService.generateExcel("维修记录", headers, dataRows);
-        
-        // 生成文件名
-        String filename = excelExportService.generateFileName("维修记录");
-        
-        // 返回文件
+        ExportSheet sheet = maintenanceRequestService.exportRequests();
+        String filename = excelExportService.generateFileName(sheet.name());
         return ResponseEntity.ok()
             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
             .contentType(MediaType.APPLICATION_OCTET_STREAM)
-            .body(excelBytes);
+            .body(out -> excelExportService.writeExcel(List.of(sheet), out));
     }
 }
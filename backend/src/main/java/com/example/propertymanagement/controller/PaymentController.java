@@ -1,26 +1,35 @@
 package com.example.propertymanagement.controller;
 
+import com.example.propertymanagement.dto.common.CursorPageResponse;
 import com.example.propertymanagement.dto.common.PageResponse;
+import com.example.propertymanagement.dto.common.SliceResponse;
+import com.example.propertymanagement.dto.export.ExportFormat;
 import com.example.propertymanagement.dto.payment.PaymentDto;
 import com.example.propertymanagement.dto.payment.PaymentRequest;
+import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.service.BulkExportService;
 import com.example.propertymanagement.service.ExcelExportService;
 import com.example.propertymanagement.service.PaymentService;
+import com.example.propertymanagement.util.ConditionalResponses;
+import com.example.propertymanagement.util.ExportQuery;
+import com.example.propertymanagement.util.ExportResponses;
+import com.example.propertymanagement.util.ExportSheet;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -32,10 +41,13 @@ public class PaymentController {
 
     private final PaymentService paymentService;
     private final ExcelExportService excelExportService;
+    private final BulkExportService bulkExportService;
 
-    public PaymentController(PaymentService paymentService, ExcelExportService excelExportService) {
+    public PaymentController(PaymentService paymentService, ExcelExportService excelExportService,
+                             BulkExportService bulkExportService) {
         this.paymentService = paymentService;
         this.excelExportService = excelExportService;
+        this.bulkExportService = bulkExportService;
     }
 
     /**
@@ -51,11 +63,52 @@ public class PaymentController {
     @GetMapping
     public ResponseEntity<PageResponse<PaymentDto>> getAllPayments(
             @RequestParam(required = false) Long leaseId,
-            @PageableDefault Pageable pageable) {
-        if (leaseId != null) {
-            return ResponseEntity.ok(paymentService.getPaymentsByLease(leaseId, pageable));
-        }
-        return ResponseEntity.ok(paymentService.getAllPayments(pageable));
+            @PageableDefault Pageable pageable,
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest httpRequest) {
+        String etag = paymentService.getPaymentsVersion(leaseId).toETag("payments", currentUser.getId(), pageable, leaseId);
+        return ConditionalResponses.ok(httpRequest, etag, () -> {
+            if (leaseId != null) {
+                return paymentService.getPaymentsByLease(leaseId, pageable);
+            }
+            return paymentService.getAllPayments(pageable);
+        });
+    }
+
+    /**
+     * Cursor (keyset) variant of the payment list, selected by the {@code after} parameter; no COUNT is executed.
+     * @param after 上一页返回的游标，首页传空字符串
+     * @param leaseId Optional lease ID to filter by
+     * @param pageable 每页条数与排序（页码被忽略）
+     */
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageResponse<PaymentDto>> scrollPayments(
+            @RequestParam String after,
+            @RequestParam(required = false) Long leaseId,
+            @PageableDefault Pageable pageable,
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest httpRequest) {
+        String etag = paymentService.getPaymentsVersion(leaseId).toETag("payments-cursor", currentUser.getId(),
+            after, pageable.getPageSize(), pageable.getSort(), leaseId);
+        return ConditionalResponses.ok(httpRequest, etag, () -> paymentService.scrollPayments(after, pageable, leaseId));
+    }
+
+    /**
+     * Count-free variant of the payment list, selected by {@code slice=true}: returns {@code hasNext} instead of totals.
+     * @param leaseId Optional lease ID to filter by
+     * @param approximateTotal 是否附带近似总数（短时缓存）
+     */
+    @GetMapping(params = {"slice=true", "!after"})
+    public ResponseEntity<SliceResponse<PaymentDto>> slicePayments(
+            @RequestParam(required = false) Long leaseId,
+            @PageableDefault Pageable pageable,
+            @RequestParam(defaultValue = "false") boolean approximateTotal,
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            HttpServletRequest httpRequest) {
+        String etag = paymentService.getPaymentsVersion(leaseId).toETag("payments-slice", currentUser.getId(),
+            pageable, leaseId, approximateTotal);
+        return ConditionalResponses.ok(httpRequest, etag,
+            () -> paymentService.slicePayments(pageable, leaseId, approximateTotal));
     }
 
     /**
@@ -69,49 +122,29 @@ public class PaymentController {
 
     /**
      * Exports payments to Excel file.
+     * The workbook is streamed to the response while rows are read in batches, so memory use does not
+     * grow with the number of exported rows; access checks run before the response starts.
+     * With {@code format=csv} or {@code format=ndjson} rows are serialized straight from a forward-only
+     * database cursor instead, gzip-compressed on the fly when the client accepts it.
+     * @param leaseId 租约ID，可为空
+     * @param format 导出格式：xlsx（默认）、csv、ndjson
      */
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportPayments(@RequestParam(required = false) Long leaseId) throws IOException {
-        // 获取所有收支数据（不分页）
-        PageResponse<PaymentDto> payments;
-        if (leaseId != null) {
-            payments = paymentService.getPaymentsByLease(leaseId, Pageable.unpaged());
-        } else {
-            payments = paymentService.getAllPayments(Pageable.unpaged());
-        }
-        
-        // 定义表头
-        List<String> headers = Arrays.asList(
-            "收支ID", "租约ID", "物业地址", "租户姓名",
-            "金额", "支付日期", "支付方式", "创建时间"
-        );
-        
-        // 转换数据为行列表
-        List<List<Object>> dataRows = new ArrayList<>();
-        for (PaymentDto payment : payments.content()) {
-            List<Object> row = Arrays.asList(
-                payment.id(),
-                payment.leaseId(),
-                payment.propertyAddress(),
-                payment.tenantName(),
-                payment.amount(),
-                payment.paymentDate(),
-                payment.paymentMethod(),
-                payment.createdAt()
-            );
-            dataRows.add(row);
+    public ResponseEntity<StreamingResponseBody> exportPayments(@RequestParam(required = false) Long leaseId,
+                                                                @RequestParam(required = false) String format,
+                                                                HttpServletRequest httpRequest) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        if (exportFormat != ExportFormat.XLSX) {
+            ExportQuery<?> query = paymentService.exportQuery(leaseId);
+            return ExportResponses.attachment(httpRequest,
+                excelExportService.generateFileName(query.name(), exportFormat.extension()), exportFormat,
+                out -> bulkExportService.write(query, exportFormat, out));
         }
-        
-        // 生成 Excel
-        byte[] excelBytes = excelExportService.generateExcel("收支记录", headers, dataRows);
-        
-        // 生成文件名
-        String filename = excelExportService.generateFileName("收支记录");
-        
-        // 返回文件
+        ExportSheet sheet = paymentService.exportPayments(leaseId);
+        String filename = excelExportService.generateFileName(sheet.name());
         return ResponseEntity.ok()
             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
             .contentType(MediaType.APPLICATION_OCTET_STREAM)
-            .body(excelBytes);
+            .body(out -> excelExportService.writeExcel(List.of(sheet), out));
     }
 }
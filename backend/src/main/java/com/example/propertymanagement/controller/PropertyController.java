@@ -1,18 +1,40 @@
 package com.example.propertymanagement.controller;
 
+import com.example.propertymanagement.dto.common.BatchOperationResult;
+import com.example.propertymanagement.dto.common.CursorPageResponse;
 import com.example.propertymanagement.dto.common.PageResponse;
+import com.example.propertymanagement.dto.common.SliceResponse;
+import com.example.propertymanagement.dto.common.VersionStamp;
+import com.example.propertymanagement.dto.export.ExportFormat;
 import com.example.propertymanagement.dto.property.BatchStatusUpdateRequest;
+import com.example.propertymanagement.dto.property.GeoClusterResponse;
+import com.example.propertymanagement.dto.property.NearbyPropertyDto;
 import com.example.propertymanagement.dto.property.PropertyDto;
+import com.example.propertymanagement.dto.property.PropertyFacetsResponse;
 import com.example.propertymanagement.dto.property.PropertyFilterRequest;
+import com.example.propertymanagement.dto.property.PropertyImportResult;
+import com.example.propertymanagement.dto.property.PropertyMapViewResponse;
 import com.example.propertymanagement.dto.property.PropertyRequest;
+import com.example.propertymanagement.service.BulkExportService;
 import com.example.propertymanagement.service.ExcelExportService;
+import com.example.propertymanagement.service.PropertyFacetService;
+import com.example.propertymanagement.service.PropertyGeoService;
+import com.example.propertymanagement.service.PropertyImportService;
 import com.example.propertymanagement.service.PropertyService;
+import com.example.propertymanagement.util.ConditionalResponses;
+import com.example.propertymanagement.util.ExportQuery;
+import com.example.propertymanagement.util.ExportResponses;
+import com.example.propertymanagement.util.ExportSheet;
+import com.example.propertymanagement.util.GeoMath;
+import com.example.propertymanagement.util.WeightedLruCache;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -22,11 +44,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Exposes property CRUD endpoints for the SPA. The heavy business logic is handled by {@link PropertyService}.
@@ -37,14 +61,26 @@ public class PropertyController {
 
     private final PropertyService propertyService;
     private final ExcelExportService excelExportService;
+    private final BulkExportService bulkExportService;
+    private final PropertyGeoService propertyGeoService;
+    private final PropertyFacetService propertyFacetService;
+    private final PropertyImportService propertyImportService;
 
-    public PropertyController(PropertyService propertyService, ExcelExportService excelExportService) {
+    public PropertyController(PropertyService propertyService, ExcelExportService excelExportService,
+                              PropertyGeoService propertyGeoService, PropertyFacetService propertyFacetService,
+                              PropertyImportService propertyImportService,
+                              BulkExportService bulkExportService) {
         this.propertyService = propertyService;
         this.excelExportService = excelExportService;
+        this.propertyGeoService = propertyGeoService;
+        this.propertyFacetService = propertyFacetService;
+        this.propertyImportService = propertyImportService;
+        this.bulkExportService = bulkExportService;
     }
 
     /**
      * Returns a paginated property dataset with advanced filtering support.
+     * Supports If-None-Match: the ETag is derived from the owner's (or global) data version plus the query.
      * @param pageable 分页参数
      * @param ownerId 业主ID（可选）
      * @param keyword 搜索关键词（可选）
@@ -67,7 +103,8 @@ public class PropertyController {
         @RequestParam(required = false) Double maxRent,
         @RequestParam(required = false) Integer minBedrooms,
         @RequestParam(required = false) Integer maxBedrooms,
-        @RequestParam(required = false) String city
+        @RequestParam(required = false) String city,
+        HttpServletRequest httpRequest
     ) {
         PropertyFilterRequest filterRequest = PropertyFilterRequest.builder()
             .ownerId(ownerId)
@@ -81,15 +118,237 @@ public class PropertyController {
             .city(city)
             .build();
             
-        return ResponseEntity.ok(propertyService.getPropertiesWithFilters(pageable, filterRequest));
+        String etag = propertyService.getPropertiesVersion(ownerId).toETag("properties", pageable,
+            keyword, status, propertyType, minRent, maxRent, minBedrooms, maxBedrooms, city);
+        return ConditionalResponses.ok(httpRequest, etag,
+            () -> propertyService.getPropertiesWithFilters(pageable, filterRequest));
+    }
+
+    /**
+     * Cursor (keyset) variant of the property list, selected by the {@code after} parameter.
+     * Pass an empty {@code after} for the first page, then the returned {@code nextCursor}; no COUNT is executed.
+     * Accepts the same filters as the paged list; a keyword is matched per field instead of by relevance.
+     * @param after 上一页返回的游标，首页传空字符串
+     * @param pageable 每页条数与排序（页码被忽略）
+     */
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageResponse<PropertyDto>> scrollProperties(
+        @RequestParam String after,
+        @PageableDefault Pageable pageable,
+        @RequestParam(required = false) Long ownerId,
+        @RequestParam(required = false) String keyword,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) String propertyType,
+        @RequestParam(required = false) Double minRent,
+        @RequestParam(required = false) Double maxRent,
+        @RequestParam(required = false) Integer minBedrooms,
+        @RequestParam(required = false) Integer maxBedrooms,
+        @RequestParam(required = false) String city,
+        HttpServletRequest httpRequest
+    ) {
+        PropertyFilterRequest filterRequest = PropertyFilterRequest.builder()
+            .ownerId(ownerId)
+            .keyword(keyword)
+            .status(status)
+            .propertyType(propertyType)
+            .minRent(minRent)
+            .maxRent(maxRent)
+            .minBedrooms(minBedrooms)
+            .maxBedrooms(maxBedrooms)
+            .city(city)
+            .build();
+
+        String etag = propertyService.getPropertiesVersion(ownerId).toETag("properties-cursor", after,
+            pageable.getPageSize(), pageable.getSort(), keyword, status, propertyType, minRent, maxRent,
+            minBedrooms, maxBedrooms, city);
+        return ConditionalResponses.ok(httpRequest, etag,
+            () -> propertyService.scrollProperties(after, pageable, filterRequest));
+    }
+
+    /**
+     * Count-free variant of the property list, selected by {@code slice=true}: returns {@code hasNext} instead of totals.
+     * With {@code approximateTotal=true} a briefly cached count is attached for "about N results" displays.
+     * @param approximateTotal 是否附带近似总数
+     */
+    @GetMapping(params = {"slice=true", "!after"})
+    public ResponseEntity<SliceResponse<PropertyDto>> sliceProperties(
+        @PageableDefault Pageable pageable,
+        @RequestParam(required = false) Long ownerId,
+        @RequestParam(required = false) String keyword,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) String propertyType,
+        @RequestParam(required = false) Double minRent,
+        @RequestParam(required = false) Double maxRent,
+        @RequestParam(required = false) Integer minBedrooms,
+        @RequestParam(required = false) Integer maxBedrooms,
+        @RequestParam(required = false) String city,
+        @RequestParam(defaultValue = "false") boolean approximateTotal,
+        HttpServletRequest httpRequest
+    ) {
+        PropertyFilterRequest filterRequest = PropertyFilterRequest.builder()
+            .ownerId(ownerId)
+            .keyword(keyword)
+            .status(status)
+            .propertyType(propertyType)
+            .minRent(minRent)
+            .maxRent(maxRent)
+            .minBedrooms(minBedrooms)
+            .maxBedrooms(maxBedrooms)
+            .city(city)
+            .build();
+
+        String etag = propertyService.getPropertiesVersion(ownerId).toETag("properties-slice", pageable,
+            keyword, status, propertyType, minRent, maxRent, minBedrooms, maxBedrooms, city, approximateTotal);
+        return ConditionalResponses.ok(httpRequest, etag,
+            () -> propertyService.sliceProperties(pageable, filterRequest, approximateTotal));
+    }
+
+    /**
+     * Returns per-value counts for the status, type, city, bedroom and rent facets under the given filter.
+     * Each facet ignores its own filter so the UI can show the counts of the alternatives.
+     * @param ownerId 业主ID（可选）
+     * @param keyword 搜索关键词（可选）
+     * @param status 物业状态（可选）
+     * @param propertyType 物业类型（可选）
+     * @param minRent 最低租金（可选）
+     * @param maxRent 最高租金（可选）
+     * @param minBedrooms 最少卧室数（可选）
+     * @param maxBedrooms 最多卧室数（可选）
+     * @param city 城市（可选）
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<PropertyFacetsResponse> getFacets(
+        @RequestParam(required = false) Long ownerId,
+        @RequestParam(required = false) String keyword,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) String propertyType,
+        @RequestParam(required = false) Double minRent,
+        @RequestParam(required = false) Double maxRent,
+        @RequestParam(required = false) Integer minBedrooms,
+        @RequestParam(required = false) Integer maxBedrooms,
+        @RequestParam(required = false) String city
+    ) {
+        PropertyFilterRequest filterRequest = PropertyFilterRequest.builder()
+            .ownerId(ownerId)
+            .keyword(keyword)
+            .status(status)
+            .propertyType(propertyType)
+            .minRent(minRent)
+            .maxRent(maxRent)
+            .minBedrooms(minBedrooms)
+            .maxBedrooms(maxBedrooms)
+            .city(city)
+            .build();
+        return ResponseEntity.ok(propertyFacetService.getFacets(filterRequest));
     }
 
     /**
-     * Returns the property details by id.
+     * Finds properties within a radius of a point, nearest first.
+     * @param lat 圆心纬度
+     * @param lng 圆心经度
+     * @param radiusKm 搜索半径（千米）
+     * @param ownerId 业主ID（可选）
+     * @param status 物业状态（可选）
+     * @param propertyType 物业类型（可选）
+     * @param limit 最多返回条数
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyPropertyDto>> findNearby(
+        @RequestParam double lat,
+        @RequestParam double lng,
+        @RequestParam(defaultValue = "5") double radiusKm,
+        @RequestParam(required = false) Long ownerId,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) String propertyType,
+        @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(propertyGeoService.findNearby(lat, lng, radiusKm, ownerId, status, propertyType,
+            limit));
+    }
+
+    /**
+     * Returns the properties inside a map viewport, capped at {@code limit}; use the cluster endpoint when truncated.
+     * @param minLat 视窗最小纬度
+     * @param maxLat 视窗最大纬度
+     * @param minLng 视窗最小经度
+     * @param maxLng 视窗最大经度
+     * @param ownerId 业主ID（可选）
+     * @param status 物业状态（可选）
+     * @param propertyType 物业类型（可选）
+     * @param limit 最多返回条数
+     */
+    @GetMapping("/map")
+    public ResponseEntity<PropertyMapViewResponse> findWithinViewport(
+        @RequestParam double minLat,
+        @RequestParam double maxLat,
+        @RequestParam double minLng,
+        @RequestParam double maxLng,
+        @RequestParam(required = false) Long ownerId,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) String propertyType,
+        @RequestParam(defaultValue = "200") int limit
+    ) {
+        return ResponseEntity.ok(propertyGeoService.findWithin(GeoMath.Bounds.of(minLat, maxLat, minLng, maxLng),
+            ownerId, status, propertyType, limit));
+    }
+
+    /**
+     * Aggregates the properties inside a map viewport into one marker per map tile at the given zoom level.
+     * @param minLat 视窗最小纬度
+     * @param maxLat 视窗最大纬度
+     * @param minLng 视窗最小经度
+     * @param maxLng 视窗最大经度
+     * @param zoom 地图缩放级别
+     * @param ownerId 业主ID（可选）
+     * @param status 物业状态（可选）
+     * @param propertyType 物业类型（可选）
+     */
+    @GetMapping("/map/clusters")
+    public ResponseEntity<GeoClusterResponse> clusterWithinViewport(
+        @RequestParam double minLat,
+        @RequestParam double maxLat,
+        @RequestParam double minLng,
+        @RequestParam double maxLng,
+        @RequestParam int zoom,
+        @RequestParam(required = false) Long ownerId,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) String propertyType
+    ) {
+        return ResponseEntity.ok(propertyGeoService.cluster(GeoMath.Bounds.of(minLat, maxLat, minLng, maxLng), zoom,
+            ownerId, status, propertyType));
+    }
+
+    /**
+     * Returns the property details by id, answering 304 when the client's copy is still current.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PropertyDto> getProperty(@PathVariable Long id) {
-        return ResponseEntity.ok(propertyService.getProperty(id));
+    public ResponseEntity<PropertyDto> getProperty(@PathVariable Long id, HttpServletRequest httpRequest) {
+        Optional<VersionStamp> version = propertyService.getPropertyVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.ok(propertyService.getProperty(id));
+        }
+        return ConditionalResponses.ok(httpRequest, version.get().toETag("property", id),
+            version.get().lastModifiedMillis(), () -> propertyService.getProperty(id));
+    }
+
+    /**
+     * Returns hit/miss/eviction statistics of the property detail snapshot cache.
+     */
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        WeightedLruCache.Stats stats = propertyService.getSnapshotCacheStats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", propertyService.isSnapshotCacheEnabled());
+        result.put("hits", stats.hits());
+        result.put("misses", stats.misses());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictions());
+        result.put("invalidations", stats.invalidations());
+        result.put("size", stats.size());
+        result.put("weightBytes", stats.weight());
+        result.put("maxWeightBytes", stats.maxWeight());
+        return ResponseEntity.ok(result);
     }
 
     /**
@@ -120,69 +379,58 @@ public class PropertyController {
     }
 
     /**
-     * Batch delete properties by ids.
+     * Batch delete properties by ids. Missing or forbidden ids are skipped and reported in the result.
      */
     @DeleteMapping("/batch")
-    public ResponseEntity<Void> batchDeleteProperties(@RequestBody List<Long> ids) {
-        propertyService.batchDeleteProperties(ids);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<BatchOperationResult> batchDeleteProperties(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(propertyService.batchDeleteProperties(ids));
     }
 
     /**
-     * Batch update property status.
+     * Batch update property status. Missing or forbidden ids are skipped and reported in the result.
      */
     @PutMapping("/batch/status")
-    public ResponseEntity<Void> batchUpdateStatus(@RequestBody BatchStatusUpdateRequest request) {
-        propertyService.batchUpdateStatus(request.getIds(), request.getStatus());
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<BatchOperationResult> batchUpdateStatus(@RequestBody BatchStatusUpdateRequest request) {
+        return ResponseEntity.ok(propertyService.batchUpdateStatus(request.getIds(), request.getStatus()));
+    }
+
+    /**
+     * Bulk imports properties from an .xlsx or .csv upload whose first row is a header
+     * (the column names of the Excel export are accepted). Valid rows are inserted even when
+     * other rows fail; the response lists the failed rows.
+     * @param file 导入文件（.xlsx 或 .csv）
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OWNER')")
+    public ResponseEntity<PropertyImportResult> importProperties(@RequestParam("file") MultipartFile file) {
+        return ResponseEntity.ok(propertyImportService.importProperties(file));
     }
 
     /**
      * Exports properties to Excel file.
+     * The workbook is streamed to the response while rows are read in batches, so memory use does not
+     * grow with the number of exported rows; access checks run before the response starts.
+     * With {@code format=csv} or {@code format=ndjson} rows are serialized straight from a forward-only
+     * database cursor instead, gzip-compressed on the fly when the client accepts it.
+     * @param ownerId 业主ID，可为空
+     * @param format 导出格式：xlsx（默认）、csv、ndjson
      */
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportProperties(@RequestParam(required = false) Long ownerId) throws IOException {
-        // 获取所有物业数据（不分页）
-        PageResponse<PropertyDto> properties = propertyService.getProperties(Pageable.unpaged(), ownerId);
-        
-        // 定义表头
-        List<String> headers = Arrays.asList(
-            "物业ID", "业主ID", "业主用户名", "地址", "城市", "州/省", "邮编",
-            "物业类型", "卧室数", "浴室数", "面积(平方英尺)", "状态", "租金", "创建时间"
-        );
-        
-        // 转换数据为行列表
-        List<List<Object>> dataRows = new ArrayList<>();
-        for (PropertyDto property : properties.content()) {
-            List<Object> row = Arrays.asList(
-                property.id(),
-                property.ownerId(),
-                property.ownerUsername(),
-                property.address(),
-                property.city(),
-                property.state(),
-                property.zipCode(),
-                property.propertyType() != null ? property.propertyType().name() : "",
-                property.bedrooms(),
-                property.bathrooms(),
-                property.squareFootage(),
-                property.status() != null ? property.status().name() : "",
-                property.rentAmount(),
-                property.createdAt()
-            );
-            dataRows.add(row);
+    public ResponseEntity<StreamingResponseBody> exportProperties(@RequestParam(required = false) Long ownerId,
+                                                                  @RequestParam(required = false) String format,
+                                                                  HttpServletRequest httpRequest) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        if (exportFormat != ExportFormat.XLSX) {
+            ExportQuery<?> query = propertyService.exportQuery(ownerId);
+            return ExportResponses.attachment(httpRequest,
+                excelExportService.generateFileName(query.name(), exportFormat.extension()), exportFormat,
+                out -> bulkExportService.write(query, exportFormat, out));
         }
-        
-        // 生成 Excel
-        byte[] excelBytes = excelExportService.generateExcel("物业列表", headers, dataRows);
-        
-        // 生成文件名
-        String filename = excelExportService.generateFileName("物业列表");
-        
-        // 返回文件
+        ExportSheet sheet = propertyService.exportProperties(ownerId);
+        String filename = excelExportService.generateFileName(sheet.name());
         return ResponseEntity.ok()
             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
             .contentType(MediaType.APPLICATION_OCTET_STREAM)
-            .body(excelBytes);
+            .body(out -> excelExportService.writeExcel(List.of(sheet), out));
     }
 }
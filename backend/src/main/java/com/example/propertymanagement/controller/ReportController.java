@@ -0,0 +1,50 @@
+package com.example.propertymanagement.controller;
+
+import com.example.propertymanagement.service.ExcelExportService;
+import com.example.propertymanagement.service.PortfolioReportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Multi-sheet reports assembled from several data sets in one workbook.
+ */
+@RestController
+@RequestMapping("/api/reports")
+@PreAuthorize("hasAnyRole('ADMIN', 'OWNER')")
+public class ReportController {
+
+    private final PortfolioReportService portfolioReportService;
+    private final ExcelExportService excelExportService;
+
+    public ReportController(PortfolioReportService portfolioReportService, ExcelExportService excelExportService) {
+        this.portfolioReportService = portfolioReportService;
+        this.excelExportService = excelExportService;
+    }
+
+    /**
+     * Portfolio report: a summary sheet (occupancy, income by month, open tickets) followed by the
+     * property, lease, payment and maintenance sheets of the caller's portfolio. The data sheets are
+     * read concurrently and the workbook is streamed to the response.
+     */
+    @GetMapping("/portfolio")
+    public ResponseEntity<StreamingResponseBody> exportPortfolio() {
+        PortfolioReportService.PortfolioReport report = portfolioReportService.prepare();
+        String filename = excelExportService.generateFileName(report.name());
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(filename, StandardCharsets.UTF_8)
+                .build()
+                .toString())
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(out -> portfolioReportService.write(report, out));
+    }
+}
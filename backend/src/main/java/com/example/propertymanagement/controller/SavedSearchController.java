@@ -0,0 +1,88 @@
+package com.example.propertymanagement.controller;
+
+import com.example.propertymanagement.dto.common.PageResponse;
+import com.example.propertymanagement.dto.property.PropertyDto;
+import com.example.propertymanagement.dto.search.SavedSearchDto;
+import com.example.propertymanagement.dto.search.SavedSearchRequest;
+import com.example.propertymanagement.service.PropertyService;
+import com.example.propertymanagement.service.SavedSearchService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Saved property searches of the current user. Searches with notifications enabled produce a
+ * notification whenever a property that becomes available (created or status change) matches them.
+ */
+@RestController
+@RequestMapping("/api/saved-searches")
+@PreAuthorize("isAuthenticated()")
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+    private final PropertyService propertyService;
+
+    public SavedSearchController(SavedSearchService savedSearchService, PropertyService propertyService) {
+        this.savedSearchService = savedSearchService;
+        this.propertyService = propertyService;
+    }
+
+    /**
+     * Lists the current user's saved searches, newest first.
+     */
+    @GetMapping
+    public ResponseEntity<List<SavedSearchDto>> getMySearches() {
+        return ResponseEntity.ok(savedSearchService.getMySearches());
+    }
+
+    /**
+     * Runs a saved search against the property list.
+     * @param id 保存的搜索ID
+     * @param pageable 分页参数
+     */
+    @GetMapping("/{id}/properties")
+    public ResponseEntity<PageResponse<PropertyDto>> runSearch(@PathVariable Long id,
+                                                                @PageableDefault Pageable pageable) {
+        return ResponseEntity.ok(propertyService.getPropertiesWithFilters(pageable, savedSearchService.getFilter(id)));
+    }
+
+    /**
+     * Saves a search.
+     */
+    @PostMapping
+    public ResponseEntity<SavedSearchDto> createSearch(@Valid @RequestBody SavedSearchRequest request) {
+        return ResponseEntity.status(201).body(savedSearchService.createSearch(request));
+    }
+
+    /**
+     * Replaces the name, filters and notification flag of a saved search.
+     * @param id 保存的搜索ID
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<SavedSearchDto> updateSearch(@PathVariable Long id,
+                                                       @Valid @RequestBody SavedSearchRequest request) {
+        return ResponseEntity.ok(savedSearchService.updateSearch(id, request));
+    }
+
+    /**
+     * Deletes a saved search.
+     * @param id 保存的搜索ID
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSearch(@PathVariable Long id) {
+        savedSearchService.deleteSearch(id);
+        return ResponseEntity.noContent().build();
+    }
+}
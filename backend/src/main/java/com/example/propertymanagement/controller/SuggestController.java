@@ -0,0 +1,50 @@
+package com.example.propertymanagement.controller;
+
+import com.example.propertymanagement.dto.common.SuggestionDto;
+import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.service.SuggestionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Typeahead endpoints for the property, city and user pickers, served from in-memory prefix indexes.
+ */
+@RestController
+@RequestMapping("/api/suggest")
+public class SuggestController {
+
+    private final SuggestionService suggestionService;
+
+    public SuggestController(SuggestionService suggestionService) {
+        this.suggestionService = suggestionService;
+    }
+
+    /**
+     * Returns the first matches whose {@code field} starts with {@code prefix}, in lexicographic order.
+     * @param field 联想字段：address、city、username
+     * @param prefix 已输入的前缀
+     * @param limit 最多返回条数
+     * @param ownerId 业主ID（仅 address，可选）
+     * @param role 角色 admin/owner/tenant（仅 username，可选）
+     */
+    @GetMapping("/{field}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<SuggestionDto>> suggest(
+        @PathVariable String field,
+        @RequestParam String prefix,
+        @RequestParam(defaultValue = "10") int limit,
+        @RequestParam(required = false) Long ownerId,
+        @RequestParam(required = false) String role,
+        @AuthenticationPrincipal UserPrincipal currentUser
+    ) {
+        return ResponseEntity.ok(suggestionService.suggest(field, prefix, limit, ownerId, role, currentUser));
+    }
+}
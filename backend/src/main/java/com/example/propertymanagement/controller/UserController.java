@@ -5,14 +5,18 @@ import com.example.propertymanagement.dto.user.ProfileUpdateRequest;
 import com.example.propertymanagement.dto.user.UserCreateRequest;
 import com.example.propertymanagement.dto.user.UserDto;
 import com.example.propertymanagement.dto.user.UserUpdateRequest;
+import com.example.propertymanagement.event.EntityChangedEvent;
 import com.example.propertymanagement.mapper.UserMapper;
 import com.example.propertymanagement.model.Role;
 import com.example.propertymanagement.model.User;
 import com.example.propertymanagement.repository.RoleRepository;
 import com.example.propertymanagement.repository.UserRepository;
 import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.service.DashboardRollupService;
+import com.example.propertymanagement.service.SuggestionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -21,6 +25,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashSet;
@@ -45,6 +50,15 @@ public class UserController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private DashboardRollupService rollupService;
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * 获取当前用户资料
      */
@@ -97,6 +111,7 @@ public class UserController {
         }
 
         User updatedUser = userRepository.save(user);
+        suggestionService.indexUser(updatedUser);
         return ResponseEntity.ok(UserMapper.toDto(updatedUser));
     }
 
@@ -164,6 +179,7 @@ public class UserController {
      */
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<UserDto> createUser(@Valid @RequestBody UserCreateRequest request) {
         // 检查用户名是否已存在
         if (userRepository.existsByUsername(request.getUsername())) {
@@ -198,6 +214,10 @@ public class UserController {
         }
 
         User savedUser = userRepository.save(user);
+        suggestionService.indexUser(savedUser);
+        rollupService.userCreated(savedUser);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.USER,
+            EntityChangedEvent.Action.CREATED, savedUser.getId(), null, null));
         return ResponseEntity.ok(UserMapper.toDto(savedUser));
     }
 
@@ -206,6 +226,7 @@ public class UserController {
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<UserDto> updateUser(
             @PathVariable Long id,
             @Valid @RequestBody UserUpdateRequest request) {
@@ -247,6 +268,7 @@ public class UserController {
 
         // 更新角色
         if (request.getRoleNames() != null) {
+            Set<String> previousRoleNames = DashboardRollupService.roleNames(user);
             Set<Role> roles = new HashSet<>();
             for (String roleName : request.getRoleNames()) {
                 Role role = roleRepository.findByName(roleName)
@@ -254,9 +276,13 @@ public class UserController {
                 roles.add(role);
             }
             user.setRoles(roles);
+            rollupService.userRolesChanged(previousRoleNames, user);
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.USER,
+                EntityChangedEvent.Action.UPDATED, user.getId(), null, null));
         }
 
         User updatedUser = userRepository.save(user);
+        suggestionService.indexUser(updatedUser);
         return ResponseEntity.ok(UserMapper.toDto(updatedUser));
     }
 
@@ -272,6 +298,7 @@ public class UserController {
         // 软删除
         user.setIsDeleted(1);
         userRepository.save(user);
+        suggestionService.indexUser(user);
         
         return ResponseEntity.ok(Map.of("message", "用户删除成功"));
     }
@@ -287,6 +314,7 @@ public class UserController {
         
         user.setIsDeleted(1);
         userRepository.save(user);
+        suggestionService.indexUser(user);
         
         return ResponseEntity.ok(Map.of("message", "用户已禁用"));
     }
@@ -302,6 +330,7 @@ public class UserController {
         
         user.setIsDeleted(0);
         userRepository.save(user);
+        suggestionService.indexUser(user);
         
         return ResponseEntity.ok(Map.of("message", "用户已启用"));
     }
@@ -0,0 +1,14 @@
+package com.example.propertymanagement.dto.common;
+
+import java.util.List;
+
+/**
+ * 批量操作结果：不存在或无权操作的ID被跳过，其余ID照常处理。
+ *
+ * @param requested    请求的ID数（去重后）
+ * @param affected     实际更新/删除的行数
+ * @param missingIds   不存在的ID
+ * @param forbiddenIds 无权操作的ID
+ */
+public record BatchOperationResult(int requested, int affected, List<Long> missingIds, List<Long> forbiddenIds) {
+}
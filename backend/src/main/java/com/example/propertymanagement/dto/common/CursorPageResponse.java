@@ -0,0 +1,19 @@
+package com.example.propertymanagement.dto.common;
+
+import java.util.List;
+
+/**
+ * 游标（keyset）分页结果：不返回总数，通过 {@code nextCursor} 继续向后翻页。
+ *
+ * @param content    当前页数据
+ * @param size       请求的每页条数
+ * @param hasNext    是否还有下一页
+ * @param nextCursor 下一页游标，作为 {@code after} 参数原样传回；没有下一页时为 null
+ */
+public record CursorPageResponse<T>(
+    List<T> content,
+    int size,
+    boolean hasNext,
+    String nextCursor
+) {
+}
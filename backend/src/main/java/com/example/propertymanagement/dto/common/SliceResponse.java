@@ -0,0 +1,23 @@
+package com.example.propertymanagement.dto.common;
+
+import java.util.List;
+
+/**
+ * 无总数的分页结果：只返回是否还有下一页，不执行 COUNT 查询，适用于无限滚动列表。
+ *
+ * @param content          当前页数据
+ * @param page             页码（从 0 开始）
+ * @param size             每页条数
+ * @param first            是否第一页
+ * @param hasNext          是否还有下一页
+ * @param approximateTotal 近似总数（短时缓存的计数，可能略有滞后）；未请求时为 null
+ */
+public record SliceResponse<T>(
+    List<T> content,
+    int page,
+    int size,
+    boolean first,
+    boolean hasNext,
+    Long approximateTotal
+) {
+}
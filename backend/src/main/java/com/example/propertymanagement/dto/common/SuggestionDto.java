@@ -0,0 +1,11 @@
+package com.example.propertymanagement.dto.common;
+
+/**
+ * 输入联想结果
+ *
+ * @param id    对应实体ID（物业地址为物业ID、用户名为用户ID）；城市为 null
+ * @param value 联想文本
+ * @param count 城市下的物业数；其他字段为 null
+ */
+public record SuggestionDto(Long id, String value, Long count) {
+}
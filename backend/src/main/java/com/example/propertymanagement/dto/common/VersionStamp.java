@@ -0,0 +1,36 @@
+package com.example.propertymanagement.dto.common;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * 数据版本探针：某一数据范围内最大的 gmt_modified 与记录数，
+ * 任何新增、修改或删除都会改变其中至少一项，用于生成 ETag 而无需加载实体。
+ *
+ * @param lastModified 范围内最近的修改时间，范围为空时为 null
+ * @param count        范围内的记录数
+ */
+public record VersionStamp(LocalDateTime lastModified, Long count) {
+
+    /**
+     * 生成弱 ETag，附加的限定值（接口名、分页、筛选条件等）区分同一数据范围下的不同响应。
+     */
+    public String toETag(Object... qualifiers) {
+        String source = lastModified + "|" + count + "|" + Arrays.stream(qualifiers)
+            .map(String::valueOf)
+            .collect(Collectors.joining("|"));
+        return "W/\"" + DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * 最近修改时间的毫秒值，范围为空时返回 -1（不输出 Last-Modified）
+     */
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.propertymanagement.dto.dashboard;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 动态流条目
+ *
+ * @param id          事件ID，同时作为下一页游标
+ * @param type        事件类型（lease, maintenance, payment, file）
+ * @param action      动作
+ * @param title       标题
+ * @param description 描述
+ * @param entityId    关联实体ID
+ * @param date        发生日期（兼容旧版近期活动字段）
+ * @param occurredAt  发生时间
+ */
+public record ActivityDto(
+    Long id,
+    String type,
+    String action,
+    String title,
+    String description,
+    Long entityId,
+    LocalDate date,
+    LocalDateTime occurredAt
+) {
+}
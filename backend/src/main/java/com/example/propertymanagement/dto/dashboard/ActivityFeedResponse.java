@@ -0,0 +1,13 @@
+package com.example.propertymanagement.dto.dashboard;
+
+import java.util.List;
+
+/**
+ * 动态流游标分页结果
+ *
+ * @param content    当前页条目（按时间倒序）
+ * @param nextBefore 下一页请求使用的 before 参数，没有更多数据时为 null
+ * @param hasMore    是否还有更早的条目
+ */
+public record ActivityFeedResponse(List<ActivityDto> content, Long nextBefore, boolean hasMore) {
+}
@@ -0,0 +1,32 @@
+package com.example.propertymanagement.dto.dashboard;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 仪表盘实时推送的计数增量，客户端将其累加到已加载的汇总数据上。
+ * 当 {@code dropped > 0} 时说明推送队列溢出丢失了部分增量，客户端应重新拉取 /api/dashboard/summary。
+ *
+ * @param overview            概览字段的增量，字段名与 overview 一致
+ * @param distributions       各分布图的增量：图表名（propertyStatus、propertyType、leaseStatus、
+ *                            maintenanceStatus、userRole）到分桶增量
+ * @param revenue             新增收入金额，无收入变化时为 null
+ * @param unreadNotifications 未读通知数增量
+ * @param dropped             上一条推送之后因队列溢出丢弃的增量条数
+ * @param occurredAt          变更发生时间
+ */
+public record CounterDelta(Map<String, Long> overview,
+                           Map<String, Map<String, Long>> distributions,
+                           BigDecimal revenue,
+                           long unreadNotifications,
+                           long dropped,
+                           LocalDateTime occurredAt) {
+
+    /**
+     * 附带丢弃计数的副本
+     */
+    public CounterDelta withDropped(long dropped) {
+        return new CounterDelta(overview, distributions, revenue, unreadNotifications, dropped, occurredAt);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.propertymanagement.dto.dashboard;
+
+/**
+ * 分组计数投影：承载 {@code SELECT x, COUNT(*) ... GROUP BY x} 的单行结果，
+ * 避免为统计而加载完整实体。
+ *
+ * @param key   分组键（通常为状态、类型等枚举值）
+ * @param count 该分组下的记录数
+ */
+public record GroupCount(Object key, Long count) {
+}
@@ -0,0 +1,13 @@
+package com.example.propertymanagement.dto.dashboard;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 收入时间序列投影：某个周期起始日对应的收入合计。
+ *
+ * @param periodStart 周期起始日
+ * @param amount      收入合计
+ */
+public record RevenuePoint(LocalDate periodStart, BigDecimal amount) {
+}
@@ -0,0 +1,11 @@
+package com.example.propertymanagement.dto.dashboard;
+
+/**
+ * 带范围的分组计数投影：承载 {@code SELECT scope, x, COUNT(*) ... GROUP BY scope, x} 的单行结果。
+ *
+ * @param scopeId 范围ID（业主或租户用户ID）
+ * @param key     分组键（通常为状态、类型等枚举值）
+ * @param count   该分组下的记录数
+ */
+public record ScopedGroupCount(Long scopeId, Object key, Long count) {
+}
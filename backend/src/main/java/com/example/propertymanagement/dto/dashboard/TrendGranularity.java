@@ -0,0 +1,109 @@
+package com.example.propertymanagement.dto.dashboard;
+
+import com.example.propertymanagement.exception.BadRequestException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * 趋势图的时间粒度，负责周期对齐、步进、默认窗口与标签格式。
+ */
+public enum TrendGranularity {
+
+    DAY(DateTimeFormatter.ISO_LOCAL_DATE) {
+        @Override
+        public LocalDate periodStart(LocalDate date) {
+            return date;
+        }
+
+        @Override
+        public LocalDate next(LocalDate periodStart) {
+            return periodStart.plusDays(1);
+        }
+
+        @Override
+        public LocalDate defaultStart(LocalDate end) {
+            return end.minusDays(29);
+        }
+    },
+
+    WEEK(DateTimeFormatter.ISO_LOCAL_DATE) {
+        @Override
+        public LocalDate periodStart(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        public LocalDate next(LocalDate periodStart) {
+            return periodStart.plusWeeks(1);
+        }
+
+        @Override
+        public LocalDate defaultStart(LocalDate end) {
+            return periodStart(end).minusWeeks(11);
+        }
+    },
+
+    MONTH(DateTimeFormatter.ofPattern("yyyy-MM")) {
+        @Override
+        public LocalDate periodStart(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDate next(LocalDate periodStart) {
+            return periodStart.plusMonths(1);
+        }
+
+        @Override
+        public LocalDate defaultStart(LocalDate end) {
+            return end.minusMonths(5).withDayOfMonth(1);
+        }
+    };
+
+    private final DateTimeFormatter labelFormatter;
+
+    TrendGranularity(DateTimeFormatter labelFormatter) {
+        this.labelFormatter = labelFormatter;
+    }
+
+    /**
+     * 日期所在周期的起始日（周以周一为起点）
+     */
+    public abstract LocalDate periodStart(LocalDate date);
+
+    /**
+     * 下一个周期的起始日
+     */
+    public abstract LocalDate next(LocalDate periodStart);
+
+    /**
+     * 未指定开始日期时的默认窗口起点：日 30 天，周 12 周，月 6 个月
+     */
+    public abstract LocalDate defaultStart(LocalDate end);
+
+    /**
+     * 周期标签：日/周为起始日期，月为 yyyy-MM
+     */
+    public String label(LocalDate periodStart) {
+        return labelFormatter.format(periodStart);
+    }
+
+    /**
+     * 解析查询参数（不区分大小写），为空时默认按月。
+     *
+     * @throws BadRequestException 取值无效时抛出
+     */
+    public static TrendGranularity parse(String value) {
+        if (value == null || value.isBlank()) {
+            return MONTH;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("无效的时间粒度: " + value + "，可选 day/week/month");
+        }
+    }
+}
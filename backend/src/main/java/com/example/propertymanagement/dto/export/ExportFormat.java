@@ -0,0 +1,57 @@
+package com.example.propertymanagement.dto.export;
+
+import com.example.propertymanagement.exception.BadRequestException;
+
+/**
+ * 同步导出接口（/export）的文件格式。
+ * <ul>
+ *   <li>XLSX：Excel 工作簿，列宽、表头样式面向人工查看；</li>
+ *   <li>CSV / NDJSON：面向程序批量抽取，逐行直接从数据库游标序列化，客户端支持时 gzip 压缩传输。</li>
+ * </ul>
+ */
+public enum ExportFormat {
+
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+
+    /**
+     * RFC 4180 CSV，UTF-8 带 BOM，表头与 Excel 导出一致，可直接用导入接口回读
+     */
+    CSV("csv", "text/csv;charset=UTF-8"),
+
+    /**
+     * 每行一个 JSON 对象，字段名与列表接口返回的 DTO 一致
+     */
+    NDJSON("ndjson", "application/x-ndjson;charset=UTF-8");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    /**
+     * 解析查询参数（不区分大小写），为空时默认 Excel。
+     *
+     * @throws BadRequestException 取值无效时抛出
+     */
+    public static ExportFormat parse(String value) {
+        if (value == null || value.isBlank()) {
+            return XLSX;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("无效的导出格式: " + value + "，可选 xlsx/csv/ndjson");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.propertymanagement.dto.export;
+
+import java.time.Instant;
+
+/**
+ * 导出任务状态与进度
+ *
+ * @param id            任务ID
+ * @param type          导出的数据类型
+ * @param status        任务状态
+ * @param rowsDone      已写出的数据行数
+ * @param estimatedRows 创建任务时数据范围内的记录数，作为进度的分母
+ * @param fileName      下载文件名
+ * @param fileSize      文件大小（字节），完成前为 null
+ * @param error         失败原因，未失败时为 null
+ * @param createdAt     创建时间
+ * @param finishedAt    完成或失败时间
+ * @param expiresAt     文件过期时间，过期后不能再下载，完成前为 null
+ */
+public record ExportJobDto(
+    String id,
+    ExportType type,
+    ExportJobStatus status,
+    long rowsDone,
+    long estimatedRows,
+    String fileName,
+    Long fileSize,
+    String error,
+    Instant createdAt,
+    Instant finishedAt,
+    Instant expiresAt
+) {
+}
@@ -0,0 +1,20 @@
+package com.example.propertymanagement.dto.export;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * 创建导出任务
+ *
+ * @param type    导出的数据类型
+ * @param ownerId 业主ID，仅 {@link ExportType#PROPERTIES} 使用，可为空
+ * @param leaseId 租约ID，仅 {@link ExportType#PAYMENTS} 使用，可为空
+ */
+public record ExportJobRequest(
+    @NotNull(message = "导出类型不能为空")
+    ExportType type,
+
+    Long ownerId,
+
+    Long leaseId
+) {
+}
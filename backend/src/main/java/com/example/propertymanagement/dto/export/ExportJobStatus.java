@@ -0,0 +1,27 @@
+package com.example.propertymanagement.dto.export;
+
+/**
+ * 导出任务状态
+ */
+public enum ExportJobStatus {
+
+    /**
+     * 排队等待执行
+     */
+    QUEUED,
+
+    /**
+     * 正在生成文件
+     */
+    RUNNING,
+
+    /**
+     * 已完成，文件可在过期前下载
+     */
+    COMPLETED,
+
+    /**
+     * 执行失败
+     */
+    FAILED
+}
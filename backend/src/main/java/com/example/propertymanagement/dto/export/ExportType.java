@@ -0,0 +1,27 @@
+package com.example.propertymanagement.dto.export;
+
+/**
+ * 可导出的数据类型，数据范围与对应列表接口的 /export 相同。
+ */
+public enum ExportType {
+
+    /**
+     * 物业列表，可按业主筛选
+     */
+    PROPERTIES,
+
+    /**
+     * 租约列表
+     */
+    LEASES,
+
+    /**
+     * 收支记录，可按租约筛选
+     */
+    PAYMENTS,
+
+    /**
+     * 维修工单
+     */
+    MAINTENANCE_REQUESTS
+}
@@ -0,0 +1,10 @@
+package com.example.propertymanagement.dto.property;
+
+/**
+ * 分面中的一个取值及其物业数
+ *
+ * @param value 取值（枚举名、城市名、卧室数档位如 {@code 4+}、租金区间如 {@code 2000-4000}）
+ * @param count 物业数
+ */
+public record FacetBucket(String value, long count) {
+}
@@ -0,0 +1,19 @@
+package com.example.propertymanagement.dto.property;
+
+/**
+ * 地图聚合标记：同一瓦片内的物业合并为一个标记
+ *
+ * @param tileX      瓦片列号（XYZ 方案）
+ * @param tileY      瓦片行号
+ * @param count      瓦片内的物业数
+ * @param latitude   瓦片内物业的平均纬度，作为标记位置
+ * @param longitude  瓦片内物业的平均经度
+ * @param propertyId 瓦片内只有一个物业时为其ID，否则为 null
+ */
+public record GeoClusterDto(int tileX,
+                            int tileY,
+                            int count,
+                            double latitude,
+                            double longitude,
+                            Long propertyId) {
+}
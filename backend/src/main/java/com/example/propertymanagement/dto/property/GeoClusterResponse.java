@@ -0,0 +1,13 @@
+package com.example.propertymanagement.dto.property;
+
+import java.util.List;
+
+/**
+ * 地图聚合结果
+ *
+ * @param zoom     聚合使用的缩放级别
+ * @param total    视窗内满足条件的物业总数
+ * @param clusters 各瓦片的聚合标记
+ */
+public record GeoClusterResponse(int zoom, int total, List<GeoClusterDto> clusters) {
+}
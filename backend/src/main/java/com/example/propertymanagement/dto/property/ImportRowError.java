@@ -0,0 +1,10 @@
+package com.example.propertymanagement.dto.property;
+
+/**
+ * 导入失败的行
+ *
+ * @param row     文件中的行号（从 1 开始，含表头行）
+ * @param message 失败原因
+ */
+public record ImportRowError(int row, String message) {
+}
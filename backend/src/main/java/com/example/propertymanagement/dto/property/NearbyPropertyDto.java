@@ -0,0 +1,10 @@
+package com.example.propertymanagement.dto.property;
+
+/**
+ * 附近物业搜索结果
+ *
+ * @param property   物业信息
+ * @param distanceKm 与查询点的球面距离（千米）
+ */
+public record NearbyPropertyDto(PropertyDto property, double distanceKm) {
+}
@@ -20,6 +20,8 @@ public record PropertyDto(
     Integer squareFootage,
     PropertyStatus status,
     BigDecimal rentAmount,
+    Double latitude,
+    Double longitude,
     Instant createdAt
 ) {
 }
@@ -0,0 +1,21 @@
+package com.example.propertymanagement.dto.property;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 物业分面统计结果。
+ * 每个分面的计数应用除该分面自身以外的全部筛选条件，便于界面展示切换选项后的结果数。
+ *
+ * @param total        满足全部筛选条件的物业数；统计失败时为 null
+ * @param facets       分面名称（status、propertyType、city、bedrooms、rent）到取值计数的映射
+ * @param partial      是否有分面统计超时或失败
+ * @param failedFacets 统计失败的分面名称
+ */
+public record PropertyFacetsResponse(
+    Long total,
+    Map<String, List<FacetBucket>> facets,
+    boolean partial,
+    List<String> failedFacets
+) {
+}
@@ -32,6 +32,22 @@ public class PropertyFilterRequest {
         return new Builder();
     }
     
+    /**
+     * Builder pre-populated with this request's values.
+     */
+    public Builder toBuilder() {
+        return new Builder()
+            .ownerId(ownerId)
+            .keyword(keyword)
+            .status(status)
+            .propertyType(propertyType)
+            .minRent(minRent)
+            .maxRent(maxRent)
+            .minBedrooms(minBedrooms)
+            .maxBedrooms(maxBedrooms)
+            .city(city);
+    }
+    
     // Builder class
     public static class Builder {
         private Long ownerId;
@@ -0,0 +1,38 @@
+package com.example.propertymanagement.dto.property;
+
+import com.example.propertymanagement.model.Property;
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.model.PropertyType;
+
+/**
+ * 物业地理网格索引的条目：坐标及地图筛选所需的字段，不加载完整实体。
+ *
+ * @param id           物业ID
+ * @param ownerId      业主ID
+ * @param status       物业状态
+ * @param propertyType 物业类型
+ * @param latitude     纬度
+ * @param longitude    经度
+ */
+public record PropertyGeoPoint(Long id,
+                               Long ownerId,
+                               PropertyStatus status,
+                               PropertyType propertyType,
+                               double latitude,
+                               double longitude) {
+
+    /**
+     * 由实体生成；未填写坐标时返回 null
+     */
+    public static PropertyGeoPoint of(Property property) {
+        if (property.getLatitude() == null || property.getLongitude() == null) {
+            return null;
+        }
+        return new PropertyGeoPoint(property.getId(), property.getOwnerId(), property.getStatus(),
+            property.getPropertyType(), property.getLatitude(), property.getLongitude());
+    }
+
+    public PropertyGeoPoint withStatus(PropertyStatus newStatus) {
+        return new PropertyGeoPoint(id, ownerId, newStatus, propertyType, latitude, longitude);
+    }
+}
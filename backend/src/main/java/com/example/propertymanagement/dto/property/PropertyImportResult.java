@@ -0,0 +1,25 @@
+package com.example.propertymanagement.dto.property;
+
+import java.util.List;
+
+/**
+ * 物业批量导入结果
+ *
+ * @param totalRows       数据行数（不含表头与空行）
+ * @param imported        成功导入的行数
+ * @param failed          失败的行数
+ * @param errors          失败行明细，按行号排序
+ * @param errorsTruncated 失败行过多时只返回前若干条，此时为 true
+ * @param elapsedMillis   导入耗时（毫秒）
+ * @param rowsPerSecond   处理速度（行/秒）
+ */
+public record PropertyImportResult(
+    int totalRows,
+    int imported,
+    int failed,
+    List<ImportRowError> errors,
+    boolean errorsTruncated,
+    long elapsedMillis,
+    long rowsPerSecond
+) {
+}
@@ -0,0 +1,13 @@
+package com.example.propertymanagement.dto.property;
+
+import java.util.List;
+
+/**
+ * 地图视窗内的物业
+ *
+ * @param content   物业列表（按ID倒序，最多返回请求的条数）
+ * @param total     视窗内满足条件的物业总数
+ * @param truncated 是否因条数上限未返回全部物业，为 true 时客户端应改用聚合接口或缩小视窗
+ */
+public record PropertyMapViewResponse(List<PropertyDto> content, int total, boolean truncated) {
+}
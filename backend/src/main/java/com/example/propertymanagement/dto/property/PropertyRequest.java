@@ -2,6 +2,8 @@ package com.example.propertymanagement.dto.property;
 
 import com.example.propertymanagement.model.PropertyStatus;
 import com.example.propertymanagement.model.PropertyType;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -36,6 +38,14 @@ public record PropertyRequest(
     PropertyStatus status,
 
     @PositiveOrZero(message = "租金不能为负数")
-    BigDecimal rentAmount
+    BigDecimal rentAmount,
+
+    @DecimalMin(value = "-90", message = "纬度需在 -90 到 90 之间")
+    @DecimalMax(value = "90", message = "纬度需在 -90 到 90 之间")
+    Double latitude,
+
+    @DecimalMin(value = "-180", message = "经度需在 -180 到 180 之间")
+    @DecimalMax(value = "180", message = "经度需在 -180 到 180 之间")
+    Double longitude
 ) {
 }
@@ -0,0 +1,26 @@
+package com.example.propertymanagement.dto.property;
+
+import com.example.propertymanagement.model.Property;
+
+/**
+ * 物业关键词索引的文档：只包含参与搜索的文本字段与业主ID。
+ *
+ * @param id      物业ID
+ * @param ownerId 业主ID
+ * @param address 地址
+ * @param city    城市
+ * @param state   省/州
+ * @param zipCode 邮编
+ */
+public record PropertySearchDocument(Long id,
+                                     Long ownerId,
+                                     String address,
+                                     String city,
+                                     String state,
+                                     String zipCode) {
+
+    public static PropertySearchDocument of(Property property) {
+        return new PropertySearchDocument(property.getId(), property.getOwnerId(), property.getAddress(),
+            property.getCity(), property.getState(), property.getZipCode());
+    }
+}
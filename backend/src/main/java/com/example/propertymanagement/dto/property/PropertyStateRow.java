@@ -0,0 +1,15 @@
+package com.example.propertymanagement.dto.property;
+
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.model.PropertyType;
+
+/**
+ * 物业的归属与计数相关字段投影，用于批量操作前的权限判定与汇总计数调整。
+ *
+ * @param id           物业ID
+ * @param ownerId      业主ID
+ * @param status       物业状态
+ * @param propertyType 物业类型
+ */
+public record PropertyStateRow(Long id, Long ownerId, PropertyStatus status, PropertyType propertyType) {
+}
@@ -0,0 +1,28 @@
+package com.example.propertymanagement.dto.search;
+
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.model.PropertyType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 保存的搜索
+ */
+public record SavedSearchDto(
+    Long id,
+    String name,
+    Boolean notifyEnabled,
+    Long ownerId,
+    String keyword,
+    PropertyStatus status,
+    PropertyType propertyType,
+    BigDecimal minRent,
+    BigDecimal maxRent,
+    Integer minBedrooms,
+    Integer maxBedrooms,
+    String city,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+}
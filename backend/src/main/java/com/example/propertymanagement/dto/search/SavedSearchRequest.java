@@ -0,0 +1,45 @@
+package com.example.propertymanagement.dto.search;
+
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.model.PropertyType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+/**
+ * 创建或修改保存的搜索，筛选字段与物业列表接口的查询参数相同，均可为空。
+ */
+public record SavedSearchRequest(
+    @NotBlank(message = "名称不能为空")
+    @Size(max = 100, message = "名称不能超过 100 个字符")
+    String name,
+
+    Boolean notifyEnabled,
+
+    Long ownerId,
+
+    @Size(max = 100, message = "关键词不能超过 100 个字符")
+    String keyword,
+
+    PropertyStatus status,
+
+    PropertyType propertyType,
+
+    @PositiveOrZero(message = "租金不能为负数")
+    BigDecimal minRent,
+
+    @PositiveOrZero(message = "租金不能为负数")
+    BigDecimal maxRent,
+
+    @PositiveOrZero(message = "卧室数量不能为负数")
+    Integer minBedrooms,
+
+    @PositiveOrZero(message = "卧室数量不能为负数")
+    Integer maxBedrooms,
+
+    @Size(max = 100, message = "城市不能超过 100 个字符")
+    String city
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.propertymanagement.dto.user;
+
+/**
+ * 用户ID与用户名的投影，用于批量解析业主（如物业导入）。
+ *
+ * @param id       用户ID
+ * @param username 用户名
+ */
+public record UserRef(Long id, String username) {
+}
@@ -0,0 +1,11 @@
+package com.example.propertymanagement.dto.user;
+
+/**
+ * 用户名与角色的投影行（每个角色一行），用于构建用户名联想索引。
+ *
+ * @param id       用户ID
+ * @param username 用户名
+ * @param roleName 角色名，用户没有角色时为 null
+ */
+public record UserRoleRow(Long id, String username, String roleName) {
+}
@@ -0,0 +1,35 @@
+package com.example.propertymanagement.event;
+
+/**
+ * 业务数据变更事件，由各业务服务在写操作后发布。
+ * 监听方通常使用 {@code @TransactionalEventListener} 在事务提交后处理，
+ * 例如失效仪表盘缓存。
+ *
+ * @param entityType 实体类型，取值见本类常量（与通知的 relatedEntityType 保持一致）
+ * @param action     变更动作
+ * @param entityId   实体ID
+ * @param ownerId    受影响的业主ID，可为 null
+ * @param tenantId   受影响的租户ID，可为 null
+ */
+public record EntityChangedEvent(String entityType,
+                                 Action action,
+                                 Long entityId,
+                                 Long ownerId,
+                                 Long tenantId) {
+
+    public static final String PROPERTY = "property";
+    public static final String LEASE = "lease";
+    public static final String PAYMENT = "payment";
+    public static final String MAINTENANCE = "maintenance";
+    public static final String USER = "user";
+    public static final String FILE = "file";
+
+    /**
+     * 变更动作
+     */
+    public enum Action {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
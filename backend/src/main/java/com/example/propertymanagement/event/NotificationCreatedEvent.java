@@ -0,0 +1,10 @@
+package com.example.propertymanagement.event;
+
+/**
+ * 通知创建事件，在创建通知的事务内发布，监听方在事务提交后处理。
+ *
+ * @param notificationId 通知ID
+ * @param recipientId    接收者ID
+ */
+public record NotificationCreatedEvent(Long notificationId, Long recipientId) {
+}
@@ -0,0 +1,14 @@
+package com.example.propertymanagement.event;
+
+import java.math.BigDecimal;
+
+/**
+ * 支付记录事件，在记录支付的事务内发布，监听方在事务提交后处理。
+ *
+ * @param paymentId 支付ID
+ * @param ownerId   收款业主ID
+ * @param tenantId  付款租户ID
+ * @param amount    支付金额
+ */
+public record PaymentRecordedEvent(Long paymentId, Long ownerId, Long tenantId, BigDecimal amount) {
+}
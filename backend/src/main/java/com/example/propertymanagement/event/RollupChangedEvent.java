@@ -0,0 +1,14 @@
+package com.example.propertymanagement.event;
+
+import com.example.propertymanagement.service.DashboardRollupService.RollupKey;
+
+import java.util.Map;
+
+/**
+ * 仪表盘汇总计数变更事件，由 {@link com.example.propertymanagement.service.DashboardRollupService}
+ * 在事务提交后发布，携带该事务合并后的全部非零增量。
+ *
+ * @param deltas 各计数键的增量
+ */
+public record RollupChangedEvent(Map<RollupKey, Long> deltas) {
+}
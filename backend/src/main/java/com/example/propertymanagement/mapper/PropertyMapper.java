@@ -25,6 +25,8 @@ public final class PropertyMapper {
             property.getSquareFootage(),
             property.getStatus(),
             property.getRentAmount(),
+            property.getLatitude(),
+            property.getLongitude(),
             property.getGmtCreate().toInstant(ZoneOffset.UTC)
         );
     }
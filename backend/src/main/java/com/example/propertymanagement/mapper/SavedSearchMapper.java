@@ -0,0 +1,50 @@
+package com.example.propertymanagement.mapper;
+
+import com.example.propertymanagement.dto.property.PropertyFilterRequest;
+import com.example.propertymanagement.dto.search.SavedSearchDto;
+import com.example.propertymanagement.model.SavedSearch;
+
+/**
+ * 保存的搜索实体与 DTO 转换器
+ */
+public class SavedSearchMapper {
+
+    public static SavedSearchDto toDto(SavedSearch search) {
+        if (search == null) {
+            return null;
+        }
+        return new SavedSearchDto(
+            search.getId(),
+            search.getName(),
+            search.getNotifyEnabled(),
+            search.getOwnerId(),
+            search.getKeyword(),
+            search.getStatus(),
+            search.getPropertyType(),
+            search.getMinRent(),
+            search.getMaxRent(),
+            search.getMinBedrooms(),
+            search.getMaxBedrooms(),
+            search.getCity(),
+            search.getGmtCreate(),
+            search.getGmtModified()
+        );
+    }
+
+    /**
+     * 转换为物业列表的筛选条件，用于重新执行保存的搜索
+     */
+    public static PropertyFilterRequest toFilter(SavedSearch search) {
+        return PropertyFilterRequest.builder()
+            .ownerId(search.getOwnerId())
+            .keyword(search.getKeyword())
+            .status(search.getStatus() != null ? search.getStatus().name() : null)
+            .propertyType(search.getPropertyType() != null ? search.getPropertyType().name() : null)
+            .minRent(search.getMinRent() != null ? search.getMinRent().doubleValue() : null)
+            .maxRent(search.getMaxRent() != null ? search.getMaxRent().doubleValue() : null)
+            .minBedrooms(search.getMinBedrooms())
+            .maxBedrooms(search.getMaxBedrooms())
+            .city(search.getCity())
+            .build();
+    }
+}
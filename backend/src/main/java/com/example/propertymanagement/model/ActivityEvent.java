@@ -0,0 +1,87 @@
+package com.example.propertymanagement.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 动态事件表：租约、维修、支付、文件等操作各追加一行，只增不改，
+ * 按自增ID倒序即为时间倒序，供仪表盘动态流做游标分页。
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "activity_event", indexes = {
+    @Index(name = "idx_activity_owner", columnList = "owner_id, id"),
+    @Index(name = "idx_activity_tenant", columnList = "tenant_id, id")
+})
+public class ActivityEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 事件类型（lease, maintenance, payment, file）
+     */
+    @Column(name = "activity_type", nullable = false, length = 32)
+    private String activityType;
+
+    /**
+     * 动作（CREATED, UPDATED, DELETED）
+     */
+    @Column(nullable = false, length = 16)
+    private String action;
+
+    @Column(nullable = false, length = 100)
+    private String title;
+
+    @Column(length = 500)
+    private String description;
+
+    /**
+     * 关联实体ID
+     */
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    /**
+     * 可见该事件的业主ID
+     */
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    /**
+     * 可见该事件的租户ID
+     */
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    /**
+     * 操作人ID
+     */
+    @Column(name = "actor_id")
+    private Long actorId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @CreationTimestamp
+    @Column(name = "gmt_create", updatable = false, nullable = false)
+    private LocalDateTime gmtCreate;
+}
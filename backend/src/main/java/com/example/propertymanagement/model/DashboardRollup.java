@@ -0,0 +1,73 @@
+package com.example.propertymanagement.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 仪表盘汇总计数表：每行保存一个 (范围, 指标, 分桶) 的计数值，
+ * 由业务写操作在同一事务内增量维护，并由夜间对账任务修正偏差。
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "dashboard_rollup",
+    uniqueConstraints = @UniqueConstraint(name = "uk_scope_metric_bucket",
+        columnNames = {"scope_type", "scope_id", "metric", "bucket"}))
+public class DashboardRollup {
+
+    /**
+     * 合计行使用的分桶名称
+     */
+    public static final String TOTAL_BUCKET = "_TOTAL";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope_type", nullable = false, length = 16)
+    private RollupScope scopeType;
+
+    /**
+     * 范围ID：业主/租户用户ID，全局范围为 0
+     */
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private RollupMetric metric;
+
+    @Column(nullable = false, length = 32)
+    private String bucket;
+
+    @Column(name = "counter_value", nullable = false)
+    private Long counterValue;
+
+    @CreationTimestamp
+    @Column(name = "gmt_create", updatable = false, nullable = false)
+    private LocalDateTime gmtCreate;
+
+    @UpdateTimestamp
+    @Column(name = "gmt_modified", nullable = false)
+    private LocalDateTime gmtModified;
+}
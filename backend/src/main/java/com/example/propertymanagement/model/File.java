@@ -102,6 +102,12 @@ public class File {
     @Column(name = "uploaded_at", nullable = false)
     private LocalDateTime uploadedAt;
     
+    /**
+     * 过期时间（可选），过期后由定时任务删除，为空表示长期保存
+     */
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+    
     /**
      * 更新时间
      */
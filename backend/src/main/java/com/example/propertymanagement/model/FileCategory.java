@@ -33,6 +33,12 @@ public enum FileCategory {
      */
     USER_AVATAR("用户头像"),
     
+    /**
+     * 导出文件
+     * 异步导出任务生成的文件，过期后自动删除，只能通过导出任务接口下载
+     */
+    EXPORT("导出文件"),
+    
     /**
      * 其他文件
      * 其他类型的文件
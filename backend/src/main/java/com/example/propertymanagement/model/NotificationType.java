@@ -30,7 +30,12 @@ public enum NotificationType {
      * 系统通知
      */
     SYSTEM_ANNOUNCEMENT("系统公告"),
-    PROPERTY_STATUS_CHANGED("物业状态变更");
+    PROPERTY_STATUS_CHANGED("物业状态变更"),
+
+    /**
+     * 保存的搜索出现新的匹配物业
+     */
+    SAVED_SEARCH_MATCH("搜索条件匹配");
 
     private final String description;
 
@@ -81,6 +81,16 @@ public class Property {
     @Column(name = "rent_amount", precision = 10, scale = 2)
     private BigDecimal rentAmount;
 
+    /**
+     * 纬度（WGS84），未填写时不参与地图与附近搜索
+     */
+    private Double latitude;
+
+    /**
+     * 经度（WGS84）
+     */
+    private Double longitude;
+
     @Column(name = "cover_image_path", length = 255)
     private String coverImagePath;
 
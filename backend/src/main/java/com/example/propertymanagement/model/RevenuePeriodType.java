@@ -0,0 +1,15 @@
+package com.example.propertymanagement.model;
+
+/**
+ * 收入时间序列的存储粒度
+ */
+public enum RevenuePeriodType {
+    /**
+     * 按日汇总，periodStart 为当天
+     */
+    DAY,
+    /**
+     * 按月汇总，periodStart 为当月1日
+     */
+    MONTH
+}
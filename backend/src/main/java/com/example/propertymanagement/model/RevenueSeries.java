@@ -0,0 +1,74 @@
+package com.example.propertymanagement.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 租金收入时间序列：每行保存某业主、某物业在一个日/月周期内的收入合计，
+ * 在记录支付时增量累加，供收支趋势图按时间窗口读取。
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "revenue_series",
+    uniqueConstraints = @UniqueConstraint(name = "uk_owner_property_period",
+        columnNames = {"owner_id", "property_id", "period_type", "period_start"}),
+    indexes = @Index(name = "idx_period_type_start", columnList = "period_type, period_start"))
+public class RevenueSeries {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    /**
+     * 物业ID，支付未关联物业时为 0
+     */
+    @Column(name = "property_id", nullable = false)
+    private Long propertyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period_type", nullable = false, length = 16)
+    private RevenuePeriodType periodType;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "payment_count", nullable = false)
+    private Long paymentCount;
+
+    @CreationTimestamp
+    @Column(name = "gmt_create", updatable = false, nullable = false)
+    private LocalDateTime gmtCreate;
+
+    @UpdateTimestamp
+    @Column(name = "gmt_modified", nullable = false)
+    private LocalDateTime gmtModified;
+}
@@ -0,0 +1,31 @@
+package com.example.propertymanagement.model;
+
+/**
+ * 仪表盘汇总计数指标，bucket 为对应枚举的名称
+ */
+public enum RollupMetric {
+    /**
+     * 物业按状态计数（bucket 为 {@link PropertyStatus}，另含合计行）
+     */
+    PROPERTY_STATUS,
+    /**
+     * 物业按类型计数（bucket 为 {@link PropertyType}）
+     */
+    PROPERTY_TYPE,
+    /**
+     * 租约按状态计数（bucket 为 {@link LeaseStatus}，另含合计行）
+     */
+    LEASE_STATUS,
+    /**
+     * 维修请求按状态计数（bucket 为 {@link MaintenanceStatus}，另含合计行）
+     */
+    MAINTENANCE_STATUS,
+    /**
+     * 用户按角色计数（bucket 为角色名称）
+     */
+    USER_ROLE,
+    /**
+     * 用户总数（仅合计行）
+     */
+    USER_TOTAL
+}
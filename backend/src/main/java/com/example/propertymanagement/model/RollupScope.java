@@ -0,0 +1,19 @@
+package com.example.propertymanagement.model;
+
+/**
+ * 仪表盘汇总计数的统计范围
+ */
+public enum RollupScope {
+    /**
+     * 全局（管理员视角），scopeId 固定为 0
+     */
+    GLOBAL,
+    /**
+     * 业主维度，scopeId 为业主用户ID
+     */
+    OWNER,
+    /**
+     * 租户维度，scopeId 为租户用户ID
+     */
+    TENANT
+}
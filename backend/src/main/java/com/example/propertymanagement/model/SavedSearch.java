@@ -0,0 +1,96 @@
+package com.example.propertymanagement.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 保存的物业搜索：与物业列表相同的筛选条件，开启提醒后，
+ * 有物业新建或变为可租且满足条件时通知保存者。
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@Entity
+@Table(name = "saved_search", indexes = @Index(name = "idx_saved_search_user", columnList = "user_id"))
+public class SavedSearch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 保存者ID
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    /**
+     * 是否在出现新的匹配物业时发送通知
+     */
+    @Column(name = "notify_enabled", nullable = false)
+    @Builder.Default
+    private Boolean notifyEnabled = true;
+
+    // ==================== 筛选条件（含义同 PropertyFilterRequest） ====================
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(length = 100)
+    private String keyword;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private PropertyStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "property_type", length = 20)
+    private PropertyType propertyType;
+
+    @Column(name = "min_rent", precision = 10, scale = 2)
+    private BigDecimal minRent;
+
+    @Column(name = "max_rent", precision = 10, scale = 2)
+    private BigDecimal maxRent;
+
+    @Column(name = "min_bedrooms")
+    private Integer minBedrooms;
+
+    @Column(name = "max_bedrooms")
+    private Integer maxBedrooms;
+
+    @Column(length = 100)
+    private String city;
+
+    @CreationTimestamp
+    @Column(name = "gmt_create", updatable = false, nullable = false)
+    private LocalDateTime gmtCreate;
+
+    @UpdateTimestamp
+    @Column(name = "gmt_modified", nullable = false)
+    private LocalDateTime gmtModified;
+}
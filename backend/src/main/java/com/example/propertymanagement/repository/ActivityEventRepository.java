@@ -0,0 +1,40 @@
+package com.example.propertymanagement.repository;
+
+import com.example.propertymanagement.model.ActivityEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+/**
+ * 动态事件数据访问接口。分页查询均为 {@code id < before ORDER BY id DESC} 的游标形式，
+ * 每页成本与翻页深度无关。
+ */
+public interface ActivityEventRepository extends JpaRepository<ActivityEvent, Long> {
+
+    List<ActivityEvent> findByIdLessThanOrderByIdDesc(Long before, Pageable pageable);
+
+    List<ActivityEvent> findByOwnerIdAndIdLessThanOrderByIdDesc(Long ownerId, Long before, Pageable pageable);
+
+    List<ActivityEvent> findByTenantIdAndIdLessThanOrderByIdDesc(Long tenantId, Long before, Pageable pageable);
+
+    /**
+     * 由已有的租约、维修请求与支付记录回填动态（按发生时间顺序插入，使ID顺序与时间顺序一致）
+     */
+    @Modifying
+    @Query(value = "INSERT INTO activity_event (activity_type, action, title, description, entity_id, owner_id, tenant_id, occurred_at, gmt_create) " +
+                   "SELECT t.activity_type, 'CREATED', t.title, t.description, t.entity_id, t.owner_id, t.tenant_id, t.occurred_at, NOW() FROM (" +
+                   "  SELECT 'lease' AS activity_type, '新租约创建' AS title, CONCAT('物业: ', COALESCE(l.property_address, 'N/A')) AS description, " +
+                   "         l.id AS entity_id, l.owner_id, l.tenant_id, l.gmt_create AS occurred_at FROM lease l " +
+                   "  UNION ALL " +
+                   "  SELECT 'maintenance', '维修请求', LEFT(m.description, 500), m.id, p.owner_id, m.tenant_id, COALESCE(m.reported_at, m.gmt_create) " +
+                   "  FROM maintenance_request m LEFT JOIN property p ON m.property_id = p.id " +
+                   "  UNION ALL " +
+                   "  SELECT 'payment', '收到租金', CONCAT('物业: ', COALESCE(pm.property_address, 'N/A'), '，金额: ', pm.amount), " +
+                   "         pm.id, l2.owner_id, pm.tenant_id, pm.gmt_create FROM payment pm LEFT JOIN lease l2 ON pm.lease_id = l2.id" +
+                   ") t ORDER BY t.occurred_at",
+           nativeQuery = true)
+    int backfillFromHistory();
+}
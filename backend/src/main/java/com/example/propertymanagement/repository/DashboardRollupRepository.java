@@ -0,0 +1,45 @@
+package com.example.propertymanagement.repository;
+
+import com.example.propertymanagement.model.DashboardRollup;
+import com.example.propertymanagement.model.RollupMetric;
+import com.example.propertymanagement.model.RollupScope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 仪表盘汇总计数数据访问接口
+ */
+public interface DashboardRollupRepository extends JpaRepository<DashboardRollup, Long> {
+
+    /**
+     * 按唯一键读取单个计数行
+     */
+    Optional<DashboardRollup> findByScopeTypeAndScopeIdAndMetricAndBucket(RollupScope scopeType,
+                                                                          Long scopeId,
+                                                                          RollupMetric metric,
+                                                                          String bucket);
+
+    /**
+     * 读取某范围下某指标的全部分桶
+     */
+    List<DashboardRollup> findByScopeTypeAndScopeIdAndMetric(RollupScope scopeType, Long scopeId, RollupMetric metric);
+
+    /**
+     * 原子累加计数，行不存在时插入（依赖 uk_scope_metric_bucket 唯一键）
+     */
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_rollup (scope_type, scope_id, metric, bucket, counter_value, gmt_create, gmt_modified) " +
+                   "VALUES (:scopeType, :scopeId, :metric, :bucket, :delta, NOW(), NOW()) " +
+                   "ON DUPLICATE KEY UPDATE counter_value = counter_value + :delta, gmt_modified = NOW()",
+           nativeQuery = true)
+    int increment(@Param("scopeType") String scopeType,
+                  @Param("scopeId") Long scopeId,
+                  @Param("metric") String metric,
+                  @Param("bucket") String bucket,
+                  @Param("delta") long delta);
+}
@@ -5,6 +5,7 @@ import com.example.propertymanagement.model.FileCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -77,4 +78,11 @@ public interface FileRepository extends JpaRepository<File, Long> {
      * @return 文件数量
      */
     long countByCategoryAndEntityId(FileCategory category, Long entityId);
+    
+    /**
+     * 查询已过期的文件
+     * @param time 截止时间
+     * @return 过期时间早于截止时间的文件列表
+     */
+    List<File> findByExpiresAtBefore(LocalDateTime time);
 }
@@ -1,18 +1,21 @@
 package com.example.propertymanagement.repository;
 
+import com.example.propertymanagement.dto.common.VersionStamp;
+import com.example.propertymanagement.dto.dashboard.ScopedGroupCount;
 import com.example.propertymanagement.model.Lease;
 import com.example.propertymanagement.model.LeaseStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
 
-public interface LeaseRepository extends JpaRepository<Lease, Long> {
+public interface LeaseRepository extends JpaRepository<Lease, Long>, JpaSpecificationExecutor<Lease> {
 
     Page<Lease> findAll(Pageable pageable);
 
@@ -34,6 +37,20 @@ public interface LeaseRepository extends JpaRepository<Lease, Long> {
     List<Lease> findTop5ByOwnerIdOrderByIdDesc(Long ownerId);
     
     List<Lease> findTop5ByTenantIdOrderByIdDesc(Long tenantId);
+
+    /**
+     * 按业主、状态分组统计租约数量（汇总计数对账使用）
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.ScopedGroupCount(l.ownerId, l.status, COUNT(l)) " +
+           "FROM Lease l GROUP BY l.ownerId, l.status")
+    List<ScopedGroupCount> countPerOwnerGroupByStatus();
+
+    /**
+     * 按租户、状态分组统计租约数量（汇总计数对账使用）
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.ScopedGroupCount(l.tenantId, l.status, COUNT(l)) " +
+           "FROM Lease l GROUP BY l.tenantId, l.status")
+    List<ScopedGroupCount> countPerTenantGroupByStatus();
     
     /**
      * 搜索租约（支持租户姓名、物业地址关键词搜索）
@@ -45,4 +62,15 @@ public interface LeaseRepository extends JpaRepository<Lease, Long> {
            "LOWER(l.tenantUsername) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(l.propertyAddress) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<Lease> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    // ==================== 版本探针（条件请求 ETag） ====================
+
+    @Query("SELECT new com.example.propertymanagement.dto.common.VersionStamp(MAX(l.gmtModified), COUNT(l)) FROM Lease l")
+    VersionStamp findVersion();
+
+    @Query("SELECT new com.example.propertymanagement.dto.common.VersionStamp(MAX(l.gmtModified), COUNT(l)) FROM Lease l WHERE l.ownerId = :ownerId")
+    VersionStamp findVersionByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT new com.example.propertymanagement.dto.common.VersionStamp(MAX(l.gmtModified), COUNT(l)) FROM Lease l WHERE l.tenantId = :tenantId")
+    VersionStamp findVersionByTenantId(@Param("tenantId") Long tenantId);
 }
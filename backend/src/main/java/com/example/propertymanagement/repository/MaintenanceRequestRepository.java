@@ -1,17 +1,22 @@
 package com.example.propertymanagement.repository;
 
+import com.example.propertymanagement.dto.common.VersionStamp;
+import com.example.propertymanagement.dto.dashboard.GroupCount;
+import com.example.propertymanagement.dto.dashboard.ScopedGroupCount;
 import com.example.propertymanagement.model.MaintenanceRequest;
 import com.example.propertymanagement.model.MaintenanceStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceRequest, Long> {
+public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceRequest, Long>, JpaSpecificationExecutor<MaintenanceRequest> {
 
     Page<MaintenanceRequest> findAllByTenantId(Long tenantId, Pageable pageable);
 
@@ -30,6 +35,58 @@ public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceR
     List<MaintenanceRequest> findByPropertyOwnerId(@Param("ownerId") Long ownerId);
     
     List<MaintenanceRequest> findByTenantId(Long tenantId);
+
+    /**
+     * 按状态分组统计全部维修请求数量
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.GroupCount(m.status, COUNT(m)) " +
+           "FROM MaintenanceRequest m GROUP BY m.status")
+    List<GroupCount> countGroupByStatus();
+
+    /**
+     * 按状态分组统计指定业主名下物业的维修请求数量
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.GroupCount(m.status, COUNT(m)) " +
+           "FROM MaintenanceRequest m WHERE m.propertyId IN (SELECT p.id FROM Property p WHERE p.ownerId = :ownerId) " +
+           "GROUP BY m.status")
+    List<GroupCount> countGroupByStatusAndPropertyOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * 按状态分组统计指定租户提交的维修请求数量
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.GroupCount(m.status, COUNT(m)) " +
+           "FROM MaintenanceRequest m WHERE m.tenantId = :tenantId GROUP BY m.status")
+    List<GroupCount> countGroupByStatusAndTenantId(@Param("tenantId") Long tenantId);
+
+    /**
+     * 按状态分组统计指定物业的维修请求数量
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.GroupCount(m.status, COUNT(m)) " +
+           "FROM MaintenanceRequest m WHERE m.propertyId = :propertyId GROUP BY m.status")
+    List<GroupCount> countGroupByStatusAndPropertyId(@Param("propertyId") Long propertyId);
+
+    /**
+     * 按物业业主、状态分组统计维修请求数量（汇总计数对账使用）
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.ScopedGroupCount(p.ownerId, m.status, COUNT(m)) " +
+           "FROM MaintenanceRequest m, Property p WHERE m.propertyId = p.id GROUP BY p.ownerId, m.status")
+    List<ScopedGroupCount> countPerPropertyOwnerGroupByStatus();
+
+    /**
+     * 按物业业主、状态分组统计指定物业的维修请求数量（批量删除物业时调整计数使用）
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.ScopedGroupCount(p.ownerId, m.status, COUNT(m)) " +
+           "FROM MaintenanceRequest m, Property p WHERE m.propertyId = p.id AND p.id IN :propertyIds " +
+           "GROUP BY p.ownerId, m.status")
+    List<ScopedGroupCount> countPerPropertyOwnerGroupByStatusForProperties(
+        @Param("propertyIds") Collection<Long> propertyIds);
+
+    /**
+     * 按租户、状态分组统计维修请求数量（汇总计数对账使用）
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.ScopedGroupCount(m.tenantId, m.status, COUNT(m)) " +
+           "FROM MaintenanceRequest m GROUP BY m.tenantId, m.status")
+    List<ScopedGroupCount> countPerTenantGroupByStatus();
     
     List<MaintenanceRequest> findTop5ByOrderByIdDesc();
     
@@ -71,4 +128,16 @@ public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceR
     Page<MaintenanceRequest> findAllByPropertyOwnerIdAndStatusAndPropertyId(@Param("ownerId") Long ownerId, @Param("status") MaintenanceStatus status, @Param("propertyId") Long propertyId, Pageable pageable);
     
     Page<MaintenanceRequest> findAllByTenantIdAndStatusAndPropertyId(Long tenantId, MaintenanceStatus status, Long propertyId, Pageable pageable);
+
+    // ==================== 版本探针（条件请求 ETag） ====================
+
+    @Query("SELECT new com.example.propertymanagement.dto.common.VersionStamp(MAX(m.gmtModified), COUNT(m)) FROM MaintenanceRequest m")
+    VersionStamp findVersion();
+
+    @Query("SELECT new com.example.propertymanagement.dto.common.VersionStamp(MAX(m.gmtModified), COUNT(m)) FROM MaintenanceRequest m " +
+           "WHERE m.propertyId IN (SELECT p.id FROM Property p WHERE p.ownerId = :ownerId)")
+    VersionStamp findVersionByPropertyOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT new com.example.propertymanagement.dto.common.VersionStamp(MAX(m.gmtModified), COUNT(m)) FROM MaintenanceRequest m WHERE m.tenantId = :tenantId")
+    VersionStamp findVersionByTenantId(@Param("tenantId") Long tenantId);
 }
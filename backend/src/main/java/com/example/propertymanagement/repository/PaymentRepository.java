@@ -1,16 +1,18 @@
 package com.example.propertymanagement.repository;
 
+import com.example.propertymanagement.dto.common.VersionStamp;
 import com.example.propertymanagement.model.Payment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
 
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, JpaSpecificationExecutor<Payment> {
 
     Page<Payment> findAll(Pageable pageable);
 
@@ -26,4 +28,19 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
     @Query("SELECT p FROM Payment p WHERE p.leaseId IN (SELECT l.id FROM Lease l WHERE l.ownerId = :ownerId) AND p.paymentDate BETWEEN :startDate AND :endDate")
     List<Payment> findByLeasePropertyOwnerIdAndPaymentDateBetween(@Param("ownerId") Long ownerId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // ==================== 版本探针（条件请求 ETag） ====================
+
+    @Query("SELECT new com.example.propertymanagement.dto.common.VersionStamp(MAX(p.gmtModified), COUNT(p)) FROM Payment p")
+    VersionStamp findVersion();
+
+    @Query("SELECT new com.example.propertymanagement.dto.common.VersionStamp(MAX(p.gmtModified), COUNT(p)) FROM Payment p " +
+           "WHERE p.leaseId IN (SELECT l.id FROM Lease l WHERE l.ownerId = :ownerId)")
+    VersionStamp findVersionByLeasePropertyOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT new com.example.propertymanagement.dto.common.VersionStamp(MAX(p.gmtModified), COUNT(p)) FROM Payment p WHERE p.tenantId = :tenantId")
+    VersionStamp findVersionByTenantId(@Param("tenantId") Long tenantId);
+
+    @Query("SELECT new com.example.propertymanagement.dto.common.VersionStamp(MAX(p.gmtModified), COUNT(p)) FROM Payment p WHERE p.leaseId = :leaseId")
+    VersionStamp findVersionByLeaseId(@Param("leaseId") Long leaseId);
 }
@@ -0,0 +1,20 @@
+package com.example.propertymanagement.repository;
+
+import com.example.propertymanagement.model.Property;
+
+import java.util.List;
+
+/**
+ * 物业批量写入（自定义仓库片段）。
+ * <p>
+ * 物业主键为自增列，Hibernate 无法对其批量 INSERT；这里直接使用 JDBC 批处理，
+ * 配合 MySQL 驱动的 {@code rewriteBatchedStatements=true} 合并为多值 INSERT。
+ */
+public interface PropertyBulkRepository {
+
+    /**
+     * 在当前事务中批量插入物业，插入后回填 ID 与创建/修改时间。
+     * 写入绕过持久化上下文，调用方负责同步汇总计数与索引。
+     */
+    void insertAll(List<Property> properties);
+}
@@ -0,0 +1,94 @@
+package com.example.propertymanagement.repository;
+
+import com.example.propertymanagement.model.Property;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * {@link PropertyBulkRepository} 的 JDBC 实现。JdbcTemplate 与 JPA 事务共用同一连接。
+ */
+public class PropertyBulkRepositoryImpl implements PropertyBulkRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO property (owner_id, owner_username, address, city, state, "
+        + "zip_code, property_type, bedrooms, bathrooms, square_footage, status, rent_amount, latitude, longitude, "
+        + "gmt_create, gmt_modified, is_deleted) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PropertyBulkRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<Property> properties) {
+        if (properties.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL,
+                Statement.RETURN_GENERATED_KEYS)) {
+                LocalDateTime now = LocalDateTime.now();
+                for (Property property : properties) {
+                    property.setGmtCreate(now);
+                    property.setGmtModified(now);
+                    if (property.getIsDeleted() == null) {
+                        property.setIsDeleted(0);
+                    }
+                    bind(statement, property);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                int assigned = 0;
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next() && assigned < properties.size()) {
+                        properties.get(assigned++).setId(keys.getLong(1));
+                    }
+                }
+                if (assigned != properties.size()) {
+                    throw new IncorrectResultSizeDataAccessException("批量插入物业返回的主键数量不符",
+                        properties.size(), assigned);
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void bind(PreparedStatement statement, Property property) throws SQLException {
+        statement.setLong(1, property.getOwnerId());
+        setNullable(statement, 2, property.getOwnerUsername(), Types.VARCHAR);
+        statement.setString(3, property.getAddress());
+        setNullable(statement, 4, property.getCity(), Types.VARCHAR);
+        setNullable(statement, 5, property.getState(), Types.VARCHAR);
+        setNullable(statement, 6, property.getZipCode(), Types.VARCHAR);
+        statement.setString(7, property.getPropertyType().name());
+        setNullable(statement, 8, property.getBedrooms(), Types.INTEGER);
+        setNullable(statement, 9, property.getBathrooms(), Types.DECIMAL);
+        setNullable(statement, 10, property.getSquareFootage(), Types.INTEGER);
+        statement.setString(11, property.getStatus().name());
+        setNullable(statement, 12, property.getRentAmount(), Types.DECIMAL);
+        setNullable(statement, 13, property.getLatitude(), Types.DOUBLE);
+        setNullable(statement, 14, property.getLongitude(), Types.DOUBLE);
+        statement.setObject(15, property.getGmtCreate());
+        statement.setObject(16, property.getGmtModified());
+        statement.setInt(17, property.getIsDeleted());
+    }
+
+    private static void setNullable(PreparedStatement statement, int index, Object value, int sqlType)
+        throws SQLException {
+        if (value == null) {
+            statement.setNull(index, sqlType);
+        } else {
+            statement.setObject(index, value);
+        }
+    }
+}
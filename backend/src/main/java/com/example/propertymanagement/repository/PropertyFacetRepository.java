@@ -0,0 +1,35 @@
+package com.example.propertymanagement.repository;
+
+import com.example.propertymanagement.model.Property;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 物业分面统计查询（按动态条件分组计数），由 {@link PropertyRepository} 继承。
+ */
+public interface PropertyFacetRepository {
+
+    /**
+     * 按属性值分组计数，按数量倒序，属性值为 null 的物业不计入。
+     *
+     * @param specification 筛选条件
+     * @param attribute     分组属性
+     * @param limit         最多返回的分组数
+     * @return 属性值到数量的有序映射
+     */
+    Map<Object, Long> countGroupedBy(Specification<Property> specification, String attribute, int limit);
+
+    /**
+     * 统计属性值落在各区间内的数量，一次查询完成。
+     * 区间为 {@code [boundaries[i], boundaries[i+1])}，最后一个区间不设上限；小于第一个边界或为 null 的不计入。
+     *
+     * @param specification 筛选条件
+     * @param attribute     数值属性
+     * @param boundaries    升序排列的区间下界
+     * @return 与 boundaries 一一对应的数量
+     */
+    long[] countInRanges(Specification<Property> specification, String attribute, List<BigDecimal> boundaries);
+}
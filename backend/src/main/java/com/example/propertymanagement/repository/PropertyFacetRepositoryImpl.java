@@ -0,0 +1,86 @@
+package com.example.propertymanagement.repository;
+
+import com.example.propertymanagement.model.Property;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link PropertyFacetRepository} 的 Criteria API 实现：筛选条件与列表查询共用同一个 {@link Specification}。
+ */
+public class PropertyFacetRepositoryImpl implements PropertyFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Map<Object, Long> countGroupedBy(Specification<Property> specification, String attribute, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Property> root = query.from(Property.class);
+        Path<Object> value = root.get(attribute);
+        Expression<Long> count = cb.count(root);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isNotNull(value));
+        Predicate filter = specification.toPredicate(root, query, cb);
+        if (filter != null) {
+            predicates.add(filter);
+        }
+        query.multiselect(value, count)
+            .where(predicates.toArray(Predicate[]::new))
+            .groupBy(value)
+            .orderBy(cb.desc(count));
+
+        Map<Object, Long> result = new LinkedHashMap<>();
+        for (Tuple row : entityManager.createQuery(query).setMaxResults(limit).getResultList()) {
+            result.put(row.get(0), row.get(1, Long.class));
+        }
+        return result;
+    }
+
+    @Override
+    public long[] countInRanges(Specification<Property> specification, String attribute, List<BigDecimal> boundaries) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Property> root = query.from(Property.class);
+        Path<BigDecimal> value = root.get(attribute);
+
+        List<Selection<?>> sums = new ArrayList<>(boundaries.size());
+        for (int i = 0; i < boundaries.size(); i++) {
+            Predicate inRange = cb.greaterThanOrEqualTo(value, boundaries.get(i));
+            if (i + 1 < boundaries.size()) {
+                inRange = cb.and(inRange, cb.lessThan(value, boundaries.get(i + 1)));
+            }
+            sums.add(cb.sum(cb.<Integer>selectCase().when(inRange, 1).otherwise(0)));
+        }
+        query.multiselect(sums);
+        Predicate filter = specification.toPredicate(root, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+
+        Tuple row = entityManager.createQuery(query).getSingleResult();
+        long[] counts = new long[boundaries.size()];
+        for (int i = 0; i < counts.length; i++) {
+            // 没有匹配行时 SUM 为 NULL
+            Number sum = (Number) row.get(i);
+            counts[i] = sum != null ? sum.longValue() : 0L;
+        }
+        return counts;
+    }
+}
@@ -1,15 +1,34 @@
 package com.example.propertymanagement.repository;
 
+import com.example.propertymanagement.dto.common.VersionStamp;
+import com.example.propertymanagement.dto.dashboard.GroupCount;
+import com.example.propertymanagement.dto.dashboard.ScopedGroupCount;
+import com.example.propertymanagement.dto.property.PropertyGeoPoint;
+import com.example.propertymanagement.dto.property.PropertySearchDocument;
+import com.example.propertymanagement.dto.property.PropertyStateRow;
 import com.example.propertymanagement.model.Property;
+import com.example.propertymanagement.model.PropertyStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface PropertyRepository extends JpaRepository<Property, Long> {
+public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property>,
+    PropertyFacetRepository, PropertyBulkRepository {
 
     Page<Property> findAllByOwnerId(Long ownerId, Pageable pageable);
     
@@ -17,6 +36,48 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
     Long countByOwnerId(Long ownerId);
     
     List<Property> findByOwnerId(Long ownerId);
+
+    /**
+     * 按状态分组统计全部物业数量
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.GroupCount(p.status, COUNT(p)) " +
+           "FROM Property p GROUP BY p.status")
+    List<GroupCount> countGroupByStatus();
+
+    /**
+     * 按状态分组统计指定业主的物业数量
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.GroupCount(p.status, COUNT(p)) " +
+           "FROM Property p WHERE p.ownerId = :ownerId GROUP BY p.status")
+    List<GroupCount> countGroupByStatusAndOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * 按类型分组统计全部物业数量
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.GroupCount(p.propertyType, COUNT(p)) " +
+           "FROM Property p GROUP BY p.propertyType")
+    List<GroupCount> countGroupByPropertyType();
+
+    /**
+     * 按类型分组统计指定业主的物业数量
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.GroupCount(p.propertyType, COUNT(p)) " +
+           "FROM Property p WHERE p.ownerId = :ownerId GROUP BY p.propertyType")
+    List<GroupCount> countGroupByPropertyTypeAndOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * 按业主、状态分组统计物业数量（汇总计数对账使用）
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.ScopedGroupCount(p.ownerId, p.status, COUNT(p)) " +
+           "FROM Property p GROUP BY p.ownerId, p.status")
+    List<ScopedGroupCount> countPerOwnerGroupByStatus();
+
+    /**
+     * 按业主、类型分组统计物业数量（汇总计数对账使用）
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.ScopedGroupCount(p.ownerId, p.propertyType, COUNT(p)) " +
+           "FROM Property p GROUP BY p.ownerId, p.propertyType")
+    List<ScopedGroupCount> countPerOwnerGroupByPropertyType();
     
     /**
      * 搜索物业（支持地址、城市、邮编关键词搜索）
@@ -52,27 +113,78 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
      * @param ids 物业ID列表
      */
     void deleteAllByIdIn(List<Long> ids);
+
+    /**
+     * 批量读取物业的归属与状态并加行锁（SELECT ... FOR UPDATE，持有到事务结束），
+     * 批量操作据此判定权限、计算汇总增量，期间其他事务无法修改这些行，增量与随后的 UPDATE/DELETE 一致
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.propertymanagement.dto.property.PropertyStateRow(" +
+           "p.id, p.ownerId, p.status, p.propertyType) FROM Property p WHERE p.id IN :ids")
+    List<PropertyStateRow> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 单条 UPDATE 批量修改状态；ownerId 非空时只修改该业主的物业。
+     * 批量更新不触发 {@code @UpdateTimestamp}，这里显式写入修改时间（ETag 版本依赖该字段）；
+     * 时间由应用传入，与 {@code @UpdateTimestamp} 同样取应用时钟，不受数据库时区影响。
+     *
+     * @return 受影响的行数
+     */
+    @Modifying
+    @Query("UPDATE Property p SET p.status = :status, p.gmtModified = :now " +
+           "WHERE p.id IN :ids AND (:ownerId IS NULL OR p.ownerId = :ownerId)")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("status") PropertyStatus status,
+                           @Param("ownerId") Long ownerId,
+                           @Param("now") LocalDateTime now);
+
+    /**
+     * 单条 DELETE 批量删除；ownerId 非空时只删除该业主的物业。
+     *
+     * @return 受影响的行数
+     */
+    @Modifying
+    @Query("DELETE FROM Property p WHERE p.id IN :ids AND (:ownerId IS NULL OR p.ownerId = :ownerId)")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId);
     
     /**
-     * 高级筛选查询物业
+     * 流式读取全部物业的搜索字段（构建关键词索引使用）。
+     * 投影结果不进入持久化上下文；MySQL 驱动在 fetchSize 为 Integer.MIN_VALUE 时逐行读取，不会一次性载入内存。
+     * 调用方需处于事务中并关闭返回的流。
      */
-    @Query("SELECT p FROM Property p WHERE " +
-           "(:ownerId IS NULL OR p.ownerId = :ownerId) AND " +
-           "(:status IS NULL OR p.status = :status) AND " +
-           "(:propertyType IS NULL OR p.propertyType = :propertyType) AND " +
-           "(:minRent IS NULL OR p.rentAmount >= :minRent) AND " +
-           "(:maxRent IS NULL OR p.rentAmount <= :maxRent) AND " +
-           "(:minBedrooms IS NULL OR p.bedrooms >= :minBedrooms) AND " +
-           "(:maxBedrooms IS NULL OR p.bedrooms <= :maxBedrooms) AND " +
-           "(:city IS NULL OR LOWER(p.city) LIKE LOWER(CONCAT('%', :city, '%')))")
-    Page<Property> findPropertiesWithFilters(
-        @Param("ownerId") Long ownerId,
-        @Param("status") String status,
-        @Param("propertyType") String propertyType,
-        @Param("minRent") Double minRent,
-        @Param("maxRent") Double maxRent,
-        @Param("minBedrooms") Integer minBedrooms,
-        @Param("maxBedrooms") Integer maxBedrooms,
-        @Param("city") String city,
-        Pageable pageable);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.example.propertymanagement.dto.property.PropertySearchDocument(" +
+           "p.id, p.ownerId, p.address, p.city, p.state, p.zipCode) FROM Property p")
+    Stream<PropertySearchDocument> streamSearchDocuments();
+
+    /**
+     * 流式读取已填写坐标的物业（构建地理网格索引使用），要求同 {@link #streamSearchDocuments()}。
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.example.propertymanagement.dto.property.PropertyGeoPoint(" +
+           "p.id, p.ownerId, p.status, p.propertyType, p.latitude, p.longitude) FROM Property p " +
+           "WHERE p.latitude IS NOT NULL AND p.longitude IS NOT NULL")
+    Stream<PropertyGeoPoint> streamGeoPoints();
+
+    /**
+     * 矩形范围内的物业坐标（地理索引未就绪时使用）
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.property.PropertyGeoPoint(" +
+           "p.id, p.ownerId, p.status, p.propertyType, p.latitude, p.longitude) FROM Property p " +
+           "WHERE p.latitude BETWEEN :minLat AND :maxLat AND p.longitude BETWEEN :minLng AND :maxLng")
+    List<PropertyGeoPoint> findGeoPointsWithin(@Param("minLat") double minLat,
+                                               @Param("maxLat") double maxLat,
+                                               @Param("minLng") double minLng,
+                                               @Param("maxLng") double maxLng);
+
+    // ==================== 版本探针（条件请求 ETag） ====================
+
+    @Query("SELECT new com.example.propertymanagement.dto.common.VersionStamp(MAX(p.gmtModified), COUNT(p)) FROM Property p")
+    VersionStamp findVersion();
+
+    @Query("SELECT new com.example.propertymanagement.dto.common.VersionStamp(MAX(p.gmtModified), COUNT(p)) FROM Property p WHERE p.ownerId = :ownerId")
+    VersionStamp findVersionByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT new com.example.propertymanagement.dto.common.VersionStamp(p.gmtModified, 1L) FROM Property p WHERE p.id = :id")
+    Optional<VersionStamp> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,113 @@
+package com.example.propertymanagement.repository;
+
+import com.example.propertymanagement.dto.property.PropertyFilterRequest;
+import com.example.propertymanagement.exception.BadRequestException;
+import com.example.propertymanagement.model.Property;
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.model.PropertyType;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 物业高级筛选条件构建器，替代 {@code (:x IS NULL OR p.x = :x)} 形式的万能查询：
+ * <ul>
+ *   <li>只为实际提供的参数生成谓词，不同的筛选组合得到不同的 SQL，MySQL 可以分别选择索引；</li>
+ *   <li>城市按前缀匹配（{@code city LIKE 'xx%'}），可以使用 {@code idx_city_status} 索引；
+ *       列使用不区分大小写的排序规则，无需 {@code LOWER()}；</li>
+ *   <li>关键词与其他筛选条件同时生效。</li>
+ * </ul>
+ */
+public final class PropertySpecifications {
+
+    private PropertySpecifications() {
+    }
+
+    /**
+     * 按筛选请求组合条件；未提供任何条件时匹配全部物业
+     */
+    public static Specification<Property> matching(PropertyFilterRequest filter) {
+        List<Specification<Property>> specs = new ArrayList<>();
+        if (filter.getOwnerId() != null) {
+            specs.add(ScopeSpecifications.propertiesOwnedBy(filter.getOwnerId()));
+        }
+        if (StringUtils.hasText(filter.getStatus())) {
+            specs.add(ScopeSpecifications.attributeEquals("status", parseStatus(filter.getStatus())));
+        }
+        if (StringUtils.hasText(filter.getPropertyType())) {
+            specs.add(ScopeSpecifications.attributeEquals("propertyType", parseType(filter.getPropertyType())));
+        }
+        if (filter.getMinRent() != null || filter.getMaxRent() != null) {
+            specs.add(rentBetween(filter.getMinRent(), filter.getMaxRent()));
+        }
+        if (filter.getMinBedrooms() != null || filter.getMaxBedrooms() != null) {
+            specs.add(bedroomsBetween(filter.getMinBedrooms(), filter.getMaxBedrooms()));
+        }
+        if (StringUtils.hasText(filter.getCity())) {
+            specs.add(cityStartsWith(filter.getCity().trim()));
+        }
+        if (filter.hasKeyword()) {
+            // 口径与 PropertyRepository#searchByKeyword 一致
+            specs.add(ScopeSpecifications.anyAttributeContains(filter.getKeyword().trim(),
+                "address", "city", "state", "zipCode"));
+        }
+        return Specification.allOf(specs);
+    }
+
+    private static Specification<Property> rentBetween(Double min, Double max) {
+        return (root, query, cb) -> {
+            if (min != null && max != null) {
+                return cb.between(root.get("rentAmount"), BigDecimal.valueOf(min), BigDecimal.valueOf(max));
+            }
+            return min != null
+                ? cb.greaterThanOrEqualTo(root.get("rentAmount"), BigDecimal.valueOf(min))
+                : cb.lessThanOrEqualTo(root.get("rentAmount"), BigDecimal.valueOf(max));
+        };
+    }
+
+    private static Specification<Property> bedroomsBetween(Integer min, Integer max) {
+        return (root, query, cb) -> {
+            if (min != null && max != null) {
+                return cb.between(root.get("bedrooms"), min, max);
+            }
+            return min != null
+                ? cb.greaterThanOrEqualTo(root.get("bedrooms"), min)
+                : cb.lessThanOrEqualTo(root.get("bedrooms"), max);
+        };
+    }
+
+    private static Specification<Property> cityStartsWith(String city) {
+        return (root, query, cb) -> cb.like(root.get("city"), ScopeSpecifications.escapeLike(city) + "%",
+            ScopeSpecifications.LIKE_ESCAPE);
+    }
+
+    /**
+     * 解析物业状态参数（不区分大小写）
+     *
+     * @throws BadRequestException 取值无效时抛出
+     */
+    public static PropertyStatus parseStatus(String status) {
+        try {
+            return PropertyStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("无效的物业状态: " + status);
+        }
+    }
+
+    /**
+     * 解析物业类型参数（不区分大小写）
+     *
+     * @throws BadRequestException 取值无效时抛出
+     */
+    public static PropertyType parseType(String propertyType) {
+        try {
+            return PropertyType.valueOf(propertyType.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("无效的物业类型: " + propertyType);
+        }
+    }
+}
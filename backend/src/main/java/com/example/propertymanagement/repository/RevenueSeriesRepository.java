@@ -0,0 +1,82 @@
+package com.example.propertymanagement.repository;
+
+import com.example.propertymanagement.dto.dashboard.RevenuePoint;
+import com.example.propertymanagement.model.RevenuePeriodType;
+import com.example.propertymanagement.model.RevenueSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 租金收入时间序列数据访问接口
+ */
+public interface RevenueSeriesRepository extends JpaRepository<RevenueSeries, Long> {
+
+    /**
+     * 全部业主在窗口内各周期的收入合计
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.RevenuePoint(r.periodStart, SUM(r.amount)) " +
+           "FROM RevenueSeries r WHERE r.periodType = :periodType AND r.periodStart BETWEEN :from AND :to " +
+           "GROUP BY r.periodStart ORDER BY r.periodStart")
+    List<RevenuePoint> sumByPeriod(@Param("periodType") RevenuePeriodType periodType,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+
+    /**
+     * 指定业主在窗口内各周期的收入合计
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.RevenuePoint(r.periodStart, SUM(r.amount)) " +
+           "FROM RevenueSeries r WHERE r.ownerId = :ownerId AND r.periodType = :periodType " +
+           "AND r.periodStart BETWEEN :from AND :to " +
+           "GROUP BY r.periodStart ORDER BY r.periodStart")
+    List<RevenuePoint> sumByPeriodAndOwnerId(@Param("ownerId") Long ownerId,
+                                             @Param("periodType") RevenuePeriodType periodType,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to);
+
+    /**
+     * 原子累加某周期的收入，行不存在时插入（依赖 uk_owner_property_period 唯一键）
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revenue_series (owner_id, property_id, period_type, period_start, amount, payment_count, gmt_create, gmt_modified) " +
+                   "VALUES (:ownerId, :propertyId, :periodType, :periodStart, :amount, 1, NOW(), NOW()) " +
+                   "ON DUPLICATE KEY UPDATE amount = amount + :amount, payment_count = payment_count + 1, gmt_modified = NOW()",
+           nativeQuery = true)
+    int addPayment(@Param("ownerId") Long ownerId,
+                   @Param("propertyId") Long propertyId,
+                   @Param("periodType") String periodType,
+                   @Param("periodStart") LocalDate periodStart,
+                   @Param("amount") BigDecimal amount);
+
+    /**
+     * 由支付表重建按日序列（业主取租约当前业主，与原趋势查询口径一致）
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revenue_series (owner_id, property_id, period_type, period_start, amount, payment_count, gmt_create, gmt_modified) " +
+                   "SELECT l.owner_id, COALESCE(p.property_id, 0), 'DAY', p.payment_date, SUM(p.amount), COUNT(*), NOW(), NOW() " +
+                   "FROM payment p JOIN lease l ON p.lease_id = l.id " +
+                   "GROUP BY l.owner_id, COALESCE(p.property_id, 0), p.payment_date",
+           nativeQuery = true)
+    int rebuildDaily();
+
+    /**
+     * 由按日序列汇总重建按月序列
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revenue_series (owner_id, property_id, period_type, period_start, amount, payment_count, gmt_create, gmt_modified) " +
+                   "SELECT owner_id, property_id, 'MONTH', DATE_SUB(period_start, INTERVAL DAYOFMONTH(period_start) - 1 DAY), " +
+                   "SUM(amount), SUM(payment_count), NOW(), NOW() " +
+                   "FROM revenue_series WHERE period_type = 'DAY' " +
+                   "GROUP BY owner_id, property_id, DATE_SUB(period_start, INTERVAL DAYOFMONTH(period_start) - 1 DAY)",
+           nativeQuery = true)
+    int rebuildMonthly();
+
+    @Modifying
+    @Query("DELETE FROM RevenueSeries")
+    int deleteAllRows();
+}
@@ -0,0 +1,18 @@
+package com.example.propertymanagement.repository;
+
+import com.example.propertymanagement.model.SavedSearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+
+    List<SavedSearch> findByUserIdOrderByGmtCreateDesc(Long userId);
+
+    long countByUserId(Long userId);
+
+    /**
+     * 开启提醒的保存搜索（构建匹配索引使用）
+     */
+    List<SavedSearch> findByNotifyEnabledTrue();
+}
@@ -0,0 +1,101 @@
+package com.example.propertymanagement.repository;
+
+import com.example.propertymanagement.model.Lease;
+import com.example.propertymanagement.model.MaintenanceRequest;
+import com.example.propertymanagement.model.Payment;
+import com.example.propertymanagement.model.Property;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 列表查询的数据范围与通用筛选条件，与各仓库中按业主、租户分页及关键词搜索的查询方法口径一致，
+ * 供游标分页、无总数分页等需要组合条件的场景使用。
+ */
+public final class ScopeSpecifications {
+
+    public static final char LIKE_ESCAPE = '\\';
+
+    private ScopeSpecifications() {
+    }
+
+    /**
+     * 不限范围（管理员）
+     */
+    public static <T> Specification<T> all() {
+        return (root, query, cb) -> null;
+    }
+
+    /**
+     * 属性等于指定值；值为 null 时不加条件
+     */
+    public static <T> Specification<T> attributeEquals(String attribute, Object value) {
+        return (root, query, cb) -> value == null ? null : cb.equal(root.get(attribute), value);
+    }
+
+    /**
+     * 任一属性包含关键词（不区分大小写），与仓库中 {@code LOWER(x) LIKE LOWER('%kw%')} 的搜索口径一致；
+     * 关键词中的通配符按字面匹配
+     */
+    public static <T> Specification<T> anyAttributeContains(String keyword, String... attributes) {
+        String pattern = "%" + escapeLike(keyword.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.or(Arrays.stream(attributes)
+            .map(attribute -> cb.like(cb.lower(root.get(attribute)), pattern, LIKE_ESCAPE))
+            .toArray(Predicate[]::new));
+    }
+
+    /**
+     * 转义 LIKE 通配符，配合 {@link #LIKE_ESCAPE} 使用
+     */
+    public static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    public static Specification<Property> propertiesOwnedBy(Long ownerId) {
+        return attributeEquals("ownerId", ownerId);
+    }
+
+    public static Specification<Lease> leasesOwnedBy(Long ownerId) {
+        return attributeEquals("ownerId", ownerId);
+    }
+
+    public static Specification<Lease> leasesRentedBy(Long tenantId) {
+        return attributeEquals("tenantId", tenantId);
+    }
+
+    /**
+     * 业主名下租约的支付记录，对应 {@link PaymentRepository#findAllByLeasePropertyOwnerId}
+     */
+    public static Specification<Payment> paymentsOwnedBy(Long ownerId) {
+        return (root, query, cb) -> {
+            Subquery<Long> leaseIds = query.subquery(Long.class);
+            Root<Lease> lease = leaseIds.from(Lease.class);
+            leaseIds.select(lease.get("id")).where(cb.equal(lease.get("ownerId"), ownerId));
+            return root.get("leaseId").in(leaseIds);
+        };
+    }
+
+    public static Specification<Payment> paymentsPaidBy(Long tenantId) {
+        return attributeEquals("tenantId", tenantId);
+    }
+
+    /**
+     * 业主名下物业的维修请求，对应 {@link MaintenanceRequestRepository#findAllByPropertyOwnerId}
+     */
+    public static Specification<MaintenanceRequest> maintenanceOwnedBy(Long ownerId) {
+        return (root, query, cb) -> {
+            Subquery<Long> propertyIds = query.subquery(Long.class);
+            Root<Property> property = propertyIds.from(Property.class);
+            propertyIds.select(property.get("id")).where(cb.equal(property.get("ownerId"), ownerId));
+            return root.get("propertyId").in(propertyIds);
+        };
+    }
+
+    public static Specification<MaintenanceRequest> maintenanceReportedBy(Long tenantId) {
+        return attributeEquals("tenantId", tenantId);
+    }
+}
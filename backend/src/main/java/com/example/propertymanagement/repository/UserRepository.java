@@ -1,8 +1,15 @@
 package com.example.propertymanagement.repository;
 
+import com.example.propertymanagement.dto.dashboard.GroupCount;
+import com.example.propertymanagement.dto.user.UserRef;
+import com.example.propertymanagement.dto.user.UserRoleRow;
 import com.example.propertymanagement.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -14,4 +21,32 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    /**
+     * 按角色分组统计用户数量
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.dashboard.GroupCount(r.name, COUNT(u)) " +
+           "FROM User u JOIN u.roles r GROUP BY r.name")
+    List<GroupCount> countGroupByRoleName();
+
+    /**
+     * 未删除用户的用户名与角色（构建用户名联想索引使用）
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.user.UserRoleRow(u.id, u.username, r.name) " +
+           "FROM User u LEFT JOIN u.roles r WHERE u.isDeleted = 0")
+    List<UserRoleRow> findActiveUserRoles();
+
+    /**
+     * 按ID批量查询未删除用户（物业导入解析业主使用）
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.user.UserRef(u.id, u.username) " +
+           "FROM User u WHERE u.id IN :ids AND u.isDeleted = 0")
+    List<UserRef> findRefsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按用户名批量查询未删除用户（物业导入解析业主使用）
+     */
+    @Query("SELECT new com.example.propertymanagement.dto.user.UserRef(u.id, u.username) " +
+           "FROM User u WHERE u.username IN :usernames AND u.isDeleted = 0")
+    List<UserRef> findRefsByUsernameIn(@Param("usernames") Collection<String> usernames);
 }
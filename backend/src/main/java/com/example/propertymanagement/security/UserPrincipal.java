@@ -1,6 +1,7 @@
 package com.example.propertymanagement.security;
 
 import com.example.propertymanagement.model.Role;
+import com.example.propertymanagement.model.RoleName;
 import com.example.propertymanagement.model.User;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -11,14 +12,23 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * 登录主体。创建时把角色预先编码为位掩码，{@link #isAdmin()} 等角色判断为常数时间，
+ * 不必在每次鉴权时遍历 authority 集合做字符串比较。
+ */
 public class UserPrincipal implements UserDetails {
 
+    private static final int ADMIN = 1;
+    private static final int OWNER = 1 << 1;
+    private static final int TENANT = 1 << 2;
+
     private final Long id;
     private final String username;
     private final String email;
     private final String password;
     private final boolean enabled;
     private final Collection<? extends GrantedAuthority> authorities;
+    private final int roleMask;
 
     private UserPrincipal(Long id,
                           String username,
@@ -32,13 +42,14 @@ public class UserPrincipal implements UserDetails {
         this.password = password;
         this.enabled = enabled;
         this.authorities = authorities;
+        this.roleMask = roleMask(authorities);
     }
 
     public static UserPrincipal from(User user) {
         Set<GrantedAuthority> authorities = user.getRoles().stream()
             .map(Role::getName)
             .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toSet());
+            .collect(Collectors.toUnmodifiableSet());
         return new UserPrincipal(
             user.getId(),
             user.getUsername(),
@@ -57,6 +68,31 @@ public class UserPrincipal implements UserDetails {
         return email;
     }
 
+    public boolean isAdmin() {
+        return (roleMask & ADMIN) != 0;
+    }
+
+    public boolean isOwner() {
+        return (roleMask & OWNER) != 0;
+    }
+
+    public boolean isTenant() {
+        return (roleMask & TENANT) != 0;
+    }
+
+    /**
+     * 判断是否具备指定角色；内置角色走位掩码，其它 authority 退回集合查找。
+     *
+     * @param role 角色名称，如 {@code ROLE_ADMIN}
+     */
+    public boolean hasRole(String role) {
+        int bit = roleBit(role);
+        if (bit != 0) {
+            return (roleMask & bit) != 0;
+        }
+        return authorities.stream().anyMatch(authority -> authority.getAuthority().equals(role));
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -92,6 +128,27 @@ public class UserPrincipal implements UserDetails {
         return enabled;
     }
 
+    private static int roleMask(Collection<? extends GrantedAuthority> authorities) {
+        int mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            mask |= roleBit(authority.getAuthority());
+        }
+        return mask;
+    }
+
+    private static int roleBit(String role) {
+        if (RoleName.ROLE_ADMIN.name().equals(role)) {
+            return ADMIN;
+        }
+        if (RoleName.ROLE_OWNER.name().equals(role)) {
+            return OWNER;
+        }
+        if (RoleName.ROLE_TENANT.name().equals(role)) {
+            return TENANT;
+        }
+        return 0;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
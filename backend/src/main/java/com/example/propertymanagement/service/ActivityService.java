@@ -0,0 +1,195 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.dto.dashboard.ActivityDto;
+import com.example.propertymanagement.dto.dashboard.ActivityFeedResponse;
+import com.example.propertymanagement.event.EntityChangedEvent;
+import com.example.propertymanagement.model.ActivityEvent;
+import com.example.propertymanagement.model.File;
+import com.example.propertymanagement.model.Lease;
+import com.example.propertymanagement.model.MaintenanceRequest;
+import com.example.propertymanagement.model.Property;
+import com.example.propertymanagement.repository.ActivityEventRepository;
+import com.example.propertymanagement.repository.LeaseRepository;
+import com.example.propertymanagement.repository.MaintenanceRequestRepository;
+import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.util.SecurityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 动态流服务：业务操作追加动态事件，仪表盘按角色以游标分页读取。
+ */
+@Service
+public class ActivityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityService.class);
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+
+    private final ActivityEventRepository activityEventRepository;
+    private final PropertyRepository propertyRepository;
+    private final LeaseRepository leaseRepository;
+    private final MaintenanceRequestRepository maintenanceRequestRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ActivityService(ActivityEventRepository activityEventRepository,
+                           PropertyRepository propertyRepository,
+                           LeaseRepository leaseRepository,
+                           MaintenanceRequestRepository maintenanceRequestRepository,
+                           ApplicationEventPublisher eventPublisher) {
+        this.activityEventRepository = activityEventRepository;
+        this.propertyRepository = propertyRepository;
+        this.leaseRepository = leaseRepository;
+        this.maintenanceRequestRepository = maintenanceRequestRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 追加一条动态，随调用方事务一起提交。
+     *
+     * @param type        事件类型，取值同 {@link EntityChangedEvent} 中的实体类型
+     * @param action      动作
+     * @param entityId    关联实体ID
+     * @param ownerId     可见该动态的业主ID，可为 null
+     * @param tenantId    可见该动态的租户ID，可为 null
+     * @param title       标题
+     * @param description 描述
+     */
+    @Transactional
+    public void record(String type, EntityChangedEvent.Action action, Long entityId,
+                       Long ownerId, Long tenantId, String title, String description) {
+        ActivityEvent event = ActivityEvent.builder()
+            .activityType(type)
+            .action(action.name())
+            .entityId(entityId)
+            .ownerId(ownerId)
+            .tenantId(tenantId)
+            .actorId(SecurityUtils.getCurrentUserPrincipal().map(UserPrincipal::getId).orElse(null))
+            .title(title)
+            .description(truncate(description))
+            .occurredAt(LocalDateTime.now())
+            .build();
+        activityEventRepository.save(event);
+    }
+
+    /**
+     * 追加文件动态。可见范围按文件关联的物业、租约或维修请求确定，头像等无关联的文件不记录。
+     */
+    @Transactional
+    public void recordFile(File file, EntityChangedEvent.Action action) {
+        if (file.getEntityId() == null || file.getCategory() == null) {
+            return;
+        }
+        Long ownerId = null;
+        Long tenantId = null;
+        switch (file.getCategory()) {
+            case PROPERTY_IMAGE -> ownerId = propertyRepository.findById(file.getEntityId())
+                .map(Property::getOwnerId)
+                .orElse(null);
+            case LEASE_CONTRACT -> {
+                Lease lease = leaseRepository.findById(file.getEntityId()).orElse(null);
+                if (lease != null) {
+                    ownerId = lease.getOwnerId();
+                    tenantId = lease.getTenantId();
+                }
+            }
+            case MAINTENANCE_IMAGE -> {
+                MaintenanceRequest request = maintenanceRequestRepository.findById(file.getEntityId()).orElse(null);
+                if (request != null) {
+                    tenantId = request.getTenantId();
+                    ownerId = propertyRepository.findById(request.getPropertyId())
+                        .map(Property::getOwnerId)
+                        .orElse(null);
+                }
+            }
+            default -> {
+                return;
+            }
+        }
+        String title = action == EntityChangedEvent.Action.DELETED ? "文件删除" : "文件上传";
+        record(EntityChangedEvent.FILE, action, file.getId(), ownerId, tenantId, title,
+            file.getCategory().getDisplayName() + ": " + file.getOriginalFileName());
+        // 动态流属于仪表盘数据，需同时失效仪表盘缓存与 ETag
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.FILE, action, file.getId(),
+            ownerId, tenantId));
+    }
+
+    /**
+     * 按当前用户角色读取动态流：管理员查看全部，业主与租户查看与自己相关的动态。
+     *
+     * @param principal 当前用户
+     * @param before    游标，仅返回ID小于该值的动态；为空时从最新一条开始
+     * @param size      每页条数
+     * @return 游标分页结果
+     */
+    @Transactional(readOnly = true)
+    public ActivityFeedResponse getFeed(UserPrincipal principal, Long before, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long cursor = before != null ? before : Long.MAX_VALUE;
+        // 多取一条用于判断是否还有下一页
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+
+        List<ActivityEvent> events;
+        if (principal.isAdmin()) {
+            events = activityEventRepository.findByIdLessThanOrderByIdDesc(cursor, limit);
+        } else if (principal.isOwner()) {
+            events = activityEventRepository.findByOwnerIdAndIdLessThanOrderByIdDesc(principal.getId(), cursor, limit);
+        } else {
+            events = activityEventRepository.findByTenantIdAndIdLessThanOrderByIdDesc(principal.getId(), cursor, limit);
+        }
+
+        boolean hasMore = events.size() > pageSize;
+        List<ActivityDto> content = events.stream()
+            .limit(pageSize)
+            .map(ActivityService::toDto)
+            .toList();
+        Long nextBefore = hasMore ? content.get(content.size() - 1).id() : null;
+        return new ActivityFeedResponse(content, nextBefore, hasMore);
+    }
+
+    /**
+     * 动态表为空时由历史租约、维修请求与支付记录回填，保证上线后动态流不为空
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (activityEventRepository.count() == 0) {
+            int inserted = activityEventRepository.backfillFromHistory();
+            if (inserted > 0) {
+                logger.info("动态流回填完成：{} 条", inserted);
+            }
+        }
+    }
+
+    private static ActivityDto toDto(ActivityEvent event) {
+        return new ActivityDto(
+            event.getId(),
+            event.getActivityType(),
+            event.getAction(),
+            event.getTitle(),
+            event.getDescription(),
+            event.getEntityId(),
+            event.getOccurredAt().toLocalDate(),
+            event.getOccurredAt()
+        );
+    }
+
+    private static String truncate(String description) {
+        if (description == null || description.length() <= MAX_DESCRIPTION_LENGTH) {
+            return description;
+        }
+        return description.substring(0, MAX_DESCRIPTION_LENGTH);
+    }
+}
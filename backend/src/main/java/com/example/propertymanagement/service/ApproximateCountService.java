@@ -0,0 +1,47 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.config.ListQueryProperties;
+import com.example.propertymanagement.util.TtlCache;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列表近似总数：按“列表 + 数据范围 + 筛选条件”缓存 COUNT 结果，缓存时间较短，
+ * 翻页时不再重复计数，界面据此显示“约 N 条结果”。
+ * 缓存期内的增删不会反映到总数上，因此只能作为近似值使用。
+ */
+@Service
+public class ApproximateCountService {
+
+    private final TtlCache<CountKey, Long> counts;
+
+    public ApproximateCountService(ListQueryProperties properties) {
+        this.counts = new TtlCache<>(properties.getCountCacheMaxEntries(), properties.getCountTtlSeconds(),
+            TimeUnit.SECONDS);
+    }
+
+    /**
+     * 读取近似总数，缓存未命中时执行一次精确计数
+     *
+     * @param list          列表名称
+     * @param repository    实体仓库
+     * @param specification 与列表查询相同的条件
+     * @param scope         决定结果集的全部参数（用户范围、筛选条件），组成缓存键，允许为 null
+     */
+    public <T> long count(String list, JpaSpecificationExecutor<T> repository, Specification<T> specification,
+                          Object... scope) {
+        return counts.get(new CountKey(list, Arrays.asList(scope)), () -> repository.count(specification));
+    }
+
+    public TtlCache.Stats stats() {
+        return counts.stats();
+    }
+
+    private record CountKey(String list, List<Object> scope) {
+    }
+}
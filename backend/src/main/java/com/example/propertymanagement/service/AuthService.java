@@ -4,6 +4,7 @@ import com.example.propertymanagement.config.JwtProperties;
 import com.example.propertymanagement.dto.auth.AuthResponse;
 import com.example.propertymanagement.dto.auth.LoginRequest;
 import com.example.propertymanagement.dto.auth.RegisterRequest;
+import com.example.propertymanagement.event.EntityChangedEvent;
 import com.example.propertymanagement.exception.BadRequestException;
 import com.example.propertymanagement.exception.UnauthorizedException;
 import com.example.propertymanagement.mapper.UserMapper;
@@ -19,6 +20,7 @@ import com.example.propertymanagement.util.CookieUtils;
 import com.example.propertymanagement.util.SecurityUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -48,6 +50,9 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
     private final JwtProperties jwtProperties;
+    private final DashboardRollupService rollupService;
+    private final SuggestionService suggestionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AuthService(UserRepository userRepository,
                        RoleRepository roleRepository,
@@ -55,7 +60,10 @@ public class AuthService {
                        PasswordEncoder passwordEncoder,
                        AuthenticationManager authenticationManager,
                        JwtTokenProvider jwtTokenProvider,
-                       JwtProperties jwtProperties) {
+                       JwtProperties jwtProperties,
+                       DashboardRollupService rollupService,
+                       SuggestionService suggestionService,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.refreshTokenRepository = refreshTokenRepository;
@@ -63,6 +71,9 @@ public class AuthService {
         this.authenticationManager = authenticationManager;
         this.jwtTokenProvider = jwtTokenProvider;
         this.jwtProperties = jwtProperties;
+        this.rollupService = rollupService;
+        this.suggestionService = suggestionService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -105,6 +116,10 @@ public class AuthService {
             .build();
 
         userRepository.save(user);
+        rollupService.userCreated(user);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.USER,
+            EntityChangedEvent.Action.CREATED, user.getId(), null, null));
+        suggestionService.indexUser(user);
 
         attachTokensToResponse(user.getUsername(), user, httpRequest, httpResponse);
 
@@ -0,0 +1,290 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.dto.export.ExportFormat;
+import com.example.propertymanagement.util.ExportColumn;
+import com.example.propertymanagement.util.ExportQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * CSV / NDJSON 批量抽取：按列投影查询，结果集以只进游标逐行读取并直接序列化到输出流。
+ * <ul>
+ *   <li>查询只选导出列，结果是 Object[] 而非实体，不进入持久化上下文，也不创建中间 DTO 或行列表；</li>
+ *   <li>MySQL 驱动在 fetchSize 为 Integer.MIN_VALUE 时逐行读取，堆内存占用与导出行数无关；</li>
+ *   <li>整个抽取在一个只读事务中完成，数据是同一快照，但数据库连接会占用到传输结束，
+ *       客户端过慢时受 MySQL 的 net_write_timeout 限制；</li>
+ *   <li>数值不带格式、时间为 UTC 的 ISO-8601（与列表接口一致），便于程序解析。</li>
+ * </ul>
+ * Excel 导出仍走 {@link ExcelExportService}。
+ */
+@Slf4j
+@Service
+public class BulkExportService {
+
+    private static final String ID = "id";
+
+    /**
+     * 输出缓冲区大小（字符数）
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public BulkExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * 将查询结果写出为 CSV 或 NDJSON
+     *
+     * @param query  查询描述，数据范围已在请求线程上确定
+     * @param format CSV 或 NDJSON
+     * @param out    输出流，由调用方负责压缩与关闭
+     * @return 写出的数据行数
+     */
+    public long write(ExportQuery<?> query, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rowWriter = switch (format) {
+            case CSV -> new CsvRowWriter(writer, query.columns());
+            case NDJSON -> new NdjsonRowWriter(writer, query.columns());
+            case XLSX -> throw new IllegalArgumentException("Excel 导出请使用 ExcelExportService");
+        };
+        long start = System.nanoTime();
+        rowWriter.writeHeader();
+        Long rows;
+        try {
+            rows = readOnlyTransaction.execute(status -> stream(query, rowWriter));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("批量导出完成: name={}, format={}, rows={}, elapsedMs={}", query.name(), format, rows,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return rows != null ? rows : 0;
+    }
+
+    private <T> long stream(ExportQuery<T> query, RowWriter rowWriter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> criteria = cb.createQuery(Object[].class);
+        Root<T> root = criteria.from(query.entityType());
+        criteria.multiselect(query.columns().stream()
+            .<Selection<?>>map(column -> root.get(column.attribute()))
+            .toList());
+        Predicate predicate = query.scope().toPredicate(root, criteria, cb);
+        if (predicate != null) {
+            criteria.where(predicate);
+        }
+        criteria.orderBy(cb.asc(root.get(ID)));
+
+        long rows = 0;
+        try (Stream<Object[]> results = entityManager.createQuery(criteria)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream()) {
+            Iterator<Object[]> iterator = results.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.writeRow(iterator.next());
+                rows++;
+            }
+        } catch (IOException e) {
+            // 客户端断开等写出失败，结束查询并释放连接
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    /**
+     * 导出值的文本形式：BigDecimal 不用科学计数法，时间转为 UTC 的 ISO-8601，枚举取名称
+     */
+    static String format(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toInstant(ZoneOffset.UTC).toString();
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        return value.toString();
+    }
+
+    /**
+     * 逐行写出，实例在一次导出内复用
+     */
+    interface RowWriter {
+
+        void writeHeader() throws IOException;
+
+        void writeRow(Object[] values) throws IOException;
+    }
+
+    /**
+     * RFC 4180 CSV：含逗号、引号或换行的字段加双引号，内部引号加倍；UTF-8 BOM 便于 Excel 识别编码
+     */
+    static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final List<ExportColumn> columns;
+
+        CsvRowWriter(Writer writer, List<ExportColumn> columns) {
+            this.writer = writer;
+            this.columns = columns;
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writer.write('\uFEFF');
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(columns.get(i).label());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(format(values[i]));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String text) throws IOException {
+            if (!needsQuoting(text)) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < text.length(); i++) {
+                char ch = text.charAt(i);
+                if (ch == '"') {
+                    writer.write('"');
+                }
+                writer.write(ch);
+            }
+            writer.write('"');
+        }
+
+        private static boolean needsQuoting(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                char ch = text.charAt(i);
+                if (ch == ',' || ch == '"' || ch == '\n' || ch == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 每行一个 JSON 对象；字段名预先转义，数值原样输出，其余按字符串转义
+     */
+    static final class NdjsonRowWriter implements RowWriter {
+
+        private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+        private final Writer writer;
+        private final String[] keyPrefixes;
+
+        NdjsonRowWriter(Writer writer, List<ExportColumn> columns) {
+            this.writer = writer;
+            this.keyPrefixes = new String[columns.size()];
+            for (int i = 0; i < columns.size(); i++) {
+                keyPrefixes[i] = (i == 0 ? "{" : ",") + quote(columns.get(i).key()) + ":";
+            }
+        }
+
+        @Override
+        public void writeHeader() {
+            // NDJSON 没有表头，字段名在每行中
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                writer.write(keyPrefixes[i]);
+                Object value = values[i];
+                if (value == null) {
+                    writer.write("null");
+                } else if (value instanceof Number || value instanceof Boolean) {
+                    writer.write(format(value));
+                } else {
+                    writeString(writer, format(value));
+                }
+            }
+            writer.write("}\n");
+        }
+
+        private static String quote(String text) {
+            StringWriter out = new StringWriter();
+            try {
+                writeString(out, text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toString();
+        }
+
+        private static void writeString(Writer writer, String text) throws IOException {
+            writer.write('"');
+            for (int i = 0; i < text.length(); i++) {
+                char ch = text.charAt(i);
+                switch (ch) {
+                    case '"' -> writer.write("\\\"");
+                    case '\\' -> writer.write("\\\\");
+                    case '\n' -> writer.write("\\n");
+                    case '\r' -> writer.write("\\r");
+                    case '\t' -> writer.write("\\t");
+                    default -> {
+                        if (ch < 0x20) {
+                            writer.write("\\u00");
+                            writer.write(HEX[ch >> 4]);
+                            writer.write(HEX[ch & 0xF]);
+                        } else {
+                            writer.write(ch);
+                        }
+                    }
+                }
+            }
+            writer.write('"');
+        }
+    }
+}
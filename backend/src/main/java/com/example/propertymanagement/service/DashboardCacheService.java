@@ -0,0 +1,139 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.config.DashboardProperties;
+import com.example.propertymanagement.event.EntityChangedEvent;
+import com.example.propertymanagement.model.RoleName;
+import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.util.TtlCache;
+import org.springframework.util.DigestUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 仪表盘响应缓存：按 (角色, 用户, 接口) 缓存统计结果，容量与存活时间受配置限制。
+ * 业务数据变更事件（含用户创建、角色变更与文件上传删除）在事务提交后失效相关条目：管理员条目全部失效，
+ * 业主/租户条目仅在事件涉及该用户时失效。
+ * 同时按相同范围维护数据版本号，供仪表盘接口生成 ETag，未变化时直接返回 304。
+ */
+@Service
+public class DashboardCacheService {
+
+    private final DashboardProperties dashboardProperties;
+    private final TtlCache<CacheKey, Object> cache;
+
+    /**
+     * 本实例的随机纪元，重启或多实例之间的版本号互不混淆
+     */
+    private final long epoch = ThreadLocalRandom.current().nextLong();
+    private final AtomicLong adminVersion = new AtomicLong();
+    private final Map<Long, AtomicLong> ownerVersions = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> tenantVersions = new ConcurrentHashMap<>();
+
+    public DashboardCacheService(DashboardProperties dashboardProperties) {
+        this.dashboardProperties = dashboardProperties;
+        this.cache = new TtlCache<>(dashboardProperties.getCacheMaxEntries(),
+            dashboardProperties.getCacheTtlSeconds(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * 读取缓存的接口结果，未命中时调用 loader 计算。
+     *
+     * @param principal 当前用户
+     * @param endpoint  接口标识
+     * @param loader    结果计算逻辑
+     */
+    public <T> T get(UserPrincipal principal, String endpoint, Supplier<T> loader) {
+        return get(principal, endpoint, loader, value -> true);
+    }
+
+    /**
+     * 读取缓存的接口结果，仅当 {@code cacheable} 判定通过时写入缓存。
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(UserPrincipal principal, String endpoint, Supplier<T> loader, Predicate<? super T> cacheable) {
+        if (!dashboardProperties.isCacheEnabled()) {
+            return loader.get();
+        }
+        CacheKey key = new CacheKey(primaryRole(principal), principal.getId(), endpoint);
+        return (T) cache.get(key, loader, value -> cacheable.test((T) value));
+    }
+
+    /**
+     * 生成仪表盘接口的弱 ETag。由当前用户数据范围的版本号、接口标识与时间窗口组成：
+     * 相关数据变更后版本号递增；时间窗口与缓存存活时间一致，
+     * 使未经事件通知的变化（如跨日）最多在一个存活周期后体现。
+     *
+     * @param principal 当前用户
+     * @param endpoint  接口标识（含请求参数）
+     */
+    public String getETag(UserPrincipal principal, String endpoint) {
+        RoleName role = primaryRole(principal);
+        long version = switch (role) {
+            case ROLE_ADMIN -> adminVersion.get();
+            case ROLE_OWNER -> versionOf(ownerVersions, principal.getId());
+            default -> versionOf(tenantVersions, principal.getId());
+        };
+        long window = System.currentTimeMillis() / TimeUnit.SECONDS.toMillis(Math.max(1, dashboardProperties.getCacheTtlSeconds()));
+        String source = epoch + "|" + version + "|" + window + "|" + LocalDate.now() + "|"
+            + role + "|" + principal.getId() + "|" + endpoint;
+        return "W/\"" + DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public TtlCache.Stats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * 业务数据变更后失效相关缓存
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        adminVersion.incrementAndGet();
+        bump(ownerVersions, event.ownerId());
+        bump(tenantVersions, event.tenantId());
+        cache.invalidateIf(key -> key.role() == RoleName.ROLE_ADMIN
+            || (key.role() == RoleName.ROLE_OWNER && Objects.equals(key.userId(), event.ownerId()))
+            || (key.role() == RoleName.ROLE_TENANT && Objects.equals(key.userId(), event.tenantId())));
+    }
+
+    private static long versionOf(Map<Long, AtomicLong> versions, Long userId) {
+        AtomicLong version = versions.get(userId);
+        return version != null ? version.get() : 0L;
+    }
+
+    private static void bump(Map<Long, AtomicLong> versions, Long userId) {
+        if (userId != null) {
+            versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    /**
+     * 取决定仪表盘数据范围的角色：管理员优先，其次业主，其余按租户处理
+     */
+    private RoleName primaryRole(UserPrincipal principal) {
+        if (principal.isAdmin()) {
+            return RoleName.ROLE_ADMIN;
+        }
+        if (principal.isOwner()) {
+            return RoleName.ROLE_OWNER;
+        }
+        return RoleName.ROLE_TENANT;
+    }
+
+    private record CacheKey(RoleName role, Long userId, String endpoint) {
+    }
+}
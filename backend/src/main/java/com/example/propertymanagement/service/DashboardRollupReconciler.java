@@ -0,0 +1,171 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.dto.dashboard.GroupCount;
+import com.example.propertymanagement.dto.dashboard.ScopedGroupCount;
+import com.example.propertymanagement.model.DashboardRollup;
+import com.example.propertymanagement.model.RollupMetric;
+import com.example.propertymanagement.model.RollupScope;
+import com.example.propertymanagement.repository.DashboardRollupRepository;
+import com.example.propertymanagement.repository.LeaseRepository;
+import com.example.propertymanagement.repository.MaintenanceRequestRepository;
+import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.repository.UserRepository;
+import com.example.propertymanagement.service.DashboardRollupService.RollupKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 仪表盘汇总计数对账任务
+ * 启动时与每天凌晨3点半用 GROUP BY 重新统计业务表，修正 {@code dashboard_rollup} 中的偏差
+ * （如直接改库、初始化数据或历史数据导致的计数不一致）。
+ */
+@Service
+public class DashboardRollupReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardRollupReconciler.class);
+
+    private static final Long GLOBAL = DashboardRollupService.GLOBAL_SCOPE_ID;
+
+    private final DashboardRollupRepository rollupRepository;
+    private final PropertyRepository propertyRepository;
+    private final LeaseRepository leaseRepository;
+    private final MaintenanceRequestRepository maintenanceRequestRepository;
+    private final UserRepository userRepository;
+
+    public DashboardRollupReconciler(DashboardRollupRepository rollupRepository,
+                                     PropertyRepository propertyRepository,
+                                     LeaseRepository leaseRepository,
+                                     MaintenanceRequestRepository maintenanceRequestRepository,
+                                     UserRepository userRepository) {
+        this.rollupRepository = rollupRepository;
+        this.propertyRepository = propertyRepository;
+        this.leaseRepository = leaseRepository;
+        this.maintenanceRequestRepository = maintenanceRequestRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * 应用启动完成后对账一次，保证首次部署或离线改库后计数可用
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * 每天凌晨3点半对账
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void reconcileNightly() {
+        reconcile();
+    }
+
+    /**
+     * 期望值与记录值读自同一个一致性快照（可重复读事务内的普通查询），修正量 = 期望值 - 记录值，
+     * 通过与增量维护相同的原子累加写入；快照之后其他事务提交的增量不会被覆盖，缺失的行也由累加语句插入，
+     * 不会与并发插入在唯一键上冲突。
+     */
+    private void reconcile() {
+        logger.info("开始对账仪表盘汇总计数");
+
+        Map<RollupKey, Long> expected = computeExpected();
+        Map<RollupKey, Long> corrections = new TreeMap<>(RollupKey.ORDER);
+        int corrected = 0;
+        int missing = 0;
+
+        for (DashboardRollup row : rollupRepository.findAll()) {
+            RollupKey key = RollupKey.of(row);
+            long value = expected.getOrDefault(key, 0L);
+            expected.remove(key);
+            long recorded = row.getCounterValue() != null ? row.getCounterValue() : 0L;
+            if (row.getCounterValue() == null || recorded != value) {
+                logger.warn("汇总计数偏差 {}: 记录值={}, 实际值={}", key, row.getCounterValue(), value);
+                corrections.put(key, value - recorded);
+                corrected++;
+            }
+        }
+        for (Map.Entry<RollupKey, Long> entry : expected.entrySet()) {
+            corrections.put(entry.getKey(), entry.getValue());
+            missing++;
+        }
+
+        // 按键顺序写入，与增量维护的加锁顺序一致，避免死锁
+        corrections.forEach((key, delta) -> rollupRepository.increment(
+            key.scope().name(), key.scopeId(), key.metric().name(), key.bucket(), delta));
+
+        logger.info("仪表盘汇总计数对账完成：修正 {} 行，补齐 {} 行", corrected, missing);
+    }
+
+    /**
+     * 依据业务表计算全部计数的期望值，口径与 {@link DashboardRollupService} 的增量维护一致
+     */
+    private Map<RollupKey, Long> computeExpected() {
+        Map<RollupKey, Long> expected = new HashMap<>();
+
+        for (ScopedGroupCount count : propertyRepository.countPerOwnerGroupByStatus()) {
+            addWithTotal(expected, RollupScope.GLOBAL, GLOBAL, RollupMetric.PROPERTY_STATUS, count.key(), count.count());
+            addWithTotal(expected, RollupScope.OWNER, count.scopeId(), RollupMetric.PROPERTY_STATUS, count.key(), count.count());
+        }
+        for (ScopedGroupCount count : propertyRepository.countPerOwnerGroupByPropertyType()) {
+            add(expected, RollupScope.GLOBAL, GLOBAL, RollupMetric.PROPERTY_TYPE, bucketOf(count.key()), count.count());
+            add(expected, RollupScope.OWNER, count.scopeId(), RollupMetric.PROPERTY_TYPE, bucketOf(count.key()), count.count());
+        }
+
+        for (ScopedGroupCount count : leaseRepository.countPerOwnerGroupByStatus()) {
+            addWithTotal(expected, RollupScope.GLOBAL, GLOBAL, RollupMetric.LEASE_STATUS, count.key(), count.count());
+            addWithTotal(expected, RollupScope.OWNER, count.scopeId(), RollupMetric.LEASE_STATUS, count.key(), count.count());
+        }
+        for (ScopedGroupCount count : leaseRepository.countPerTenantGroupByStatus()) {
+            addWithTotal(expected, RollupScope.TENANT, count.scopeId(), RollupMetric.LEASE_STATUS, count.key(), count.count());
+        }
+
+        // 每条维修请求都有租户，全局计数按租户维度汇总；业主维度只统计物业仍存在的请求
+        for (ScopedGroupCount count : maintenanceRequestRepository.countPerTenantGroupByStatus()) {
+            addWithTotal(expected, RollupScope.GLOBAL, GLOBAL, RollupMetric.MAINTENANCE_STATUS, count.key(), count.count());
+            addWithTotal(expected, RollupScope.TENANT, count.scopeId(), RollupMetric.MAINTENANCE_STATUS, count.key(), count.count());
+        }
+        for (ScopedGroupCount count : maintenanceRequestRepository.countPerPropertyOwnerGroupByStatus()) {
+            addWithTotal(expected, RollupScope.OWNER, count.scopeId(), RollupMetric.MAINTENANCE_STATUS, count.key(), count.count());
+        }
+
+        for (GroupCount count : userRepository.countGroupByRoleName()) {
+            add(expected, RollupScope.GLOBAL, GLOBAL, RollupMetric.USER_ROLE, bucketOf(count.key()), count.count());
+        }
+        add(expected, RollupScope.GLOBAL, GLOBAL, RollupMetric.USER_TOTAL, DashboardRollup.TOTAL_BUCKET, userRepository.count());
+
+        return expected;
+    }
+
+    private void addWithTotal(Map<RollupKey, Long> expected, RollupScope scope, Long scopeId,
+                              RollupMetric metric, Object key, long count) {
+        add(expected, scope, scopeId, metric, bucketOf(key), count);
+        add(expected, scope, scopeId, metric, DashboardRollup.TOTAL_BUCKET, count);
+    }
+
+    private void add(Map<RollupKey, Long> expected, RollupScope scope, Long scopeId,
+                     RollupMetric metric, String bucket, long count) {
+        if (scopeId == null) {
+            return;
+        }
+        expected.merge(new RollupKey(scope, scopeId, metric, bucket), count, Long::sum);
+    }
+
+    private String bucketOf(Object key) {
+        if (key == null) {
+            return "UNKNOWN";
+        }
+        return key instanceof Enum<?> e ? e.name() : key.toString();
+    }
+}
@@ -0,0 +1,395 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.dto.dashboard.GroupCount;
+import com.example.propertymanagement.dto.dashboard.ScopedGroupCount;
+import com.example.propertymanagement.event.RollupChangedEvent;
+import com.example.propertymanagement.model.DashboardRollup;
+import com.example.propertymanagement.model.Lease;
+import com.example.propertymanagement.model.LeaseStatus;
+import com.example.propertymanagement.model.MaintenanceStatus;
+import com.example.propertymanagement.model.Property;
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.model.PropertyType;
+import com.example.propertymanagement.model.Role;
+import com.example.propertymanagement.model.RollupMetric;
+import com.example.propertymanagement.model.RollupScope;
+import com.example.propertymanagement.model.User;
+import com.example.propertymanagement.repository.DashboardRollupRepository;
+import com.example.propertymanagement.repository.MaintenanceRequestRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 仪表盘汇总计数服务：
+ * <ul>
+ *   <li>写入侧：业务服务在各自事务内登记计数变化，本服务合并同一事务内的增量，
+ *       并在提交前按固定顺序批量 upsert 到 {@code dashboard_rollup}，与业务数据同成败；</li>
+ *   <li>读取侧：按 (范围, 指标, 分桶) 唯一键直接读取计数，替代对业务表的实时 COUNT。</li>
+ * </ul>
+ * 计数偏差由 {@link DashboardRollupReconciler} 夜间对账修复。
+ * 事务提交后发布 {@link RollupChangedEvent}，供实时推送使用。
+ */
+@Service
+public class DashboardRollupService {
+
+    /**
+     * 全局范围使用的 scopeId
+     */
+    public static final long GLOBAL_SCOPE_ID = 0L;
+
+    private static final Object BUFFER_RESOURCE_KEY = new Object();
+
+    private final DashboardRollupRepository rollupRepository;
+    private final MaintenanceRequestRepository maintenanceRequestRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DashboardRollupService(DashboardRollupRepository rollupRepository,
+                                  MaintenanceRequestRepository maintenanceRequestRepository,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.rollupRepository = rollupRepository;
+        this.maintenanceRequestRepository = maintenanceRequestRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // ==================== 读取 ====================
+
+    /**
+     * 读取单个分桶的计数，不存在时返回 0。
+     */
+    @Transactional(readOnly = true)
+    public long getCount(RollupScope scope, Long scopeId, RollupMetric metric, String bucket) {
+        return rollupRepository.findByScopeTypeAndScopeIdAndMetricAndBucket(scope, scopeId, metric, bucket)
+            .map(DashboardRollup::getCounterValue)
+            .orElse(0L);
+    }
+
+    /**
+     * 读取某指标的合计行。
+     */
+    @Transactional(readOnly = true)
+    public long getTotal(RollupScope scope, Long scopeId, RollupMetric metric) {
+        return getCount(scope, scopeId, metric, DashboardRollup.TOTAL_BUCKET);
+    }
+
+    /**
+     * 读取某指标的分桶分布（不含合计行与零值分桶）。
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> getDistribution(RollupScope scope, Long scopeId, RollupMetric metric) {
+        return rollupRepository.findByScopeTypeAndScopeIdAndMetric(scope, scopeId, metric).stream()
+            .filter(row -> !DashboardRollup.TOTAL_BUCKET.equals(row.getBucket()))
+            .filter(row -> row.getCounterValue() > 0)
+            .collect(Collectors.toMap(DashboardRollup::getBucket, DashboardRollup::getCounterValue, Long::sum, HashMap::new));
+    }
+
+    // ==================== 物业 ====================
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void propertyCreated(Property property) {
+        applyProperty(PropertyState.of(property), 1);
+    }
+
+    /**
+     * 登记物业删除。该物业的维修请求不再归属原业主，同步扣减业主范围的维修计数。
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void propertyDeleted(Property property) {
+        applyProperty(PropertyState.of(property), -1);
+        moveMaintenanceOwner(property.getId(), property.getOwnerId(), null);
+    }
+
+    /**
+     * 登记一批物业的删除，需在删除语句执行前调用：这些物业下的维修请求计数用一条分组查询从原业主范围扣减。
+     *
+     * @param states      被删除物业的快照
+     * @param propertyIds 被删除物业的ID
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void propertiesDeleted(Collection<PropertyState> states, Collection<Long> propertyIds) {
+        if (propertyIds.isEmpty()) {
+            return;
+        }
+        states.forEach(state -> applyProperty(state, -1));
+        for (ScopedGroupCount count
+            : maintenanceRequestRepository.countPerPropertyOwnerGroupByStatusForProperties(propertyIds)) {
+            String bucket = count.key() != null ? count.key().toString() : "UNKNOWN";
+            adjustWithTotal(RollupScope.OWNER, count.scopeId(), RollupMetric.MAINTENANCE_STATUS, bucket,
+                -count.count());
+        }
+    }
+
+    /**
+     * 登记物业的业主/状态/类型变化。
+     *
+     * @param before   修改前快照
+     * @param property 修改后的物业
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void propertyChanged(PropertyState before, Property property) {
+        PropertyState after = PropertyState.of(property);
+        if (before.equals(after)) {
+            return;
+        }
+        applyPropertyChange(before, after);
+        if (!Objects.equals(before.ownerId(), after.ownerId())) {
+            moveMaintenanceOwner(property.getId(), before.ownerId(), after.ownerId());
+        }
+    }
+
+    /**
+     * 登记业主不变的物业状态/类型变化（批量改状态使用，无需构造实体）。
+     *
+     * @param before 修改前快照
+     * @param after  修改后快照
+     * @throws IllegalArgumentException 业主不同时抛出；业主变更需迁移维修计数，应使用
+     *                                  {@link #propertyChanged(PropertyState, Property)}
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void propertyChanged(PropertyState before, PropertyState after) {
+        if (!Objects.equals(before.ownerId(), after.ownerId())) {
+            throw new IllegalArgumentException("Owner changes must be registered with the property entity");
+        }
+        if (!before.equals(after)) {
+            applyPropertyChange(before, after);
+        }
+    }
+
+    // ==================== 租约 ====================
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void leaseCreated(Lease lease) {
+        applyLease(LeaseState.of(lease), 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void leaseDeleted(Lease lease) {
+        applyLease(LeaseState.of(lease), -1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void leaseChanged(LeaseState before, Lease lease) {
+        LeaseState after = LeaseState.of(lease);
+        if (before.equals(after)) {
+            return;
+        }
+        applyLease(before, -1);
+        applyLease(after, 1);
+    }
+
+    // ==================== 维修请求 ====================
+
+    /**
+     * 登记新维修请求。
+     *
+     * @param ownerId  物业业主ID，物业不存在时为 null
+     * @param tenantId 提交租户ID
+     * @param status   初始状态
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void maintenanceCreated(Long ownerId, Long tenantId, MaintenanceStatus status) {
+        applyMaintenance(ownerId, tenantId, status, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void maintenanceStatusChanged(Long ownerId, Long tenantId, MaintenanceStatus from, MaintenanceStatus to) {
+        if (from == to) {
+            return;
+        }
+        applyMaintenance(ownerId, tenantId, from, -1);
+        applyMaintenance(ownerId, tenantId, to, 1);
+    }
+
+    // ==================== 用户 ====================
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userCreated(User user) {
+        adjust(RollupScope.GLOBAL, GLOBAL_SCOPE_ID, RollupMetric.USER_TOTAL, DashboardRollup.TOTAL_BUCKET, 1);
+        for (String roleName : roleNames(user)) {
+            adjust(RollupScope.GLOBAL, GLOBAL_SCOPE_ID, RollupMetric.USER_ROLE, roleName, 1);
+        }
+    }
+
+    /**
+     * 登记用户角色变化。
+     *
+     * @param before 修改前的角色名称集合
+     * @param user   修改后的用户
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userRolesChanged(Set<String> before, User user) {
+        Set<String> after = roleNames(user);
+        for (String roleName : before) {
+            if (!after.contains(roleName)) {
+                adjust(RollupScope.GLOBAL, GLOBAL_SCOPE_ID, RollupMetric.USER_ROLE, roleName, -1);
+            }
+        }
+        for (String roleName : after) {
+            if (!before.contains(roleName)) {
+                adjust(RollupScope.GLOBAL, GLOBAL_SCOPE_ID, RollupMetric.USER_ROLE, roleName, 1);
+            }
+        }
+    }
+
+    /**
+     * 提取用户的角色名称集合，供调用方在修改前留存快照。
+     */
+    public static Set<String> roleNames(User user) {
+        return user.getRoles().stream().map(Role::getName).collect(Collectors.toSet());
+    }
+
+    // ==================== 内部实现 ====================
+
+    private void applyPropertyChange(PropertyState before, PropertyState after) {
+        applyProperty(before, -1);
+        applyProperty(after, 1);
+    }
+
+    private void applyProperty(PropertyState state, long delta) {
+        String status = bucketOf(state.status());
+        String type = bucketOf(state.type());
+        adjustWithTotal(RollupScope.GLOBAL, GLOBAL_SCOPE_ID, RollupMetric.PROPERTY_STATUS, status, delta);
+        adjust(RollupScope.GLOBAL, GLOBAL_SCOPE_ID, RollupMetric.PROPERTY_TYPE, type, delta);
+        adjustWithTotal(RollupScope.OWNER, state.ownerId(), RollupMetric.PROPERTY_STATUS, status, delta);
+        adjust(RollupScope.OWNER, state.ownerId(), RollupMetric.PROPERTY_TYPE, type, delta);
+    }
+
+    private void applyLease(LeaseState state, long delta) {
+        String status = bucketOf(state.status());
+        adjustWithTotal(RollupScope.GLOBAL, GLOBAL_SCOPE_ID, RollupMetric.LEASE_STATUS, status, delta);
+        adjustWithTotal(RollupScope.OWNER, state.ownerId(), RollupMetric.LEASE_STATUS, status, delta);
+        adjustWithTotal(RollupScope.TENANT, state.tenantId(), RollupMetric.LEASE_STATUS, status, delta);
+    }
+
+    private void applyMaintenance(Long ownerId, Long tenantId, MaintenanceStatus status, long delta) {
+        String bucket = bucketOf(status);
+        adjustWithTotal(RollupScope.GLOBAL, GLOBAL_SCOPE_ID, RollupMetric.MAINTENANCE_STATUS, bucket, delta);
+        adjustWithTotal(RollupScope.OWNER, ownerId, RollupMetric.MAINTENANCE_STATUS, bucket, delta);
+        adjustWithTotal(RollupScope.TENANT, tenantId, RollupMetric.MAINTENANCE_STATUS, bucket, delta);
+    }
+
+    /**
+     * 把某物业下的维修请求计数从一个业主范围转移到另一个（任一方为 null 时仅做单边调整）。
+     */
+    private void moveMaintenanceOwner(Long propertyId, Long fromOwnerId, Long toOwnerId) {
+        for (GroupCount count : maintenanceRequestRepository.countGroupByStatusAndPropertyId(propertyId)) {
+            String bucket = count.key() != null ? count.key().toString() : "UNKNOWN";
+            adjustWithTotal(RollupScope.OWNER, fromOwnerId, RollupMetric.MAINTENANCE_STATUS, bucket, -count.count());
+            adjustWithTotal(RollupScope.OWNER, toOwnerId, RollupMetric.MAINTENANCE_STATUS, bucket, count.count());
+        }
+    }
+
+    private void adjustWithTotal(RollupScope scope, Long scopeId, RollupMetric metric, String bucket, long delta) {
+        adjust(scope, scopeId, metric, bucket, delta);
+        adjust(scope, scopeId, metric, DashboardRollup.TOTAL_BUCKET, delta);
+    }
+
+    /**
+     * 将增量记入当前事务的缓冲区；首次登记时注册事务同步，在提交前统一写库，提交后发布变更事件。
+     */
+    @SuppressWarnings("unchecked")
+    private void adjust(RollupScope scope, Long scopeId, RollupMetric metric, String bucket, long delta) {
+        if (delta == 0 || scopeId == null) {
+            return;
+        }
+        Map<RollupKey, Long> buffer =
+            (Map<RollupKey, Long>) TransactionSynchronizationManager.getResource(BUFFER_RESOURCE_KEY);
+        if (buffer == null) {
+            Map<RollupKey, Long> pending = new TreeMap<>(RollupKey.ORDER);
+            TransactionSynchronizationManager.bindResource(BUFFER_RESOURCE_KEY, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    writeDeltas(pending);
+                }
+
+                @Override
+                public void afterCommit() {
+                    publishDeltas(pending);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BUFFER_RESOURCE_KEY);
+                }
+            });
+            buffer = pending;
+        }
+        buffer.merge(new RollupKey(scope, scopeId, metric, bucket), delta, Long::sum);
+    }
+
+    /**
+     * 按键顺序写入合并后的增量，固定顺序可避免并发事务在唯一键上互相死锁。
+     */
+    private void writeDeltas(Map<RollupKey, Long> pending) {
+        pending.forEach((key, delta) -> {
+            if (delta != 0) {
+                rollupRepository.increment(key.scope().name(), key.scopeId(), key.metric().name(), key.bucket(), delta);
+            }
+        });
+    }
+
+    private void publishDeltas(Map<RollupKey, Long> pending) {
+        Map<RollupKey, Long> deltas = new HashMap<>();
+        pending.forEach((key, delta) -> {
+            if (delta != 0) {
+                deltas.put(key, delta);
+            }
+        });
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(new RollupChangedEvent(Map.copyOf(deltas)));
+        }
+    }
+
+    private static String bucketOf(Enum<?> value) {
+        return value != null ? value.name() : "UNKNOWN";
+    }
+
+    /**
+     * 汇总计数的唯一键
+     */
+    public record RollupKey(RollupScope scope, Long scopeId, RollupMetric metric, String bucket) {
+
+        static final Comparator<RollupKey> ORDER = Comparator
+            .comparing(RollupKey::scope)
+            .thenComparing(RollupKey::scopeId)
+            .thenComparing(RollupKey::metric)
+            .thenComparing(RollupKey::bucket);
+
+        public static RollupKey of(DashboardRollup row) {
+            return new RollupKey(row.getScopeType(), row.getScopeId(), row.getMetric(), row.getBucket());
+        }
+    }
+
+    /**
+     * 影响计数的物业字段快照
+     */
+    public record PropertyState(Long ownerId, PropertyStatus status, PropertyType type) {
+
+        public static PropertyState of(Property property) {
+            return new PropertyState(property.getOwnerId(), property.getStatus(), property.getPropertyType());
+        }
+    }
+
+    /**
+     * 影响计数的租约字段快照
+     */
+    public record LeaseState(Long ownerId, Long tenantId, LeaseStatus status) {
+
+        public static LeaseState of(Lease lease) {
+            return new LeaseState(lease.getOwnerId(), lease.getTenantId(), lease.getStatus());
+        }
+    }
+}
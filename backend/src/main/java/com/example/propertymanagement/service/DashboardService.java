@@ -0,0 +1,262 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.dto.dashboard.ActivityDto;
+import com.example.propertymanagement.dto.dashboard.ActivityFeedResponse;
+import com.example.propertymanagement.dto.dashboard.TrendGranularity;
+import com.example.propertymanagement.model.Lease;
+import com.example.propertymanagement.model.LeaseStatus;
+import com.example.propertymanagement.model.MaintenanceStatus;
+import com.example.propertymanagement.model.RollupMetric;
+import com.example.propertymanagement.model.RollupScope;
+import com.example.propertymanagement.repository.LeaseRepository;
+import com.example.propertymanagement.security.UserPrincipal;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 仪表盘统计服务：按角色限定数据范围，提供各图表的统计数据，
+ * 并支持将全部查询并发执行后合并为一次汇总响应。
+ */
+@Service
+public class DashboardService {
+
+    private final LeaseRepository leaseRepository;
+    private final RevenueSeriesService revenueSeriesService;
+    private final DashboardRollupService rollupService;
+    private final ActivityService activityService;
+    private final QueryFanOutExecutor queryExecutor;
+
+    public DashboardService(LeaseRepository leaseRepository,
+                            RevenueSeriesService revenueSeriesService,
+                            DashboardRollupService rollupService,
+                            ActivityService activityService,
+                            QueryFanOutExecutor queryExecutor) {
+        this.leaseRepository = leaseRepository;
+        this.revenueSeriesService = revenueSeriesService;
+        this.rollupService = rollupService;
+        this.activityService = activityService;
+        this.queryExecutor = queryExecutor;
+    }
+
+    /**
+     * 汇总仪表盘数据：概览中的各项计数与当前角色可见的各图表查询并发执行，
+     * 单个查询超时或失败时对应字段缺省，并在 {@code failedQueries} 中列出。
+     *
+     * @param principal 当前用户
+     * @return 汇总结果，包含 overview、各图表数据、partial 与 failedQueries
+     */
+    public Map<String, Object> getSummary(UserPrincipal principal) {
+        Map<String, CompletableFuture<Optional<Object>>> overviewFutures = submitAll(overviewQueries(principal));
+        Map<String, CompletableFuture<Optional<Object>>> sectionFutures = submitAll(sectionQueries(principal));
+
+        List<CompletableFuture<Optional<Object>>> all = new ArrayList<>(overviewFutures.values());
+        all.addAll(sectionFutures.values());
+        CompletableFuture.allOf(all.toArray(new CompletableFuture[0])).join();
+
+        List<String> failedQueries = new ArrayList<>();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("overview", collect(overviewFutures, "overview.", failedQueries));
+        summary.putAll(collect(sectionFutures, "", failedQueries));
+        summary.put("partial", !failedQueries.isEmpty());
+        summary.put("failedQueries", failedQueries);
+        return summary;
+    }
+
+    /**
+     * 获取基本统计概览
+     */
+    public Map<String, Object> getOverview(UserPrincipal principal) {
+        Map<String, Object> overview = new HashMap<>();
+        overviewQueries(principal).forEach((name, query) -> overview.put(name, query.get()));
+        return overview;
+    }
+
+    /**
+     * 物业状态分布统计
+     */
+    public Map<String, Long> getPropertyStatusDistribution(UserPrincipal principal) {
+        return principal.isAdmin()
+            ? rollupService.getDistribution(RollupScope.GLOBAL, DashboardRollupService.GLOBAL_SCOPE_ID, RollupMetric.PROPERTY_STATUS)
+            : rollupService.getDistribution(RollupScope.OWNER, principal.getId(), RollupMetric.PROPERTY_STATUS);
+    }
+
+    /**
+     * 物业类型分布统计
+     */
+    public Map<String, Long> getPropertyTypeDistribution(UserPrincipal principal) {
+        return principal.isAdmin()
+            ? rollupService.getDistribution(RollupScope.GLOBAL, DashboardRollupService.GLOBAL_SCOPE_ID, RollupMetric.PROPERTY_TYPE)
+            : rollupService.getDistribution(RollupScope.OWNER, principal.getId(), RollupMetric.PROPERTY_TYPE);
+    }
+
+    /**
+     * 维修请求状态分布统计
+     */
+    public Map<String, Long> getMaintenanceStatusDistribution(UserPrincipal principal) {
+        if (principal.isAdmin()) {
+            return rollupService.getDistribution(RollupScope.GLOBAL, DashboardRollupService.GLOBAL_SCOPE_ID, RollupMetric.MAINTENANCE_STATUS);
+        } else if (principal.isOwner()) {
+            return rollupService.getDistribution(RollupScope.OWNER, principal.getId(), RollupMetric.MAINTENANCE_STATUS);
+        }
+        return rollupService.getDistribution(RollupScope.TENANT, principal.getId(), RollupMetric.MAINTENANCE_STATUS);
+    }
+
+    /**
+     * 月度收支趋势（近6个月）
+     */
+    public Map<String, Object> getPaymentTrend(UserPrincipal principal) {
+        return getPaymentTrend(principal, TrendGranularity.MONTH, null, null);
+    }
+
+    /**
+     * 收支趋势，支持日/周/月粒度与任意时间窗口，数据读取自收入时间序列
+     */
+    public Map<String, Object> getPaymentTrend(UserPrincipal principal, TrendGranularity granularity,
+                                               LocalDate from, LocalDate to) {
+        Long ownerId = principal.isAdmin() ? null : principal.getId();
+        return revenueSeriesService.getTrend(ownerId, granularity, from, to);
+    }
+
+    /**
+     * 租约到期统计（未来3个月）
+     */
+    public Map<String, Object> getLeaseExpiring(UserPrincipal principal) {
+        LocalDate today = LocalDate.now();
+        LocalDate threeMonthsLater = today.plusMonths(3);
+
+        List<Lease> leases;
+        if (principal.isAdmin()) {
+            leases = leaseRepository.findByEndDateBetweenAndStatus(today, threeMonthsLater, LeaseStatus.ACTIVE);
+        } else {
+            leases = leaseRepository.findByOwnerIdAndEndDateBetweenAndStatus(
+                principal.getId(), today, threeMonthsLater, LeaseStatus.ACTIVE);
+        }
+
+        // 按月份分组
+        Map<YearMonth, Long> expiringByMonth = new TreeMap<>();
+        for (int i = 0; i < 3; i++) {
+            expiringByMonth.put(YearMonth.from(today.plusMonths(i)), 0L);
+        }
+
+        for (Lease lease : leases) {
+            YearMonth month = YearMonth.from(lease.getEndDate());
+            expiringByMonth.merge(month, 1L, Long::sum);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("months", expiringByMonth.keySet().stream()
+            .map(ym -> ym.getYear() + "-" + String.format("%02d", ym.getMonthValue()))
+            .collect(Collectors.toList()));
+        result.put("counts", expiringByMonth.values());
+        return result;
+    }
+
+    /**
+     * 近期活动记录（最新10条），读取自动态流的第一页
+     */
+    public List<Map<String, Object>> getRecentActivities(UserPrincipal principal) {
+        List<Map<String, Object>> activities = new ArrayList<>();
+        for (ActivityDto activity : activityService.getFeed(principal, null, 10).content()) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("type", activity.type());
+            item.put("title", activity.title());
+            item.put("description", activity.description());
+            item.put("date", activity.date());
+            activities.add(item);
+        }
+        return activities;
+    }
+
+    /**
+     * 动态流游标分页
+     *
+     * @param before 游标，仅返回ID小于该值的动态
+     * @param size   每页条数
+     */
+    public ActivityFeedResponse getActivities(UserPrincipal principal, Long before, int size) {
+        return activityService.getFeed(principal, before, size);
+    }
+
+    /**
+     * 概览中的各项计数查询，键为返回字段名。所有数字均来自汇总计数表的单行读取。
+     */
+    private Map<String, Supplier<Object>> overviewQueries(UserPrincipal principal) {
+        Map<String, Supplier<Object>> queries = new LinkedHashMap<>();
+        Long userId = principal.getId();
+
+        if (principal.isAdmin()) {
+            // 管理员看所有数据
+            Long scopeId = DashboardRollupService.GLOBAL_SCOPE_ID;
+            queries.put("totalProperties", () -> rollupService.getTotal(RollupScope.GLOBAL, scopeId, RollupMetric.PROPERTY_STATUS));
+            queries.put("totalLeases", () -> rollupService.getTotal(RollupScope.GLOBAL, scopeId, RollupMetric.LEASE_STATUS));
+            queries.put("totalUsers", () -> rollupService.getTotal(RollupScope.GLOBAL, scopeId, RollupMetric.USER_TOTAL));
+            queries.put("pendingMaintenances", () -> rollupService.getCount(RollupScope.GLOBAL, scopeId,
+                RollupMetric.MAINTENANCE_STATUS, MaintenanceStatus.PENDING.name()));
+        } else if (principal.isOwner()) {
+            // 业主看自己的物业相关数据
+            queries.put("totalProperties", () -> rollupService.getTotal(RollupScope.OWNER, userId, RollupMetric.PROPERTY_STATUS));
+            queries.put("totalLeases", () -> rollupService.getTotal(RollupScope.OWNER, userId, RollupMetric.LEASE_STATUS));
+            queries.put("pendingMaintenances", () -> rollupService.getCount(RollupScope.OWNER, userId,
+                RollupMetric.MAINTENANCE_STATUS, MaintenanceStatus.PENDING.name()));
+        } else {
+            // 租户看自己相关数据
+            queries.put("totalLeases", () -> rollupService.getTotal(RollupScope.TENANT, userId, RollupMetric.LEASE_STATUS));
+            queries.put("pendingMaintenances", () -> rollupService.getTotal(RollupScope.TENANT, userId, RollupMetric.MAINTENANCE_STATUS));
+        }
+        return queries;
+    }
+
+    /**
+     * 当前角色可见的图表查询，键为汇总结果中的字段名，与各独立接口的权限保持一致。
+     */
+    private Map<String, Supplier<Object>> sectionQueries(UserPrincipal principal) {
+        Map<String, Supplier<Object>> queries = new LinkedHashMap<>();
+        boolean canViewPortfolio = principal.isAdmin() || principal.isOwner();
+
+        if (canViewPortfolio) {
+            queries.put("propertyStatus", () -> getPropertyStatusDistribution(principal));
+            queries.put("propertyType", () -> getPropertyTypeDistribution(principal));
+        }
+        queries.put("maintenanceStatus", () -> getMaintenanceStatusDistribution(principal));
+        if (canViewPortfolio) {
+            queries.put("paymentTrend", () -> getPaymentTrend(principal));
+            queries.put("leaseExpiring", () -> getLeaseExpiring(principal));
+        }
+        queries.put("recentActivities", () -> getRecentActivities(principal));
+        return queries;
+    }
+
+    /**
+     * 将查询逐个提交到并发执行器，每个查询单独计时。
+     */
+    private Map<String, CompletableFuture<Optional<Object>>> submitAll(Map<String, Supplier<Object>> queries) {
+        Map<String, CompletableFuture<Optional<Object>>> futures = new LinkedHashMap<>();
+        queries.forEach((name, query) -> futures.put(name, queryExecutor.submit("dashboard." + name, query)));
+        return futures;
+    }
+
+    /**
+     * 收集已完成的查询结果，失败的查询记入 failedQueries（带前缀）。
+     */
+    private Map<String, Object> collect(Map<String, CompletableFuture<Optional<Object>>> futures,
+                                        String prefix,
+                                        List<String> failedQueries) {
+        Map<String, Object> results = new LinkedHashMap<>();
+        futures.forEach((name, future) -> future.join().ifPresentOrElse(
+            value -> results.put(name, value),
+            () -> failedQueries.add(prefix + name)));
+        return results;
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.config.DashboardProperties;
+import com.example.propertymanagement.dto.dashboard.CounterDelta;
+import com.example.propertymanagement.event.NotificationCreatedEvent;
+import com.example.propertymanagement.event.PaymentRecordedEvent;
+import com.example.propertymanagement.event.RollupChangedEvent;
+import com.example.propertymanagement.model.DashboardRollup;
+import com.example.propertymanagement.model.MaintenanceStatus;
+import com.example.propertymanagement.model.RoleName;
+import com.example.propertymanagement.model.RollupMetric;
+import com.example.propertymanagement.model.RollupScope;
+import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.service.DashboardRollupService.RollupKey;
+import com.example.propertymanagement.util.DropOldestQueue;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 仪表盘实时推送服务（Server-Sent Events），替代前端对统计接口与未读通知数的轮询。
+ * <ul>
+ *   <li>汇总计数、支付与通知事件在事务提交后转换为 {@link CounterDelta}，按订阅者的数据范围分发：
+ *       管理员接收全局计数，业主接收自己名下的计数，租户接收与自己相关的计数；</li>
+ *   <li>每个订阅者持有一个无锁的丢弃最旧队列，事件线程只负责入队，由发送线程异步写出，
+ *       慢连接不会阻塞业务线程，也不会无限堆积；</li>
+ *   <li>发生丢弃时，下一条推送携带丢弃条数，客户端据此重新拉取汇总数据；</li>
+ *   <li>定时发送心跳注释，及时发现并清理已断开的连接。</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class DashboardStreamService {
+
+    private static final String EVENT_NAME = "counters";
+
+    private final DashboardProperties dashboardProperties;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender;
+
+    public DashboardStreamService(DashboardProperties dashboardProperties) {
+        this.dashboardProperties = dashboardProperties;
+        AtomicInteger counter = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(dashboardProperties.getStreamSendThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-stream-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 建立推送连接
+     *
+     * @param principal 当前用户
+     * @return SSE 连接，断开或超时后自动注销
+     */
+    public SseEmitter subscribe(UserPrincipal principal) {
+        SseEmitter emitter = createEmitter(dashboardProperties.getStreamTimeoutMillis());
+        Subscriber subscriber = new Subscriber(principal.getId(), primaryRole(principal), emitter,
+            createQueue(dashboardProperties.getStreamQueueCapacity()));
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        try {
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            subscribers.remove(subscriber);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * 创建 SSE 连接，测试中可覆盖以截获写出的内容
+     */
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * 创建订阅者的推送队列，测试中可覆盖以放大发送线程与入队之间的竞争窗口
+     */
+    DropOldestQueue<CounterDelta> createQueue(int capacity) {
+        return new DropOldestQueue<>(capacity);
+    }
+
+    /**
+     * 当前在线订阅者数量
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * 汇总计数变更：按订阅者的数据范围筛选增量后分发（事件本身已在事务提交后发布）
+     */
+    @EventListener
+    public void onRollupChanged(RollupChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Subscriber subscriber : subscribers) {
+            Map<RollupKey, Long> visible = new HashMap<>();
+            event.deltas().forEach((key, delta) -> {
+                if (key.scope() == subscriber.scope() && Objects.equals(key.scopeId(), subscriber.scopeId())) {
+                    visible.put(key, delta);
+                }
+            });
+            if (!visible.isEmpty()) {
+                enqueue(subscriber, toCounterDelta(subscriber.role(), visible, now));
+            }
+        }
+    }
+
+    /**
+     * 支付记录：推送给管理员与收款业主
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentRecorded(PaymentRecordedEvent event) {
+        CounterDelta delta = new CounterDelta(Map.of(), Map.of(), event.amount(), 0, 0, LocalDateTime.now());
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.role() == RoleName.ROLE_ADMIN
+                || (subscriber.role() == RoleName.ROLE_OWNER && Objects.equals(subscriber.userId(), event.ownerId()))) {
+                enqueue(subscriber, delta);
+            }
+        }
+    }
+
+    /**
+     * 新通知：推送给接收者，替代未读通知数轮询
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        CounterDelta delta = new CounterDelta(Map.of(), Map.of(), null, 1, 0, LocalDateTime.now());
+        for (Subscriber subscriber : subscribers) {
+            if (Objects.equals(subscriber.userId(), event.recipientId())) {
+                enqueue(subscriber, delta);
+            }
+        }
+    }
+
+    /**
+     * 心跳：保持连接活跃，写入失败的连接随即注销
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.stream-heartbeat-millis:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter().send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                disconnect(subscriber, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        subscribers.clear();
+    }
+
+    /**
+     * 入队并确保有且仅有一个发送任务在处理该订阅者
+     */
+    private void enqueue(Subscriber subscriber, CounterDelta delta) {
+        int discarded = subscriber.queue().offer(delta);
+        if (discarded > 0) {
+            log.debug("用户 {} 的推送队列已满，丢弃 {} 条旧增量", subscriber.userId(), discarded);
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.draining().compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining().set(false);
+        }
+    }
+
+    /**
+     * 依次写出队列中的增量；释放发送标记后再检查一次队列，避免与并发入队之间丢失唤醒
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            CounterDelta delta;
+            while ((delta = subscriber.queue().poll()) != null) {
+                long dropped = subscriber.queue().takeDropped();
+                subscriber.emitter().send(SseEmitter.event()
+                    .name(EVENT_NAME)
+                    .data(dropped > 0 ? delta.withDropped(dropped) : delta, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            disconnect(subscriber, e);
+            return;
+        } finally {
+            subscriber.draining().set(false);
+        }
+        if (!subscriber.queue().isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void disconnect(Subscriber subscriber, Exception cause) {
+        if (subscribers.remove(subscriber)) {
+            log.debug("用户 {} 的推送连接已断开: {}", subscriber.userId(), cause.toString());
+            subscriber.emitter().completeWithError(cause);
+        }
+    }
+
+    /**
+     * 将某订阅者可见的计数增量转换为推送内容，概览字段口径与 {@link DashboardService#getOverview} 一致
+     */
+    private CounterDelta toCounterDelta(RoleName role, Map<RollupKey, Long> deltas, LocalDateTime occurredAt) {
+        Map<String, Long> overview = new HashMap<>();
+        Map<String, Map<String, Long>> distributions = new HashMap<>();
+
+        deltas.forEach((key, delta) -> {
+            boolean total = DashboardRollup.TOTAL_BUCKET.equals(key.bucket());
+            if (!total) {
+                distributions.computeIfAbsent(distributionName(key.metric()), name -> new HashMap<>())
+                    .merge(key.bucket(), delta, Long::sum);
+            }
+
+            String overviewField = switch (key.metric()) {
+                case PROPERTY_STATUS -> total && role != RoleName.ROLE_TENANT ? "totalProperties" : null;
+                case LEASE_STATUS -> total ? "totalLeases" : null;
+                case USER_TOTAL -> total && role == RoleName.ROLE_ADMIN ? "totalUsers" : null;
+                case MAINTENANCE_STATUS -> role == RoleName.ROLE_TENANT
+                    ? (total ? "pendingMaintenances" : null)
+                    : (MaintenanceStatus.PENDING.name().equals(key.bucket()) ? "pendingMaintenances" : null);
+                default -> null;
+            };
+            if (overviewField != null) {
+                overview.merge(overviewField, delta, Long::sum);
+            }
+        });
+
+        return new CounterDelta(overview, Collections.unmodifiableMap(distributions), null, 0, 0, occurredAt);
+    }
+
+    private static String distributionName(RollupMetric metric) {
+        return switch (metric) {
+            case PROPERTY_STATUS -> "propertyStatus";
+            case PROPERTY_TYPE -> "propertyType";
+            case LEASE_STATUS -> "leaseStatus";
+            case MAINTENANCE_STATUS -> "maintenanceStatus";
+            case USER_ROLE -> "userRole";
+            case USER_TOTAL -> "userTotal";
+        };
+    }
+
+    /**
+     * 取决定数据范围的角色：管理员优先，其次业主，其余按租户处理
+     */
+    private static RoleName primaryRole(UserPrincipal principal) {
+        if (principal.isAdmin()) {
+            return RoleName.ROLE_ADMIN;
+        }
+        if (principal.isOwner()) {
+            return RoleName.ROLE_OWNER;
+        }
+        return RoleName.ROLE_TENANT;
+    }
+
+    /**
+     * 订阅者：按对象身份比较，同一用户的多个连接各自独立
+     */
+    private static final class Subscriber {
+
+        private final Long userId;
+        private final RoleName role;
+        private final SseEmitter emitter;
+        private final DropOldestQueue<CounterDelta> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long userId, RoleName role, SseEmitter emitter, DropOldestQueue<CounterDelta> queue) {
+            this.userId = userId;
+            this.role = role;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        Long userId() {
+            return userId;
+        }
+
+        RoleName role() {
+            return role;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        DropOldestQueue<CounterDelta> queue() {
+            return queue;
+        }
+
+        AtomicBoolean draining() {
+            return draining;
+        }
+
+        RollupScope scope() {
+            return switch (role) {
+                case ROLE_ADMIN -> RollupScope.GLOBAL;
+                case ROLE_OWNER -> RollupScope.OWNER;
+                default -> RollupScope.TENANT;
+            };
+        }
+
+        Long scopeId() {
+            return role == RoleName.ROLE_ADMIN ? DashboardRollupService.GLOBAL_SCOPE_ID : userId;
+        }
+    }
+}
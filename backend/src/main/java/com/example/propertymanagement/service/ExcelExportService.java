@@ -1,19 +1,33 @@
 package com.example.propertymanagement.service;
 
+import com.example.propertymanagement.util.ColumnWidthEstimator;
+import com.example.propertymanagement.util.ExportSheet;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Excel 导出服务
- * 提供通用的 Excel 文件生成功能
+ * 提供通用的 Excel 文件生成功能，大数据量导出使用 {@link #writeExcel(List, OutputStream)} 流式写出，
+ * 多张大表可用 {@link #writeExcelConcurrently(List, Supplier, Executor, OutputStream)} 并发读取
  */
 @Service
 public class ExcelExportService {
@@ -21,6 +35,36 @@ public class ExcelExportService {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    /**
+     * 流式写出时内存中保留的行数，超出的行刷到临时文件
+     */
+    public static final int ROW_ACCESS_WINDOW = 100;
+
+    /**
+     * 列的最小宽度（1/256 字符宽）
+     */
+    private static final int MIN_COLUMN_WIDTH = 3000;
+
+    /**
+     * 表头字体（12 号加粗）相对正文字体（11 号）的宽度比例
+     */
+    private static final double HEADER_WIDTH_SCALE = 1.2;
+
+    /**
+     * 并发写出时读取线程每攒够多少行交给写入线程一次，减少线程间交接的开销
+     */
+    private static final int PIPE_CHUNK_ROWS = 500;
+
+    /**
+     * 并发写出时读取线程与写入线程之间最多缓存的批数
+     */
+    private static final int PIPE_CAPACITY = 8;
+
+    /**
+     * 读取线程等待队列空位时检查写入端是否已放弃的间隔（毫秒）
+     */
+    private static final long PIPE_POLL_MILLIS = 200;
+
     /**
      * 生成 Excel 文件
      *
@@ -30,16 +74,128 @@ public class ExcelExportService {
      * @return Excel 文件的字节数组
      */
     public byte[] generateExcel(String sheetName, List<String> headers, List<List<Object>> dataRows) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeExcel(List.of(ExportSheet.of(sheetName, headers, dataRows)), out);
+        return out.toByteArray();
+    }
 
-            Sheet sheet = workbook.createSheet(sheetName);
+    /**
+     * 流式生成 Excel 并写入输出流：使用 SXSSF，内存中只保留最近 {@link #ROW_ACCESS_WINDOW} 行，
+     * 其余行写入压缩的临时文件，堆内存占用与导出行数无关；数据行边从来源读取边写出。
+     *
+     * @param sheets 工作表，按顺序生成
+     * @param out    输出流（不会被关闭）
+     */
+    public void writeExcel(List<ExportSheet> sheets, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            CellStyle headerStyle = createHeaderStyle(workbook);
+            CellStyle dataStyle = createDataStyle(workbook);
+            for (ExportSheet exportSheet : sheets) {
+                writeSheet(workbook, exportSheet, headerStyle, dataStyle);
+            }
+            workbook.write(out);
+            out.flush();
+        } finally {
+            // 删除临时文件
+            workbook.dispose();
+            workbook.close();
+        }
+    }
 
-            // 创建表头样式
+    private void writeSheet(SXSSFWorkbook workbook, ExportSheet exportSheet,
+                            CellStyle headerStyle, CellStyle dataStyle) {
+        SheetWriter writer = new SheetWriter(workbook, exportSheet, headerStyle, dataStyle);
+        exportSheet.rows().forEach(writer::writeRow);
+        writer.finish();
+    }
+
+    /**
+     * 并发读取多张工作表的数据并写入同一个工作簿：每张表的数据行在 executor 的一个线程上读取，
+     * 经有界队列交给调用线程按到达顺序写入各自的工作表（SXSSF 每张表独立刷盘，交错写入不影响内存占用）。
+     * <ul>
+     *   <li>读取线程各自使用独立的只读事务（由数据来源决定），工作簿只在调用线程上操作；</li>
+     *   <li>数据行按批交接，队列满时读取线程等待写入，堆内存占用与导出行数无关；</li>
+     *   <li>任一工作表读取失败或写出失败时，其余读取线程在下一次交付行时停止。</li>
+     * </ul>
+     *
+     * @param sheets   数据工作表，按顺序排列
+     * @param summary  全部数据读取完成后生成的汇总表，放在工作簿第一张，可为 null
+     * @param executor 读取数据的线程池
+     * @param out      输出流（不会被关闭）
+     * @throws RejectedExecutionException 线程池已满时抛出，此时尚未写出任何内容
+     */
+    public void writeExcelConcurrently(List<ExportSheet> sheets, Supplier<ExportSheet> summary,
+                                       Executor executor, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        RowPipe pipe = new RowPipe(PIPE_CAPACITY);
+        try {
             CellStyle headerStyle = createHeaderStyle(workbook);
-            
-            // 创建数据样式
             CellStyle dataStyle = createDataStyle(workbook);
+            List<SheetWriter> writers = new ArrayList<>(sheets.size());
+            for (ExportSheet exportSheet : sheets) {
+                writers.add(new SheetWriter(workbook, exportSheet, headerStyle, dataStyle));
+            }
+            for (int i = 0; i < sheets.size(); i++) {
+                int index = i;
+                executor.execute(() -> pipe.produce(index, sheets.get(index).rows()));
+            }
+            int remaining = sheets.size();
+            while (remaining > 0) {
+                PipedChunk piped = pipe.take();
+                if (piped.error() != null) {
+                    throw new IllegalStateException("工作表「" + sheets.get(piped.sheet()).name() + "」读取失败",
+                        piped.error());
+                }
+                SheetWriter writer = writers.get(piped.sheet());
+                piped.rows().forEach(writer::writeRow);
+                if (piped.last()) {
+                    remaining--;
+                }
+            }
+            writers.forEach(SheetWriter::finish);
+
+            if (summary != null) {
+                ExportSheet summarySheet = summary.get();
+                SheetWriter writer = new SheetWriter(workbook, summarySheet, headerStyle, dataStyle);
+                summarySheet.rows().forEach(writer::writeRow);
+                writer.finish();
+                workbook.setSheetOrder(summarySheet.name(), 0);
+                for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+                    workbook.getSheetAt(i).setSelected(i == 0);
+                }
+                workbook.setActiveSheet(0);
+            }
+            workbook.write(out);
+            out.flush();
+        } finally {
+            pipe.close();
+            // 删除临时文件
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    /**
+     * 向一张工作表逐行写入：创建时写表头，写入过程中估算列宽，结束时设置列宽
+     */
+    private final class SheetWriter {
+
+        private final SXSSFSheet sheet;
+        private final CellStyle dataStyle;
+        private final int columns;
+        // 已刷出的行无法再读取，列宽在写入过程中按字符数估算
+        private final ColumnWidthEstimator widths;
+        private int rowNum = 1;
+
+        SheetWriter(SXSSFWorkbook workbook, ExportSheet exportSheet, CellStyle headerStyle, CellStyle dataStyle) {
+            this.sheet = workbook.createSheet(exportSheet.name());
+            this.dataStyle = dataStyle;
+            List<String> headers = exportSheet.headers();
+            this.columns = headers.size();
+            this.widths = new ColumnWidthEstimator(columns);
 
             // 创建表头行
             Row headerRow = sheet.createRow(0);
@@ -47,29 +203,99 @@ public class ExcelExportService {
                 Cell cell = headerRow.createCell(i);
                 cell.setCellValue(headers.get(i));
                 cell.setCellStyle(headerStyle);
+                widths.accept(i, headers.get(i), HEADER_WIDTH_SCALE);
+            }
+        }
+
+        void writeRow(List<Object> dataRow) {
+            Row row = sheet.createRow(rowNum++);
+            for (int i = 0; i < dataRow.size(); i++) {
+                Cell cell = row.createCell(i);
+                widths.accept(i, setCellValue(cell, dataRow.get(i)));
+                cell.setCellStyle(dataStyle);
+            }
+        }
+
+        void finish() {
+            // 按估算结果设置列宽（不小于最小宽度）
+            for (int i = 0; i < columns; i++) {
+                sheet.setColumnWidth(i, widths.width(i, MIN_COLUMN_WIDTH));
             }
+        }
+    }
+
+    /**
+     * 读取线程交给写入线程的一批数据行；last 表示该表已读取完毕，error 不为 null 表示读取失败
+     */
+    private record PipedChunk(int sheet, List<List<Object>> rows, boolean last, Throwable error) {
+    }
+
+    /**
+     * 读取线程与写入线程之间的有界队列；写入端关闭后，读取线程在下一次交付时停止读取
+     */
+    private static final class RowPipe {
+
+        private final BlockingQueue<PipedChunk> queue;
+        private volatile boolean closed;
 
-            // 创建数据行
-            int rowNum = 1;
-            for (List<Object> dataRow : dataRows) {
-                Row row = sheet.createRow(rowNum++);
-                for (int i = 0; i < dataRow.size(); i++) {
-                    Cell cell = row.createCell(i);
-                    setCellValue(cell, dataRow.get(i));
-                    cell.setCellStyle(dataStyle);
+        RowPipe(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void produce(int sheet, ExportSheet.Rows rows) {
+            try {
+                List<List<Object>> chunk = new ArrayList<>(PIPE_CHUNK_ROWS);
+                rows.forEach(row -> {
+                    chunk.add(row);
+                    if (chunk.size() == PIPE_CHUNK_ROWS) {
+                        put(new PipedChunk(sheet, List.copyOf(chunk), false, null));
+                        chunk.clear();
+                    }
+                });
+                put(new PipedChunk(sheet, chunk, true, null));
+            } catch (PipeClosedException e) {
+                // 写入端已放弃，直接结束
+            } catch (RuntimeException | Error e) {
+                try {
+                    put(new PipedChunk(sheet, List.of(), true, e));
+                } catch (PipeClosedException ignored) {
+                    // 写入端已放弃，直接结束
                 }
             }
+        }
 
-            // 自动调整列宽
-            for (int i = 0; i < headers.size(); i++) {
-                sheet.autoSizeColumn(i);
-                // 设置最小宽度
-                int width = sheet.getColumnWidth(i);
-                sheet.setColumnWidth(i, Math.max(width, 3000));
+        private void put(PipedChunk piped) {
+            try {
+                while (!queue.offer(piped, PIPE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (closed) {
+                        throw new PipeClosedException();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PipeClosedException();
             }
+        }
 
-            workbook.write(out);
-            return out.toByteArray();
+        PipedChunk take() throws IOException {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("等待工作表数据时被中断");
+            }
+        }
+
+        void close() {
+            closed = true;
+            queue.clear();
+        }
+    }
+
+    private static final class PipeClosedException extends RuntimeException {
+
+        PipeClosedException() {
+            super(null, null, false, false);
         }
     }
 
@@ -124,25 +350,32 @@ public class ExcelExportService {
 
     /**
      * 设置单元格值（支持多种数据类型）
+     *
+     * @return 单元格显示的文本，用于估算列宽
      */
-    private void setCellValue(Cell cell, Object value) {
+    private String setCellValue(Cell cell, Object value) {
+        String text;
         if (value == null) {
-            cell.setCellValue("");
+            text = "";
         } else if (value instanceof String) {
-            cell.setCellValue((String) value);
+            text = (String) value;
         } else if (value instanceof Number) {
-            cell.setCellValue(((Number) value).doubleValue());
+            double number = ((Number) value).doubleValue();
+            cell.setCellValue(number);
+            return value instanceof BigDecimal ? ((BigDecimal) value).stripTrailingZeros().toPlainString()
+                : String.valueOf(value);
         } else if (value instanceof Boolean) {
             cell.setCellValue((Boolean) value);
+            return (Boolean) value ? "TRUE" : "FALSE";
         } else if (value instanceof LocalDate) {
-            cell.setCellValue(((LocalDate) value).format(DATE_FORMATTER));
+            text = ((LocalDate) value).format(DATE_FORMATTER);
         } else if (value instanceof LocalDateTime) {
-            cell.setCellValue(((LocalDateTime) value).format(DATETIME_FORMATTER));
-        } else if (value instanceof Enum) {
-            cell.setCellValue(value.toString());
+            text = ((LocalDateTime) value).format(DATETIME_FORMATTER);
         } else {
-            cell.setCellValue(value.toString());
+            text = value.toString();
         }
+        cell.setCellValue(text);
+        return text;
     }
 
     /**
@@ -152,7 +385,18 @@ public class ExcelExportService {
      * @return 带时间戳的文件名
      */
     public String generateFileName(String baseName) {
+        return generateFileName(baseName, "xlsx");
+    }
+
+    /**
+     * 生成带时间戳和指定扩展名的文件名（CSV / NDJSON 导出使用）
+     *
+     * @param baseName  基础文件名
+     * @param extension 扩展名，不含点
+     * @return 带时间戳的文件名
+     */
+    public String generateFileName(String baseName, String extension) {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        return baseName + "_" + timestamp + ".xlsx";
+        return baseName + "_" + timestamp + "." + extension;
     }
 }
@@ -0,0 +1,345 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.config.ExportProperties;
+import com.example.propertymanagement.dto.common.VersionStamp;
+import com.example.propertymanagement.dto.export.ExportJobDto;
+import com.example.propertymanagement.dto.export.ExportJobRequest;
+import com.example.propertymanagement.dto.export.ExportJobStatus;
+import com.example.propertymanagement.dto.export.ExportType;
+import com.example.propertymanagement.exception.ApiException;
+import com.example.propertymanagement.exception.BadRequestException;
+import com.example.propertymanagement.exception.ForbiddenException;
+import com.example.propertymanagement.exception.ResourceNotFoundException;
+import com.example.propertymanagement.model.File;
+import com.example.propertymanagement.model.FileCategory;
+import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.util.ExportSheet;
+import com.example.propertymanagement.util.SecurityUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步导出任务：请求只登记任务并立即返回任务ID，文件在有界线程池中生成，不占用请求线程。
+ * <ul>
+ *   <li>数据范围与访问权限在提交时按当前用户确定，与同步 /export 接口一致；</li>
+ *   <li>进度为已写出行数 / 提交时数据范围内的记录数；</li>
+ *   <li>生成的文件通过 {@link FileService} 保存，超过保留时间后连同任务记录一并清理；</li>
+ *   <li>数据类型、数据范围与数据版本（最近修改时间与记录数）都相同的请求合并为同一个任务，
+ *       正在执行或已完成且未过期的任务直接复用，发起人都可以查看和下载；</li>
+ *   <li>任务状态只保存在内存中，应用重启后未下载的任务需重新提交，遗留文件到期后照常清理。</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class ExportJobService {
+
+    public static final String XLSX_CONTENT_TYPE =
+        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private final PropertyService propertyService;
+    private final LeaseService leaseService;
+    private final PaymentService paymentService;
+    private final MaintenanceRequestService maintenanceRequestService;
+    private final ExcelExportService excelExportService;
+    private final FileService fileService;
+    private final Duration resultTtl;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * 合并键 → 可复用的任务
+     */
+    private final Map<String, ExportJob> jobsByKey = new ConcurrentHashMap<>();
+
+    public ExportJobService(PropertyService propertyService,
+                            LeaseService leaseService,
+                            PaymentService paymentService,
+                            MaintenanceRequestService maintenanceRequestService,
+                            ExcelExportService excelExportService,
+                            FileService fileService,
+                            ExportProperties exportProperties) {
+        this.propertyService = propertyService;
+        this.leaseService = leaseService;
+        this.paymentService = paymentService;
+        this.maintenanceRequestService = maintenanceRequestService;
+        this.excelExportService = excelExportService;
+        this.fileService = fileService;
+        this.resultTtl = Duration.ofMinutes(exportProperties.getResultTtlMinutes());
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            exportProperties.getWorkerThreads(),
+            exportProperties.getWorkerThreads(),
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(exportProperties.getQueueCapacity()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "export-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交导出任务；已有相同数据范围与数据版本的可复用任务时直接返回该任务
+     *
+     * @throws ResourceNotFoundException 指定的租约不存在时抛出
+     * @throws ForbiddenException        无权访问指定租约时抛出
+     * @throws ApiException              排队任务已满时抛出（503）
+     */
+    public ExportJobDto submit(ExportJobRequest request) {
+        UserPrincipal principal = getCurrentUser();
+        Plan plan = plan(request, principal);
+        VersionStamp version = plan.version();
+        String key = String.join("|", request.type().name(), plan.scope(),
+            String.valueOf(version.lastModified()), String.valueOf(version.count()));
+
+        ExportJob[] created = new ExportJob[1];
+        ExportJob job = jobsByKey.compute(key, (k, existing) -> {
+            if (existing != null && existing.isReusable()) {
+                return existing;
+            }
+            created[0] = new ExportJob(UUID.randomUUID().toString(), key, request.type(), plan.sheet(),
+                version.count() != null ? version.count() : 0L,
+                excelExportService.generateFileName(plan.sheet().name()), principal.getId());
+            return created[0];
+        });
+        job.requesters.add(principal.getId());
+        if (created[0] == null) {
+            return job.toDto();
+        }
+
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            job.fail("导出任务较多，请稍后再试");
+            jobsByKey.remove(key, job);
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "导出任务较多，请稍后再试");
+        }
+        return job.toDto();
+    }
+
+    /**
+     * 查询任务状态与进度（只能查询自己发起的任务）
+     */
+    public ExportJobDto getJob(String id) {
+        return findOwnJob(id).toDto();
+    }
+
+    /**
+     * 读取已完成任务的文件（只能下载自己发起的任务）
+     *
+     * @throws BadRequestException       任务尚未完成或已失败时抛出
+     * @throws ResourceNotFoundException 任务不存在或文件已过期时抛出
+     */
+    public ExportDownload download(String id) {
+        ExportJob job = findOwnJob(id);
+        if (job.status != ExportJobStatus.COMPLETED) {
+            throw new BadRequestException(job.status == ExportJobStatus.FAILED ? "导出任务已失败" : "导出任务尚未完成");
+        }
+        if (job.isExpired(Instant.now())) {
+            throw new ResourceNotFoundException("导出文件已过期，请重新导出");
+        }
+        try {
+            return new ExportDownload(job.fileName, XLSX_CONTENT_TYPE, fileService.loadResource(job.file));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ResourceNotFoundException("导出文件已过期，请重新导出");
+        }
+    }
+
+    /**
+     * 定时清理过期的导出文件与任务记录
+     */
+    @Scheduled(fixedDelayString = "${app.export.cleanup-interval-millis:600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        jobs.values().removeIf(job -> {
+            boolean stale = job.isExpired(now)
+                || (job.status == ExportJobStatus.FAILED && job.finishedAt.plus(resultTtl).isBefore(now));
+            if (stale) {
+                jobsByKey.remove(job.key, job);
+            }
+            return stale;
+        });
+        try {
+            int deleted = fileService.deleteExpiredFiles();
+            if (deleted > 0) {
+                log.info("已清理 {} 个过期导出文件", deleted);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("清理过期导出文件失败", e);
+        }
+    }
+
+    private void run(ExportJob job) {
+        job.status = ExportJobStatus.RUNNING;
+        ExportSheet sheet = job.sheet;
+        ExportSheet counted = new ExportSheet(sheet.name(), sheet.headers(), action -> sheet.rows().forEach(row -> {
+            job.rowsDone.incrementAndGet();
+            action.accept(row);
+        }));
+        Path temp = null;
+        try {
+            temp = Files.createTempFile("export-", ".xlsx");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                excelExportService.writeExcel(List.of(counted), out);
+            }
+            Instant expiresAt = Instant.now().plus(resultTtl);
+            File file = fileService.storeGeneratedFile(temp, job.fileName, XLSX_CONTENT_TYPE, FileCategory.EXPORT,
+                job.createdBy, LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()));
+            job.complete(file, expiresAt);
+            log.info("导出任务 {} 完成：{} 行，{} 字节", job.id, job.rowsDone.get(), file.getFileSize());
+        } catch (IOException | RuntimeException e) {
+            log.error("导出任务 {} 失败", job.id, e);
+            job.fail("导出失败，请稍后重试");
+            jobsByKey.remove(job.key, job);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("删除导出临时文件失败: {}", temp, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 按导出类型确定数据（在调用线程上完成权限校验）、数据版本与合并用的数据范围标识。
+     * 物业列表与指定租约的收支记录对所有有权访问的用户相同；其余按角色限定范围，管理员共用一个范围。
+     */
+    private Plan plan(ExportJobRequest request, UserPrincipal principal) {
+        String userScope = principal.isAdmin() ? "all" : "user=" + principal.getId();
+        return switch (request.type()) {
+            case PROPERTIES -> new Plan(propertyService.exportProperties(request.ownerId()),
+                propertyService.getPropertiesVersion(request.ownerId()), "owner=" + request.ownerId());
+            case LEASES -> new Plan(leaseService.exportLeases(), leaseService.getLeasesVersion(null), userScope);
+            case PAYMENTS -> new Plan(paymentService.exportPayments(request.leaseId()),
+                paymentService.getPaymentsVersion(request.leaseId()),
+                request.leaseId() != null ? "lease=" + request.leaseId() : userScope);
+            case MAINTENANCE_REQUESTS -> new Plan(maintenanceRequestService.exportRequests(),
+                maintenanceRequestService.getRequestsVersion(null), userScope);
+        };
+    }
+
+    private ExportJob findOwnJob(String id) {
+        ExportJob job = jobs.get(id);
+        if (job == null || !job.requesters.contains(getCurrentUser().getId())) {
+            throw new ResourceNotFoundException("未找到导出任务");
+        }
+        return job;
+    }
+
+    private UserPrincipal getCurrentUser() {
+        return SecurityUtils.getCurrentUserPrincipal()
+            .orElseThrow(() -> new ForbiddenException("未登录"));
+    }
+
+    /**
+     * 待下载的导出文件
+     */
+    public record ExportDownload(String fileName, String contentType, Resource resource) {
+    }
+
+    private record Plan(ExportSheet sheet, VersionStamp version, String scope) {
+    }
+
+    private static final class ExportJob {
+
+        private final String id;
+        private final String key;
+        private final ExportType type;
+        private final long estimatedRows;
+        private final String fileName;
+        private final Long createdBy;
+        private final Instant createdAt = Instant.now();
+        private final Set<Long> requesters = ConcurrentHashMap.newKeySet();
+        private final AtomicLong rowsDone = new AtomicLong();
+
+        /**
+         * 待导出的数据，任务结束后释放
+         */
+        private volatile ExportSheet sheet;
+        private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+        private volatile File file;
+        private volatile String error;
+        private volatile Instant finishedAt;
+        private volatile Instant expiresAt;
+
+        ExportJob(String id, String key, ExportType type, ExportSheet sheet, long estimatedRows, String fileName,
+                  Long createdBy) {
+            this.id = id;
+            this.key = key;
+            this.type = type;
+            this.sheet = sheet;
+            this.estimatedRows = estimatedRows;
+            this.fileName = fileName;
+            this.createdBy = createdBy;
+        }
+
+        void complete(File file, Instant expiresAt) {
+            this.file = file;
+            this.expiresAt = expiresAt;
+            this.finishedAt = Instant.now();
+            this.sheet = null;
+            this.status = ExportJobStatus.COMPLETED;
+        }
+
+        void fail(String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.sheet = null;
+            this.status = ExportJobStatus.FAILED;
+        }
+
+        /**
+         * 排队中、执行中或已完成且未过期的任务可被相同请求复用
+         */
+        boolean isReusable() {
+            return status != ExportJobStatus.FAILED && !isExpired(Instant.now());
+        }
+
+        boolean isExpired(Instant now) {
+            return expiresAt != null && !expiresAt.isAfter(now);
+        }
+
+        ExportJobDto toDto() {
+            File result = file;
+            return new ExportJobDto(id, type, status, rowsDone.get(), estimatedRows, fileName,
+                result != null ? result.getFileSize() : null, error, createdAt, finishedAt, expiresAt);
+        }
+    }
+}
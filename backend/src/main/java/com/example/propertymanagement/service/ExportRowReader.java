@@ -0,0 +1,86 @@
+package com.example.propertymanagement.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 导出用的全量读取：按 id 升序分批（{@code WHERE id > 上一批最后的id ORDER BY id LIMIT n}）遍历数据范围内的全部记录。
+ * <ul>
+ *   <li>每批在独立的只读事务中查询并转换为行，转换完即清空持久化上下文，内存占用只与批大小有关；</li>
+ *   <li>行交给调用方（通常是写响应流）时不持有事务和数据库连接，客户端下载慢不会长期占用连接；</li>
+ *   <li>各批之间不是同一快照：导出期间新增的记录若 id 更大会被读到，已读过的批次不会重复。</li>
+ * </ul>
+ */
+@Component
+public class ExportRowReader {
+
+    /**
+     * 每批读取的记录数
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    private static final String ID = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportRowReader(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * 遍历数据范围内的全部记录
+     *
+     * @param repository 实体仓库
+     * @param scope      数据范围条件（权限、筛选），不能为 null
+     * @param mapper     实体到行的转换，在查询事务内执行
+     * @param action     逐行回调，在事务外执行
+     */
+    public <T, R> void forEach(JpaSpecificationExecutor<T> repository, Specification<T> scope,
+                               Function<T, R> mapper, Consumer<? super R> action) {
+        Long afterId = null;
+        while (true) {
+            Batch<R> batch = readBatch(repository, scope, afterId, mapper);
+            batch.rows().forEach(action);
+            if (batch.rows().size() < BATCH_SIZE) {
+                return;
+            }
+            afterId = batch.lastId();
+        }
+    }
+
+    private <T, R> Batch<R> readBatch(JpaSpecificationExecutor<T> repository, Specification<T> scope,
+                                      Long afterId, Function<T, R> mapper) {
+        Specification<T> specification = afterId == null
+            ? scope
+            : scope.and((root, query, cb) -> cb.greaterThan(root.get(ID), afterId));
+        return readOnlyTransaction.execute(status -> {
+            List<T> entities = repository.findBy(specification,
+                query -> query.sortBy(Sort.by(ID)).limit(BATCH_SIZE).all());
+            List<R> rows = new ArrayList<>(entities.size());
+            entities.forEach(entity -> rows.add(mapper.apply(entity)));
+            Long lastId = entities.isEmpty() ? afterId : (Long) entityManager.getEntityManagerFactory()
+                .getPersistenceUnitUtil().getIdentifier(entities.get(entities.size() - 1));
+            // 开启 open-in-view 时整个请求共用一个持久化上下文，需手动清空，否则已读实体会一直累积
+            entityManager.clear();
+            return new Batch<>(rows, lastId);
+        });
+    }
+
+    private record Batch<R>(List<R> rows, Long lastId) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.propertymanagement.service;
 
 import com.example.propertymanagement.config.FileStorageConfig;
+import com.example.propertymanagement.event.EntityChangedEvent;
 import com.example.propertymanagement.model.File;
 import com.example.propertymanagement.model.FileCategory;
 import com.example.propertymanagement.model.Property;
@@ -38,6 +39,7 @@ public class FileService {
     private final FileRepository fileRepository;
     private final FileStorageConfig fileStorageConfig;
     private final PropertyRepository propertyRepository;
+    private final ActivityService activityService;
     
     /**
      * 文件上传
@@ -105,7 +107,9 @@ public class FileService {
         file.setUploadedAt(LocalDateTime.now());
         
         // 保存到数据库
-        return fileRepository.save(file);
+        File saved = fileRepository.save(file);
+        activityService.recordFile(saved, EntityChangedEvent.Action.CREATED);
+        return saved;
     }
     
     /**
@@ -141,16 +145,88 @@ public class FileService {
         File file = fileRepository.findByStoredFileName(storedFileName)
                 .orElseThrow(() -> new IllegalArgumentException("文件不存在: " + storedFileName));
         
+        // 导出文件只能由导出任务的发起人通过导出接口下载
+        if (file.getCategory() == FileCategory.EXPORT) {
+            throw new IllegalArgumentException("文件不存在: " + storedFileName);
+        }
+        return loadResource(file);
+    }
+    
+    /**
+     * 加载文件记录对应的文件资源，不做权限校验
+     * 
+     * @param file 文件记录
+     * @return 文件资源
+     * @throws MalformedURLException URL格式异常
+     */
+    public Resource loadResource(File file) throws MalformedURLException {
         Path filePath = Paths.get(fileStorageConfig.getUploadDir()).resolve(file.getFilePath()).normalize();
         Resource resource = new UrlResource(filePath.toUri());
         
         if (resource.exists() && resource.isReadable()) {
             return resource;
         } else {
-            throw new IllegalArgumentException("文件不存在或无法读取: " + storedFileName);
+            throw new IllegalArgumentException("文件不存在或无法读取: " + file.getStoredFileName());
+        }
+    }
+    
+    /**
+     * 保存系统生成的文件（如导出文件）：把本地临时文件移动到存储目录并创建文件记录
+     * 
+     * @param source 本地临时文件，保存后不再存在
+     * @param originalFileName 下载时使用的文件名
+     * @param contentType 文件类型（MIME类型）
+     * @param category 文件分类
+     * @param userId 生成文件的用户ID
+     * @param expiresAt 过期时间，为空表示长期保存
+     * @return 保存的文件对象
+     * @throws IOException 文件操作异常
+     */
+    @Transactional
+    public File storeGeneratedFile(Path source, String originalFileName, String contentType,
+                                   FileCategory category, Long userId, LocalDateTime expiresAt) throws IOException {
+        String storedFileName = UUID.randomUUID().toString() + getFileExtension(originalFileName);
+        String subDir = getCategoryDirectory(category);
+        Path uploadPath = Paths.get(fileStorageConfig.getUploadDir(), subDir);
+        Files.createDirectories(uploadPath);
+        
+        Path targetLocation = uploadPath.resolve(storedFileName);
+        Files.move(source, targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        
+        File file = new File();
+        file.setOriginalFileName(originalFileName);
+        file.setStoredFileName(storedFileName);
+        file.setFilePath(subDir + "/" + storedFileName);
+        file.setFileType(contentType);
+        file.setFileSize(Files.size(targetLocation));
+        file.setCategory(category);
+        file.setUploadedBy(userId);
+        file.setExpiresAt(expiresAt);
+        try {
+            return fileRepository.save(file);
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(targetLocation);
+            throw e;
         }
     }
     
+    /**
+     * 删除已过期的文件（磁盘文件与数据库记录）
+     * 
+     * @return 删除的文件数
+     * @throws IOException 文件删除异常
+     */
+    @Transactional
+    public int deleteExpiredFiles() throws IOException {
+        List<File> files = fileRepository.findByExpiresAtBefore(LocalDateTime.now());
+        for (File file : files) {
+            Path filePath = Paths.get(fileStorageConfig.getUploadDir()).resolve(file.getFilePath()).normalize();
+            Files.deleteIfExists(filePath);
+        }
+        fileRepository.deleteAll(files);
+        return files.size();
+    }
+    
     /**
      * 根据分类和关联实体ID获取文件列表
      * 
@@ -225,6 +301,7 @@ public class FileService {
         
         // 删除数据库记录
         fileRepository.delete(file);
+        activityService.recordFile(file, EntityChangedEvent.Action.DELETED);
     }
     
     /**
@@ -339,6 +416,8 @@ public class FileService {
                 return "maintenance";
             case USER_AVATAR:
                 return "avatars";
+            case EXPORT:
+                return "exports";
             default:
                 return "others";
         }
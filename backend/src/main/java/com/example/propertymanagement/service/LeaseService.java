@@ -1,8 +1,12 @@
 package com.example.propertymanagement.service;
 
+import com.example.propertymanagement.dto.common.CursorPageResponse;
 import com.example.propertymanagement.dto.common.PageResponse;
+import com.example.propertymanagement.dto.common.SliceResponse;
+import com.example.propertymanagement.dto.common.VersionStamp;
 import com.example.propertymanagement.dto.lease.LeaseDto;
 import com.example.propertymanagement.dto.lease.LeaseRequest;
+import com.example.propertymanagement.event.EntityChangedEvent;
 import com.example.propertymanagement.exception.ForbiddenException;
 import com.example.propertymanagement.exception.ResourceNotFoundException;
 import com.example.propertymanagement.mapper.LeaseMapper;
@@ -11,37 +15,110 @@ import com.example.propertymanagement.model.LeaseStatus;
 import com.example.propertymanagement.model.NotificationType;
 import com.example.propertymanagement.model.Property;
 import com.example.propertymanagement.model.PropertyStatus;
-import com.example.propertymanagement.model.RoleName;
 import com.example.propertymanagement.model.User;
 import com.example.propertymanagement.repository.LeaseRepository;
 import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.repository.ScopeSpecifications;
 import com.example.propertymanagement.repository.UserRepository;
 import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.service.DashboardRollupService.LeaseState;
+import com.example.propertymanagement.service.DashboardRollupService.PropertyState;
+import com.example.propertymanagement.util.ExportColumn;
+import com.example.propertymanagement.util.ExportQuery;
+import com.example.propertymanagement.util.ExportSheet;
+import com.example.propertymanagement.util.KeysetPager;
 import com.example.propertymanagement.util.SecurityUtils;
+import com.example.propertymanagement.util.SlicePager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * 租约业务层：封装租约的创建、更新、查询、删除等流程，并根据角色限制访问范围。
  */
 @Service
 public class LeaseService {
 
+    private static final KeysetPager<Lease> KEYSET =
+        KeysetPager.of(Lease.class, "gmtCreate", "startDate", "endDate", "rentAmount", "status");
+
+    /**
+     * 导出列：Excel 表头与 CSV / NDJSON 抽取共用，字段名与列表接口的 DTO 一致
+     */
+    private static final List<ExportColumn> EXPORT_COLUMNS = List.of(
+        ExportColumn.of("id", "租约ID"),
+        ExportColumn.of("propertyId", "物业ID"),
+        ExportColumn.of("propertyAddress", "物业地址"),
+        ExportColumn.of("tenantId", "租户ID"),
+        ExportColumn.of("tenantUsername", "租户用户名"),
+        ExportColumn.of("startDate", "开始日期"),
+        ExportColumn.of("endDate", "结束日期"),
+        ExportColumn.of("rentAmount", "租金"),
+        ExportColumn.of("status", "状态"),
+        new ExportColumn("createdAt", "创建时间", "gmtCreate"));
+
+    private static final List<String> EXPORT_HEADERS = ExportColumn.labels(EXPORT_COLUMNS);
+
     private final LeaseRepository leaseRepository;
     private final PropertyRepository propertyRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final DashboardRollupService rollupService;
+    private final ActivityService activityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApproximateCountService countService;
+    private final PropertySnapshotCache snapshotCache;
+    private final PropertyGeoIndex geoIndex;
+    private final SavedSearchService savedSearchService;
+    private final ExportRowReader exportRowReader;
 
     public LeaseService(LeaseRepository leaseRepository,
                         PropertyRepository propertyRepository,
                         UserRepository userRepository,
-                        NotificationService notificationService) {
+                        NotificationService notificationService,
+                        DashboardRollupService rollupService,
+                        ActivityService activityService,
+                        ApplicationEventPublisher eventPublisher,
+                        ApproximateCountService countService,
+                        PropertySnapshotCache snapshotCache,
+                        PropertyGeoIndex geoIndex,
+                        SavedSearchService savedSearchService,
+                        ExportRowReader exportRowReader) {
         this.leaseRepository = leaseRepository;
         this.propertyRepository = propertyRepository;
         this.userRepository = userRepository;
         this.notificationService = notificationService;
+        this.rollupService = rollupService;
+        this.activityService = activityService;
+        this.eventPublisher = eventPublisher;
+        this.countService = countService;
+        this.snapshotCache = snapshotCache;
+        this.geoIndex = geoIndex;
+        this.savedSearchService = savedSearchService;
+        this.exportRowReader = exportRowReader;
+    }
+
+    /**
+     * 租约列表的数据版本（最近修改时间与记录数），范围与 {@link #getLeases}/{@link #searchLeases} 一致，用于条件请求。
+     *
+     * @param keyword 搜索关键词，非空时为全部租约
+     */
+    @Transactional(readOnly = true)
+    public VersionStamp getLeasesVersion(String keyword) {
+        UserPrincipal principal = getCurrentUser();
+        if (principal.isAdmin() || (keyword != null && !keyword.trim().isEmpty())) {
+            return leaseRepository.findVersion();
+        } else if (principal.isOwner()) {
+            return leaseRepository.findVersionByOwnerId(principal.getId());
+        }
+        return leaseRepository.findVersionByTenantId(principal.getId());
     }
 
     /**
@@ -54,15 +131,96 @@ public class LeaseService {
     public PageResponse<LeaseDto> getLeases(Pageable pageable) {
         UserPrincipal principal = getCurrentUser();
         Page<Lease> page;
-        if (isAdmin(principal)) {
+        if (principal.isAdmin()) {
             page = leaseRepository.findAll(pageable);
-        } else if (isOwner(principal)) {
+        } else if (principal.isOwner()) {
             page = leaseRepository.findAllByOwnerId(principal.getId(), pageable);
         } else {
             page = leaseRepository.findAllByTenantId(principal.getId(), pageable);
         }
         return PageResponse.from(page.map(LeaseMapper::toDto));
     }
+
+    /**
+     * 导出租约列表，数据范围与 {@link #getLeases(Pageable)} 相同；
+     * 数据范围在调用时按当前用户确定，数据在遍历 {@link ExportSheet#rows()} 时才按 id 分批读取。
+     */
+    public ExportSheet exportLeases() {
+        return exportLeases(lease -> { });
+    }
+
+    /**
+     * 导出租约列表，并在读取每条记录时回调 observer（在读取线程上执行），用于同一遍读取中汇总统计。
+     *
+     * @param observer 每条记录转换后的回调
+     */
+    public ExportSheet exportLeases(Consumer<LeaseDto> observer) {
+        Specification<Lease> scope = scopeOf(getCurrentUser());
+        return new ExportSheet("租约列表", EXPORT_HEADERS, action -> exportRowReader.forEach(
+            leaseRepository, scope, lease -> toExportRow(observe(LeaseMapper.toDto(lease), observer)), action));
+    }
+
+    /**
+     * CSV / NDJSON 批量抽取的查询，数据范围与 {@link #exportLeases()} 相同，在调用时按当前用户确定。
+     */
+    public ExportQuery<Lease> exportQuery() {
+        return new ExportQuery<>("租约列表", Lease.class, scopeOf(getCurrentUser()), EXPORT_COLUMNS);
+    }
+
+    private static LeaseDto observe(LeaseDto dto, Consumer<LeaseDto> observer) {
+        observer.accept(dto);
+        return dto;
+    }
+
+    private static List<Object> toExportRow(LeaseDto lease) {
+        return Arrays.asList(
+            lease.id(),
+            lease.propertyId(),
+            lease.propertyAddress(),
+            lease.tenantId(),
+            lease.tenantUsername(),
+            lease.startDate(),
+            lease.endDate(),
+            lease.rentAmount(),
+            lease.status() != null ? lease.status().name() : "",
+            lease.createdAt()
+        );
+    }
+
+    /**
+     * 游标分页查询租约，数据范围与 {@link #getLeases(Pageable)} 相同，不执行 COUNT。
+     *
+     * @param after    上一页返回的游标，为空字符串时读取第一页
+     * @param pageable 每页条数与排序
+     * @return 游标分页结果
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<LeaseDto> scrollLeases(String after, Pageable pageable) {
+        return KEYSET.scroll(leaseRepository, scopeOf(getCurrentUser()), after, pageable, LeaseMapper::toDto);
+    }
+
+    /**
+     * 无总数分页查询租约，结果与 {@link #getLeases(Pageable)}、{@link #searchLeases(Pageable, String)} 相同，
+     * 不执行 COUNT；需要时附带短时缓存的近似总数。
+     *
+     * @param pageable         分页参数
+     * @param keyword          搜索关键词，可为 null
+     * @param approximateTotal 是否附带近似总数
+     * @return 无总数分页结果
+     */
+    @Transactional(readOnly = true)
+    public SliceResponse<LeaseDto> sliceLeases(Pageable pageable, String keyword, boolean approximateTotal) {
+        UserPrincipal principal = getCurrentUser();
+        boolean search = keyword != null && !keyword.trim().isEmpty();
+        Specification<Lease> specification = search
+            ? ScopeSpecifications.anyAttributeContains(keyword.trim(), "tenantUsername", "propertyAddress")
+            : scopeOf(principal);
+        Long total = approximateTotal
+            ? countService.count(EntityChangedEvent.LEASE, leaseRepository, specification,
+                search ? null : principal.getId(), search ? keyword.trim() : null)
+            : null;
+        return SlicePager.read(leaseRepository, specification, pageable, LeaseMapper::toDto, total);
+    }
     
     /**
      * 搜索租约（支持关键词搜索）
@@ -94,8 +252,8 @@ public class LeaseService {
         Lease lease = leaseRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("未找到租约"));
 
-        if (isAdmin(principal)
-            || (isOwner(principal) && lease.getOwnerId().equals(principal.getId()))
+        if (principal.isAdmin()
+            || (principal.isOwner() && lease.getOwnerId().equals(principal.getId()))
             || lease.getTenantId().equals(principal.getId())) {
             return LeaseMapper.toDto(lease);
         }
@@ -112,14 +270,14 @@ public class LeaseService {
     @Transactional
     public LeaseDto createLease(LeaseRequest request) {
         UserPrincipal principal = getCurrentUser();
-        if (!isAdmin(principal) && !isOwner(principal)) {
+        if (!principal.isAdmin() && !principal.isOwner()) {
             throw new ForbiddenException("只有管理员或业主可以创建租约");
         }
 
         Property property = propertyRepository.findById(request.propertyId())
             .orElseThrow(() -> new ResourceNotFoundException("未找到物业"));
 
-        if (!isAdmin(principal) && !property.getOwnerId().equals(principal.getId())) {
+        if (!principal.isAdmin() && !property.getOwnerId().equals(principal.getId())) {
             throw new ForbiddenException("只能为自己拥有的物业创建租约");
         }
 
@@ -143,9 +301,17 @@ public class LeaseService {
             .status(status)
             .build();
 
+        PropertyState propertyBefore = PropertyState.of(property);
         property.setStatus(PropertyStatus.LEASED);
+        rollupService.propertyChanged(propertyBefore, property);
+        snapshotCache.invalidate(property.getId());
+        geoIndex.index(property);
 
         Lease savedLease = leaseRepository.save(lease);
+        rollupService.leaseCreated(savedLease);
+        publishChange(EntityChangedEvent.Action.CREATED, savedLease.getId(), savedLease.getOwnerId(), savedLease.getTenantId());
+        activityService.record(EntityChangedEvent.LEASE, EntityChangedEvent.Action.CREATED, savedLease.getId(),
+            savedLease.getOwnerId(), savedLease.getTenantId(), "新租约创建", "物业: " + property.getAddress());
         
         // 发送通知给租户
         try {
@@ -180,7 +346,7 @@ public class LeaseService {
         Lease lease = leaseRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("未找到租约"));
 
-        if (!isAdmin(principal)
+        if (!principal.isAdmin()
             && !lease.getOwnerId().equals(principal.getId())) {
             throw new ForbiddenException("无权更新该租约");
         }
@@ -188,13 +354,15 @@ public class LeaseService {
         Property property = propertyRepository.findById(request.propertyId())
             .orElseThrow(() -> new ResourceNotFoundException("未找到物业"));
 
-        if (!isAdmin(principal) && !property.getOwnerId().equals(principal.getId())) {
+        if (!principal.isAdmin() && !property.getOwnerId().equals(principal.getId())) {
             throw new ForbiddenException("只能将租约关联到自己拥有的物业");
         }
 
         User tenant = userRepository.findById(request.tenantId())
             .orElseThrow(() -> new ResourceNotFoundException("未找到租户"));
 
+        LeaseState leaseBefore = LeaseState.of(lease);
+        PropertyState propertyBefore = PropertyState.of(property);
         lease.setPropertyId(property.getId());
         lease.setPropertyAddress(property.getAddress());
         lease.setOwnerId(property.getOwnerId());
@@ -211,7 +379,22 @@ public class LeaseService {
             }
         }
 
-        return LeaseMapper.toDto(leaseRepository.save(lease));
+        Lease saved = leaseRepository.save(lease);
+        rollupService.leaseChanged(leaseBefore, saved);
+        rollupService.propertyChanged(propertyBefore, property);
+        snapshotCache.invalidate(property.getId());
+        geoIndex.index(property);
+        if (propertyBefore.status() != PropertyStatus.AVAILABLE && property.getStatus() == PropertyStatus.AVAILABLE) {
+            savedSearchService.propertyAvailable(property.getId());
+        }
+        publishChange(EntityChangedEvent.Action.UPDATED, saved.getId(), saved.getOwnerId(), saved.getTenantId());
+        activityService.record(EntityChangedEvent.LEASE, EntityChangedEvent.Action.UPDATED, saved.getId(),
+            saved.getOwnerId(), saved.getTenantId(), "租约更新",
+            "物业: " + saved.getPropertyAddress() + "，状态: " + saved.getStatus());
+        if (!leaseBefore.ownerId().equals(saved.getOwnerId()) || !leaseBefore.tenantId().equals(saved.getTenantId())) {
+            publishChange(EntityChangedEvent.Action.UPDATED, saved.getId(), leaseBefore.ownerId(), leaseBefore.tenantId());
+        }
+        return LeaseMapper.toDto(saved);
     }
 
     /**
@@ -225,28 +408,51 @@ public class LeaseService {
         Lease lease = leaseRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("未找到租约"));
 
-        if (!isAdmin(principal)
+        if (!principal.isAdmin()
             && !lease.getOwnerId().equals(principal.getId())) {
             throw new ForbiddenException("无权删除该租约");
         }
 
         Property property = propertyRepository.findById(lease.getPropertyId())
             .orElseThrow(() -> new ResourceNotFoundException("未找到物业"));
+        PropertyState propertyBefore = PropertyState.of(property);
         property.setStatus(PropertyStatus.AVAILABLE);
-        
+        rollupService.propertyChanged(propertyBefore, property);
+        snapshotCache.invalidate(property.getId());
+        geoIndex.index(property);
+        if (propertyBefore.status() != PropertyStatus.AVAILABLE && property.getStatus() == PropertyStatus.AVAILABLE) {
+            savedSearchService.propertyAvailable(property.getId());
+        }
+
+        rollupService.leaseDeleted(lease);
         leaseRepository.delete(lease);
+        publishChange(EntityChangedEvent.Action.DELETED, lease.getId(), lease.getOwnerId(), lease.getTenantId());
+        activityService.record(EntityChangedEvent.LEASE, EntityChangedEvent.Action.DELETED, lease.getId(),
+            lease.getOwnerId(), lease.getTenantId(), "租约删除", "物业: " + lease.getPropertyAddress());
     }
 
-    private UserPrincipal getCurrentUser() {
-        return SecurityUtils.getCurrentUserPrincipal()
-            .orElseThrow(() -> new ForbiddenException("未登录"));
+    /**
+     * 发布租约变更事件，供缓存失效等监听方在事务提交后处理。
+     */
+    private void publishChange(EntityChangedEvent.Action action, Long leaseId, Long ownerId, Long tenantId) {
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.LEASE, action, leaseId, ownerId, tenantId));
     }
 
-    private boolean isAdmin(UserPrincipal principal) {
-        return SecurityUtils.hasRole(principal, RoleName.ROLE_ADMIN.name());
+    /**
+     * 租约列表的数据范围：管理员全部，业主名下，租户本人
+     */
+    private static Specification<Lease> scopeOf(UserPrincipal principal) {
+        if (principal.isAdmin()) {
+            return ScopeSpecifications.all();
+        }
+        if (principal.isOwner()) {
+            return ScopeSpecifications.leasesOwnedBy(principal.getId());
+        }
+        return ScopeSpecifications.leasesRentedBy(principal.getId());
     }
 
-    private boolean isOwner(UserPrincipal principal) {
-        return SecurityUtils.hasRole(principal, RoleName.ROLE_OWNER.name());
+    private UserPrincipal getCurrentUser() {
+        return SecurityUtils.getCurrentUserPrincipal()
+            .orElseThrow(() -> new ForbiddenException("未登录"));
     }
 }
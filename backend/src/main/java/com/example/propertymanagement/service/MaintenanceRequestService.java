@@ -1,31 +1,44 @@
 package com.example.propertymanagement.service;
 
 import com.example.propertymanagement.dto.ai.MaintenanceAnalysisResult;
+import com.example.propertymanagement.dto.common.CursorPageResponse;
 import com.example.propertymanagement.dto.common.PageResponse;
+import com.example.propertymanagement.dto.common.SliceResponse;
+import com.example.propertymanagement.dto.common.VersionStamp;
 import com.example.propertymanagement.dto.maintenance.MaintenanceRequestCreate;
 import com.example.propertymanagement.dto.maintenance.MaintenanceRequestDto;
 import com.example.propertymanagement.dto.maintenance.MaintenanceStatusUpdate;
+import com.example.propertymanagement.dto.property.PropertyDto;
+import com.example.propertymanagement.event.EntityChangedEvent;
 import com.example.propertymanagement.exception.ForbiddenException;
 import com.example.propertymanagement.exception.ResourceNotFoundException;
 import com.example.propertymanagement.mapper.MaintenanceMapper;
 import com.example.propertymanagement.model.MaintenanceRequest;
 import com.example.propertymanagement.model.MaintenanceStatus;
-import com.example.propertymanagement.model.Property;
-import com.example.propertymanagement.model.RoleName;
 import com.example.propertymanagement.model.User;
 import com.example.propertymanagement.repository.MaintenanceRequestRepository;
-import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.repository.ScopeSpecifications;
 import com.example.propertymanagement.repository.UserRepository;
 import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.util.ExportColumn;
+import com.example.propertymanagement.util.ExportQuery;
+import com.example.propertymanagement.util.ExportSheet;
+import com.example.propertymanagement.util.KeysetPager;
 import com.example.propertymanagement.util.SecurityUtils;
+import com.example.propertymanagement.util.SlicePager;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 维修工单业务服务：集中处理工单提报、分页查询、状态更新等逻辑，并在服务层落地角色权限控制。
@@ -34,19 +47,53 @@ import java.time.Instant;
 @Service
 public class MaintenanceRequestService {
 
+    private static final KeysetPager<MaintenanceRequest> KEYSET =
+        KeysetPager.of(MaintenanceRequest.class, "reportedAt", "status", "gmtCreate");
+
+    /**
+     * 导出列：Excel 表头与 CSV / NDJSON 抽取共用，字段名与列表接口的 DTO 一致
+     */
+    private static final List<ExportColumn> EXPORT_COLUMNS = List.of(
+        ExportColumn.of("id", "维修ID"),
+        ExportColumn.of("propertyId", "物业ID"),
+        ExportColumn.of("propertyAddress", "物业地址"),
+        ExportColumn.of("tenantId", "租户ID"),
+        ExportColumn.of("tenantUsername", "租户用户名"),
+        ExportColumn.of("description", "描述"),
+        ExportColumn.of("status", "状态"),
+        ExportColumn.of("reportedAt", "报修时间"),
+        ExportColumn.of("completedAt", "完成时间"));
+
+    private static final List<String> EXPORT_HEADERS = ExportColumn.labels(EXPORT_COLUMNS);
+
     private final MaintenanceRequestRepository maintenanceRequestRepository;
-    private final PropertyRepository propertyRepository;
     private final UserRepository userRepository;
+    private final DashboardRollupService rollupService;
+    private final ActivityService activityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApproximateCountService countService;
+    private final PropertySnapshotCache snapshotCache;
+    private final ExportRowReader exportRowReader;
     
     @Autowired(required = false)
     private AIService aiService;
 
     public MaintenanceRequestService(MaintenanceRequestRepository maintenanceRequestRepository,
-                                     PropertyRepository propertyRepository,
-                                     UserRepository userRepository) {
+                                     UserRepository userRepository,
+                                     DashboardRollupService rollupService,
+                                     ActivityService activityService,
+                                     ApplicationEventPublisher eventPublisher,
+                                     ApproximateCountService countService,
+                                     PropertySnapshotCache snapshotCache,
+                                     ExportRowReader exportRowReader) {
         this.maintenanceRequestRepository = maintenanceRequestRepository;
-        this.propertyRepository = propertyRepository;
         this.userRepository = userRepository;
+        this.rollupService = rollupService;
+        this.activityService = activityService;
+        this.eventPublisher = eventPublisher;
+        this.countService = countService;
+        this.snapshotCache = snapshotCache;
+        this.exportRowReader = exportRowReader;
     }
 
     /**
@@ -60,19 +107,19 @@ public class MaintenanceRequestService {
     @Transactional
     public MaintenanceRequestDto createRequest(MaintenanceRequestCreate requestDto) {
         UserPrincipal principal = getCurrentUser();
-        if (!isTenant(principal)) {
+        if (!principal.isTenant()) {
             throw new ForbiddenException("只有租户可以提交维修请求");
         }
 
-        Property property = propertyRepository.findById(requestDto.propertyId())
+        PropertyDto property = snapshotCache.get(requestDto.propertyId())
             .orElseThrow(() -> new ResourceNotFoundException("未找到指定物业"));
 
         User tenant = userRepository.findById(principal.getId())
             .orElseThrow(() -> new ResourceNotFoundException("未找到当前用户"));
 
         MaintenanceRequest request = MaintenanceRequest.builder()
-            .propertyId(property.getId())
-            .propertyAddress(property.getAddress())
+            .propertyId(property.id())
+            .propertyAddress(property.address())
             .tenantId(tenant.getId())
             .tenantUsername(tenant.getUsername())
             .description(requestDto.description())
@@ -84,7 +131,7 @@ public class MaintenanceRequestService {
             if (aiService != null) {
                 MaintenanceAnalysisResult analysis = aiService.analyzeMaintenanceRequest(
                     requestDto.description(),
-                    property.getAddress()
+                    property.address()
                 );
                 if (analysis.isSuccess()) {
                     request.setAiCategory(analysis.getCategory());
@@ -98,7 +145,30 @@ public class MaintenanceRequestService {
             log.warn("维修工单AI分析失败", e);
         }
 
-        return MaintenanceMapper.toDto(maintenanceRequestRepository.save(request));
+        MaintenanceRequest saved = maintenanceRequestRepository.save(request);
+        rollupService.maintenanceCreated(property.ownerId(), saved.getTenantId(), saved.getStatus());
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.MAINTENANCE,
+            EntityChangedEvent.Action.CREATED, saved.getId(), property.ownerId(), saved.getTenantId()));
+        activityService.record(EntityChangedEvent.MAINTENANCE, EntityChangedEvent.Action.CREATED, saved.getId(),
+            property.ownerId(), saved.getTenantId(), "维修请求", saved.getDescription());
+        return MaintenanceMapper.toDto(saved);
+    }
+
+    /**
+     * 工单列表的数据版本（最近修改时间与记录数），范围与列表查询一致，用于条件请求。
+     * 状态与物业筛选均在角色范围之内，由调用方计入 ETag。
+     *
+     * @param keyword 搜索关键词，非空时为全部工单
+     */
+    @Transactional(readOnly = true)
+    public VersionStamp getRequestsVersion(String keyword) {
+        UserPrincipal principal = getCurrentUser();
+        if (principal.isAdmin() || (keyword != null && !keyword.trim().isEmpty())) {
+            return maintenanceRequestRepository.findVersion();
+        } else if (principal.isOwner()) {
+            return maintenanceRequestRepository.findVersionByPropertyOwnerId(principal.getId());
+        }
+        return maintenanceRequestRepository.findVersionByTenantId(principal.getId());
     }
 
     /**
@@ -111,15 +181,108 @@ public class MaintenanceRequestService {
     public PageResponse<MaintenanceRequestDto> getRequests(Pageable pageable) {
         UserPrincipal principal = getCurrentUser();
         Page<MaintenanceRequest> page;
-        if (isAdmin(principal)) {
+        if (principal.isAdmin()) {
             page = maintenanceRequestRepository.findAll(pageable);
-        } else if (isOwner(principal)) {
+        } else if (principal.isOwner()) {
             page = maintenanceRequestRepository.findAllByPropertyOwnerId(principal.getId(), pageable);
         } else {
             page = maintenanceRequestRepository.findAllByTenantId(principal.getId(), pageable);
         }
         return PageResponse.from(page.map(MaintenanceMapper::toDto));
     }
+
+    /**
+     * 导出工单列表，数据范围与 {@link #getRequests(Pageable)} 相同；
+     * 数据范围在调用时按当前用户确定，数据在遍历 {@link ExportSheet#rows()} 时才按 id 分批读取。
+     */
+    public ExportSheet exportRequests() {
+        return exportRequests(request -> { });
+    }
+
+    /**
+     * 导出工单列表，并在读取每条记录时回调 observer（在读取线程上执行），用于同一遍读取中汇总统计。
+     *
+     * @param observer 每条记录转换后的回调
+     */
+    public ExportSheet exportRequests(Consumer<MaintenanceRequestDto> observer) {
+        Specification<MaintenanceRequest> scope = scopeOf(getCurrentUser());
+        return new ExportSheet("维修记录", EXPORT_HEADERS, action -> exportRowReader.forEach(
+            maintenanceRequestRepository, scope,
+            request -> toExportRow(observe(MaintenanceMapper.toDto(request), observer)), action));
+    }
+
+    /**
+     * CSV / NDJSON 批量抽取的查询，数据范围与 {@link #exportRequests()} 相同，在调用时按当前用户确定。
+     */
+    public ExportQuery<MaintenanceRequest> exportQuery() {
+        return new ExportQuery<>("维修记录", MaintenanceRequest.class, scopeOf(getCurrentUser()), EXPORT_COLUMNS);
+    }
+
+    private static MaintenanceRequestDto observe(MaintenanceRequestDto dto, Consumer<MaintenanceRequestDto> observer) {
+        observer.accept(dto);
+        return dto;
+    }
+
+    private static List<Object> toExportRow(MaintenanceRequestDto request) {
+        return Arrays.asList(
+            request.id(),
+            request.propertyId(),
+            request.propertyAddress(),
+            request.tenantId(),
+            request.tenantUsername(),
+            request.description(),
+            request.status() != null ? request.status().name() : "",
+            request.reportedAt(),
+            request.completedAt()
+        );
+    }
+
+    /**
+     * 游标分页查询工单，数据范围与 {@link #getRequests(Pageable)} 相同，不执行 COUNT。
+     *
+     * @param after      上一页返回的游标，为空字符串时读取第一页
+     * @param pageable   每页条数与排序
+     * @param status     状态筛选，可为 null
+     * @param propertyId 物业ID筛选，可为 null
+     * @return 游标分页结果
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<MaintenanceRequestDto> scrollRequests(String after, Pageable pageable,
+                                                                   MaintenanceStatus status, Long propertyId) {
+        Specification<MaintenanceRequest> scope = scopeOf(getCurrentUser())
+            .and(ScopeSpecifications.attributeEquals("status", status))
+            .and(ScopeSpecifications.attributeEquals("propertyId", propertyId));
+        return KEYSET.scroll(maintenanceRequestRepository, scope, after, pageable, MaintenanceMapper::toDto);
+    }
+
+    /**
+     * 无总数分页查询工单，结果与分页列表相同（关键词优先，其次状态与物业筛选），不执行 COUNT；
+     * 需要时附带短时缓存的近似总数。
+     *
+     * @param pageable         分页参数
+     * @param keyword          搜索关键词，可为 null
+     * @param status           状态筛选，可为 null
+     * @param propertyId       物业ID筛选，可为 null
+     * @param approximateTotal 是否附带近似总数
+     * @return 无总数分页结果
+     */
+    @Transactional(readOnly = true)
+    public SliceResponse<MaintenanceRequestDto> sliceRequests(Pageable pageable, String keyword, MaintenanceStatus status,
+                                                              Long propertyId, boolean approximateTotal) {
+        UserPrincipal principal = getCurrentUser();
+        boolean search = keyword != null && !keyword.trim().isEmpty();
+        Specification<MaintenanceRequest> specification = search
+            ? ScopeSpecifications.anyAttributeContains(keyword.trim(), "description")
+            : scopeOf(principal)
+                .and(ScopeSpecifications.attributeEquals("status", status))
+                .and(ScopeSpecifications.attributeEquals("propertyId", propertyId));
+        Long total = approximateTotal
+            ? countService.count(EntityChangedEvent.MAINTENANCE, maintenanceRequestRepository, specification,
+                search ? null : principal.getId(), search ? keyword.trim() : null,
+                search ? null : status, search ? null : propertyId)
+            : null;
+        return SlicePager.read(maintenanceRequestRepository, specification, pageable, MaintenanceMapper::toDto, total);
+    }
     
     /**
      * 分页获取工单列表（支持状态和物业ID筛选）
@@ -137,7 +300,7 @@ public class MaintenanceRequestService {
         Page<MaintenanceRequest> page;
         
         // 根据角色和筛选条件执行不同的查询
-        if (isAdmin(principal)) {
+        if (principal.isAdmin()) {
             if (status != null && propertyId != null) {
                 page = maintenanceRequestRepository.findAllByStatusAndPropertyId(status, propertyId, pageable);
             } else if (status != null) {
@@ -147,7 +310,7 @@ public class MaintenanceRequestService {
             } else {
                 page = maintenanceRequestRepository.findAll(pageable);
             }
-        } else if (isOwner(principal)) {
+        } else if (principal.isOwner()) {
             Long ownerId = principal.getId();
             if (status != null && propertyId != null) {
                 page = maintenanceRequestRepository.findAllByPropertyOwnerIdAndStatusAndPropertyId(ownerId, status, propertyId, pageable);
@@ -201,13 +364,14 @@ public class MaintenanceRequestService {
     @Transactional
     public MaintenanceRequestDto updateStatus(Long id, MaintenanceStatusUpdate request) {
         UserPrincipal principal = getCurrentUser();
-        if (!isAdmin(principal) && !isOwner(principal)) {
+        if (!principal.isAdmin() && !principal.isOwner()) {
             throw new ForbiddenException("只有管理员或业主可以更新维修状态");
         }
 
         MaintenanceRequest maintenanceRequest = maintenanceRequestRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("未找到维修请求"));
 
+        MaintenanceStatus previousStatus = maintenanceRequest.getStatus();
         maintenanceRequest.setStatus(request.status());
         if (request.status() == MaintenanceStatus.COMPLETED) {
             maintenanceRequest.setCompletedAt(java.time.LocalDateTime.now());
@@ -215,7 +379,30 @@ public class MaintenanceRequestService {
             maintenanceRequest.setCompletedAt(null);
         }
 
-        return MaintenanceMapper.toDto(maintenanceRequestRepository.save(maintenanceRequest));
+        MaintenanceRequest saved = maintenanceRequestRepository.save(maintenanceRequest);
+        Long ownerId = snapshotCache.get(saved.getPropertyId())
+            .map(PropertyDto::ownerId)
+            .orElse(null);
+        rollupService.maintenanceStatusChanged(ownerId, saved.getTenantId(), previousStatus, saved.getStatus());
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.MAINTENANCE,
+            EntityChangedEvent.Action.UPDATED, saved.getId(), ownerId, saved.getTenantId()));
+        activityService.record(EntityChangedEvent.MAINTENANCE, EntityChangedEvent.Action.UPDATED, saved.getId(),
+            ownerId, saved.getTenantId(), "维修状态更新",
+            saved.getPropertyAddress() + "：" + getStatusText(saved.getStatus()));
+        return MaintenanceMapper.toDto(saved);
+    }
+
+    /**
+     * 工单列表的数据范围：管理员全部，业主名下物业，租户本人提报
+     */
+    private static Specification<MaintenanceRequest> scopeOf(UserPrincipal principal) {
+        if (principal.isAdmin()) {
+            return ScopeSpecifications.all();
+        }
+        if (principal.isOwner()) {
+            return ScopeSpecifications.maintenanceOwnedBy(principal.getId());
+        }
+        return ScopeSpecifications.maintenanceReportedBy(principal.getId());
     }
 
     private UserPrincipal getCurrentUser() {
@@ -223,17 +410,6 @@ public class MaintenanceRequestService {
             .orElseThrow(() -> new ForbiddenException("未登录"));
     }
 
-    private boolean isAdmin(UserPrincipal principal) {
-        return SecurityUtils.hasRole(principal, RoleName.ROLE_ADMIN.name());
-    }
-
-    private boolean isOwner(UserPrincipal principal) {
-        return SecurityUtils.hasRole(principal, RoleName.ROLE_OWNER.name());
-    }
-
-    private boolean isTenant(UserPrincipal principal) {
-        return SecurityUtils.hasRole(principal, RoleName.ROLE_TENANT.name());
-    }
     
     private String getStatusText(MaintenanceStatus status) {
         return switch (status) {
@@ -2,6 +2,7 @@ package com.example.propertymanagement.service;
 
 import com.example.propertymanagement.dto.common.PageResponse;
 import com.example.propertymanagement.dto.notification.NotificationDto;
+import com.example.propertymanagement.event.NotificationCreatedEvent;
 import com.example.propertymanagement.exception.ForbiddenException;
 import com.example.propertymanagement.exception.ResourceNotFoundException;
 import com.example.propertymanagement.mapper.NotificationMapper;
@@ -12,6 +13,7 @@ import com.example.propertymanagement.repository.NotificationRepository;
 import com.example.propertymanagement.repository.UserRepository;
 import com.example.propertymanagement.security.UserPrincipal;
 import com.example.propertymanagement.util.SecurityUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -28,11 +30,14 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public NotificationService(NotificationRepository notificationRepository,
-                               UserRepository userRepository) {
+                               UserRepository userRepository,
+                               ApplicationEventPublisher eventPublisher) {
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -67,7 +72,9 @@ public class NotificationService {
             .relatedEntityId(relatedEntityId)
             .build();
 
-        return NotificationMapper.toDto(notificationRepository.save(notification));
+        Notification saved = notificationRepository.save(notification);
+        eventPublisher.publishEvent(new NotificationCreatedEvent(saved.getId(), saved.getRecipientId()));
+        return NotificationMapper.toDto(saved);
     }
 
     /**
@@ -1,24 +1,41 @@
 package com.example.propertymanagement.service;
 
+import com.example.propertymanagement.dto.common.CursorPageResponse;
 import com.example.propertymanagement.dto.common.PageResponse;
+import com.example.propertymanagement.dto.common.SliceResponse;
+import com.example.propertymanagement.dto.common.VersionStamp;
 import com.example.propertymanagement.dto.payment.PaymentDto;
 import com.example.propertymanagement.dto.payment.PaymentRequest;
+import com.example.propertymanagement.event.EntityChangedEvent;
+import com.example.propertymanagement.event.PaymentRecordedEvent;
 import com.example.propertymanagement.exception.ForbiddenException;
 import com.example.propertymanagement.exception.ResourceNotFoundException;
 import com.example.propertymanagement.mapper.PaymentMapper;
 import com.example.propertymanagement.model.Lease;
-import com.example.propertymanagement.model.RoleName;
+import com.example.propertymanagement.model.Payment;
 import com.example.propertymanagement.model.User;
 import com.example.propertymanagement.repository.LeaseRepository;
 import com.example.propertymanagement.repository.PaymentRepository;
+import com.example.propertymanagement.repository.ScopeSpecifications;
 import com.example.propertymanagement.repository.UserRepository;
 import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.util.ExportColumn;
+import com.example.propertymanagement.util.ExportQuery;
+import com.example.propertymanagement.util.ExportSheet;
+import com.example.propertymanagement.util.KeysetPager;
 import com.example.propertymanagement.util.SecurityUtils;
+import com.example.propertymanagement.util.SlicePager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * 租金收支服务：处理租金记录的写入与查询。
  * <p>
@@ -29,12 +46,68 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class PaymentService {
 
+    private static final KeysetPager<Payment> KEYSET =
+        KeysetPager.of(Payment.class, "paymentDate", "amount", "gmtCreate");
+
+    /**
+     * 导出列：Excel 表头与 CSV / NDJSON 抽取共用，字段名与列表接口的 DTO 一致
+     */
+    private static final List<ExportColumn> EXPORT_COLUMNS = List.of(
+        ExportColumn.of("id", "收支ID"),
+        ExportColumn.of("leaseId", "租约ID"),
+        ExportColumn.of("propertyAddress", "物业地址"),
+        new ExportColumn("tenantName", "租户姓名", "tenantUsername"),
+        ExportColumn.of("amount", "金额"),
+        ExportColumn.of("paymentDate", "支付日期"),
+        ExportColumn.of("paymentMethod", "支付方式"),
+        new ExportColumn("createdAt", "创建时间", "gmtCreate"));
+
+    private static final List<String> EXPORT_HEADERS = ExportColumn.labels(EXPORT_COLUMNS);
+
     private final PaymentRepository paymentRepository;
     private final LeaseRepository leaseRepository;
+    private final RevenueSeriesService revenueSeriesService;
+    private final ActivityService activityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApproximateCountService countService;
+    private final ExportRowReader exportRowReader;
+
     public PaymentService(PaymentRepository paymentRepository,
-                          LeaseRepository leaseRepository) {
+                          LeaseRepository leaseRepository,
+                          RevenueSeriesService revenueSeriesService,
+                          ActivityService activityService,
+                          ApplicationEventPublisher eventPublisher,
+                          ApproximateCountService countService,
+                          ExportRowReader exportRowReader) {
         this.paymentRepository = paymentRepository;
         this.leaseRepository = leaseRepository;
+        this.revenueSeriesService = revenueSeriesService;
+        this.activityService = activityService;
+        this.eventPublisher = eventPublisher;
+        this.countService = countService;
+        this.exportRowReader = exportRowReader;
+    }
+
+    /**
+     * 支付记录列表的数据版本（最近修改时间与记录数），范围与列表查询一致，用于条件请求。
+     *
+     * @param leaseId 租约 ID，可为 null；指定时同样校验访问权限
+     */
+    @Transactional(readOnly = true)
+    public VersionStamp getPaymentsVersion(Long leaseId) {
+        UserPrincipal principal = getCurrentUser();
+        if (leaseId != null) {
+            Lease lease = leaseRepository.findById(leaseId)
+                .orElseThrow(() -> new ResourceNotFoundException("未找到租约"));
+            ensureCanAccessLease(lease, principal);
+            return paymentRepository.findVersionByLeaseId(leaseId);
+        }
+        if (principal.isAdmin()) {
+            return paymentRepository.findVersion();
+        } else if (principal.isOwner()) {
+            return paymentRepository.findVersionByLeasePropertyOwnerId(principal.getId());
+        }
+        return paymentRepository.findVersionByTenantId(principal.getId());
     }
 
     /**
@@ -48,10 +121,10 @@ public class PaymentService {
         UserPrincipal principal = getCurrentUser();
         Page<com.example.propertymanagement.model.Payment> page;
 
-        if (isAdmin(principal)) {
+        if (principal.isAdmin()) {
             // 管理员可以查看所有支付记录
             page = paymentRepository.findAll(pageable);
-        } else if (isOwner(principal)) {
+        } else if (principal.isOwner()) {
             // 业主可以查看自己物业的支付记录
             page = paymentRepository.findAllByLeasePropertyOwnerId(principal.getId(), pageable);
         } else {
@@ -62,6 +135,94 @@ public class PaymentService {
         return PageResponse.from(page.map(PaymentMapper::toDto));
     }
 
+    /**
+     * 导出支付记录，指定租约时权限与 {@link #getPaymentsByLease(Long, Pageable)} 相同，否则与 {@link #getAllPayments(Pageable)} 相同；
+     * 数据范围（含租约访问校验）在调用时确定，数据在遍历 {@link ExportSheet#rows()} 时才按 id 分批读取。
+     *
+     * @param leaseId 租约 ID，可为 null
+     * @throws ResourceNotFoundException 指定的租约不存在时抛出
+     * @throws ForbiddenException        无权访问指定租约时抛出
+     */
+    public ExportSheet exportPayments(Long leaseId) {
+        return exportPayments(leaseId, payment -> { });
+    }
+
+    /**
+     * 导出支付记录，并在读取每条记录时回调 observer（在读取线程上执行），用于同一遍读取中汇总统计。
+     *
+     * @param leaseId  租约 ID，可为 null
+     * @param observer 每条记录转换后的回调
+     */
+    public ExportSheet exportPayments(Long leaseId, Consumer<PaymentDto> observer) {
+        Specification<Payment> scope = scopeOf(getCurrentUser(), leaseId);
+        return new ExportSheet("收支记录", EXPORT_HEADERS, action -> exportRowReader.forEach(
+            paymentRepository, scope, payment -> toExportRow(observe(PaymentMapper.toDto(payment), observer)),
+            action));
+    }
+
+    /**
+     * CSV / NDJSON 批量抽取的查询，数据范围与 {@link #exportPayments(Long)} 相同，租约访问校验在调用时执行。
+     *
+     * @param leaseId 租约 ID，可为 null
+     * @throws ResourceNotFoundException 指定的租约不存在时抛出
+     * @throws ForbiddenException        无权访问指定租约时抛出
+     */
+    public ExportQuery<Payment> exportQuery(Long leaseId) {
+        return new ExportQuery<>("收支记录", Payment.class, scopeOf(getCurrentUser(), leaseId), EXPORT_COLUMNS);
+    }
+
+    private static PaymentDto observe(PaymentDto dto, Consumer<PaymentDto> observer) {
+        observer.accept(dto);
+        return dto;
+    }
+
+    private static List<Object> toExportRow(PaymentDto payment) {
+        return Arrays.asList(
+            payment.id(),
+            payment.leaseId(),
+            payment.propertyAddress(),
+            payment.tenantName(),
+            payment.amount(),
+            payment.paymentDate(),
+            payment.paymentMethod(),
+            payment.createdAt()
+        );
+    }
+
+    /**
+     * 游标分页查询支付记录，不执行 COUNT。
+     * 指定租约时权限与 {@link #getPaymentsByLease(Long, Pageable)} 相同，否则与 {@link #getAllPayments(Pageable)} 相同。
+     *
+     * @param after    上一页返回的游标，为空字符串时读取第一页
+     * @param pageable 每页条数与排序
+     * @param leaseId  租约 ID，可为 null
+     * @return 游标分页结果
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PaymentDto> scrollPayments(String after, Pageable pageable, Long leaseId) {
+        return KEYSET.scroll(paymentRepository, scopeOf(getCurrentUser(), leaseId), after, pageable,
+            PaymentMapper::toDto);
+    }
+
+    /**
+     * 无总数分页查询支付记录，权限与 {@link #scrollPayments} 相同，不执行 COUNT；需要时附带短时缓存的近似总数。
+     *
+     * @param pageable         分页参数
+     * @param leaseId          租约 ID，可为 null
+     * @param approximateTotal 是否附带近似总数
+     * @return 无总数分页结果
+     */
+    @Transactional(readOnly = true)
+    public SliceResponse<PaymentDto> slicePayments(Pageable pageable, Long leaseId, boolean approximateTotal) {
+        UserPrincipal principal = getCurrentUser();
+        Specification<Payment> scope = scopeOf(principal, leaseId);
+        Long total = approximateTotal
+            ? countService.count(EntityChangedEvent.PAYMENT, paymentRepository, scope,
+                leaseId != null ? null : principal.getId(), leaseId)
+            : null;
+        return SlicePager.read(paymentRepository, scope, pageable, PaymentMapper::toDto, total);
+    }
+
     /**
      * 查询特定租约对应的支付记录，并在服务层完成权限校验。
      *
@@ -93,7 +254,7 @@ public class PaymentService {
             .orElseThrow(() -> new ResourceNotFoundException("未找到租约"));
         UserPrincipal principal = getCurrentUser();
 
-        if (!isAdmin(principal) && !isOwnerOfLease(lease, principal)) {
+        if (!principal.isAdmin() && !isOwnerOfLease(lease, principal)) {
             throw new ForbiddenException("只有管理员或业主可以记录支付信息");
         }
 
@@ -109,11 +270,20 @@ public class PaymentService {
                 .paymentMethod(request.paymentMethod())
                 .build();
 
-        return PaymentMapper.toDto(paymentRepository.save(payment));
+        com.example.propertymanagement.model.Payment saved = paymentRepository.save(payment);
+        revenueSeriesService.recordPayment(lease.getOwnerId(), saved.getPropertyId(), saved.getPaymentDate(), saved.getAmount());
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.PAYMENT,
+            EntityChangedEvent.Action.CREATED, saved.getId(), lease.getOwnerId(), lease.getTenantId()));
+        eventPublisher.publishEvent(new PaymentRecordedEvent(saved.getId(), lease.getOwnerId(),
+            lease.getTenantId(), saved.getAmount()));
+        activityService.record(EntityChangedEvent.PAYMENT, EntityChangedEvent.Action.CREATED, saved.getId(),
+            lease.getOwnerId(), lease.getTenantId(), "收到租金",
+            "物业: " + saved.getPropertyAddress() + "，金额: " + saved.getAmount());
+        return PaymentMapper.toDto(saved);
     }
 
     private void ensureCanAccessLease(Lease lease, UserPrincipal principal) {
-        if (isAdmin(principal)) {
+        if (principal.isAdmin()) {
             return;
         }
         if (isOwnerOfLease(lease, principal)) {
@@ -129,16 +299,27 @@ public class PaymentService {
         return lease.getOwnerId().equals(principal.getId());
     }
 
+    /**
+     * 支付列表的数据范围：指定租约时先校验访问权限；否则管理员全部，业主名下租约，租户本人
+     */
+    private Specification<Payment> scopeOf(UserPrincipal principal, Long leaseId) {
+        if (leaseId != null) {
+            Lease lease = leaseRepository.findById(leaseId)
+                .orElseThrow(() -> new ResourceNotFoundException("未找到租约"));
+            ensureCanAccessLease(lease, principal);
+            return ScopeSpecifications.attributeEquals("leaseId", leaseId);
+        }
+        if (principal.isAdmin()) {
+            return ScopeSpecifications.all();
+        }
+        if (principal.isOwner()) {
+            return ScopeSpecifications.paymentsOwnedBy(principal.getId());
+        }
+        return ScopeSpecifications.paymentsPaidBy(principal.getId());
+    }
+
     private UserPrincipal getCurrentUser() {
         return SecurityUtils.getCurrentUserPrincipal()
             .orElseThrow(() -> new ForbiddenException("未登录"));
     }
-
-    private boolean isAdmin(UserPrincipal principal) {
-        return SecurityUtils.hasRole(principal, RoleName.ROLE_ADMIN.name());
-    }
-
-    private boolean isOwner(UserPrincipal principal) {
-        return SecurityUtils.hasRole(principal, RoleName.ROLE_OWNER.name());
-    }
 }
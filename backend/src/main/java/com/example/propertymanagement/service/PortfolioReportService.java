@@ -0,0 +1,214 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.config.ExportProperties;
+import com.example.propertymanagement.dto.lease.LeaseDto;
+import com.example.propertymanagement.dto.maintenance.MaintenanceRequestDto;
+import com.example.propertymanagement.dto.payment.PaymentDto;
+import com.example.propertymanagement.dto.property.PropertyDto;
+import com.example.propertymanagement.exception.ApiException;
+import com.example.propertymanagement.exception.ForbiddenException;
+import com.example.propertymanagement.model.LeaseStatus;
+import com.example.propertymanagement.model.MaintenanceStatus;
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.util.ExportSheet;
+import com.example.propertymanagement.util.SecurityUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 物业组合报表：一个工作簿包含汇总、物业、租约、收支、维修五张表，代替分别调用四个 /export 接口。
+ * <ul>
+ *   <li>数据范围与各列表的 /export 相同：业主为名下数据，管理员为全部数据，在请求线程上确定；</li>
+ *   <li>四张数据表在有界线程池中并发读取，各自按 id 分批、每批使用独立的只读事务（见 {@link ExportRowReader}），
+ *       写入工作簿仍在单个线程上流式进行，内存占用与数据量无关；</li>
+ *   <li>汇总表（出租情况、按月收入、未完成工单）在读取数据表的同一遍中累计，不额外查询，
+ *       数字与数据表的内容完全对应。</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class PortfolioReportService {
+
+    private static final List<String> SUMMARY_HEADERS = List.of("分类", "项目", "数值");
+
+    private final PropertyService propertyService;
+    private final LeaseService leaseService;
+    private final PaymentService paymentService;
+    private final MaintenanceRequestService maintenanceRequestService;
+    private final ExcelExportService excelExportService;
+    private final ThreadPoolExecutor executor;
+
+    public PortfolioReportService(PropertyService propertyService,
+                                  LeaseService leaseService,
+                                  PaymentService paymentService,
+                                  MaintenanceRequestService maintenanceRequestService,
+                                  ExcelExportService excelExportService,
+                                  ExportProperties exportProperties) {
+        this.propertyService = propertyService;
+        this.leaseService = leaseService;
+        this.paymentService = paymentService;
+        this.maintenanceRequestService = maintenanceRequestService;
+        this.excelExportService = excelExportService;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            exportProperties.getReportThreads(),
+            exportProperties.getReportThreads(),
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(exportProperties.getReportQueueCapacity()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "report-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 按当前用户确定报表的数据范围；数据在 {@link #write(PortfolioReport, OutputStream)} 时才读取
+     *
+     * @throws ForbiddenException 未登录或既不是业主也不是管理员时抛出
+     */
+    public PortfolioReport prepare() {
+        UserPrincipal principal = SecurityUtils.getCurrentUserPrincipal()
+            .orElseThrow(() -> new ForbiddenException("未登录"));
+        if (!principal.isAdmin() && !principal.isOwner()) {
+            throw new ForbiddenException("仅业主和管理员可以生成组合报表");
+        }
+        Long ownerId = principal.isAdmin() ? null : principal.getId();
+        PortfolioSummary summary = new PortfolioSummary();
+        List<ExportSheet> sheets = List.of(
+            propertyService.exportProperties(ownerId, summary::acceptProperty),
+            leaseService.exportLeases(summary::acceptLease),
+            paymentService.exportPayments(null, summary::acceptPayment),
+            maintenanceRequestService.exportRequests(summary::acceptRequest));
+        return new PortfolioReport("物业组合报表", sheets, summary::toSheet);
+    }
+
+    /**
+     * 并发读取各数据表并写出工作簿，汇总表位于第一张
+     *
+     * @param report {@link #prepare()} 返回的报表
+     * @param out    输出流（不会被关闭）
+     * @throws ApiException 读取线程池已满时抛出（503），此时尚未写出任何内容
+     */
+    public void write(PortfolioReport report, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        try {
+            excelExportService.writeExcelConcurrently(report.sheets(), report.summary(), executor, out);
+        } catch (RejectedExecutionException e) {
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "报表生成任务过多，请稍后重试");
+        }
+        log.info("组合报表生成完成: elapsedMs={}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * 待生成的组合报表
+     *
+     * @param name    文件基础名
+     * @param sheets  数据表，按顺序排列
+     * @param summary 汇总表，在全部数据表读取完成后生成
+     */
+    public record PortfolioReport(String name, List<ExportSheet> sheets, Supplier<ExportSheet> summary) {
+    }
+
+    /**
+     * 汇总统计。每类记录只在读取对应数据表的一个线程上累计，
+     * 读取结果经写入线程的阻塞队列交付，汇总表生成时各字段的写入都已可见。
+     */
+    private static final class PortfolioSummary {
+
+        private long properties;
+        private final Map<PropertyStatus, Long> propertiesByStatus = new EnumMap<>(PropertyStatus.class);
+        private long activeLeases;
+        private BigDecimal activeRent = BigDecimal.ZERO;
+        private final Map<YearMonth, BigDecimal> incomeByMonth = new TreeMap<>();
+        private final Map<MaintenanceStatus, Long> openRequests = new EnumMap<>(MaintenanceStatus.class);
+
+        void acceptProperty(PropertyDto property) {
+            properties++;
+            if (property.status() != null) {
+                propertiesByStatus.merge(property.status(), 1L, Long::sum);
+            }
+        }
+
+        void acceptLease(LeaseDto lease) {
+            if (lease.status() == LeaseStatus.ACTIVE) {
+                activeLeases++;
+                if (lease.rentAmount() != null) {
+                    activeRent = activeRent.add(lease.rentAmount());
+                }
+            }
+        }
+
+        void acceptPayment(PaymentDto payment) {
+            if (payment.paymentDate() != null && payment.amount() != null) {
+                incomeByMonth.merge(YearMonth.from(payment.paymentDate()), payment.amount(), BigDecimal::add);
+            }
+        }
+
+        void acceptRequest(MaintenanceRequestDto request) {
+            if (request.status() == MaintenanceStatus.PENDING || request.status() == MaintenanceStatus.IN_PROGRESS) {
+                openRequests.merge(request.status(), 1L, Long::sum);
+            }
+        }
+
+        ExportSheet toSheet() {
+            List<List<Object>> rows = new ArrayList<>();
+            long leased = propertiesByStatus.getOrDefault(PropertyStatus.LEASED, 0L);
+            rows.add(row("出租情况", "物业总数", properties));
+            rows.add(row("出租情况", "已出租", leased));
+            rows.add(row("出租情况", "空置", propertiesByStatus.getOrDefault(PropertyStatus.AVAILABLE, 0L)));
+            rows.add(row("出租情况", "维修中", propertiesByStatus.getOrDefault(PropertyStatus.UNDER_MAINTENANCE, 0L)));
+            rows.add(row("出租情况", "出租率", properties == 0 ? "-" : BigDecimal.valueOf(leased * 100)
+                .divide(BigDecimal.valueOf(properties), 1, RoundingMode.HALF_UP) + "%"));
+            rows.add(row("出租情况", "生效租约数", activeLeases));
+            rows.add(row("出租情况", "生效租约月租金合计", activeRent));
+
+            BigDecimal totalIncome = BigDecimal.ZERO;
+            for (Map.Entry<YearMonth, BigDecimal> entry : incomeByMonth.entrySet()) {
+                rows.add(row("月度收入", entry.getKey().toString(), entry.getValue()));
+                totalIncome = totalIncome.add(entry.getValue());
+            }
+            rows.add(row("月度收入", "合计", totalIncome));
+
+            long pending = openRequests.getOrDefault(MaintenanceStatus.PENDING, 0L);
+            long inProgress = openRequests.getOrDefault(MaintenanceStatus.IN_PROGRESS, 0L);
+            rows.add(row("未完成工单", "待处理", pending));
+            rows.add(row("未完成工单", "处理中", inProgress));
+            rows.add(row("未完成工单", "合计", pending + inProgress));
+            return ExportSheet.of("汇总", SUMMARY_HEADERS, rows);
+        }
+
+        private static List<Object> row(String category, String item, Object value) {
+            return Arrays.asList(category, item, value);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.config.ListQueryProperties;
+import com.example.propertymanagement.dto.property.FacetBucket;
+import com.example.propertymanagement.dto.property.PropertyFacetsResponse;
+import com.example.propertymanagement.dto.property.PropertyFilterRequest;
+import com.example.propertymanagement.event.EntityChangedEvent;
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.model.PropertyType;
+import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.repository.PropertySpecifications;
+import com.example.propertymanagement.util.TtlCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 物业分面统计：一次请求返回状态、类型、城市、卧室数档位、租金区间各取值的物业数。
+ * <ul>
+ *   <li>每个分面一条分组 SQL（租金区间用一条条件求和 SQL），通过 {@link QueryFanOutExecutor} 并发执行；</li>
+ *   <li>分面计数应用除自身以外的筛选条件（例如已选“可租”时，状态分面仍显示各状态的数量）；</li>
+ *   <li>完整结果按筛选条件缓存，物业或租约变更（影响物业状态）后失效；部分失败的结果不缓存。</li>
+ * </ul>
+ */
+@Service
+public class PropertyFacetService {
+
+    public static final String TOTAL = "total";
+    public static final String STATUS = "status";
+    public static final String PROPERTY_TYPE = "propertyType";
+    public static final String CITY = "city";
+    public static final String BEDROOMS = "bedrooms";
+    public static final String RENT = "rent";
+
+    private static final int MAX_CITIES = 20;
+    private static final int MAX_BEDROOM_VALUES = 50;
+    private static final int BEDROOMS_OPEN_BUCKET = 4;
+    private static final List<BigDecimal> RENT_BOUNDARIES = List.of(
+        BigDecimal.ZERO, BigDecimal.valueOf(2000), BigDecimal.valueOf(4000), BigDecimal.valueOf(6000),
+        BigDecimal.valueOf(10000));
+
+    private final PropertyRepository propertyRepository;
+    private final QueryFanOutExecutor queryExecutor;
+    private final TtlCache<FacetKey, PropertyFacetsResponse> cache;
+
+    public PropertyFacetService(PropertyRepository propertyRepository,
+                                QueryFanOutExecutor queryExecutor,
+                                ListQueryProperties properties) {
+        this.propertyRepository = propertyRepository;
+        this.queryExecutor = queryExecutor;
+        this.cache = new TtlCache<>(properties.getFacetCacheMaxEntries(), properties.getFacetCacheTtlSeconds(),
+            TimeUnit.SECONDS);
+    }
+
+    /**
+     * 统计当前筛选条件下的各分面计数。
+     *
+     * @param filter 与物业列表相同的筛选条件
+     * @throws com.example.propertymanagement.exception.BadRequestException 状态或类型取值无效时抛出
+     */
+    public PropertyFacetsResponse getFacets(PropertyFilterRequest filter) {
+        // 在调用线程上校验筛选条件，无效参数直接返回 400 而不是记为统计失败
+        PropertySpecifications.matching(filter);
+        return cache.get(FacetKey.of(filter), () -> compute(filter), response -> !response.partial());
+    }
+
+    /**
+     * 物业或租约变更后失效全部缓存（租约变更会修改物业状态）。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (EntityChangedEvent.PROPERTY.equals(event.entityType())
+            || EntityChangedEvent.LEASE.equals(event.entityType())) {
+            cache.invalidateAll();
+        }
+    }
+
+    public TtlCache.Stats stats() {
+        return cache.stats();
+    }
+
+    private PropertyFacetsResponse compute(PropertyFilterRequest filter) {
+        Map<String, Supplier<Object>> queries = new LinkedHashMap<>();
+        queries.put(TOTAL, () -> propertyRepository.count(PropertySpecifications.matching(filter)));
+        queries.put(STATUS, () -> enumBuckets(PropertyStatus.values(), grouped(
+            filter.toBuilder().status(null).build(), "status", PropertyStatus.values().length)));
+        queries.put(PROPERTY_TYPE, () -> enumBuckets(PropertyType.values(), grouped(
+            filter.toBuilder().propertyType(null).build(), "propertyType", PropertyType.values().length)));
+        queries.put(CITY, () -> valueBuckets(grouped(filter.toBuilder().city(null).build(), "city", MAX_CITIES)));
+        queries.put(BEDROOMS, () -> bedroomBuckets(grouped(
+            filter.toBuilder().minBedrooms(null).maxBedrooms(null).build(), "bedrooms", MAX_BEDROOM_VALUES)));
+        queries.put(RENT, () -> rentBuckets(propertyRepository.countInRanges(PropertySpecifications.matching(
+            filter.toBuilder().minRent(null).maxRent(null).build()), "rentAmount", RENT_BOUNDARIES)));
+
+        Map<String, CompletableFuture<Optional<Object>>> futures = new LinkedHashMap<>();
+        queries.forEach((name, query) -> futures.put(name, queryExecutor.submit("facets." + name, query)));
+        CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+
+        Long total = null;
+        Map<String, List<FacetBucket>> facets = new LinkedHashMap<>();
+        List<String> failed = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<Optional<Object>>> entry : futures.entrySet()) {
+            Optional<Object> result = entry.getValue().join();
+            if (result.isEmpty()) {
+                failed.add(entry.getKey());
+            } else if (TOTAL.equals(entry.getKey())) {
+                total = (Long) result.get();
+            } else {
+                @SuppressWarnings("unchecked")
+                List<FacetBucket> buckets = (List<FacetBucket>) result.get();
+                facets.put(entry.getKey(), buckets);
+            }
+        }
+        return new PropertyFacetsResponse(total, facets, !failed.isEmpty(), failed);
+    }
+
+    private Map<Object, Long> grouped(PropertyFilterRequest filter, String attribute, int limit) {
+        return propertyRepository.countGroupedBy(PropertySpecifications.matching(filter), attribute, limit);
+    }
+
+    /**
+     * 枚举分面列出全部取值（数量为 0 的也列出），按枚举声明顺序
+     */
+    private static List<FacetBucket> enumBuckets(Enum<?>[] values, Map<Object, Long> counts) {
+        return Arrays.stream(values)
+            .map(value -> new FacetBucket(value.name(), counts.getOrDefault(value, 0L)))
+            .toList();
+    }
+
+    private static List<FacetBucket> valueBuckets(Map<Object, Long> counts) {
+        List<FacetBucket> buckets = new ArrayList<>(counts.size());
+        counts.forEach((value, count) -> buckets.add(new FacetBucket(String.valueOf(value), count)));
+        return buckets;
+    }
+
+    /**
+     * 卧室数按 0、1、2、3、4+ 分档
+     */
+    private static List<FacetBucket> bedroomBuckets(Map<Object, Long> counts) {
+        long[] buckets = new long[BEDROOMS_OPEN_BUCKET + 1];
+        counts.forEach((value, count) -> {
+            int bedrooms = ((Number) value).intValue();
+            if (bedrooms >= 0) {
+                buckets[Math.min(bedrooms, BEDROOMS_OPEN_BUCKET)] += count;
+            }
+        });
+        List<FacetBucket> result = new ArrayList<>(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            result.add(new FacetBucket(i == BEDROOMS_OPEN_BUCKET ? i + "+" : String.valueOf(i), buckets[i]));
+        }
+        return result;
+    }
+
+    /**
+     * 租金区间标签形如 {@code 2000-4000}，最后一档为 {@code 10000+}
+     */
+    private static List<FacetBucket> rentBuckets(long[] counts) {
+        List<FacetBucket> result = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            String label = i + 1 < RENT_BOUNDARIES.size()
+                ? RENT_BOUNDARIES.get(i).toPlainString() + "-" + RENT_BOUNDARIES.get(i + 1).toPlainString()
+                : RENT_BOUNDARIES.get(i).toPlainString() + "+";
+            result.add(new FacetBucket(label, counts[i]));
+        }
+        return result;
+    }
+
+    /**
+     * 筛选条件签名：字符串参数规范化后参与比较，使大小写、首尾空格不同的请求共用缓存
+     */
+    private record FacetKey(Long ownerId, String keyword, String status, String propertyType, Double minRent,
+                            Double maxRent, Integer minBedrooms, Integer maxBedrooms, String city) {
+
+        static FacetKey of(PropertyFilterRequest filter) {
+            return new FacetKey(filter.getOwnerId(), normalize(filter.getKeyword()), normalize(filter.getStatus()),
+                normalize(filter.getPropertyType()), filter.getMinRent(), filter.getMaxRent(),
+                filter.getMinBedrooms(), filter.getMaxBedrooms(), normalize(filter.getCity()));
+        }
+
+        private static String normalize(String value) {
+            return StringUtils.hasText(value) ? value.trim().toLowerCase(Locale.ROOT) : null;
+        }
+    }
+}
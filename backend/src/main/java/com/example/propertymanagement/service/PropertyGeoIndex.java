@@ -0,0 +1,212 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.dto.property.PropertyGeoPoint;
+import com.example.propertymanagement.model.Property;
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.util.GeoMath;
+import com.example.propertymanagement.util.IndexUpdater;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * 物业坐标的内存网格索引，支持半径与地图视窗（矩形）查询。
+ * <ul>
+ *   <li>按 {@value #CELL_DEGREES}° 的经纬度网格分桶（赤道附近约 11 km），矩形查询只访问覆盖到的网格；
+ *       矩形覆盖的网格数多于物业数时直接扫描全部条目；</li>
+ *   <li>条目带业主、状态、类型，筛选在内存完成，地图聚合不需要查询数据库；</li>
+ *   <li>{@link PropertyService} 与 {@link LeaseService} 在物业坐标或状态变化时登记变更，事务提交后才写入索引；
+ *       启动时流式扫描物业表重建。</li>
+ * </ul>
+ * 索引尚未构建完成时 {@link #isReady()} 为 false，调用方应退回数据库查询。
+ */
+@Slf4j
+@Component
+public class PropertyGeoIndex {
+
+    private static final double CELL_DEGREES = 0.1;
+
+    private static final int ROWS = (int) Math.ceil(180 / CELL_DEGREES) + 1;
+    private static final int COLUMNS = (int) Math.ceil(360 / CELL_DEGREES) + 1;
+
+    private final PropertyRepository propertyRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IndexUpdater updater = new IndexUpdater(lock.writeLock());
+
+    private Map<Long, PropertyGeoPoint> points = new HashMap<>();
+    private Map<Long, Set<Long>> cells = new HashMap<>();
+    private volatile boolean ready;
+
+    public PropertyGeoIndex(PropertyRepository propertyRepository) {
+        this.propertyRepository = propertyRepository;
+    }
+
+    /**
+     * 应用启动后流式扫描物业表构建索引；失败时保持未就绪状态，地图查询退回数据库。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("构建物业地理索引失败，地图查询将使用数据库", e);
+        }
+    }
+
+    /**
+     * 全量重建索引（需在事务内调用，以便流式读取）。
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        updater.beginRebuild();
+
+        Map<Long, PropertyGeoPoint> newPoints = new HashMap<>();
+        Map<Long, Set<Long>> newCells = new HashMap<>();
+        try (Stream<PropertyGeoPoint> stream = propertyRepository.streamGeoPoints()) {
+            stream.forEach(point -> add(newPoints, newCells, point));
+        } catch (RuntimeException e) {
+            updater.abortRebuild();
+            throw e;
+        }
+
+        updater.finishRebuild(() -> {
+            points = newPoints;
+            cells = newCells;
+        });
+        ready = true;
+        log.info("物业地理索引构建完成：{} 条物业，{} 个网格，耗时 {} ms",
+            newPoints.size(), newCells.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 写入或更新物业（坐标被清空时移除）；处于事务中时推迟到提交后生效，回滚则不生效。
+     */
+    public void index(Property property) {
+        Long id = property.getId();
+        PropertyGeoPoint point = PropertyGeoPoint.of(property);
+        updater.afterCommit(() -> {
+            remove(points, cells, id);
+            if (point != null) {
+                add(points, cells, point);
+            }
+        });
+    }
+
+    /**
+     * 只修改已索引物业的状态（批量改状态时使用，无需加载实体）；处于事务中时推迟到提交后生效。
+     */
+    public void updateStatus(Long propertyId, PropertyStatus status) {
+        updater.afterCommit(() -> points.computeIfPresent(propertyId, (id, point) -> point.withStatus(status)));
+    }
+
+    /**
+     * 移除物业；处于事务中时推迟到提交后生效。
+     */
+    public void remove(Long propertyId) {
+        updater.afterCommit(() -> remove(points, cells, propertyId));
+    }
+
+    /**
+     * 返回矩形范围内满足条件的条目（无固定顺序）
+     */
+    public List<PropertyGeoPoint> within(GeoMath.Bounds bounds, Predicate<PropertyGeoPoint> filter) {
+        int minRow = row(bounds.minLat());
+        int maxRow = row(bounds.maxLat());
+        int minColumn = column(bounds.minLng());
+        int maxColumn = column(bounds.maxLng());
+        long cellCount = (long) (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+
+        List<PropertyGeoPoint> result = new ArrayList<>();
+        Predicate<PropertyGeoPoint> accept = point -> bounds.contains(point.latitude(), point.longitude())
+            && filter.test(point);
+        lock.readLock().lock();
+        try {
+            if (cellCount > points.size()) {
+                points.values().stream().filter(accept).forEach(result::add);
+                return result;
+            }
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    Set<Long> ids = cells.get(cellKey(row, column));
+                    if (ids == null) {
+                        continue;
+                    }
+                    for (Long id : ids) {
+                        PropertyGeoPoint point = points.get(id);
+                        if (accept.test(point)) {
+                            result.add(point);
+                        }
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void add(Map<Long, PropertyGeoPoint> points, Map<Long, Set<Long>> cells, PropertyGeoPoint point) {
+        points.put(point.id(), point);
+        cells.computeIfAbsent(cellKey(point), key -> new HashSet<>()).add(point.id());
+    }
+
+    private static void remove(Map<Long, PropertyGeoPoint> points, Map<Long, Set<Long>> cells, Long id) {
+        PropertyGeoPoint point = points.remove(id);
+        if (point == null) {
+            return;
+        }
+        long key = cellKey(point);
+        Set<Long> ids = cells.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private static long cellKey(PropertyGeoPoint point) {
+        return cellKey(row(point.latitude()), column(point.longitude()));
+    }
+
+    private static long cellKey(int row, int column) {
+        return (long) row * COLUMNS + column;
+    }
+
+    private static int row(double latitude) {
+        return Math.min(ROWS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES));
+    }
+
+    private static int column(double longitude) {
+        return Math.min(COLUMNS - 1, (int) Math.floor((longitude + 180) / CELL_DEGREES));
+    }
+}
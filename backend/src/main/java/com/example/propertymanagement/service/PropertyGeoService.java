@@ -0,0 +1,215 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.dto.property.GeoClusterDto;
+import com.example.propertymanagement.dto.property.GeoClusterResponse;
+import com.example.propertymanagement.dto.property.NearbyPropertyDto;
+import com.example.propertymanagement.dto.property.PropertyDto;
+import com.example.propertymanagement.dto.property.PropertyGeoPoint;
+import com.example.propertymanagement.dto.property.PropertyMapViewResponse;
+import com.example.propertymanagement.exception.BadRequestException;
+import com.example.propertymanagement.mapper.PropertyMapper;
+import com.example.propertymanagement.model.Property;
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.model.PropertyType;
+import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.repository.PropertySpecifications;
+import com.example.propertymanagement.util.GeoMath;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * 物业地图查询：附近搜索、地图视窗查询与按瓦片聚合。
+ * 候选物业来自 {@link PropertyGeoIndex}（未就绪时按矩形查询数据库），
+ * 业主、状态、类型筛选在候选上完成，只有最终返回的物业才从数据库加载。
+ */
+@Service
+public class PropertyGeoService {
+
+    public static final double MAX_RADIUS_KM = 200;
+    public static final int MAX_NEARBY_LIMIT = 200;
+    public static final int MAX_VIEW_LIMIT = 1000;
+    public static final int MAX_ZOOM = 22;
+
+    private final PropertyRepository propertyRepository;
+    private final PropertyGeoIndex geoIndex;
+
+    public PropertyGeoService(PropertyRepository propertyRepository, PropertyGeoIndex geoIndex) {
+        this.propertyRepository = propertyRepository;
+        this.geoIndex = geoIndex;
+    }
+
+    /**
+     * 按距离由近到远返回半径范围内的物业。
+     *
+     * @param latitude     圆心纬度
+     * @param longitude    圆心经度
+     * @param radiusKm     半径（千米），不超过 {@value #MAX_RADIUS_KM}
+     * @param ownerId      业主 ID，可为 null
+     * @param status       物业状态，可为空
+     * @param propertyType 物业类型，可为空
+     * @param limit        最多返回条数，不超过 {@value #MAX_NEARBY_LIMIT}
+     * @throws BadRequestException 坐标、半径或筛选条件无效时抛出
+     */
+    @Transactional(readOnly = true)
+    public List<NearbyPropertyDto> findNearby(double latitude, double longitude, double radiusKm,
+                                              Long ownerId, String status, String propertyType, int limit) {
+        GeoMath.checkCoordinate(latitude, longitude);
+        if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+            throw new BadRequestException("搜索半径需在 0 到 " + (int) MAX_RADIUS_KM + " 千米之间");
+        }
+
+        Map<Long, Double> distances = new HashMap<>();
+        List<PropertyGeoPoint> candidates = candidates(GeoMath.Bounds.around(latitude, longitude, radiusKm),
+            filter(ownerId, status, propertyType));
+        for (PropertyGeoPoint point : candidates) {
+            double distance = GeoMath.distanceKm(latitude, longitude, point.latitude(), point.longitude());
+            if (distance <= radiusKm) {
+                distances.put(point.id(), distance);
+            }
+        }
+
+        List<Long> ids = distances.keySet().stream()
+            .sorted(Comparator.<Long>comparingDouble(distances::get).thenComparing(Comparator.naturalOrder()))
+            .limit(clamp(limit, MAX_NEARBY_LIMIT))
+            .toList();
+        return loadInOrder(ids).stream()
+            .map(property -> new NearbyPropertyDto(property, Math.round(distances.get(property.id()) * 1000) / 1000.0))
+            .toList();
+    }
+
+    /**
+     * 返回地图视窗内的物业（按ID倒序，最多 {@code limit} 条）及视窗内的总数。
+     *
+     * @throws BadRequestException 视窗或筛选条件无效时抛出
+     */
+    @Transactional(readOnly = true)
+    public PropertyMapViewResponse findWithin(GeoMath.Bounds bounds, Long ownerId, String status,
+                                              String propertyType, int limit) {
+        List<PropertyGeoPoint> candidates = candidates(bounds, filter(ownerId, status, propertyType));
+        List<Long> ids = candidates.stream()
+            .map(PropertyGeoPoint::id)
+            .sorted(Comparator.reverseOrder())
+            .limit(clamp(limit, MAX_VIEW_LIMIT))
+            .toList();
+        List<PropertyDto> content = loadInOrder(ids);
+        return new PropertyMapViewResponse(content, candidates.size(), candidates.size() > ids.size());
+    }
+
+    /**
+     * 将视窗内的物业按缩放级别对应的地图瓦片聚合，只返回每个瓦片的数量与中心点，不查询物业明细。
+     *
+     * @param bounds 地图视窗
+     * @param zoom   缩放级别（0-{@value #MAX_ZOOM}），级别越高瓦片越小
+     * @throws BadRequestException 视窗、缩放级别或筛选条件无效时抛出
+     */
+    @Transactional(readOnly = true)
+    public GeoClusterResponse cluster(GeoMath.Bounds bounds, int zoom, Long ownerId, String status,
+                                      String propertyType) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new BadRequestException("缩放级别需在 0 到 " + MAX_ZOOM + " 之间");
+        }
+        List<PropertyGeoPoint> candidates = candidates(bounds, filter(ownerId, status, propertyType));
+
+        Map<Long, Tile> tiles = new HashMap<>();
+        for (PropertyGeoPoint point : candidates) {
+            int x = GeoMath.tileX(point.longitude(), zoom);
+            int y = GeoMath.tileY(point.latitude(), zoom);
+            tiles.computeIfAbsent(((long) y << 32) | x, key -> new Tile(x, y)).add(point);
+        }
+        List<GeoClusterDto> clusters = tiles.values().stream()
+            .sorted(Comparator.comparingInt(Tile::y).thenComparingInt(Tile::x))
+            .map(Tile::toDto)
+            .toList();
+        return new GeoClusterResponse(zoom, candidates.size(), clusters);
+    }
+
+    private List<PropertyGeoPoint> candidates(GeoMath.Bounds bounds, Predicate<PropertyGeoPoint> filter) {
+        if (geoIndex.isReady()) {
+            return geoIndex.within(bounds, filter);
+        }
+        return propertyRepository.findGeoPointsWithin(bounds.minLat(), bounds.maxLat(), bounds.minLng(),
+                bounds.maxLng()).stream()
+            .filter(filter)
+            .toList();
+    }
+
+    private static Predicate<PropertyGeoPoint> filter(Long ownerId, String status, String propertyType) {
+        PropertyStatus statusValue = StringUtils.hasText(status) ? PropertySpecifications.parseStatus(status) : null;
+        PropertyType typeValue = StringUtils.hasText(propertyType)
+            ? PropertySpecifications.parseType(propertyType) : null;
+        return point -> (ownerId == null || ownerId.equals(point.ownerId()))
+            && (statusValue == null || statusValue == point.status())
+            && (typeValue == null || typeValue == point.propertyType());
+    }
+
+    private static int clamp(int limit, int max) {
+        return Math.max(1, Math.min(limit, max));
+    }
+
+    /**
+     * 按给定ID顺序加载物业；查询期间被删除的物业被跳过。
+     */
+    private List<PropertyDto> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Property> loaded = new HashMap<>();
+        propertyRepository.findAllById(ids).forEach(property -> loaded.put(property.getId(), property));
+        List<PropertyDto> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Property property = loaded.get(id);
+            if (property != null) {
+                result.add(PropertyMapper.toDto(property));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 单个瓦片的聚合累加器
+     */
+    private static final class Tile {
+
+        private final int x;
+        private final int y;
+        private int count;
+        private double latitudeSum;
+        private double longitudeSum;
+        private Long firstId;
+
+        Tile(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        void add(PropertyGeoPoint point) {
+            if (count == 0) {
+                firstId = point.id();
+            }
+            count++;
+            latitudeSum += point.latitude();
+            longitudeSum += point.longitude();
+        }
+
+        int x() {
+            return x;
+        }
+
+        int y() {
+            return y;
+        }
+
+        GeoClusterDto toDto() {
+            return new GeoClusterDto(x, y, count, latitudeSum / count, longitudeSum / count,
+                count == 1 ? firstId : null);
+        }
+    }
+}
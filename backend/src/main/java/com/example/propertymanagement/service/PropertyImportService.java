@@ -0,0 +1,509 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.dto.property.ImportRowError;
+import com.example.propertymanagement.dto.property.PropertyImportResult;
+import com.example.propertymanagement.dto.user.UserRef;
+import com.example.propertymanagement.event.EntityChangedEvent;
+import com.example.propertymanagement.exception.BadRequestException;
+import com.example.propertymanagement.exception.ForbiddenException;
+import com.example.propertymanagement.model.Property;
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.model.PropertyType;
+import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.repository.UserRepository;
+import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.util.SecurityUtils;
+import com.example.propertymanagement.util.TabularFileReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 物业批量导入（.xlsx / .csv）：
+ * <ul>
+ *   <li>上传文件由 {@link TabularFileReader} 流式逐行读取，每 {@value #CHUNK_SIZE} 行为一批处理，内存占用与文件大小无关；</li>
+ *   <li>每批先并行校验各行（与 {@code PropertyRequest} 的校验规则一致），再用至多两条 IN 查询解析本批新出现的业主，
+ *       已解析的业主在整个导入过程中缓存；</li>
+ *   <li>校验通过的行在独立事务中以 JDBC 批处理插入，并同步汇总计数、搜索/地理/联想索引与保存搜索提醒；
+ *       某批写入失败只影响该批，已提交的批次保留；</li>
+ *   <li>第一行为表头，列名兼容物业导出文件（中文）及英文字段名，未识别的列忽略。</li>
+ * </ul>
+ * 管理员需在每行指定业主（业主ID或业主用户名）；业主只能为自己导入，业主列可留空。
+ */
+@Slf4j
+@Service
+public class PropertyImportService {
+
+    static final int CHUNK_SIZE = 1000;
+    static final int MAX_ERRORS = 1000;
+
+    private static final BigDecimal MAX_BATHROOMS = new BigDecimal("99.9");
+    private static final BigDecimal MAX_RENT = new BigDecimal("99999999.99");
+
+    private static final Map<String, Column> HEADER_ALIASES = new HashMap<>();
+
+    static {
+        alias(Column.OWNER_ID, "业主ID", "ownerId", "owner_id");
+        alias(Column.OWNER_USERNAME, "业主用户名", "业主", "ownerUsername", "owner_username", "owner");
+        alias(Column.ADDRESS, "地址", "详细地址", "address");
+        alias(Column.CITY, "城市", "city");
+        alias(Column.STATE, "州/省", "省份", "state");
+        alias(Column.ZIP_CODE, "邮编", "zipCode", "zip_code", "zip");
+        alias(Column.PROPERTY_TYPE, "物业类型", "类型", "propertyType", "property_type", "type");
+        alias(Column.BEDROOMS, "卧室数", "bedrooms");
+        alias(Column.BATHROOMS, "浴室数", "卫生间数", "bathrooms");
+        alias(Column.SQUARE_FOOTAGE, "面积(平方英尺)", "面积", "squareFootage", "square_footage");
+        alias(Column.STATUS, "状态", "status");
+        alias(Column.RENT_AMOUNT, "租金", "rentAmount", "rent_amount", "rent");
+        alias(Column.LATITUDE, "纬度", "latitude", "lat");
+        alias(Column.LONGITUDE, "经度", "longitude", "lng", "lon");
+    }
+
+    private final PropertyRepository propertyRepository;
+    private final UserRepository userRepository;
+    private final DashboardRollupService rollupService;
+    private final PropertySearchIndex searchIndex;
+    private final PropertyGeoIndex geoIndex;
+    private final SuggestionService suggestionService;
+    private final SavedSearchService savedSearchService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public PropertyImportService(PropertyRepository propertyRepository,
+                                 UserRepository userRepository,
+                                 DashboardRollupService rollupService,
+                                 PropertySearchIndex searchIndex,
+                                 PropertyGeoIndex geoIndex,
+                                 SuggestionService suggestionService,
+                                 SavedSearchService savedSearchService,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager) {
+        this.propertyRepository = propertyRepository;
+        this.userRepository = userRepository;
+        this.rollupService = rollupService;
+        this.searchIndex = searchIndex;
+        this.geoIndex = geoIndex;
+        this.suggestionService = suggestionService;
+        this.savedSearchService = savedSearchService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 导入物业
+     *
+     * @param file 上传的 .xlsx 或 .csv 文件，第一行为表头
+     * @return 导入结果及失败行明细
+     * @throws ForbiddenException  非管理员/业主调用时抛出
+     * @throws BadRequestException 文件为空、格式不支持或缺少必填列时抛出
+     */
+    public PropertyImportResult importProperties(MultipartFile file) {
+        UserPrincipal principal = SecurityUtils.getCurrentUserPrincipal()
+            .orElseThrow(() -> new ForbiddenException("未登录"));
+        if (!principal.isAdmin() && !principal.isOwner()) {
+            throw new ForbiddenException("只有管理员或业主可以导入物业");
+        }
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("导入文件不能为空");
+        }
+
+        long start = System.currentTimeMillis();
+        ImportSession session = new ImportSession(principal);
+        Path temp = null;
+        try {
+            // XLSX 的 SAX 解析需要随机访问 zip 目录，先落盘为临时文件
+            temp = Files.createTempFile("property-import-", ".tmp");
+            file.transferTo(temp);
+            TabularFileReader.read(temp, file.getOriginalFilename(), session::accept);
+            session.flush();
+        } catch (IOException e) {
+            throw new BadRequestException("读取导入文件失败: " + e.getMessage());
+        } finally {
+            deleteQuietly(temp);
+        }
+
+        if (session.columns == null) {
+            throw new BadRequestException("导入文件没有表头");
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        PropertyImportResult result = session.result(elapsed);
+        log.info("用户 {} 导入物业：{} 行，成功 {}，失败 {}，耗时 {} ms（{} 行/秒）", principal.getId(),
+            result.totalRows(), result.imported(), result.failed(), elapsed, result.rowsPerSecond());
+        return result;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除导入临时文件失败: {}", path, e);
+        }
+    }
+
+    private static void alias(Column column, String... names) {
+        for (String name : names) {
+            HEADER_ALIASES.put(normalizeHeader(name), column);
+        }
+    }
+
+    private static String normalizeHeader(String header) {
+        return header == null ? "" : header.replaceAll("[\\s_]", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 一次导入的状态：表头映射、待处理的行、业主缓存与统计
+     */
+    private final class ImportSession {
+
+        private final UserPrincipal principal;
+        private final Map<Long, Optional<UserRef>> ownersById = new HashMap<>();
+        private final Map<String, Optional<UserRef>> ownersByUsername = new HashMap<>();
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private List<RawRow> pending = new ArrayList<>(CHUNK_SIZE);
+        private Column[] columns;
+        private int totalRows;
+        private int imported;
+        private int failed;
+
+        ImportSession(UserPrincipal principal) {
+            this.principal = principal;
+        }
+
+        void accept(int rowNumber, List<String> cells) {
+            if (columns == null) {
+                columns = mapHeader(cells);
+                return;
+            }
+            totalRows++;
+            pending.add(new RawRow(rowNumber, cells));
+            if (pending.size() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<RawRow> chunk = pending;
+            pending = new ArrayList<>(CHUNK_SIZE);
+
+            // 行校验不访问数据库，可并行执行
+            List<ParsedRow> parsed = chunk.parallelStream().map(this::parse).toList();
+            resolveOwners(parsed);
+
+            List<Property> properties = new ArrayList<>(parsed.size());
+            List<Integer> rowNumbers = new ArrayList<>(parsed.size());
+            for (ParsedRow row : parsed) {
+                String error = row.error() != null ? row.error() : assignOwner(row);
+                if (error != null) {
+                    fail(row.rowNumber(), error);
+                } else {
+                    properties.add(row.property());
+                    rowNumbers.add(row.rowNumber());
+                }
+            }
+            write(properties, rowNumbers);
+        }
+
+        private Column[] mapHeader(List<String> cells) {
+            Column[] mapped = new Column[cells.size()];
+            Set<Column> present = new LinkedHashSet<>();
+            for (int i = 0; i < cells.size(); i++) {
+                Column column = HEADER_ALIASES.get(normalizeHeader(cells.get(i)));
+                if (column != null && present.add(column)) {
+                    mapped[i] = column;
+                }
+            }
+            if (!present.contains(Column.ADDRESS) || !present.contains(Column.PROPERTY_TYPE)) {
+                throw new BadRequestException("导入文件缺少必填列：地址、物业类型");
+            }
+            if (principal.isAdmin() && !present.contains(Column.OWNER_ID)
+                && !present.contains(Column.OWNER_USERNAME)) {
+                throw new BadRequestException("管理员导入时需提供业主ID或业主用户名列");
+            }
+            return mapped;
+        }
+
+        private ParsedRow parse(RawRow row) {
+            Map<Column, String> values = new HashMap<>();
+            List<String> cells = row.cells();
+            for (int i = 0; i < Math.min(cells.size(), columns.length); i++) {
+                if (columns[i] != null && StringUtils.hasText(cells.get(i))) {
+                    values.put(columns[i], cells.get(i).trim());
+                }
+            }
+            try {
+                Long ownerId = parseLong(values.get(Column.OWNER_ID), "业主ID");
+                String ownerUsername = values.get(Column.OWNER_USERNAME);
+                if (ownerId == null && ownerUsername == null && principal.isAdmin()) {
+                    throw new IllegalArgumentException("需指定业主ID或业主用户名");
+                }
+
+                String address = values.get(Column.ADDRESS);
+                if (address == null) {
+                    throw new IllegalArgumentException("详细地址不能为空");
+                }
+                Double latitude = parseCoordinate(values.get(Column.LATITUDE), 90, "纬度");
+                Double longitude = parseCoordinate(values.get(Column.LONGITUDE), 180, "经度");
+                if ((latitude == null) != (longitude == null)) {
+                    throw new IllegalArgumentException("经纬度需同时填写");
+                }
+                BigDecimal bathrooms = parseDecimal(values.get(Column.BATHROOMS), "卫生间数量");
+                if (bathrooms != null && bathrooms.compareTo(MAX_BATHROOMS) > 0) {
+                    throw new IllegalArgumentException("卫生间数量超出范围");
+                }
+                BigDecimal rentAmount = parseDecimal(values.get(Column.RENT_AMOUNT), "租金");
+                if (rentAmount != null && rentAmount.compareTo(MAX_RENT) > 0) {
+                    throw new IllegalArgumentException("租金超出范围");
+                }
+                Integer squareFootage = parseInteger(values.get(Column.SQUARE_FOOTAGE), "建筑面积");
+                if (squareFootage != null && squareFootage == 0) {
+                    throw new IllegalArgumentException("建筑面积需要为正数");
+                }
+                PropertyStatus status = parseEnum(PropertyStatus.class, values.get(Column.STATUS), "物业状态");
+
+                Property property = Property.builder()
+                    .address(limit(address, 255, "详细地址"))
+                    .city(limit(values.get(Column.CITY), 100, "城市"))
+                    .state(limit(values.get(Column.STATE), 100, "州/省"))
+                    .zipCode(limit(values.get(Column.ZIP_CODE), 20, "邮编"))
+                    .propertyType(required(parseEnum(PropertyType.class, values.get(Column.PROPERTY_TYPE), "物业类型"),
+                        "物业类型不能为空"))
+                    .bedrooms(parseInteger(values.get(Column.BEDROOMS), "卧室数量"))
+                    .bathrooms(bathrooms)
+                    .squareFootage(squareFootage)
+                    .status(status != null ? status : PropertyStatus.AVAILABLE)
+                    .rentAmount(rentAmount)
+                    .latitude(latitude)
+                    .longitude(longitude)
+                    .build();
+                return new ParsedRow(row.rowNumber(), property, ownerId, ownerUsername, null);
+            } catch (IllegalArgumentException e) {
+                return new ParsedRow(row.rowNumber(), null, null, null, e.getMessage());
+            }
+        }
+
+        /**
+         * 管理员导入时，把本批中尚未缓存的业主ID、用户名各用一条 IN 查询解析
+         */
+        private void resolveOwners(List<ParsedRow> rows) {
+            if (!principal.isAdmin()) {
+                return;
+            }
+            Set<Long> ids = new LinkedHashSet<>();
+            Set<String> usernames = new LinkedHashSet<>();
+            for (ParsedRow row : rows) {
+                if (row.error() != null) {
+                    continue;
+                }
+                if (row.ownerId() != null) {
+                    if (!ownersById.containsKey(row.ownerId())) {
+                        ids.add(row.ownerId());
+                    }
+                } else if (!ownersByUsername.containsKey(row.ownerUsername())) {
+                    usernames.add(row.ownerUsername());
+                }
+            }
+            if (!ids.isEmpty()) {
+                userRepository.findRefsByIdIn(ids).forEach(owner -> ownersById.put(owner.id(), Optional.of(owner)));
+                ids.forEach(id -> ownersById.putIfAbsent(id, Optional.empty()));
+            }
+            if (!usernames.isEmpty()) {
+                userRepository.findRefsByUsernameIn(usernames)
+                    .forEach(owner -> ownersByUsername.put(owner.username(), Optional.of(owner)));
+                usernames.forEach(username -> ownersByUsername.putIfAbsent(username, Optional.empty()));
+            }
+        }
+
+        /**
+         * 为校验通过的行设置业主，返回失败原因或 null
+         */
+        private String assignOwner(ParsedRow row) {
+            Property property = row.property();
+            if (!principal.isAdmin()) {
+                if ((row.ownerId() != null && !row.ownerId().equals(principal.getId()))
+                    || (row.ownerUsername() != null && !row.ownerUsername().equals(principal.getUsername()))) {
+                    return "不能为其他用户导入物业";
+                }
+                property.setOwnerId(principal.getId());
+                property.setOwnerUsername(principal.getUsername());
+                return null;
+            }
+
+            Optional<UserRef> owner = row.ownerId() != null
+                ? ownersById.get(row.ownerId())
+                : ownersByUsername.get(row.ownerUsername());
+            if (owner.isEmpty()) {
+                return "未找到指定业主";
+            }
+            if (row.ownerId() != null && row.ownerUsername() != null
+                && !row.ownerUsername().equals(owner.get().username())) {
+                return "业主ID与业主用户名不一致";
+            }
+            property.setOwnerId(owner.get().id());
+            property.setOwnerUsername(owner.get().username());
+            return null;
+        }
+
+        private void write(List<Property> properties, List<Integer> rowNumbers) {
+            if (properties.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    propertyRepository.insertAll(properties);
+                    for (Property property : properties) {
+                        rollupService.propertyCreated(property);
+                        searchIndex.index(property);
+                        geoIndex.index(property);
+                        suggestionService.indexProperty(property);
+                    }
+                    savedSearchService.propertiesAvailable(properties.stream()
+                        .filter(property -> property.getStatus() == PropertyStatus.AVAILABLE)
+                        .map(Property::getId)
+                        .toList());
+                    properties.stream().map(Property::getOwnerId).distinct().forEach(ownerId ->
+                        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.PROPERTY,
+                            EntityChangedEvent.Action.CREATED, null, ownerId, null)));
+                });
+                imported += properties.size();
+            } catch (RuntimeException e) {
+                log.error("批量写入物业失败（第 {} - {} 行）", rowNumbers.get(0), rowNumbers.get(rowNumbers.size() - 1), e);
+                rowNumbers.forEach(rowNumber -> fail(rowNumber, "写入数据库失败"));
+            }
+        }
+
+        private void fail(int rowNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(new ImportRowError(rowNumber, message));
+            }
+        }
+
+        PropertyImportResult result(long elapsedMillis) {
+            List<ImportRowError> sorted = errors.stream()
+                .sorted(Comparator.comparingInt(ImportRowError::row))
+                .toList();
+            long rowsPerSecond = totalRows * 1000L / Math.max(elapsedMillis, 1L);
+            return new PropertyImportResult(totalRows, imported, failed, sorted, failed > errors.size(),
+                elapsedMillis, rowsPerSecond);
+        }
+    }
+
+    private static <T> T required(T value, String message) {
+        if (value == null) {
+            throw new IllegalArgumentException(message);
+        }
+        return value;
+    }
+
+    private static String limit(String value, int maxLength, String label) {
+        if (value != null && value.length() > maxLength) {
+            throw new IllegalArgumentException(label + "不能超过 " + maxLength + " 个字符");
+        }
+        return value;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String label) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的" + label + ": " + value);
+        }
+    }
+
+    private static BigDecimal parseDecimal(String value, String label) {
+        if (value == null) {
+            return null;
+        }
+        BigDecimal number;
+        try {
+            number = new BigDecimal(value.replace(",", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(label + "不是有效的数字: " + value);
+        }
+        if (number.signum() < 0) {
+            throw new IllegalArgumentException(label + "不能为负数");
+        }
+        return number;
+    }
+
+    private static Integer parseInteger(String value, String label) {
+        BigDecimal number = parseDecimal(value, label);
+        if (number == null) {
+            return null;
+        }
+        try {
+            return number.intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(label + "需为整数: " + value);
+        }
+    }
+
+    private static Long parseLong(String value, String label) {
+        BigDecimal number = parseDecimal(value, label);
+        if (number == null) {
+            return null;
+        }
+        try {
+            return number.longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(label + "需为整数: " + value);
+        }
+    }
+
+    private static Double parseCoordinate(String value, double bound, String label) {
+        if (value == null) {
+            return null;
+        }
+        double coordinate;
+        try {
+            coordinate = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(label + "不是有效的数字: " + value);
+        }
+        if (!(coordinate >= -bound && coordinate <= bound)) {
+            throw new IllegalArgumentException(label + "需在 -" + (int) bound + " 到 " + (int) bound + " 之间");
+        }
+        return coordinate;
+    }
+
+    private enum Column {
+        OWNER_ID, OWNER_USERNAME, ADDRESS, CITY, STATE, ZIP_CODE, PROPERTY_TYPE, BEDROOMS, BATHROOMS,
+        SQUARE_FOOTAGE, STATUS, RENT_AMOUNT, LATITUDE, LONGITUDE
+    }
+
+    private record RawRow(int rowNumber, List<String> cells) {
+    }
+
+    /**
+     * 校验后的行：成功时 property 非空（业主待解析），失败时 error 非空
+     */
+    private record ParsedRow(int rowNumber, Property property, Long ownerId, String ownerUsername, String error) {
+    }
+}
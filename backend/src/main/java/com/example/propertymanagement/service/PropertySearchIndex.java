@@ -0,0 +1,268 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.dto.property.PropertySearchDocument;
+import com.example.propertymanagement.model.Property;
+import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.util.IndexUpdater;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * 物业关键词的内存倒排索引，替代对地址、城市、省/州、邮编四列的 {@code LIKE '%kw%'} 全表扫描。
+ * <ul>
+ *   <li>各字段小写后按二元组（相邻两个字符）建立倒排表，查询取各二元组倒排表的交集作为候选，
+ *       再逐个校验子串包含，结果与原 LIKE 查询一致；单字符关键词直接扫描内存文档；</li>
+ *   <li>相关度：字段完全相等 &gt; 前缀匹配 &gt; 包含，并按字段权重（地址 &gt; 城市 &gt; 省/州、邮编）累加，
+ *       同分按ID倒序（新录入的在前）；</li>
+ *   <li>{@link PropertyService} 在增删改时登记变更，事务提交后才写入索引；启动时流式扫描物业表重建。</li>
+ * </ul>
+ * 索引尚未构建完成时 {@link #isReady()} 为 false，调用方应退回数据库查询。
+ */
+@Slf4j
+@Component
+public class PropertySearchIndex {
+
+    private static final int GRAM = 2;
+
+    private static final int WEIGHT_ADDRESS = 4;
+    private static final int WEIGHT_CITY = 3;
+    private static final int WEIGHT_STATE = 2;
+    private static final int WEIGHT_ZIP_CODE = 2;
+
+    private final PropertyRepository propertyRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IndexUpdater updater = new IndexUpdater(lock.writeLock());
+
+    private Map<Long, Entry> documents = new HashMap<>();
+    private Map<String, Set<Long>> postings = new HashMap<>();
+    private volatile boolean ready;
+
+    public PropertySearchIndex(PropertyRepository propertyRepository) {
+        this.propertyRepository = propertyRepository;
+    }
+
+    /**
+     * 应用启动后流式扫描物业表构建索引；失败时保持未就绪状态，搜索退回数据库。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("构建物业关键词索引失败，搜索将使用数据库查询", e);
+        }
+    }
+
+    /**
+     * 全量重建索引（需在事务内调用，以便流式读取）。
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        updater.beginRebuild();
+
+        Map<Long, Entry> newDocuments = new HashMap<>();
+        Map<String, Set<Long>> newPostings = new HashMap<>();
+        try (Stream<PropertySearchDocument> stream = propertyRepository.streamSearchDocuments()) {
+            stream.forEach(document -> add(newDocuments, newPostings, Entry.of(document)));
+        } catch (RuntimeException e) {
+            updater.abortRebuild();
+            throw e;
+        }
+
+        updater.finishRebuild(() -> {
+            documents = newDocuments;
+            postings = newPostings;
+        });
+        ready = true;
+        log.info("物业关键词索引构建完成：{} 条物业，{} 个二元组，耗时 {} ms",
+            newDocuments.size(), newPostings.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 写入或更新物业；处于事务中时推迟到提交后生效，回滚则不生效。
+     */
+    public void index(Property property) {
+        Entry entry = Entry.of(PropertySearchDocument.of(property));
+        updater.afterCommit(() -> {
+            remove(documents, postings, entry.id());
+            add(documents, postings, entry);
+        });
+    }
+
+    /**
+     * 移除物业；处于事务中时推迟到提交后生效。
+     */
+    public void remove(Long propertyId) {
+        updater.afterCommit(() -> remove(documents, postings, propertyId));
+    }
+
+    /**
+     * 按相关度返回匹配的物业ID（包含全部命中，由调用方分页）。
+     *
+     * @param keyword 关键词，不区分大小写
+     * @param ownerId 业主ID，为 null 时不限业主
+     */
+    public List<Long> search(String keyword, Long ownerId) {
+        String query = normalize(keyword);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        List<Scored> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(query)) {
+                Entry entry = documents.get(id);
+                if (entry == null || (ownerId != null && !ownerId.equals(entry.ownerId()))) {
+                    continue;
+                }
+                int score = entry.score(query);
+                if (score > 0) {
+                    hits.add(new Scored(id, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingInt(Scored::score).reversed()
+            .thenComparing(Scored::id, Comparator.reverseOrder()));
+        List<Long> ids = new ArrayList<>(hits.size());
+        hits.forEach(hit -> ids.add(hit.id()));
+        return ids;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 候选文档：各二元组倒排表的交集（从最短的表开始）；关键词短于一个二元组时为全部文档。
+     * 调用方需持有读锁。
+     */
+    private Set<Long> candidates(String query) {
+        if (query.length() < GRAM) {
+            return documents.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> list = postings.get(gram);
+            if (list == null) {
+                return Set.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private static void add(Map<Long, Entry> documents, Map<String, Set<Long>> postings, Entry entry) {
+        documents.put(entry.id(), entry);
+        for (String gram : entry.grams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(entry.id());
+        }
+    }
+
+    private static void remove(Map<Long, Entry> documents, Map<String, Set<Long>> postings, Long id) {
+        Entry existing = documents.remove(id);
+        if (existing == null) {
+            return;
+        }
+        for (String gram : existing.grams()) {
+            Set<Long> list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * 索引中的文档，文本字段已小写
+     */
+    private record Entry(Long id, Long ownerId, String address, String city, String state, String zipCode) {
+
+        static Entry of(PropertySearchDocument document) {
+            return new Entry(document.id(), document.ownerId(), lower(document.address()),
+                lower(document.city()), lower(document.state()), lower(document.zipCode()));
+        }
+
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            for (String field : new String[]{address, city, state, zipCode}) {
+                if (field != null) {
+                    grams.addAll(PropertySearchIndex.grams(field));
+                }
+            }
+            return grams;
+        }
+
+        int score(String query) {
+            return fieldScore(address, query, WEIGHT_ADDRESS)
+                + fieldScore(city, query, WEIGHT_CITY)
+                + fieldScore(state, query, WEIGHT_STATE)
+                + fieldScore(zipCode, query, WEIGHT_ZIP_CODE);
+        }
+
+        private static int fieldScore(String field, String query, int weight) {
+            if (field == null || !field.contains(query)) {
+                return 0;
+            }
+            if (field.equals(query)) {
+                return weight * 3;
+            }
+            return field.startsWith(query) ? weight * 2 : weight;
+        }
+
+        private static String lower(String value) {
+            return value == null ? null : value.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private record Scored(Long id, int score) {
+    }
+}
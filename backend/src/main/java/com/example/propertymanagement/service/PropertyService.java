@@ -1,25 +1,55 @@
 package com.example.propertymanagement.service;
 
+import com.example.propertymanagement.dto.common.BatchOperationResult;
+import com.example.propertymanagement.dto.common.CursorPageResponse;
 import com.example.propertymanagement.dto.common.PageResponse;
+import com.example.propertymanagement.dto.common.SliceResponse;
+import com.example.propertymanagement.dto.common.VersionStamp;
 import com.example.propertymanagement.dto.property.PropertyDto;
 import com.example.propertymanagement.dto.property.PropertyFilterRequest;
 import com.example.propertymanagement.dto.property.PropertyRequest;
+import com.example.propertymanagement.dto.property.PropertyStateRow;
+import com.example.propertymanagement.event.EntityChangedEvent;
+import com.example.propertymanagement.exception.ApiException;
+import com.example.propertymanagement.exception.BadRequestException;
 import com.example.propertymanagement.exception.ForbiddenException;
 import com.example.propertymanagement.exception.ResourceNotFoundException;
 import com.example.propertymanagement.mapper.PropertyMapper;
 import com.example.propertymanagement.model.Property;
 import com.example.propertymanagement.model.PropertyStatus;
-import com.example.propertymanagement.model.RoleName;
 import com.example.propertymanagement.model.User;
 import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.repository.PropertySpecifications;
+import com.example.propertymanagement.repository.ScopeSpecifications;
 import com.example.propertymanagement.repository.UserRepository;
 import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.service.DashboardRollupService.PropertyState;
+import com.example.propertymanagement.util.ExportColumn;
+import com.example.propertymanagement.util.ExportQuery;
+import com.example.propertymanagement.util.ExportSheet;
+import com.example.propertymanagement.util.KeysetPager;
 import com.example.propertymanagement.util.SecurityUtils;
+import com.example.propertymanagement.util.SlicePager;
+import com.example.propertymanagement.util.WeightedLruCache;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
 /**
  * 物业模块业务门面，负责：
  * <ul>
@@ -31,12 +61,69 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class PropertyService {
 
+    /**
+     * 批量操作每组的ID数（IN 列表长度）
+     */
+    static final int BATCH_CHUNK_SIZE = 500;
+
+    private static final KeysetPager<Property> KEYSET =
+        KeysetPager.of(Property.class, "gmtCreate", "address", "propertyType", "status");
+
+    /**
+     * 导出列：Excel 表头与 CSV / NDJSON 抽取共用，字段名与列表接口的 DTO 一致
+     */
+    private static final List<ExportColumn> EXPORT_COLUMNS = List.of(
+        ExportColumn.of("id", "物业ID"),
+        ExportColumn.of("ownerId", "业主ID"),
+        ExportColumn.of("ownerUsername", "业主用户名"),
+        ExportColumn.of("address", "地址"),
+        ExportColumn.of("city", "城市"),
+        ExportColumn.of("state", "州/省"),
+        ExportColumn.of("zipCode", "邮编"),
+        ExportColumn.of("propertyType", "物业类型"),
+        ExportColumn.of("bedrooms", "卧室数"),
+        ExportColumn.of("bathrooms", "浴室数"),
+        ExportColumn.of("squareFootage", "面积(平方英尺)"),
+        ExportColumn.of("status", "状态"),
+        ExportColumn.of("rentAmount", "租金"),
+        new ExportColumn("createdAt", "创建时间", "gmtCreate"));
+
+    private static final List<String> EXPORT_HEADERS = ExportColumn.labels(EXPORT_COLUMNS);
+
     private final PropertyRepository propertyRepository;
     private final UserRepository userRepository;
+    private final DashboardRollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PropertySearchIndex searchIndex;
+    private final ApproximateCountService countService;
+    private final PropertySnapshotCache snapshotCache;
+    private final PropertyGeoIndex geoIndex;
+    private final SuggestionService suggestionService;
+    private final SavedSearchService savedSearchService;
+    private final ExportRowReader exportRowReader;
 
-    public PropertyService(PropertyRepository propertyRepository, UserRepository userRepository) {
+    public PropertyService(PropertyRepository propertyRepository,
+                           UserRepository userRepository,
+                           DashboardRollupService rollupService,
+                           ApplicationEventPublisher eventPublisher,
+                           PropertySearchIndex searchIndex,
+                           ApproximateCountService countService,
+                           PropertySnapshotCache snapshotCache,
+                           PropertyGeoIndex geoIndex,
+                           SuggestionService suggestionService,
+                           SavedSearchService savedSearchService,
+                           ExportRowReader exportRowReader) {
         this.propertyRepository = propertyRepository;
         this.userRepository = userRepository;
+        this.rollupService = rollupService;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.countService = countService;
+        this.snapshotCache = snapshotCache;
+        this.geoIndex = geoIndex;
+        this.suggestionService = suggestionService;
+        this.savedSearchService = savedSearchService;
+        this.exportRowReader = exportRowReader;
     }
 
     /**
@@ -58,7 +145,80 @@ public class PropertyService {
     }
     
     /**
-     * 搜索物业列表（支持关键词搜索）
+     * 导出物业列表，数据范围与 {@link #getProperties(Pageable, Long)} 相同；
+     * 数据在遍历 {@link ExportSheet#rows()} 时才按 id 分批读取，不一次性载入。
+     *
+     * @param ownerId 业主 ID，可为 null
+     */
+    public ExportSheet exportProperties(Long ownerId) {
+        return exportProperties(ownerId, property -> { });
+    }
+
+    /**
+     * 导出物业列表，并在读取每条记录时回调 observer（在读取线程上执行），用于同一遍读取中汇总统计。
+     *
+     * @param ownerId  业主 ID，可为 null
+     * @param observer 每条记录转换后的回调
+     */
+    public ExportSheet exportProperties(Long ownerId, Consumer<PropertyDto> observer) {
+        Specification<Property> scope = ScopeSpecifications.propertiesOwnedBy(ownerId);
+        return new ExportSheet("物业列表", EXPORT_HEADERS, action -> exportRowReader.forEach(
+            propertyRepository, scope, property -> toExportRow(observe(PropertyMapper.toDto(property), observer)),
+            action));
+    }
+
+    /**
+     * CSV / NDJSON 批量抽取的查询，数据范围与 {@link #exportProperties(Long)} 相同，按列投影读取、不加载实体。
+     *
+     * @param ownerId 业主 ID，可为 null
+     */
+    public ExportQuery<Property> exportQuery(Long ownerId) {
+        return new ExportQuery<>("物业列表", Property.class,
+            ScopeSpecifications.propertiesOwnedBy(ownerId), EXPORT_COLUMNS);
+    }
+
+    private static PropertyDto observe(PropertyDto dto, Consumer<PropertyDto> observer) {
+        observer.accept(dto);
+        return dto;
+    }
+
+    private static List<Object> toExportRow(PropertyDto property) {
+        return Arrays.asList(
+            property.id(),
+            property.ownerId(),
+            property.ownerUsername(),
+            property.address(),
+            property.city(),
+            property.state(),
+            property.zipCode(),
+            property.propertyType() != null ? property.propertyType().name() : "",
+            property.bedrooms(),
+            property.bathrooms(),
+            property.squareFootage(),
+            property.status() != null ? property.status().name() : "",
+            property.rentAmount(),
+            property.createdAt()
+        );
+    }
+
+    /**
+     * 游标分页查询物业列表，筛选口径与 {@link #getPropertiesWithFilters} 相同（关键词按字段包含匹配），不执行 COUNT。
+     *
+     * @param after         上一页返回的游标，为空字符串时读取第一页
+     * @param pageable      每页条数与排序
+     * @param filterRequest 筛选条件
+     * @return 游标分页结果
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PropertyDto> scrollProperties(String after, Pageable pageable,
+                                                            PropertyFilterRequest filterRequest) {
+        return KEYSET.scroll(propertyRepository, PropertySpecifications.matching(filterRequest),
+            after, pageable, PropertyMapper::toDto);
+    }
+
+    /**
+     * 搜索物业列表（支持关键词搜索）。
+     * 优先使用内存关键词索引，结果按相关度排序（忽略分页参数中的排序）；索引未就绪时退回数据库模糊查询。
      *
      * @param pageable 分页参数
      * @param ownerId  业主 ID，可为 null
@@ -70,6 +230,9 @@ public class PropertyService {
         if (keyword == null || keyword.trim().isEmpty()) {
             return getProperties(pageable, ownerId);
         }
+        if (searchIndex.isReady()) {
+            return searchFromIndex(pageable, ownerId, keyword.trim());
+        }
         
         Page<Property> page;
         if (ownerId != null) {
@@ -81,7 +244,68 @@ public class PropertyService {
     }
     
     /**
-     * 使用高级筛选条件查询物业列表
+     * 从索引取出按相关度排好的ID，只加载当前页的物业并保持索引给出的顺序
+     */
+    private PageResponse<PropertyDto> searchFromIndex(Pageable pageable, Long ownerId, String keyword) {
+        List<Long> ids = searchIndex.search(keyword, ownerId);
+        return PageResponse.from(new PageImpl<>(loadInOrder(pageOf(ids, pageable)), pageable, ids.size()));
+    }
+
+    private static List<Long> pageOf(List<Long> ids, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return ids;
+        }
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return ids.subList(from, to);
+    }
+
+    private List<PropertyDto> loadInOrder(List<Long> ids) {
+        Map<Long, Property> loaded = new HashMap<>();
+        propertyRepository.findAllById(ids).forEach(property -> loaded.put(property.getId(), property));
+        List<PropertyDto> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Property property = loaded.get(id);
+            if (property != null) {
+                content.add(PropertyMapper.toDto(property));
+            }
+        }
+        return content;
+    }
+
+    /**
+     * 无总数分页查询物业，结果与 {@link #getPropertiesWithFilters} 相同，不执行 COUNT；需要时附带短时缓存的近似总数。
+     * 仅有关键词且索引就绪时直接由索引给出结果，总数为索引命中数。
+     *
+     * @param pageable         分页参数
+     * @param filterRequest    筛选条件
+     * @param approximateTotal 是否附带近似总数
+     * @return 无总数分页结果
+     */
+    @Transactional(readOnly = true)
+    public SliceResponse<PropertyDto> sliceProperties(Pageable pageable, PropertyFilterRequest filterRequest,
+                                                      boolean approximateTotal) {
+        if (filterRequest.hasKeyword() && !filterRequest.hasFilters() && searchIndex.isReady()) {
+            List<Long> ids = searchIndex.search(filterRequest.getKeyword().trim(), filterRequest.getOwnerId());
+            boolean hasNext = pageable.isPaged() && pageable.getOffset() + pageable.getPageSize() < ids.size();
+            return new SliceResponse<>(loadInOrder(pageOf(ids, pageable)), pageable.getPageNumber(),
+                pageable.getPageSize(), pageable.getPageNumber() == 0, hasNext,
+                approximateTotal ? (long) ids.size() : null);
+        }
+
+        Specification<Property> specification = PropertySpecifications.matching(filterRequest);
+        Long total = approximateTotal
+            ? countService.count(EntityChangedEvent.PROPERTY, propertyRepository, specification,
+                filterRequest.getOwnerId(), filterRequest.getKeyword(), filterRequest.getStatus(),
+                filterRequest.getPropertyType(), filterRequest.getMinRent(), filterRequest.getMaxRent(),
+                filterRequest.getMinBedrooms(), filterRequest.getMaxBedrooms(), filterRequest.getCity())
+            : null;
+        return SlicePager.read(propertyRepository, specification, pageable, PropertyMapper::toDto, total);
+    }
+
+    /**
+     * 使用高级筛选条件查询物业列表。
+     * 只有关键词时走内存索引（按相关度排序）；关键词与其他条件同时存在时一并交给数据库筛选。
      *
      * @param pageable 分页参数
      * @param filterRequest 筛选条件
@@ -89,44 +313,54 @@ public class PropertyService {
      */
     @Transactional(readOnly = true)
     public PageResponse<PropertyDto> getPropertiesWithFilters(Pageable pageable, PropertyFilterRequest filterRequest) {
-        // 如果有关键词搜索，优先使用搜索功能
-        if (filterRequest.hasKeyword()) {
+        if (!filterRequest.hasFilters()) {
             return searchProperties(pageable, filterRequest.getOwnerId(), filterRequest.getKeyword());
         }
-        
-        // 否则使用高级筛选
-        Page<Property> page;
-        if (filterRequest.hasFilters()) {
-            page = propertyRepository.findPropertiesWithFilters(
-                filterRequest.getOwnerId(),
-                filterRequest.getStatus(),
-                filterRequest.getPropertyType(),
-                filterRequest.getMinRent(),
-                filterRequest.getMaxRent(),
-                filterRequest.getMinBedrooms(),
-                filterRequest.getMaxBedrooms(),
-                filterRequest.getCity(),
-                pageable
-            );
-        } else {
-            // 无筛选条件，使用基础查询
-            return getProperties(pageable, filterRequest.getOwnerId());
-        }
-        
+        Page<Property> page = propertyRepository.findAll(PropertySpecifications.matching(filterRequest), pageable);
         return PageResponse.from(page.map(PropertyMapper::toDto));
     }
 
     /**
-     * 根据 ID 获取物业详情。
+     * 根据 ID 获取物业详情，优先读取详情快照缓存；不开启事务，命中缓存时不占用数据库连接。
      *
      * @param id 物业 ID
      * @return 物业 DTO
      * @throws ResourceNotFoundException 未找到目标数据时抛出
      */
-    @Transactional(readOnly = true)
     public PropertyDto getProperty(Long id) {
-        Property property = findPropertyOrThrow(id);
-        return PropertyMapper.toDto(property);
+        return snapshotCache.get(id)
+            .orElseThrow(() -> new ResourceNotFoundException("未找到指定物业"));
+    }
+
+    /**
+     * 物业详情快照缓存的统计信息
+     */
+    public WeightedLruCache.Stats getSnapshotCacheStats() {
+        return snapshotCache.stats();
+    }
+
+    public boolean isSnapshotCacheEnabled() {
+        return snapshotCache.isEnabled();
+    }
+
+    /**
+     * 物业列表的数据版本（最近修改时间与记录数），用于条件请求，不加载实体。
+     *
+     * @param ownerId 业主 ID，可为 null（全部物业）
+     */
+    @Transactional(readOnly = true)
+    public VersionStamp getPropertiesVersion(Long ownerId) {
+        return ownerId != null
+            ? propertyRepository.findVersionByOwnerId(ownerId)
+            : propertyRepository.findVersion();
+    }
+
+    /**
+     * 单个物业的数据版本，物业不存在时为空。
+     */
+    @Transactional(readOnly = true)
+    public Optional<VersionStamp> getPropertyVersion(Long id) {
+        return propertyRepository.findVersionById(id);
     }
 
     /**
@@ -139,11 +373,12 @@ public class PropertyService {
     public PropertyDto createProperty(PropertyRequest request) {
         UserPrincipal principal = getAuthenticatedUser();
 
-        if (!isAdmin(principal) && !isOwner(principal)) {
+        if (!principal.isAdmin() && !principal.isOwner()) {
             throw new ForbiddenException("仅物业管理员或业主可创建物业信息");
         }
 
         User owner = determineOwner(principal, request.ownerId());
+        checkCoordinates(request);
 
         Property property = Property.builder()
             .ownerId(owner.getId())
@@ -158,9 +393,19 @@ public class PropertyService {
             .squareFootage(request.squareFootage())
             .status(request.status() != null ? request.status() : PropertyStatus.AVAILABLE)
             .rentAmount(request.rentAmount())
+            .latitude(request.latitude())
+            .longitude(request.longitude())
             .build();
 
         Property saved = propertyRepository.save(property);
+        rollupService.propertyCreated(saved);
+        searchIndex.index(saved);
+        geoIndex.index(saved);
+        suggestionService.indexProperty(saved);
+        if (saved.getStatus() == PropertyStatus.AVAILABLE) {
+            savedSearchService.propertyAvailable(saved.getId());
+        }
+        publishChange(EntityChangedEvent.Action.CREATED, saved);
         return PropertyMapper.toDto(saved);
     }
 
@@ -168,7 +413,7 @@ public class PropertyService {
      * 更新物业，权限规则与 {@link #createProperty(PropertyRequest)} 相同。
      *
      * @param id      物业 ID
-     * @param request 新数据
+     * @param request 新数据；经纬度均为空时保留原坐标
      * @return 更新后的 DTO
      */
     @Transactional
@@ -176,11 +421,13 @@ public class PropertyService {
         UserPrincipal principal = getAuthenticatedUser();
         Property property = findPropertyOrThrow(id);
 
-        if (!isAdmin(principal) && !property.getOwnerId().equals(principal.getId())) {
+        if (!principal.isAdmin() && !property.getOwnerId().equals(principal.getId())) {
             throw new ForbiddenException("仅物业管理员或该物业所有者可以更新信息");
         }
 
-        if (request.ownerId() != null && isAdmin(principal)) {
+        checkCoordinates(request);
+        PropertyState before = PropertyState.of(property);
+        if (request.ownerId() != null && principal.isAdmin()) {
             User newOwner = userRepository.findById(request.ownerId())
                 .orElseThrow(() -> new ResourceNotFoundException("未找到指定业主"));
             property.setOwnerId(newOwner.getId());
@@ -199,8 +446,27 @@ public class PropertyService {
             property.setStatus(request.status());
         }
         property.setRentAmount(request.rentAmount());
+        // 经纬度需同时提供（见 checkCoordinates）；均未提供时保留原坐标，编辑表单不含坐标字段
+        if (request.latitude() != null) {
+            property.setLatitude(request.latitude());
+            property.setLongitude(request.longitude());
+        }
 
-        return PropertyMapper.toDto(propertyRepository.save(property));
+        Property saved = propertyRepository.save(property);
+        rollupService.propertyChanged(before, saved);
+        searchIndex.index(saved);
+        geoIndex.index(saved);
+        suggestionService.indexProperty(saved);
+        if (before.status() != PropertyStatus.AVAILABLE && saved.getStatus() == PropertyStatus.AVAILABLE) {
+            savedSearchService.propertyAvailable(saved.getId());
+        }
+        publishChange(EntityChangedEvent.Action.UPDATED, saved);
+        if (!saved.getOwnerId().equals(before.ownerId())) {
+            // 业主变更时原业主的数据同样受影响
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.PROPERTY,
+                EntityChangedEvent.Action.UPDATED, saved.getId(), before.ownerId(), null));
+        }
+        return PropertyMapper.toDto(saved);
     }
 
     /**
@@ -213,63 +479,193 @@ public class PropertyService {
         UserPrincipal principal = getAuthenticatedUser();
         Property property = findPropertyOrThrow(id);
 
-        if (!isAdmin(principal) && !property.getOwnerId().equals(principal.getId())) {
+        if (!principal.isAdmin() && !property.getOwnerId().equals(principal.getId())) {
             throw new ForbiddenException("仅物业管理员或该物业所有者可以删除信息");
         }
 
+        rollupService.propertyDeleted(property);
         propertyRepository.delete(property);
+        searchIndex.remove(id);
+        geoIndex.remove(id);
+        suggestionService.removeProperty(id);
+        publishChange(EntityChangedEvent.Action.DELETED, property);
     }
 
     /**
-     * 批量删除物业。只有管理员或物业所有者可执行。
+     * 批量删除物业。管理员可删除任意物业，业主只能删除自己的物业；不存在或无权删除的ID被跳过并在结果中列出。
+     * ID 按 {@value #BATCH_CHUNK_SIZE} 个一组处理，每组一条加锁的投影查询加一条 DELETE，而不是逐条加载和删除。
      *
      * @param ids 物业ID列表
+     * @throws ApiException 删除行数与加锁读取的行数不一致时抛出（409），整批回滚
      */
     @Transactional
-    public void batchDeleteProperties(java.util.List<Long> ids) {
+    public BatchOperationResult batchDeleteProperties(List<Long> ids) {
+        UserPrincipal principal = getAuthenticatedUser();
         if (ids == null || ids.isEmpty()) {
-            return;
+            return new BatchOperationResult(0, 0, List.of(), List.of());
         }
-        
-        UserPrincipal principal = getAuthenticatedUser();
-        
-        for (Long id : ids) {
-            Property property = findPropertyOrThrow(id);
-            
-            if (!isAdmin(principal) && !property.getOwnerId().equals(principal.getId())) {
-                throw new ForbiddenException("仅物业管理员或该物业所有者可以删除信息：物业ID=" + id);
+
+        BatchCollector collector = new BatchCollector();
+        for (List<Long> chunk : chunks(ids)) {
+            List<PropertyStateRow> allowed = collector.classify(chunk, propertyRepository.findStatesByIdIn(chunk),
+                principal);
+            if (allowed.isEmpty()) {
+                continue;
             }
+            List<Long> allowedIds = allowed.stream().map(PropertyStateRow::id).toList();
+            // 维修计数需按删除前的物业归属扣减，先于 DELETE 登记
+            rollupService.propertiesDeleted(allowed.stream()
+                .map(row -> new PropertyState(row.ownerId(), row.status(), row.propertyType()))
+                .toList(), allowedIds);
+            collector.affected += checkAffected(propertyRepository.deleteByIdIn(allowedIds, ownerScope(principal)),
+                allowedIds);
+            for (Long id : allowedIds) {
+                searchIndex.remove(id);
+                geoIndex.remove(id);
+                suggestionService.removeProperty(id);
+                snapshotCache.invalidate(id);
+            }
+            publishBatchChange(EntityChangedEvent.Action.DELETED, allowed);
         }
-        
-        // 所有权限检查通过后，批量删除
-        propertyRepository.deleteAllByIdIn(ids);
+        return collector.result();
     }
 
     /**
-     * 批量更新物业状态。只有管理员或物业所有者可执行。
+     * 批量更新物业状态，权限与结果规则同 {@link #batchDeleteProperties(List)}；每组一条投影查询加一条 UPDATE。
      *
      * @param ids 物业ID列表
      * @param status 新状态
+     * @throws BadRequestException 状态为空时抛出
+     * @throws ApiException        更新行数与加锁读取的行数不一致时抛出（409），整批回滚
      */
     @Transactional
-    public void batchUpdateStatus(java.util.List<Long> ids, PropertyStatus status) {
-        if (ids == null || ids.isEmpty() || status == null) {
-            return;
-        }
-        
+    public BatchOperationResult batchUpdateStatus(List<Long> ids, PropertyStatus status) {
         UserPrincipal principal = getAuthenticatedUser();
-        
-        for (Long id : ids) {
-            Property property = findPropertyOrThrow(id);
-            
-            if (!isAdmin(principal) && !property.getOwnerId().equals(principal.getId())) {
-                throw new ForbiddenException("仅物业管理员或该物业所有者可以更新状态：物业ID=" + id);
+        if (status == null) {
+            throw new BadRequestException("状态不能为空");
+        }
+        if (ids == null || ids.isEmpty()) {
+            return new BatchOperationResult(0, 0, List.of(), List.of());
+        }
+
+        BatchCollector collector = new BatchCollector();
+        for (List<Long> chunk : chunks(ids)) {
+            List<PropertyStateRow> allowed = collector.classify(chunk, propertyRepository.findStatesByIdIn(chunk),
+                principal);
+            if (allowed.isEmpty()) {
+                continue;
+            }
+            List<Long> allowedIds = allowed.stream().map(PropertyStateRow::id).toList();
+            collector.affected += checkAffected(propertyRepository.updateStatusByIdIn(allowedIds, status,
+                ownerScope(principal), LocalDateTime.now()), allowedIds);
+            for (PropertyStateRow row : allowed) {
+                PropertyState before = new PropertyState(row.ownerId(), row.status(), row.propertyType());
+                rollupService.propertyChanged(before, new PropertyState(row.ownerId(), status, row.propertyType()));
+                geoIndex.updateStatus(row.id(), status);
+                snapshotCache.invalidate(row.id());
+                if (status == PropertyStatus.AVAILABLE && row.status() != PropertyStatus.AVAILABLE) {
+                    savedSearchService.propertyAvailable(row.id());
+                }
             }
-            
-            property.setStatus(status);
+            publishBatchChange(EntityChangedEvent.Action.UPDATED, allowed);
+        }
+        return collector.result();
+    }
+
+    /**
+     * 批量操作每个业主发布一次变更事件（监听方按业主失效缓存）
+     */
+    private void publishBatchChange(EntityChangedEvent.Action action, List<PropertyStateRow> rows) {
+        rows.stream().map(PropertyStateRow::ownerId).distinct().forEach(ownerId ->
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.PROPERTY, action, null, ownerId,
+                null)));
+    }
+
+    /**
+     * 投影查询已锁定这些行，批量语句的影响行数应与之相同；不一致说明汇总增量与实际变更不符，回滚本次操作
+     *
+     * @throws ApiException 影响行数不一致时抛出（409）
+     */
+    private static int checkAffected(int affected, List<Long> allowedIds) {
+        if (affected != allowedIds.size()) {
+            throw new ApiException(HttpStatus.CONFLICT, "物业已被并发修改，请刷新后重试");
+        }
+        return affected;
+    }
+
+    /**
+     * 批量语句的业主条件：管理员不限制，其他用户限定为本人（与投影查询的判定一致，防止并发转移归属）
+     */
+    private static Long ownerScope(UserPrincipal principal) {
+        return principal.isAdmin() ? null : principal.getId();
+    }
+
+    /**
+     * 去重后按 {@value #BATCH_CHUNK_SIZE} 个一组切分，避免 IN 列表过长
+     */
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += BATCH_CHUNK_SIZE) {
+            chunks.add(distinct.subList(from, Math.min(from + BATCH_CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * 汇总各组的处理结果
+     */
+    private static final class BatchCollector {
+
+        private final List<Long> missing = new ArrayList<>();
+        private final List<Long> forbidden = new ArrayList<>();
+        private int requested;
+        private int affected;
+
+        /**
+         * 登记不存在/无权操作的ID，返回可操作的物业
+         */
+        List<PropertyStateRow> classify(List<Long> chunk, List<PropertyStateRow> rows, UserPrincipal principal) {
+            requested += chunk.size();
+            Map<Long, PropertyStateRow> found = new HashMap<>();
+            rows.forEach(row -> found.put(row.id(), row));
+            List<PropertyStateRow> allowed = new ArrayList<>(rows.size());
+            for (Long id : chunk) {
+                PropertyStateRow row = found.get(id);
+                if (row == null) {
+                    missing.add(id);
+                } else if (!principal.isAdmin() && !row.ownerId().equals(principal.getId())) {
+                    forbidden.add(id);
+                } else {
+                    allowed.add(row);
+                }
+            }
+            return allowed;
+        }
+
+        BatchOperationResult result() {
+            return new BatchOperationResult(requested, affected, List.copyOf(missing), List.copyOf(forbidden));
+        }
+    }
+
+    /**
+     * 发布物业变更事件，供缓存失效等监听方在事务提交后处理；同时失效物业详情快照。
+     */
+    private void publishChange(EntityChangedEvent.Action action, Property property) {
+        if (action != EntityChangedEvent.Action.CREATED) {
+            snapshotCache.invalidate(property.getId());
+        }
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.PROPERTY,
+            action, property.getId(), property.getOwnerId(), null));
+    }
+
+    /**
+     * 经纬度需同时填写或同时留空。
+     */
+    private static void checkCoordinates(PropertyRequest request) {
+        if ((request.latitude() == null) != (request.longitude() == null)) {
+            throw new BadRequestException("经纬度需同时填写");
         }
-        
-        // 无需显式调用save，@Transactional会自动保存更改
     }
 
     /**
@@ -288,7 +684,7 @@ public class PropertyService {
      * @return 实际的业主实体
      */
     private User determineOwner(UserPrincipal principal, Long ownerIdFromRequest) {
-        if (isAdmin(principal)) {
+        if (principal.isAdmin()) {
             if (ownerIdFromRequest == null) {
                 throw new ForbiddenException("管理员创建物业时需指定业主");
             }
@@ -311,12 +707,4 @@ public class PropertyService {
         return SecurityUtils.getCurrentUserPrincipal()
             .orElseThrow(() -> new ForbiddenException("未登录"));
     }
-
-    private boolean isAdmin(UserPrincipal principal) {
-        return SecurityUtils.hasRole(principal, RoleName.ROLE_ADMIN.name());
-    }
-
-    private boolean isOwner(UserPrincipal principal) {
-        return SecurityUtils.hasRole(principal, RoleName.ROLE_OWNER.name());
-    }
 }
@@ -0,0 +1,95 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.config.PropertyCacheProperties;
+import com.example.propertymanagement.dto.property.PropertyDto;
+import com.example.propertymanagement.mapper.PropertyMapper;
+import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.util.WeightedLruCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * 物业详情的读穿透缓存，缓存不可变的 {@link PropertyDto} 快照而不是 JPA 实体，
+ * 供详情查询、提交维修请求等只读场景使用，避免反复按主键查询物业表。
+ * <ul>
+ *   <li>按快照估算字节数限制总容量，超出时淘汰最久未访问的物业；</li>
+ *   <li>物业被修改、删除或状态变化时由写方调用 {@link #invalidate(Long)}：立即移除一次，
+ *       事务结束后再移除一次：提交时防止提交前被并发读取回填旧数据，回滚时防止本事务内读到的未提交数据留在缓存中；</li>
+ *   <li>需要修改物业的场景仍应加载实体，不能使用快照。</li>
+ * </ul>
+ * 通过 {@code app.property-cache.enabled=false} 可关闭缓存，所有读取直接查询数据库。
+ */
+@Component
+public class PropertySnapshotCache {
+
+    /**
+     * 快照对象头、引用字段及数值、时间字段的估算开销
+     */
+    private static final long BASE_BYTES = 256;
+
+    private final PropertyRepository propertyRepository;
+    private final WeightedLruCache<Long, PropertyDto> snapshots;
+    private final boolean enabled;
+
+    public PropertySnapshotCache(PropertyRepository propertyRepository, PropertyCacheProperties properties) {
+        this.propertyRepository = propertyRepository;
+        this.snapshots = new WeightedLruCache<>(properties.getMaxBytes(), PropertySnapshotCache::estimateBytes);
+        this.enabled = properties.isEnabled();
+    }
+
+    /**
+     * 读取物业快照，缓存未命中时按主键查询并写入缓存
+     *
+     * @param id 物业 ID
+     * @return 物业快照，不存在时为空
+     */
+    public Optional<PropertyDto> get(Long id) {
+        if (!enabled) {
+            return load(id);
+        }
+        return Optional.ofNullable(snapshots.get(id, key -> load(key).orElse(null)));
+    }
+
+    /**
+     * 物业数据变更后失效对应快照
+     */
+    public void invalidate(Long id) {
+        snapshots.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    snapshots.invalidate(id);
+                }
+            });
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public WeightedLruCache.Stats stats() {
+        return snapshots.stats();
+    }
+
+    private Optional<PropertyDto> load(Long id) {
+        return propertyRepository.findById(id).map(PropertyMapper::toDto);
+    }
+
+    /**
+     * 估算快照占用的字节数：固定开销加上各字符串字段的字符数据（按 UTF-16 计）
+     */
+    private static long estimateBytes(PropertyDto property) {
+        return BASE_BYTES
+            + 2L * (length(property.ownerUsername()) + length(property.address()) + length(property.city())
+            + length(property.state()) + length(property.zipCode()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.config.DashboardProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 只读查询并发执行器：把相互独立的查询提交到有界线程池并发执行，每个查询单独限时。
+ * <ul>
+ *   <li>线程数与队列长度均受配置限制，避免并发查询耗尽数据库连接池；</li>
+ *   <li>查询失败、超时或因队列已满被拒绝时返回空结果，由调用方按部分结果处理；</li>
+ *   <li>运行在 Java 21+ 时可使用虚拟线程。</li>
+ * </ul>
+ * 有意不注册为 {@link java.util.concurrent.Executor} 类型的 Bean，以免替换 Spring Boot 默认的应用任务执行器。
+ */
+@Slf4j
+@Component
+public class QueryFanOutExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public QueryFanOutExecutor(DashboardProperties dashboardProperties) {
+        int threads = dashboardProperties.getQueryThreads();
+        this.executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(dashboardProperties.getQueryQueueCapacity()),
+            threadFactory(dashboardProperties.isVirtualThreads()),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeoutMillis = dashboardProperties.getQueryTimeoutMillis();
+    }
+
+    /**
+     * 提交单个查询。
+     *
+     * @param name  查询名称，用于日志
+     * @param query 查询逻辑
+     * @return 查询结果；失败、超时或被拒绝时为 {@link Optional#empty()}
+     */
+    public <T> CompletableFuture<Optional<T>> submit(String name, Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(query, executor)
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .thenApply(Optional::ofNullable)
+                .exceptionally(ex -> {
+                    log.warn("查询 {} 失败或超时: {}", name, ex.toString());
+                    return Optional.empty();
+                });
+        } catch (RejectedExecutionException e) {
+            log.warn("查询线程池已满，跳过查询 {}", name);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 启用且运行时支持时使用虚拟线程，否则退回到命名的守护平台线程。
+     * 通过反射获取虚拟线程工厂，保证在 Java 17 下同样可以编译运行。
+     */
+    private static ThreadFactory threadFactory(boolean virtualThreads) {
+        if (virtualThreads) {
+            try {
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "query-vt-", 0L);
+                log.info("并发查询使用虚拟线程执行");
+                return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                log.info("当前运行时不支持虚拟线程，并发查询使用平台线程执行");
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "query-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
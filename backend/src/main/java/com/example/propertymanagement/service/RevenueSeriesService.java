@@ -0,0 +1,146 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.dto.dashboard.RevenuePoint;
+import com.example.propertymanagement.dto.dashboard.TrendGranularity;
+import com.example.propertymanagement.exception.BadRequestException;
+import com.example.propertymanagement.model.RevenuePeriodType;
+import com.example.propertymanagement.repository.PaymentRepository;
+import com.example.propertymanagement.repository.RevenueSeriesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 租金收入时间序列服务：
+ * <ul>
+ *   <li>记录支付时在同一事务内累加按日、按月两个粒度的收入行；</li>
+ *   <li>趋势查询按窗口读取已汇总的周期行（周粒度由日数据合并），不再扫描支付表；</li>
+ *   <li>首次启动时由支付表回填，并每晚全量重建以吸收租约业主变更等偏差。</li>
+ * </ul>
+ */
+@Service
+public class RevenueSeriesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueSeriesService.class);
+
+    /**
+     * 单次趋势查询允许的最大周期数
+     */
+    private static final int MAX_PERIODS = 366;
+
+    private final RevenueSeriesRepository revenueSeriesRepository;
+    private final PaymentRepository paymentRepository;
+
+    public RevenueSeriesService(RevenueSeriesRepository revenueSeriesRepository,
+                                PaymentRepository paymentRepository) {
+        this.revenueSeriesRepository = revenueSeriesRepository;
+        this.paymentRepository = paymentRepository;
+    }
+
+    /**
+     * 累加一笔支付到收入序列，需在记录支付的事务内调用。
+     *
+     * @param ownerId     业主ID
+     * @param propertyId  物业ID，可为 null
+     * @param paymentDate 支付日期
+     * @param amount      支付金额
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPayment(Long ownerId, Long propertyId, LocalDate paymentDate, BigDecimal amount) {
+        Long property = propertyId != null ? propertyId : 0L;
+        revenueSeriesRepository.addPayment(ownerId, property, RevenuePeriodType.DAY.name(), paymentDate, amount);
+        revenueSeriesRepository.addPayment(ownerId, property, RevenuePeriodType.MONTH.name(),
+            TrendGranularity.MONTH.periodStart(paymentDate), amount);
+    }
+
+    /**
+     * 查询收入趋势。窗口两端对齐到所在周期，缺省窗口见 {@link TrendGranularity#defaultStart(LocalDate)}。
+     *
+     * @param ownerId     业主ID，为 null 时统计全部业主
+     * @param granularity 时间粒度
+     * @param from        开始日期，可为 null
+     * @param to          结束日期，可为 null（默认今天）
+     * @return 包含 granularity、periods、months（兼容字段）、income、expense 的结果
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTrend(Long ownerId, TrendGranularity granularity, LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = granularity.periodStart(from != null ? from : granularity.defaultStart(end));
+        if (start.isAfter(end)) {
+            throw new BadRequestException("开始日期不能晚于结束日期");
+        }
+
+        // 初始化窗口内所有周期为0
+        Map<LocalDate, BigDecimal> incomeByPeriod = new TreeMap<>();
+        for (LocalDate period = start; !period.isAfter(end); period = granularity.next(period)) {
+            if (incomeByPeriod.size() >= MAX_PERIODS) {
+                throw new BadRequestException("时间窗口过大，最多支持 " + MAX_PERIODS + " 个周期");
+            }
+            incomeByPeriod.put(period, BigDecimal.ZERO);
+        }
+
+        // 月粒度直接读取月数据，日/周粒度读取日数据后按周期合并
+        RevenuePeriodType storedType = granularity == TrendGranularity.MONTH
+            ? RevenuePeriodType.MONTH
+            : RevenuePeriodType.DAY;
+        List<RevenuePoint> points = ownerId == null
+            ? revenueSeriesRepository.sumByPeriod(storedType, start, end)
+            : revenueSeriesRepository.sumByPeriodAndOwnerId(ownerId, storedType, start, end);
+        for (RevenuePoint point : points) {
+            incomeByPeriod.merge(granularity.periodStart(point.periodStart()), point.amount(), BigDecimal::add);
+        }
+
+        List<String> periods = new ArrayList<>();
+        incomeByPeriod.keySet().forEach(period -> periods.add(granularity.label(period)));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("granularity", granularity.name().toLowerCase());
+        result.put("periods", periods);
+        // 兼容旧版前端字段
+        result.put("months", periods);
+        result.put("income", incomeByPeriod.values());
+        // 暂时不追踪支出，返回全零
+        result.put("expense", incomeByPeriod.keySet().stream().map(period -> BigDecimal.ZERO).toList());
+        return result;
+    }
+
+    /**
+     * 启动时若序列为空而已有支付数据，则从支付表回填
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeIfEmpty() {
+        if (revenueSeriesRepository.count() == 0 && paymentRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 每天凌晨3点45分全量重建
+     */
+    @Scheduled(cron = "0 45 3 * * ?")
+    @Transactional
+    public void rebuildNightly() {
+        rebuild();
+    }
+
+    private void rebuild() {
+        revenueSeriesRepository.deleteAllRows();
+        int daily = revenueSeriesRepository.rebuildDaily();
+        int monthly = revenueSeriesRepository.rebuildMonthly();
+        logger.info("收入时间序列重建完成：按日 {} 行，按月 {} 行", daily, monthly);
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.model.Property;
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.model.PropertyType;
+import com.example.propertymanagement.model.SavedSearch;
+import com.example.propertymanagement.repository.SavedSearchRepository;
+import com.example.propertymanagement.util.IndexUpdater;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 保存搜索的内存匹配索引：给定一条物业，找出其满足的全部已开启提醒的保存搜索，而无需逐条执行搜索。
+ * <ul>
+ *   <li>保存搜索按城市前缀分桶（未限定城市的在空前缀桶中），一条物业只需检查空前缀桶
+ *       与其城市各前缀对应的桶，再对候选逐条校验其余条件；</li>
+ *   <li>匹配口径与 {@link com.example.propertymanagement.repository.PropertySpecifications} 一致：
+ *       城市前缀、关键词包含均不区分大小写；</li>
+ *   <li>读操作无锁；写操作在事务提交后串行生效，启动时重建，重建期间的变更在新索引替换后重放。</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class SavedSearchIndex {
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final IndexUpdater updater = new IndexUpdater();
+
+    private volatile Buckets buckets = new Buckets();
+    private volatile boolean ready;
+
+    public SavedSearchIndex(SavedSearchRepository savedSearchRepository) {
+        this.savedSearchRepository = savedSearchRepository;
+    }
+
+    /**
+     * 应用启动后构建索引；失败时保持未就绪状态，此期间不发送匹配通知。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("构建保存搜索索引失败", e);
+        }
+    }
+
+    /**
+     * 全量重建索引
+     */
+    public void rebuild() {
+        updater.beginRebuild();
+        Buckets rebuilt = new Buckets();
+        try {
+            savedSearchRepository.findByNotifyEnabledTrue().forEach(search -> rebuilt.put(Criteria.of(search)));
+        } catch (RuntimeException e) {
+            updater.abortRebuild();
+            throw e;
+        }
+
+        updater.finishRebuild(() -> buckets = rebuilt);
+        ready = true;
+        log.info("保存搜索索引构建完成：{} 条", rebuilt.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 写入或更新保存搜索（关闭提醒时移除）；处于事务中时推迟到提交后生效。
+     */
+    public void put(SavedSearch search) {
+        if (!Boolean.TRUE.equals(search.getNotifyEnabled())) {
+            remove(search.getId());
+            return;
+        }
+        Criteria criteria = Criteria.of(search);
+        updater.afterCommit(() -> buckets.put(criteria));
+    }
+
+    /**
+     * 移除保存搜索；处于事务中时推迟到提交后生效。
+     */
+    public void remove(Long searchId) {
+        updater.afterCommit(() -> buckets.remove(searchId));
+    }
+
+    /**
+     * 返回物业满足的全部保存搜索
+     */
+    public List<Criteria> match(Property property) {
+        Buckets current = buckets;
+        List<Criteria> result = new ArrayList<>();
+        current.collect("", property, result);
+        String city = normalize(property.getCity());
+        for (int end = 1; end <= city.length(); end++) {
+            current.collect(city.substring(0, end), property, result);
+        }
+        return result;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean containsIgnoreCase(String value, String keyword) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(keyword);
+    }
+
+    /**
+     * 城市前缀 → 保存搜索；写操作由 {@link IndexUpdater} 串行化
+     */
+    private static final class Buckets {
+
+        private final Map<String, Map<Long, Criteria>> byCityPrefix = new ConcurrentHashMap<>();
+        private final Map<Long, String> cityPrefixById = new HashMap<>();
+
+        void put(Criteria criteria) {
+            remove(criteria.id());
+            byCityPrefix.computeIfAbsent(criteria.cityPrefix(), key -> new ConcurrentHashMap<>())
+                .put(criteria.id(), criteria);
+            cityPrefixById.put(criteria.id(), criteria.cityPrefix());
+        }
+
+        void remove(Long id) {
+            String prefix = cityPrefixById.remove(id);
+            if (prefix == null) {
+                return;
+            }
+            Map<Long, Criteria> bucket = byCityPrefix.get(prefix);
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                byCityPrefix.remove(prefix);
+            }
+        }
+
+        void collect(String prefix, Property property, List<Criteria> result) {
+            Map<Long, Criteria> bucket = byCityPrefix.get(prefix);
+            if (bucket == null) {
+                return;
+            }
+            for (Criteria criteria : bucket.values()) {
+                if (criteria.test(property)) {
+                    result.add(criteria);
+                }
+            }
+        }
+
+        int size() {
+            return cityPrefixById.size();
+        }
+    }
+
+    /**
+     * 保存搜索的不可变匹配条件
+     *
+     * @param cityPrefix 规范化后的城市前缀，未限定城市时为空串
+     * @param keyword    规范化后的关键词，未限定时为 null
+     */
+    public record Criteria(Long id, Long userId, String name, Long ownerId, String keyword, PropertyStatus status,
+                           PropertyType propertyType, BigDecimal minRent, BigDecimal maxRent, Integer minBedrooms,
+                           Integer maxBedrooms, String cityPrefix) {
+
+        static Criteria of(SavedSearch search) {
+            return new Criteria(search.getId(), search.getUserId(), search.getName(), search.getOwnerId(),
+                StringUtils.hasText(search.getKeyword()) ? normalize(search.getKeyword()) : null,
+                search.getStatus(), search.getPropertyType(), search.getMinRent(), search.getMaxRent(),
+                search.getMinBedrooms(), search.getMaxBedrooms(), normalize(search.getCity()));
+        }
+
+        boolean test(Property property) {
+            if (ownerId != null && !ownerId.equals(property.getOwnerId())) {
+                return false;
+            }
+            if (status != null && status != property.getStatus()) {
+                return false;
+            }
+            if (propertyType != null && propertyType != property.getPropertyType()) {
+                return false;
+            }
+            if (minRent != null || maxRent != null) {
+                BigDecimal rent = property.getRentAmount();
+                if (rent == null
+                    || (minRent != null && rent.compareTo(minRent) < 0)
+                    || (maxRent != null && rent.compareTo(maxRent) > 0)) {
+                    return false;
+                }
+            }
+            if (minBedrooms != null || maxBedrooms != null) {
+                Integer bedrooms = property.getBedrooms();
+                if (bedrooms == null
+                    || (minBedrooms != null && bedrooms < minBedrooms)
+                    || (maxBedrooms != null && bedrooms > maxBedrooms)) {
+                    return false;
+                }
+            }
+            // 城市前缀已由分桶保证
+            return keyword == null
+                || containsIgnoreCase(property.getAddress(), keyword)
+                || containsIgnoreCase(property.getCity(), keyword)
+                || containsIgnoreCase(property.getState(), keyword)
+                || containsIgnoreCase(property.getZipCode(), keyword);
+        }
+    }
+}
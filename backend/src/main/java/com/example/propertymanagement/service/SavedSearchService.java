@@ -0,0 +1,279 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.dto.property.PropertyFilterRequest;
+import com.example.propertymanagement.dto.search.SavedSearchDto;
+import com.example.propertymanagement.dto.search.SavedSearchRequest;
+import com.example.propertymanagement.event.EntityChangedEvent;
+import com.example.propertymanagement.exception.BadRequestException;
+import com.example.propertymanagement.exception.ForbiddenException;
+import com.example.propertymanagement.exception.ResourceNotFoundException;
+import com.example.propertymanagement.mapper.SavedSearchMapper;
+import com.example.propertymanagement.model.NotificationType;
+import com.example.propertymanagement.model.Property;
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.model.SavedSearch;
+import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.repository.SavedSearchRepository;
+import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.util.SecurityUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 保存的物业搜索与匹配提醒。
+ * <ul>
+ *   <li>用户保存一组物业筛选条件，可随时按其重新查询，开启提醒后由 {@link SavedSearchIndex} 登记；</li>
+ *   <li>物业以可租状态新建或状态变为可租时，业务服务调用 {@link #propertyAvailable(Long)} 登记该物业，
+ *       事务提交后在后台线程中只对这些物业做匹配（届时已不再可租的跳过），并为匹配到的保存者各发一条通知，
+ *       客户端无需反复轮询完整搜索；</li>
+ *   <li>物业的业主不会因自己的物业收到提醒；同一用户的多条保存搜索命中同一物业时只通知一次。</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class SavedSearchService {
+
+    /**
+     * 每个用户最多保存的搜索数
+     */
+    public static final int MAX_PER_USER = 20;
+
+    private static final Object PENDING_RESOURCE_KEY = new Object();
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final PropertyRepository propertyRepository;
+    private final SavedSearchIndex index;
+    private final NotificationService notificationService;
+    private final ExecutorService matcher;
+
+    public SavedSearchService(SavedSearchRepository savedSearchRepository,
+                              PropertyRepository propertyRepository,
+                              SavedSearchIndex index,
+                              NotificationService notificationService) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.propertyRepository = propertyRepository;
+        this.index = index;
+        this.notificationService = notificationService;
+        this.matcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "saved-search-matcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        matcher.shutdown();
+    }
+
+    // ==================== 保存的搜索 ====================
+
+    /**
+     * 当前用户保存的搜索，按创建时间倒序
+     */
+    @Transactional(readOnly = true)
+    public List<SavedSearchDto> getMySearches() {
+        return savedSearchRepository.findByUserIdOrderByGmtCreateDesc(getCurrentUser().getId()).stream()
+            .map(SavedSearchMapper::toDto)
+            .toList();
+    }
+
+    /**
+     * 保存的搜索对应的物业筛选条件（只能读取自己的），用于重新执行搜索
+     */
+    @Transactional(readOnly = true)
+    public PropertyFilterRequest getFilter(Long id) {
+        return SavedSearchMapper.toFilter(findOwnSearch(id));
+    }
+
+    /**
+     * 保存搜索
+     *
+     * @throws BadRequestException 超过数量上限或区间条件无效时抛出
+     */
+    @Transactional
+    public SavedSearchDto createSearch(SavedSearchRequest request) {
+        UserPrincipal principal = getCurrentUser();
+        if (savedSearchRepository.countByUserId(principal.getId()) >= MAX_PER_USER) {
+            throw new BadRequestException("最多只能保存 " + MAX_PER_USER + " 个搜索");
+        }
+        SavedSearch search = SavedSearch.builder().userId(principal.getId()).build();
+        apply(search, request);
+        SavedSearch saved = savedSearchRepository.save(search);
+        index.put(saved);
+        return SavedSearchMapper.toDto(saved);
+    }
+
+    /**
+     * 修改保存的搜索（只能修改自己的）
+     */
+    @Transactional
+    public SavedSearchDto updateSearch(Long id, SavedSearchRequest request) {
+        SavedSearch search = findOwnSearch(id);
+        apply(search, request);
+        SavedSearch saved = savedSearchRepository.save(search);
+        index.put(saved);
+        return SavedSearchMapper.toDto(saved);
+    }
+
+    /**
+     * 删除保存的搜索（只能删除自己的）
+     */
+    @Transactional
+    public void deleteSearch(Long id) {
+        SavedSearch search = findOwnSearch(id);
+        savedSearchRepository.delete(search);
+        index.remove(id);
+    }
+
+    // ==================== 匹配提醒 ====================
+
+    /**
+     * 登记新建为可租或变为可租的物业。处于事务中时同一事务的物业合并，提交后统一匹配，回滚则不匹配。
+     */
+    public void propertyAvailable(Long propertyId) {
+        propertiesAvailable(List.of(propertyId));
+    }
+
+    /**
+     * 批量登记，规则同 {@link #propertyAvailable(Long)}
+     */
+    public void propertiesAvailable(Collection<Long> propertyIds) {
+        if (propertyIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(Set.copyOf(propertyIds));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(PENDING_RESOURCE_KEY);
+        if (pending == null) {
+            Set<Long> ids = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_RESOURCE_KEY, ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(ids);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_RESOURCE_KEY);
+                }
+            });
+            pending = ids;
+        }
+        pending.addAll(propertyIds);
+    }
+
+    private void submit(Set<Long> propertyIds) {
+        if (!index.isReady()) {
+            return;
+        }
+        matcher.execute(() -> {
+            try {
+                notifyMatches(propertyIds);
+            } catch (RuntimeException e) {
+                log.error("保存搜索匹配失败，物业: {}", propertyIds, e);
+            }
+        });
+    }
+
+    /**
+     * 逐条物业匹配保存搜索并发送通知（后台线程执行）
+     */
+    void notifyMatches(Collection<Long> propertyIds) {
+        int sent = 0;
+        for (Property property : propertyRepository.findAllById(propertyIds)) {
+            if (property.getStatus() != PropertyStatus.AVAILABLE) {
+                continue;
+            }
+            // 同一用户只通知一次，内容使用第一条命中的保存搜索名称
+            Map<Long, SavedSearchIndex.Criteria> byUser = new LinkedHashMap<>();
+            for (SavedSearchIndex.Criteria criteria : index.match(property)) {
+                if (!criteria.userId().equals(property.getOwnerId())) {
+                    byUser.putIfAbsent(criteria.userId(), criteria);
+                }
+            }
+            for (SavedSearchIndex.Criteria criteria : byUser.values()) {
+                try {
+                    notificationService.createNotification(
+                        NotificationType.SAVED_SEARCH_MATCH,
+                        "有新的物业符合您保存的搜索",
+                        String.format("「%s」：%s%s，租金：%s", criteria.name(), property.getAddress(),
+                            StringUtils.hasText(property.getCity()) ? "（" + property.getCity() + "）" : "",
+                            property.getRentAmount() != null ? property.getRentAmount().toPlainString() : "面议"),
+                        criteria.userId(),
+                        EntityChangedEvent.PROPERTY,
+                        property.getId());
+                    sent++;
+                } catch (RuntimeException e) {
+                    // 单个用户通知失败（如用户已删除）不影响其他用户
+                    log.warn("发送保存搜索通知失败，用户: {}，物业: {}", criteria.userId(), property.getId(), e);
+                }
+            }
+        }
+        if (sent > 0) {
+            log.debug("保存搜索匹配：{} 个物业，发送 {} 条通知", propertyIds.size(), sent);
+        }
+    }
+
+    private static void apply(SavedSearch search, SavedSearchRequest request) {
+        checkRange(request.minRent(), request.maxRent(), "租金");
+        if (request.minBedrooms() != null && request.maxBedrooms() != null
+            && request.minBedrooms() > request.maxBedrooms()) {
+            throw new BadRequestException("卧室数量下限不能大于上限");
+        }
+        search.setName(request.name().trim());
+        search.setNotifyEnabled(request.notifyEnabled() == null || request.notifyEnabled());
+        search.setOwnerId(request.ownerId());
+        search.setKeyword(trimToNull(request.keyword()));
+        search.setStatus(request.status());
+        search.setPropertyType(request.propertyType());
+        search.setMinRent(request.minRent());
+        search.setMaxRent(request.maxRent());
+        search.setMinBedrooms(request.minBedrooms());
+        search.setMaxBedrooms(request.maxBedrooms());
+        search.setCity(trimToNull(request.city()));
+    }
+
+    private static void checkRange(BigDecimal min, BigDecimal max, String label) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new BadRequestException(label + "下限不能大于上限");
+        }
+    }
+
+    private static String trimToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
+
+    private SavedSearch findOwnSearch(Long id) {
+        SavedSearch search = savedSearchRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("未找到保存的搜索"));
+        if (!search.getUserId().equals(getCurrentUser().getId())) {
+            throw new ForbiddenException("无权操作该保存的搜索");
+        }
+        return search;
+    }
+
+    private UserPrincipal getCurrentUser() {
+        return SecurityUtils.getCurrentUserPrincipal()
+            .orElseThrow(() -> new ForbiddenException("未登录"));
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.dto.common.SuggestionDto;
+import com.example.propertymanagement.dto.property.PropertySearchDocument;
+import com.example.propertymanagement.dto.user.UserRoleRow;
+import com.example.propertymanagement.exception.BadRequestException;
+import com.example.propertymanagement.exception.ForbiddenException;
+import com.example.propertymanagement.model.Property;
+import com.example.propertymanagement.model.Role;
+import com.example.propertymanagement.model.RoleName;
+import com.example.propertymanagement.model.User;
+import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.repository.UserRepository;
+import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.util.IndexUpdater;
+import com.example.propertymanagement.util.PrefixIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 输入联想（typeahead）：物业地址、城市、用户名的内存前缀索引，查询不访问数据库。
+ * <ul>
+ *   <li>按前缀匹配（不区分大小写），结果按字典序返回前 k 条；城市去重并附带物业数；</li>
+ *   <li>{@link PropertyService} 与用户写操作登记变更，事务提交后写入索引；启动时从数据库重建，
+ *       重建期间的变更在新索引替换后重放；</li>
+ *   <li>索引尚未构建完成时 {@link #isReady()} 为 false，查询返回空结果。</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class SuggestionService {
+
+    public static final String ADDRESS = "address";
+    public static final String CITY = "city";
+    public static final String USERNAME = "username";
+
+    public static final int MAX_LIMIT = 50;
+
+    private final PropertyRepository propertyRepository;
+    private final UserRepository userRepository;
+    private final IndexUpdater updater = new IndexUpdater();
+
+    private volatile Indexes indexes = new Indexes();
+    private volatile boolean ready;
+
+    public SuggestionService(PropertyRepository propertyRepository, UserRepository userRepository) {
+        this.propertyRepository = propertyRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * 应用启动后构建索引；失败时保持未就绪状态，联想返回空结果。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("构建输入联想索引失败", e);
+        }
+    }
+
+    /**
+     * 全量重建索引（需在事务内调用，以便流式读取物业）。
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        updater.beginRebuild();
+
+        Indexes rebuilt = new Indexes();
+        try (Stream<PropertySearchDocument> stream = propertyRepository.streamSearchDocuments()) {
+            stream.forEach(document -> rebuilt.putProperty(document.id(), document.ownerId(),
+                document.address(), document.city()));
+            Map<Long, UserEntry> users = new LinkedHashMap<>();
+            for (UserRoleRow row : userRepository.findActiveUserRoles()) {
+                UserEntry user = users.computeIfAbsent(row.id(),
+                    id -> new UserEntry(id, row.username(), new HashSet<>()));
+                if (row.roleName() != null) {
+                    user.roles().add(row.roleName());
+                }
+            }
+            users.values().forEach(user -> rebuilt.putUser(new UserEntry(user.id(), user.username(),
+                Set.copyOf(user.roles()))));
+        } catch (RuntimeException e) {
+            updater.abortRebuild();
+            throw e;
+        }
+
+        updater.finishRebuild(() -> indexes = rebuilt);
+        ready = true;
+        log.info("输入联想索引构建完成：{} 个地址，{} 个城市，{} 个用户名，耗时 {} ms",
+            rebuilt.addresses.size(), rebuilt.cities.size(), rebuilt.users.size(),
+            System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 前缀联想
+     *
+     * @param field     联想字段：address、city、username
+     * @param prefix    已输入的前缀
+     * @param limit     最多返回条数，不超过 {@value #MAX_LIMIT}
+     * @param ownerId   仅用于 address：只返回该业主的物业，可为 null
+     * @param role      仅用于 username：只返回该角色（admin/owner/tenant）的用户，可为空
+     * @param principal 当前用户；用户名联想仅对管理员和业主开放
+     * @throws BadRequestException 字段或角色无效时抛出
+     * @throws ForbiddenException  租户请求用户名联想时抛出
+     */
+    public List<SuggestionDto> suggest(String field, String prefix, int limit, Long ownerId, String role,
+                                       UserPrincipal principal) {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Indexes current = indexes;
+        return switch (field) {
+            case ADDRESS -> current.addresses.search(prefix, size,
+                    property -> ownerId == null || ownerId.equals(property.ownerId())).stream()
+                .map(property -> new SuggestionDto(property.id(), property.address(), null))
+                .toList();
+            case CITY -> current.cities.search(prefix, size, city -> true).stream()
+                .map(city -> new SuggestionDto(null, city.name(), (long) city.count()))
+                .toList();
+            case USERNAME -> {
+                if (!principal.isAdmin() && !principal.isOwner()) {
+                    throw new ForbiddenException("只有管理员或业主可以查询用户名");
+                }
+                String roleName = parseRole(role);
+                yield current.users.search(prefix, size,
+                        user -> roleName == null || user.roles().contains(roleName)).stream()
+                    .map(user -> new SuggestionDto(user.id(), user.username(), null))
+                    .toList();
+            }
+            default -> throw new BadRequestException("不支持的联想字段: " + field);
+        };
+    }
+
+    /**
+     * 写入或更新物业地址与城市；处于事务中时推迟到提交后生效，回滚则不生效。
+     */
+    public void indexProperty(Property property) {
+        Long id = property.getId();
+        Long ownerId = property.getOwnerId();
+        String address = property.getAddress();
+        String city = property.getCity();
+        updater.afterCommit(() -> indexes.putProperty(id, ownerId, address, city));
+    }
+
+    /**
+     * 移除物业；处于事务中时推迟到提交后生效。
+     */
+    public void removeProperty(Long propertyId) {
+        updater.afterCommit(() -> indexes.removeProperty(propertyId));
+    }
+
+    /**
+     * 写入或更新用户名（已删除/禁用的用户移除）；处于事务中时推迟到提交后生效。
+     */
+    public void indexUser(User user) {
+        Long id = user.getId();
+        if (user.getIsDeleted() != null && user.getIsDeleted() != 0) {
+            updater.afterCommit(() -> indexes.removeUser(id));
+            return;
+        }
+        UserEntry entry = new UserEntry(id, user.getUsername(),
+            user.getRoles().stream().map(Role::getName).collect(Collectors.toUnmodifiableSet()));
+        updater.afterCommit(() -> indexes.putUser(entry));
+    }
+
+    private static String parseRole(String role) {
+        if (!StringUtils.hasText(role)) {
+            return null;
+        }
+        try {
+            return RoleName.valueOf("ROLE_" + role.trim().toUpperCase(Locale.ROOT)).name();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("无效的角色: " + role);
+        }
+    }
+
+    /**
+     * 三个联想索引及城市引用计数；写操作由 {@link IndexUpdater} 串行化
+     */
+    private static final class Indexes {
+
+        private final PrefixIndex<Long, PropertyEntry> addresses = new PrefixIndex<>();
+        private final PrefixIndex<String, CityEntry> cities = new PrefixIndex<>();
+        private final PrefixIndex<Long, UserEntry> users = new PrefixIndex<>();
+        private final Map<Long, String> propertyCities = new HashMap<>();
+        private final Map<String, CityEntry> cityCounts = new HashMap<>();
+
+        void putProperty(Long id, Long ownerId, String address, String city) {
+            removeProperty(id);
+            addresses.put(id, address, new PropertyEntry(id, ownerId, address));
+            if (StringUtils.hasText(city)) {
+                String key = PrefixIndex.normalize(city);
+                propertyCities.put(id, key);
+                CityEntry previous = cityCounts.get(key);
+                CityEntry entry = previous == null
+                    ? new CityEntry(city.trim(), 1)
+                    : new CityEntry(previous.name(), previous.count() + 1);
+                cityCounts.put(key, entry);
+                cities.put(key, entry.name(), entry);
+            }
+        }
+
+        void removeProperty(Long id) {
+            addresses.remove(id);
+            String key = propertyCities.remove(id);
+            if (key == null) {
+                return;
+            }
+            CityEntry previous = cityCounts.get(key);
+            if (previous.count() <= 1) {
+                cityCounts.remove(key);
+                cities.remove(key);
+            } else {
+                CityEntry entry = new CityEntry(previous.name(), previous.count() - 1);
+                cityCounts.put(key, entry);
+                cities.put(key, entry.name(), entry);
+            }
+        }
+
+        void putUser(UserEntry user) {
+            users.put(user.id(), user.username(), user);
+        }
+
+        void removeUser(Long id) {
+            users.remove(id);
+        }
+    }
+
+    private record PropertyEntry(Long id, Long ownerId, String address) {
+    }
+
+    /**
+     * 城市的显示名取首次出现时的写法，count 为该城市下的物业数
+     */
+    private record CityEntry(String name, int count) {
+    }
+
+    private record UserEntry(Long id, String username, Set<String> roles) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.propertymanagement.util;
+
+/**
+ * Excel 列宽估算：在数据行写出的同时按字符数跟踪每列最长的显示宽度，代替 {@code Sheet.autoSizeColumn}。
+ * <ul>
+ *   <li>autoSizeColumn 需对每个单元格通过 AWT 排版计算字体宽度，大表上比写数据本身还慢；
+ *       这里只数字符，中日韩文字与全角字符按两个字符宽计算，其余按一个；</li>
+ *   <li>多行文本取最长的一行；超过 Excel 列宽上限的部分不再计数；</li>
+ *   <li>结果以 Excel 的列宽单位（1/256 个字符宽）返回，已包含左右留白。</li>
+ * </ul>
+ * 非线程安全，每张工作表使用一个实例。
+ */
+public class ColumnWidthEstimator {
+
+    /**
+     * Excel 允许的最大列宽（字符数）
+     */
+    public static final int MAX_CHARS = 255;
+
+    /**
+     * 单元格左右留白（字符数）
+     */
+    private static final int PADDING_CHARS = 2;
+
+    private final int[] maxChars;
+
+    /**
+     * @param columns 列数
+     */
+    public ColumnWidthEstimator(int columns) {
+        this.maxChars = new int[columns];
+    }
+
+    /**
+     * 记录一个单元格的显示文本
+     *
+     * @param column 列序号（从 0 开始），超出列数的忽略
+     * @param text   单元格显示的文本，可为 null
+     */
+    public void accept(int column, CharSequence text) {
+        accept(column, text, 1.0);
+    }
+
+    /**
+     * 记录一个字号或字重不同的单元格（如加粗的表头）
+     *
+     * @param scale 相对正文字体的宽度比例
+     */
+    public void accept(int column, CharSequence text, double scale) {
+        if (text == null || column >= maxChars.length) {
+            return;
+        }
+        int width = (int) Math.ceil(displayWidth(text, MAX_CHARS) * scale);
+        if (width > maxChars[column]) {
+            maxChars[column] = Math.min(width, MAX_CHARS);
+        }
+    }
+
+    /**
+     * 估算的列宽（1/256 个字符宽），不小于 minWidth
+     */
+    public int width(int column, int minWidth) {
+        int chars = Math.min(maxChars[column] + PADDING_CHARS, MAX_CHARS);
+        return Math.max(chars * 256, minWidth);
+    }
+
+    /**
+     * 文本的显示宽度：多行文本取最长一行，宽字符计 2；达到 limit 后停止计数
+     */
+    public static int displayWidth(CharSequence text, int limit) {
+        int max = 0;
+        int line = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '\n') {
+                max = Math.max(max, line);
+                line = 0;
+                continue;
+            }
+            int codePoint = ch;
+            if (Character.isHighSurrogate(ch) && i + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(i + 1))) {
+                codePoint = Character.toCodePoint(ch, text.charAt(++i));
+            }
+            line += isWide(codePoint) ? 2 : 1;
+            if (line >= limit) {
+                return limit;
+            }
+        }
+        return Math.max(max, line);
+    }
+
+    /**
+     * 是否为东亚宽字符（Unicode East Asian Width 中的 W/F 主要区段）
+     */
+    static boolean isWide(int codePoint) {
+        if (codePoint < 0x1100) {
+            return false;
+        }
+        return codePoint <= 0x115F                                   // 谚文字母
+            || (codePoint >= 0x2E80 && codePoint <= 0xA4CF && codePoint != 0x303F) // 中日韩部首、标点、假名、汉字、彝文
+            || (codePoint >= 0xAC00 && codePoint <= 0xD7A3)          // 谚文音节
+            || (codePoint >= 0xF900 && codePoint <= 0xFAFF)          // 中日韩兼容汉字
+            || (codePoint >= 0xFE30 && codePoint <= 0xFE4F)          // 中日韩兼容形式
+            || (codePoint >= 0xFF00 && codePoint <= 0xFF60)          // 全角字符
+            || (codePoint >= 0xFFE0 && codePoint <= 0xFFE6)          // 全角符号
+            || (codePoint >= 0x20000 && codePoint <= 0x3FFFD);       // 扩展汉字
+    }
+}
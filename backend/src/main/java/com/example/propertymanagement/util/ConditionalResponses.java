@@ -0,0 +1,97 @@
+package com.example.propertymanagement.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 条件请求（If-None-Match / If-Modified-Since）辅助方法。
+ * 调用方先用廉价的版本探针算出 ETag；命中时直接返回 304，响应体的查询与序列化都不会执行。
+ */
+public final class ConditionalResponses {
+
+    /**
+     * 浏览器每次使用缓存前都需向服务器确认，且缓存只保存在用户本地
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * 仅按 ETag 判断，适用于列表等删除记录时修改时间不会变化的响应。
+     */
+    public static <T> ResponseEntity<T> ok(HttpServletRequest request, String etag, Supplier<T> body) {
+        return ok(request, etag, -1, body, value -> true);
+    }
+
+    /**
+     * 按 ETag 与最后修改时间判断。
+     */
+    public static <T> ResponseEntity<T> ok(HttpServletRequest request, String etag, long lastModifiedMillis,
+                                           Supplier<T> body) {
+        return ok(request, etag, lastModifiedMillis, body, value -> true);
+    }
+
+    /**
+     * 未修改时返回 304，否则调用 {@code body} 生成响应；
+     * 仅当 {@code taggable} 判定通过时才在响应中附带 ETag（例如部分失败的结果不应被客户端复用）。
+     *
+     * @param request            当前请求
+     * @param etag               版本探针生成的 ETag
+     * @param lastModifiedMillis 最后修改时间，未知时传 -1
+     * @param body               响应体生成逻辑，仅在需要返回 200 时调用
+     * @param taggable           响应体是否可以带 ETag
+     */
+    public static <T> ResponseEntity<T> ok(HttpServletRequest request, String etag, long lastModifiedMillis,
+                                           Supplier<T> body, Predicate<? super T> taggable) {
+        if (isNotModified(request, etag, lastModifiedMillis)) {
+            ResponseEntity.BodyBuilder notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(REVALIDATE);
+            if (lastModifiedMillis >= 0) {
+                notModified.lastModified(lastModifiedMillis);
+            }
+            return notModified.build();
+        }
+
+        T value = body.get();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(REVALIDATE);
+        if (taggable.test(value)) {
+            builder.eTag(etag);
+            if (lastModifiedMillis >= 0) {
+                builder.lastModified(lastModifiedMillis);
+            }
+        }
+        return builder.body(value);
+    }
+
+    /**
+     * If-None-Match 优先（弱比较）；未携带时再比较 If-Modified-Since（秒级精度）。
+     */
+    private static boolean isNotModified(HttpServletRequest request, String etag, long lastModifiedMillis) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            String current = ETag.parse(etag).get(0).tag();
+            List<ETag> candidates = ETag.parse(ifNoneMatch);
+            return candidates.stream().anyMatch(candidate -> candidate.isWildcard() || candidate.tag().equals(current));
+        }
+        if (lastModifiedMillis < 0) {
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return ifModifiedSince >= 0 && lastModifiedMillis / 1000 <= ifModifiedSince / 1000;
+    }
+}
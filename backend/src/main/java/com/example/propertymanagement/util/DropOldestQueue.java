@@ -0,0 +1,73 @@
+package com.example.propertymanagement.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁有界队列：入队永不阻塞，超过容量时丢弃最旧的元素并计数。
+ * 适用于多生产者、单消费者的推送场景，慢消费者只会丢失旧数据，不会拖慢生产者。
+ * <p>
+ * 容量为近似上限：并发入队时可能短暂超出或多丢弃个别元素。
+ *
+ * @param <T> 元素类型
+ */
+public class DropOldestQueue<T> {
+
+    private final int capacity;
+    private final ConcurrentLinkedQueue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public DropOldestQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * 入队；队列已满时先丢弃最旧的元素。
+     *
+     * @return 本次入队丢弃的元素个数
+     */
+    public int offer(T item) {
+        queue.offer(item);
+        int current = size.incrementAndGet();
+        int discarded = 0;
+        while (current > capacity && queue.poll() != null) {
+            current = size.decrementAndGet();
+            discarded++;
+        }
+        if (discarded > 0) {
+            dropped.addAndGet(discarded);
+        }
+        return discarded;
+    }
+
+    /**
+     * 取出最旧的元素，队列为空时返回 null。
+     */
+    public T poll() {
+        T item = queue.poll();
+        if (item != null) {
+            size.decrementAndGet();
+        }
+        return item;
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public int size() {
+        return Math.max(size.get(), 0);
+    }
+
+    /**
+     * 返回自上次调用以来丢弃的元素个数并清零。
+     */
+    public long takeDropped() {
+        return dropped.getAndSet(0);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.propertymanagement.util;
+
+import java.util.List;
+
+/**
+ * 导出列定义：同一份定义同时用于 Excel 表头和 CSV / NDJSON 的逐行抽取。
+ *
+ * @param key       NDJSON 字段名，与列表接口 DTO 的字段名一致
+ * @param label     Excel / CSV 表头
+ * @param attribute 实体属性名，抽取时直接按列投影查询
+ */
+public record ExportColumn(String key, String label, String attribute) {
+
+    /**
+     * 字段名与实体属性名相同的列
+     */
+    public static ExportColumn of(String key, String label) {
+        return new ExportColumn(key, label, key);
+    }
+
+    /**
+     * 按顺序取出各列表头
+     */
+    public static List<String> labels(List<ExportColumn> columns) {
+        return columns.stream().map(ExportColumn::label).toList();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.propertymanagement.util;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * 批量抽取的查询描述：数据范围在创建时（请求线程上）按当前用户确定，
+ * 执行时只按列投影读取，不加载实体。
+ *
+ * @param name       文件基础名
+ * @param entityType 实体类型
+ * @param scope      数据范围条件（权限、筛选），不能为 null
+ * @param columns    导出列
+ */
+public record ExportQuery<T>(String name, Class<T> entityType, Specification<T> scope, List<ExportColumn> columns) {
+}
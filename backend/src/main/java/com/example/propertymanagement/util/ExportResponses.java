@@ -0,0 +1,92 @@
+package com.example.propertymanagement.util;
+
+import com.example.propertymanagement.dto.export.ExportFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 流式导出响应的辅助方法：附件文件名、内容类型，以及客户端支持时边写边 gzip 压缩。
+ */
+public final class ExportResponses {
+
+    private static final String GZIP = "gzip";
+
+    /**
+     * gzip 压缩缓冲区大小（字节）
+     */
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private ExportResponses() {
+    }
+
+    /**
+     * CSV / NDJSON 附件响应；请求的 Accept-Encoding 接受 gzip 时响应体在写出时压缩，
+     * 并带 {@code Content-Encoding: gzip}，客户端（浏览器、curl --compressed 等）会透明解压。
+     *
+     * @param request  当前请求
+     * @param fileName 下载文件名
+     * @param format   文件格式
+     * @param body     未压缩的响应体
+     */
+    public static ResponseEntity<StreamingResponseBody> attachment(HttpServletRequest request, String fileName,
+                                                                   ExportFormat format, StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(fileName, StandardCharsets.UTF_8)
+                .build()
+                .toString())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .contentType(MediaType.parseMediaType(format.contentType()));
+        if (!acceptsGzip(request)) {
+            return builder.body(body);
+        }
+        return builder
+            .header(HttpHeaders.CONTENT_ENCODING, GZIP)
+            .body(out -> {
+                GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                body.writeTo(gzip);
+                // 只结束压缩流，响应流由容器关闭
+                gzip.finish();
+            });
+    }
+
+    /**
+     * Accept-Encoding 是否接受 gzip：明确列出 gzip 时以其 q 值为准，否则看通配符 *；q=0 表示不接受
+     */
+    static boolean acceptsGzip(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        Boolean wildcard = null;
+        for (String part : header.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim();
+            boolean isGzip = coding.equalsIgnoreCase(GZIP);
+            if (!isGzip && !coding.equals("*")) {
+                continue;
+            }
+            boolean accepted = true;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim().replace(" ", "");
+                if (parameter.matches("(?i)q=0(\\.0{0,3})?")) {
+                    accepted = false;
+                }
+            }
+            if (isGzip) {
+                gzip = accepted;
+            } else {
+                wildcard = accepted;
+            }
+        }
+        return gzip != null ? gzip : Boolean.TRUE.equals(wildcard);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.propertymanagement.util;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 一张待导出的表：名称、表头与按需拉取的数据行。
+ * <p>
+ * 数据行不预先载入内存，每次遍历 {@link #rows()} 时才从数据源逐行读取，
+ * 写出端（如 {@link com.example.propertymanagement.service.ExcelExportService}）边读边写。
+ *
+ * @param name    工作表名称，也用作导出文件名的基础部分
+ * @param headers 表头
+ * @param rows    数据行来源，每行的列顺序与表头一致
+ */
+public record ExportSheet(String name, List<String> headers, Rows rows) {
+
+    /**
+     * 数据行来源
+     */
+    @FunctionalInterface
+    public interface Rows {
+
+        /**
+         * 按顺序把每一行交给 action；可重复遍历，每次都重新读取数据源
+         */
+        void forEach(Consumer<List<Object>> action);
+    }
+
+    /**
+     * 由内存中的数据行构造，用于数据量很小的场景
+     */
+    public static ExportSheet of(String name, List<String> headers, List<List<Object>> rows) {
+        return new ExportSheet(name, headers, rows::forEach);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.propertymanagement.util;
+
+import com.example.propertymanagement.exception.BadRequestException;
+
+/**
+ * 经纬度计算：球面距离、以点为中心的外接矩形、地图瓦片编号（Web 墨卡托 XYZ 方案）。
+ * 矩形不跨越 180° 经线，跨越时应由客户端拆成两次查询。
+ */
+public final class GeoMath {
+
+    /**
+     * 地球平均半径（千米）
+     */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    private static final double MAX_MERCATOR_LATITUDE = 85.05112878;
+
+    private GeoMath() {
+    }
+
+    /**
+     * 两点间的球面距离（haversine 公式），单位千米
+     */
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * 地图瓦片列号
+     */
+    public static int tileX(double longitude, int zoom) {
+        int tiles = 1 << zoom;
+        return Math.min(tiles - 1, (int) Math.floor((longitude + 180) / 360 * tiles));
+    }
+
+    /**
+     * 地图瓦片行号
+     */
+    public static int tileY(double latitude, int zoom) {
+        int tiles = 1 << zoom;
+        double lat = Math.toRadians(Math.max(-MAX_MERCATOR_LATITUDE, Math.min(MAX_MERCATOR_LATITUDE, latitude)));
+        double y = (1 - Math.log(Math.tan(lat) + 1 / Math.cos(lat)) / Math.PI) / 2 * tiles;
+        return Math.max(0, Math.min(tiles - 1, (int) Math.floor(y)));
+    }
+
+    /**
+     * 校验坐标范围
+     *
+     * @throws BadRequestException 纬度不在 [-90, 90] 或经度不在 [-180, 180] 内时抛出
+     */
+    public static void checkCoordinate(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new BadRequestException("无效的经纬度");
+        }
+    }
+
+    /**
+     * 经纬度矩形（闭区间）
+     */
+    public record Bounds(double minLat, double maxLat, double minLng, double maxLng) {
+
+        /**
+         * 由客户端提供的视窗生成，校验坐标与上下界
+         */
+        public static Bounds of(double minLat, double maxLat, double minLng, double maxLng) {
+            checkCoordinate(minLat, minLng);
+            checkCoordinate(maxLat, maxLng);
+            if (minLat > maxLat || minLng > maxLng) {
+                throw new BadRequestException("无效的地图范围");
+            }
+            return new Bounds(minLat, maxLat, minLng, maxLng);
+        }
+
+        /**
+         * 包含以指定点为圆心、指定半径的圆的最小矩形（靠近两极或跨越 180° 经线时经度取全范围）
+         */
+        public static Bounds around(double latitude, double longitude, double radiusKm) {
+            double dLat = radiusKm / KM_PER_DEGREE;
+            double minLat = Math.max(-90, latitude - dLat);
+            double maxLat = Math.min(90, latitude + dLat);
+            if (minLat == -90 || maxLat == 90) {
+                return new Bounds(minLat, maxLat, -180, 180);
+            }
+            double dLng = Math.toDegrees(Math.asin(Math.min(1, Math.sin(Math.toRadians(dLat))
+                / Math.cos(Math.toRadians(latitude)))));
+            if (longitude - dLng < -180 || longitude + dLng > 180) {
+                return new Bounds(minLat, maxLat, -180, 180);
+            }
+            return new Bounds(minLat, maxLat, longitude - dLng, longitude + dLng);
+        }
+
+        public boolean contains(double latitude, double longitude) {
+            return latitude >= minLat && latitude <= maxLat && longitude >= minLng && longitude <= maxLng;
+        }
+    }
+}
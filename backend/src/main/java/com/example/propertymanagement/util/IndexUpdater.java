@@ -0,0 +1,111 @@
+package com.example.propertymanagement.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 内存索引的增量写入与全量重建协调。
+ * <ul>
+ *   <li>增量变更在事务提交后执行，回滚则不执行；不在事务中时立即执行；</li>
+ *   <li>所有变更在同一把锁内串行执行，索引的写操作无需再自行加锁；</li>
+ *   <li>全量重建在锁外读取数据，期间发生的变更除作用于旧索引外还会登记下来，
+ *       新索引替换旧索引后按顺序重放，避免重建读到的旧快照覆盖这些变更。</li>
+ * </ul>
+ * 变更会被重放，因此必须是幂等的整体写入或移除，且只捕获不可变数据。
+ */
+public class IndexUpdater {
+
+    private final Lock lock;
+
+    /**
+     * 重建期间发生的增量变更，重建完成后按顺序重放；为 null 表示当前未在重建。由 lock 保护
+     */
+    private List<Runnable> changesDuringRebuild;
+
+    public IndexUpdater() {
+        this(new ReentrantLock());
+    }
+
+    /**
+     * @param lock 执行变更时持有的锁，如索引读写锁中的写锁
+     */
+    public IndexUpdater(Lock lock) {
+        this.lock = lock;
+    }
+
+    /**
+     * 登记变更；处于事务中时推迟到提交后执行。
+     */
+    public void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    /**
+     * 开始重建：此后的变更将被登记，直至 {@link #finishRebuild} 或 {@link #abortRebuild}。
+     */
+    public void beginRebuild() {
+        lock.lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 在锁内替换为新索引，再重放重建期间登记的变更。
+     *
+     * @param install 替换索引的操作
+     */
+    public void finishRebuild(Runnable install) {
+        lock.lock();
+        try {
+            install.run();
+            List<Runnable> pending = changesDuringRebuild;
+            changesDuringRebuild = null;
+            if (pending != null) {
+                pending.forEach(Runnable::run);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 重建失败：丢弃登记的变更，这些变更已作用于仍在使用的旧索引。
+     */
+    public void abortRebuild() {
+        lock.lock();
+        try {
+            changesDuringRebuild = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(Runnable change) {
+        lock.lock();
+        try {
+            change.run();
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
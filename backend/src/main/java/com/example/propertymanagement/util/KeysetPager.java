@@ -0,0 +1,181 @@
+package com.example.propertymanagement.util;
+
+import com.example.propertymanagement.dto.common.CursorPageResponse;
+import com.example.propertymanagement.exception.BadRequestException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.util.StringUtils;
+
+import java.beans.PropertyDescriptor;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 游标（keyset）分页：按 (排序键, id) 定位上一页最后一条记录，
+ * 生成 {@code WHERE key > ? OR (key = ? AND id > ?) ORDER BY key, id LIMIT n+1}，
+ * 不使用 OFFSET，也不执行 COUNT，第 1 页与第 10000 页的代价相同。
+ * <p>
+ * 游标对客户端不透明（Base64 编码的排序键、方向、最后一条的键值与ID），翻页期间排序以游标为准。
+ * 只允许按非空列排序，否则 NULL 值会使定位条件失效。
+ *
+ * @param <T> 实体类型
+ */
+public final class KeysetPager<T> {
+
+    private static final String ID = "id";
+    private static final String SEPARATOR = "|";
+    private static final Set<Class<?>> SUPPORTED_TYPES = Set.of(
+        String.class, Long.class, Integer.class, BigDecimal.class, LocalDate.class, LocalDateTime.class);
+
+    private final Map<String, Class<?>> sortKeys;
+
+    private KeysetPager(Map<String, Class<?>> sortKeys) {
+        this.sortKeys = sortKeys;
+    }
+
+    /**
+     * @param entityType 实体类型
+     * @param sortKeys   允许作为排序键的非空属性，id 始终允许
+     */
+    public static <T> KeysetPager<T> of(Class<T> entityType, String... sortKeys) {
+        Map<String, Class<?>> keys = new LinkedHashMap<>();
+        keys.put(ID, Long.class);
+        for (String name : sortKeys) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(entityType, name);
+            if (descriptor == null) {
+                throw new IllegalArgumentException(entityType.getSimpleName() + " has no property " + name);
+            }
+            Class<?> type = descriptor.getPropertyType();
+            if (!type.isEnum() && !SUPPORTED_TYPES.contains(type)) {
+                throw new IllegalArgumentException("Unsupported keyset property type: " + type.getName());
+            }
+            keys.put(name, type);
+        }
+        return new KeysetPager<>(Map.copyOf(keys));
+    }
+
+    /**
+     * 读取一页数据
+     *
+     * @param repository 实体仓库
+     * @param scope      数据范围条件（权限、筛选），不能为 null
+     * @param after      上一页返回的游标；为空字符串时读取第一页
+     * @param pageable   每页条数与排序（仅取第一个排序字段，未指定时按 id 倒序）；页码被忽略
+     * @param mapper     实体到 DTO 的转换
+     */
+    public <D> CursorPageResponse<D> scroll(JpaSpecificationExecutor<T> repository, Specification<T> scope,
+                                            String after, Pageable pageable, Function<T, D> mapper) {
+        Cursor cursor = StringUtils.hasText(after) ? decode(after) : null;
+        Sort.Order order = cursor != null
+            ? new Sort.Order(cursor.direction(), cursor.property())
+            : resolveOrder(pageable.getSort());
+        int size = pageable.getPageSize();
+
+        Sort sort = ID.equals(order.getProperty())
+            ? Sort.by(order)
+            : Sort.by(order, new Sort.Order(order.getDirection(), ID));
+        Specification<T> specification = cursor != null ? scope.and(seek(cursor)) : scope;
+        // 多取一条用于判断是否还有下一页
+        List<T> rows = repository.findBy(specification, query -> query.sortBy(sort).limit(size + 1).all());
+
+        boolean hasNext = rows.size() > size;
+        List<T> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encode(order, page.get(size - 1)) : null;
+        return new CursorPageResponse<>(page.stream().map(mapper).toList(), size, hasNext, nextCursor);
+    }
+
+    private Sort.Order resolveOrder(Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.desc(ID));
+        if (!sortKeys.containsKey(order.getProperty())) {
+            throw new BadRequestException("不支持按字段 " + order.getProperty() + " 进行游标分页");
+        }
+        return order;
+    }
+
+    private Specification<T> seek(Cursor cursor) {
+        boolean ascending = cursor.direction().isAscending();
+        return (root, query, cb) -> {
+            Predicate afterId = after(cb, root.get(ID), cursor.id(), ascending);
+            if (ID.equals(cursor.property())) {
+                return afterId;
+            }
+            Expression<?> key = root.get(cursor.property());
+            return cb.or(
+                after(cb, key, cursor.value(), ascending),
+                cb.and(cb.equal(key, cursor.value()), afterId));
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder cb, Expression<?> key, Comparable value, boolean ascending) {
+        Expression<Comparable> comparable = (Expression<Comparable>) key;
+        return ascending ? cb.greaterThan(comparable, value) : cb.lessThan(comparable, value);
+    }
+
+    String encode(Sort.Order order, T last) {
+        var accessor = PropertyAccessorFactory.forBeanPropertyAccess(last);
+        Object value = ID.equals(order.getProperty()) ? "" : accessor.getPropertyValue(order.getProperty());
+        String raw = String.join(SEPARATOR, order.getProperty(), order.getDirection().name(),
+            String.valueOf(accessor.getPropertyValue(ID)),
+            value instanceof Enum<?> constant ? constant.name() : String.valueOf(value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    Cursor decode(String after) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            Class<?> type = sortKeys.get(parts[0]);
+            if (parts.length != 4 || type == null) {
+                throw new BadRequestException("无效的分页游标");
+            }
+            Comparable<?> value = ID.equals(parts[0]) ? null : parseValue(type, parts[3]);
+            return new Cursor(parts[0], Sort.Direction.fromString(parts[1]), value, Long.valueOf(parts[2]));
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("无效的分页游标");
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable<?> parseValue(Class<?> type, String raw) {
+        if (type.isEnum()) {
+            return Enum.valueOf((Class) type, raw);
+        }
+        if (type == Long.class) {
+            return Long.valueOf(raw);
+        }
+        if (type == Integer.class) {
+            return Integer.valueOf(raw);
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal(raw);
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.parse(raw);
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(raw);
+        }
+        return raw;
+    }
+
+    record Cursor(String property, Sort.Direction direction, Comparable<?> value, Long id) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.propertymanagement.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * 前缀查询索引：词条规范化（去首尾空格、转小写）后存入有序跳表，
+ * 前缀查询即为一次 O(log n) 定位加顺序扫描，结果按词条字典序返回（较短的词条在前）。
+ * <p>
+ * 读操作无锁；写操作串行执行，同一条目的旧词条会被替换。
+ *
+ * @param <K> 条目键（如实体ID），需正确实现 equals/hashCode
+ * @param <V> 条目值，应为不可变对象
+ */
+public class PrefixIndex<K, V> {
+
+    /**
+     * 词条与条目键之间的分隔符，保证同名词条各自独立且排在其扩展词条之前
+     */
+    private static final char SEPARATOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, V> entries = new ConcurrentSkipListMap<>();
+    private final Map<K, String> sortKeys = new HashMap<>();
+
+    /**
+     * 写入或替换条目；词条为空时等同于移除。
+     */
+    public synchronized void put(K key, String term, V value) {
+        String previous = sortKeys.remove(key);
+        if (previous != null) {
+            entries.remove(previous);
+        }
+        String normalized = normalize(term);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        String sortKey = normalized + SEPARATOR + key;
+        sortKeys.put(key, sortKey);
+        entries.put(sortKey, value);
+    }
+
+    public synchronized void remove(K key) {
+        String previous = sortKeys.remove(key);
+        if (previous != null) {
+            entries.remove(previous);
+        }
+    }
+
+    /**
+     * 返回词条以 {@code prefix} 开头且满足条件的前 {@code limit} 个条目。
+     */
+    public List<V> search(String prefix, int limit, Predicate<? super V> filter) {
+        String normalized = normalize(prefix);
+        List<V> result = new ArrayList<>(Math.min(limit, 16));
+        if (normalized.isEmpty() || limit <= 0) {
+            return result;
+        }
+        ConcurrentNavigableMap<String, V> range = entries.subMap(normalized, true,
+            normalized + Character.MAX_VALUE, false);
+        for (V value : range.values()) {
+            if (filter.test(value)) {
+                result.add(value);
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public static String normalize(String term) {
+        return term == null ? "" : term.trim().toLowerCase(Locale.ROOT);
+    }
+}
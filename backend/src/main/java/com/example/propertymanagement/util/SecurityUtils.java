@@ -29,13 +29,13 @@ public final class SecurityUtils {
 
     /**
      * 判断主体是否具备指定角色（Spring Security 中角色即 authority）。
+     * 内置角色直接读取主体上预先计算的角色位掩码，优先使用 {@link UserPrincipal#isAdmin()} 等方法。
      *
      * @param principal 用户主体
      * @param role      角色名称，如 {@code ROLE_ADMIN}
      * @return 是否具有角色
      */
     public static boolean hasRole(UserPrincipal principal, String role) {
-        return principal.getAuthorities().stream()
-            .anyMatch(authority -> authority.getAuthority().equals(role));
+        return principal.hasRole(role);
     }
 }
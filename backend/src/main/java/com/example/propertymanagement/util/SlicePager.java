@@ -0,0 +1,40 @@
+package com.example.propertymanagement.util;
+
+import com.example.propertymanagement.dto.common.SliceResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.function.Function;
+
+/**
+ * 按页码读取一页数据但不执行 COUNT：多取一条判断是否还有下一页。
+ */
+public final class SlicePager {
+
+    private SlicePager() {
+    }
+
+    /**
+     * @param repository       实体仓库
+     * @param specification    查询条件
+     * @param pageable         页码、每页条数与排序
+     * @param mapper           实体到 DTO 的转换
+     * @param approximateTotal 近似总数，可为 null
+     */
+    public static <T, D> SliceResponse<D> read(JpaSpecificationExecutor<T> repository, Specification<T> specification,
+                                               Pageable pageable, Function<T, D> mapper, Long approximateTotal) {
+        // 偏移滚动位置表示“已读到的最后一条”，第一页使用初始位置
+        ScrollPosition position = pageable.getOffset() == 0
+            ? ScrollPosition.offset()
+            : ScrollPosition.offset(pageable.getOffset() - 1);
+        Window<T> window = repository.findBy(specification, query -> query
+            .sortBy(pageable.getSort())
+            .limit(pageable.getPageSize())
+            .scroll(position));
+        return new SliceResponse<>(window.getContent().stream().map(mapper).toList(), pageable.getPageNumber(),
+            pageable.getPageSize(), pageable.getPageNumber() == 0, window.hasNext(), approximateTotal);
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.propertymanagement.util;
+
+import com.example.propertymanagement.exception.BadRequestException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 流式读取表格文件（.xlsx 或 .csv），逐行回调，不把整个文件载入内存：
+ * <ul>
+ *   <li>.xlsx 使用 POI 的 SAX 事件模型只读取第一个工作表，单元格值按 Excel 中显示的格式转为文本；</li>
+ *   <li>.csv 按 RFC 4180 解析（UTF-8，可带 BOM，支持引号内的逗号、换行和转义的双引号）。</li>
+ * </ul>
+ * 行号从 1 开始，与 Excel 中显示的行号一致；空行不回调。
+ */
+public final class TabularFileReader {
+
+    private TabularFileReader() {
+    }
+
+    /**
+     * 行回调
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+
+        /**
+         * @param rowNumber 行号（从 1 开始）
+         * @param cells     各列文本，缺失的单元格为 null
+         */
+        void row(int rowNumber, List<String> cells);
+    }
+
+    /**
+     * 按文件扩展名选择解析方式
+     *
+     * @param file     已保存到本地的上传文件
+     * @param filename 原始文件名，用于判断格式
+     * @param handler  行回调
+     * @throws BadRequestException 格式不支持或文件损坏时抛出
+     */
+    public static void read(Path file, String filename, RowHandler handler) throws IOException {
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".xlsx")) {
+            readXlsx(file, handler);
+        } else if (name.endsWith(".csv")) {
+            try (Reader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8)) {
+                readCsv(reader, handler);
+            }
+        } else {
+            throw new BadRequestException("仅支持 .xlsx 或 .csv 文件");
+        }
+    }
+
+    private static void readXlsx(Path file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings, new SheetRows(handler),
+                    new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new BadRequestException("无法解析 Excel 文件: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 逐条读取 CSV 记录
+     */
+    static void readCsv(Reader source, RowHandler handler) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        boolean cellStarted = false;
+        int rowNumber = 1;
+        int recordStart = 1;
+        int c;
+        while ((c = reader.read()) != -1) {
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        cell.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (ch == '\n') {
+                        rowNumber++;
+                    }
+                    cell.append(ch);
+                }
+            } else if (ch == '"' && cell.isEmpty()) {
+                quoted = true;
+                cellStarted = true;
+            } else if (ch == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+                cellStarted = true;
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                emit(handler, recordStart, cells, cell, cellStarted);
+                cells = new ArrayList<>();
+                cell.setLength(0);
+                cellStarted = false;
+                rowNumber++;
+                recordStart = rowNumber;
+            } else {
+                cell.append(ch);
+                cellStarted = true;
+            }
+        }
+        emit(handler, recordStart, cells, cell, cellStarted);
+    }
+
+    private static void emit(RowHandler handler, int rowNumber, List<String> cells, StringBuilder last,
+                             boolean cellStarted) {
+        if (cellStarted || !last.isEmpty() || !cells.isEmpty()) {
+            cells.add(last.toString());
+        }
+        if (cells.stream().anyMatch(value -> !value.isBlank())) {
+            handler.row(rowNumber, cells);
+        }
+    }
+
+    /**
+     * 把 SAX 单元格事件组装成按列排列的行；空单元格在事件中被跳过，按单元格引用补齐
+     */
+    private static final class SheetRows implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private List<String> cells;
+
+        SheetRows(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (cells.stream().anyMatch(value -> value != null && !value.isBlank())) {
+                handler.row(rowNum + 1, cells);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : cells.size();
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+        }
+    }
+}
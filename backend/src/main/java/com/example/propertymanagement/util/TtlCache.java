@@ -0,0 +1,156 @@
+package com.example.propertymanagement.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 线程安全的有界 LRU 缓存，条目带统一的存活时间（TTL）。
+ * <ul>
+ *   <li>超过容量时淘汰最久未访问的条目，过期条目在读取时惰性清除；</li>
+ *   <li>加载在锁外执行；若加载期间发生过失效操作，本次结果不写入缓存，避免回填旧数据；</li>
+ *   <li>记录命中、未命中、淘汰、失效次数，便于观察命中率。</li>
+ * </ul>
+ *
+ * @param <K> 键类型，需正确实现 equals/hashCode
+ * @param <V> 值类型
+ */
+public class TtlCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * 每次失效操作递增，用于识别加载期间被失效的结果
+     */
+    private long invalidationVersion;
+
+    public TtlCache(int maxEntries, long ttl, TimeUnit unit) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > TtlCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 读取缓存，未命中或已过期时调用 loader 加载并写入。
+     */
+    public V get(K key, Supplier<? extends V> loader) {
+        return get(key, loader, value -> true);
+    }
+
+    /**
+     * 读取缓存，未命中时加载；仅当 {@code cacheable} 判定通过时才写入缓存（如部分结果不缓存）。
+     */
+    public V get(K key, Supplier<? extends V> loader, Predicate<? super V> cacheable) {
+        long version;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (!entry.isExpired(System.nanoTime())) {
+                    hits.increment();
+                    return entry.value();
+                }
+                entries.remove(key);
+                evictions.increment();
+            }
+            version = invalidationVersion;
+        }
+
+        misses.increment();
+        V value = loader.get();
+        if (value != null && cacheable.test(value)) {
+            synchronized (this) {
+                if (version == invalidationVersion) {
+                    entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 移除满足条件的条目。
+     *
+     * @return 移除的条目数
+     */
+    public synchronized int invalidateIf(Predicate<? super K> predicate) {
+        invalidationVersion++;
+        int removed = 0;
+        Iterator<K> iterator = entries.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (predicate.test(iterator.next())) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        invalidations.add(removed);
+        return removed;
+    }
+
+    /**
+     * 清空缓存。
+     */
+    public synchronized void invalidateAll() {
+        invalidationVersion++;
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 获取统计快照。
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), size(), maxEntries);
+    }
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    /**
+     * 缓存统计信息
+     *
+     * @param hits          命中次数
+     * @param misses        未命中次数
+     * @param evictions     因容量或过期被淘汰的条目数
+     * @param invalidations 被主动失效的条目数
+     * @param size          当前条目数
+     * @param maxEntries    容量上限
+     */
+    public record Stats(long hits, long misses, long evictions, long invalidations, int size, int maxEntries) {
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.propertymanagement.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 线程安全的按容量（估算字节数）限制的 LRU 缓存，适合值大小差异较大的场景。
+ * <ul>
+ *   <li>每个条目的权重由 {@code weigher} 估算，总权重超过上限时淘汰最久未访问的条目；
+ *       单个条目超过上限时不缓存；</li>
+ *   <li>加载在锁外执行；若加载期间发生过失效操作，本次结果不写入缓存，避免回填旧数据；</li>
+ *   <li>加载结果为 null（数据不存在）时不缓存；</li>
+ *   <li>记录命中、未命中、淘汰、失效次数及当前总权重。</li>
+ * </ul>
+ *
+ * @param <K> 键类型，需正确实现 equals/hashCode
+ * @param <V> 值类型，应为不可变对象
+ */
+public class WeightedLruCache<K, V> {
+
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private long totalWeight;
+
+    /**
+     * 每次失效操作递增，用于识别加载期间被失效的结果
+     */
+    private long invalidationVersion;
+
+    public WeightedLruCache(long maxWeight, ToLongFunction<? super V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * 读取缓存，未命中时调用 loader 加载并写入。
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long version;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                hits.increment();
+                return entry.value();
+            }
+            version = invalidationVersion;
+        }
+
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null) {
+            put(key, value, version);
+        }
+        return value;
+    }
+
+    private synchronized void put(K key, V value, long version) {
+        long weight = weigher.applyAsLong(value);
+        if (version != invalidationVersion || weight > maxWeight) {
+            return;
+        }
+        Entry<V> previous = entries.put(key, new Entry<>(value, weight));
+        if (previous != null) {
+            totalWeight -= previous.weight();
+        }
+        totalWeight += weight;
+
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (totalWeight > maxWeight && eldest.hasNext()) {
+            Map.Entry<K, Entry<V>> candidate = eldest.next();
+            if (candidate.getKey().equals(key)) {
+                continue;
+            }
+            totalWeight -= candidate.getValue().weight();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * 移除指定键。
+     *
+     * @return 是否移除了条目
+     */
+    public synchronized boolean invalidate(K key) {
+        invalidationVersion++;
+        Entry<V> removed = entries.remove(key);
+        if (removed == null) {
+            return false;
+        }
+        totalWeight -= removed.weight();
+        invalidations.increment();
+        return true;
+    }
+
+    /**
+     * 清空缓存。
+     */
+    public synchronized void invalidateAll() {
+        invalidationVersion++;
+        invalidations.add(entries.size());
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    /**
+     * 获取统计快照。
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(),
+            entries.size(), totalWeight, maxWeight);
+    }
+
+    private record Entry<V>(V value, long weight) {
+    }
+
+    /**
+     * 缓存统计信息
+     *
+     * @param hits          命中次数
+     * @param misses        未命中次数
+     * @param evictions     因容量被淘汰的条目数
+     * @param invalidations 被主动失效的条目数
+     * @param size          当前条目数
+     * @param weight        当前总权重（估算字节数）
+     * @param maxWeight     权重上限
+     */
+    public record Stats(long hits, long misses, long evictions, long invalidations,
+                        int size, long weight, long maxWeight) {
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
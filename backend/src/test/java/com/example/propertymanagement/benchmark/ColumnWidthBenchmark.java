@@ -0,0 +1,157 @@
+package com.example.propertymanagement.benchmark;
+
+import com.example.propertymanagement.util.ColumnWidthEstimator;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导出列宽基准：以物业导出的列结构（中文地址、城市等）流式写出 SXSSF 工作簿，对比
+ * 不设置列宽、{@code trackAllColumnsForAutoSizing + autoSizeColumn}、{@link ColumnWidthEstimator} 三种方式的总耗时。
+ * 工作簿写入空输出流，测量的是生成与列宽计算本身。
+ * <p>
+ * 单次执行计时（100 万行的 autoSize 需要数分钟）。运行方式：
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.propertymanagement.benchmark.ColumnWidthBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Djava.awt.headless=true"})
+public class ColumnWidthBenchmark {
+
+    private static final List<String> HEADERS = List.of(
+        "物业ID", "业主ID", "业主用户名", "地址", "城市", "州/省", "邮编",
+        "物业类型", "卧室数", "浴室数", "面积(平方英尺)", "状态", "租金", "创建时间");
+    private static final String[] CITIES = {"上海", "北京", "深圳", "杭州", "Chengdu", "Guangzhou"};
+    private static final String[] STREETS = {"南京西路", "中山北路", "人民大道", "Century Avenue", "淮海中路"};
+    private static final String[] TYPES = {"APARTMENT", "HOUSE", "COMMERCIAL"};
+    private static final String[] STATUSES = {"AVAILABLE", "LEASED", "UNDER_MAINTENANCE"};
+
+    /**
+     * 导出的数据行数
+     */
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    /**
+     * 不同的行数据模板数，每行按行号循环取用，避免生成数据的开销计入测量
+     */
+    private Object[][] templates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        templates = new Object[1024][];
+        for (int i = 0; i < templates.length; i++) {
+            String city = CITIES[random.nextInt(CITIES.length)];
+            templates[i] = new Object[]{
+                (long) i, (long) random.nextInt(5000), "owner" + random.nextInt(5000),
+                city + STREETS[random.nextInt(STREETS.length)] + (1 + random.nextInt(2000)) + "号"
+                    + (random.nextBoolean() ? (1 + random.nextInt(30)) + "楼" + (101 + random.nextInt(20)) + "室" : ""),
+                city, "省份" + random.nextInt(30), String.valueOf(100000 + random.nextInt(900000)),
+                TYPES[random.nextInt(TYPES.length)], (double) (1 + random.nextInt(5)), 1.5 + random.nextInt(3),
+                (double) (400 + random.nextInt(3000)), STATUSES[random.nextInt(STATUSES.length)],
+                1000 + random.nextInt(20000) + 0.5, "2025-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10)
+                    + " 12:" + (10 + random.nextInt(50)) + ":00"
+            };
+        }
+    }
+
+    @Benchmark
+    public long noSizing() throws IOException {
+        return write(Sizing.NONE);
+    }
+
+    @Benchmark
+    public long autoSizeColumn() throws IOException {
+        return write(Sizing.AUTO_SIZE);
+    }
+
+    @Benchmark
+    public long widthEstimator() throws IOException {
+        return write(Sizing.ESTIMATOR);
+    }
+
+    private long write(Sizing sizing) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        workbook.setCompressTempFiles(true);
+        try {
+            SXSSFSheet sheet = workbook.createSheet("物业列表");
+            ColumnWidthEstimator estimator = new ColumnWidthEstimator(HEADERS.size());
+            if (sizing == Sizing.AUTO_SIZE) {
+                sheet.trackAllColumnsForAutoSizing();
+            }
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < HEADERS.size(); i++) {
+                header.createCell(i).setCellValue(HEADERS.get(i));
+                estimator.accept(i, HEADERS.get(i), 1.2);
+            }
+            for (int r = 0; r < rows; r++) {
+                Object[] values = templates[r % templates.length];
+                Row row = sheet.createRow(r + 1);
+                for (int i = 0; i < values.length; i++) {
+                    Cell cell = row.createCell(i);
+                    String text;
+                    if (values[i] instanceof Number number) {
+                        cell.setCellValue(number.doubleValue());
+                        text = sizing == Sizing.ESTIMATOR ? number.toString() : null;
+                    } else {
+                        text = (String) values[i];
+                        cell.setCellValue(text);
+                    }
+                    if (sizing == Sizing.ESTIMATOR) {
+                        estimator.accept(i, text);
+                    }
+                }
+            }
+            long total = 0;
+            for (int i = 0; i < HEADERS.size(); i++) {
+                if (sizing == Sizing.AUTO_SIZE) {
+                    sheet.autoSizeColumn(i);
+                } else if (sizing == Sizing.ESTIMATOR) {
+                    sheet.setColumnWidth(i, estimator.width(i, 3000));
+                }
+                total += sheet.getColumnWidth(i);
+            }
+            workbook.write(OutputStream.nullOutputStream());
+            return total;
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private enum Sizing {
+        NONE, AUTO_SIZE, ESTIMATOR
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ColumnWidthBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
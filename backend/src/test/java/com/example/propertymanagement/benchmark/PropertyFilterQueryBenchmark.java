@@ -0,0 +1,321 @@
+package com.example.propertymanagement.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 物业高级筛选基准：对比旧的万能查询（{@code (? IS NULL OR col = ?)} + {@code LOWER(city) LIKE '%x%'}）
+ * 与条件构建器生成的查询（只含实际提供的谓词 + 城市前缀匹配）在百万行物业表上的执行计划与耗时。
+ * 每次调用与分页接口一致：一条 LIMIT 20 的数据查询加一条 COUNT 查询。
+ * <p>
+ * 需要一个可写的 MySQL 库，首次运行会在其中创建 {@code property_bench} 表（结构与索引同 property 表）并写入一百万行：
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.propertymanagement.benchmark.PropertyFilterQueryBenchmark
+ *     -Dbench.jdbc.url=jdbc:mysql://localhost:3306/smart_property_bench -Dbench.jdbc.user=root -Dbench.jdbc.password=...
+ * </pre>
+ * 启动时会打印两种写法在各场景下的 EXPLAIN 结果。{@code serverPrepared=true} 时使用服务端预处理语句，
+ * 此时万能查询只能得到一个通用计划。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertyFilterQueryBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final String[] CITIES = buildCities();
+    private static final String[] STATUSES = {"AVAILABLE", "LEASED", "UNDER_MAINTENANCE"};
+    private static final String[] TYPES = {"APARTMENT", "HOUSE", "COMMERCIAL"};
+
+    private static final String COLUMNS = "p.id, p.owner_id, p.address, p.city, p.status, p.property_type, "
+        + "p.bedrooms, p.rent_amount";
+
+    private static final String CATCH_ALL_WHERE = " FROM property_bench p WHERE "
+        + "(? IS NULL OR p.owner_id = ?) AND "
+        + "(? IS NULL OR p.status = ?) AND "
+        + "(? IS NULL OR p.property_type = ?) AND "
+        + "(? IS NULL OR p.rent_amount >= ?) AND "
+        + "(? IS NULL OR p.rent_amount <= ?) AND "
+        + "(? IS NULL OR p.bedrooms >= ?) AND "
+        + "(? IS NULL OR p.bedrooms <= ?) AND "
+        + "(? IS NULL OR LOWER(p.city) LIKE LOWER(CONCAT('%', ?, '%')))";
+
+    /**
+     * 筛选场景：仅城市、业主 + 状态、类型 + 租金区间 + 卧室数
+     */
+    @Param({"city", "ownerStatus", "typeRentBedrooms"})
+    public String scenario;
+
+    @Param({"false", "true"})
+    public boolean serverPrepared;
+
+    private Connection connection;
+    private Filter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", System.getProperty("bench.jdbc.user", "root"));
+        properties.setProperty("password", System.getProperty("bench.jdbc.password", ""));
+        properties.setProperty("rewriteBatchedStatements", "true");
+        properties.setProperty("useServerPrepStmts", String.valueOf(serverPrepared));
+        properties.setProperty("cachePrepStmts", "true");
+        connection = DriverManager.getConnection(
+            System.getProperty("bench.jdbc.url", "jdbc:mysql://localhost:3306/smart_property_bench"), properties);
+
+        seedIfNeeded();
+        filter = switch (scenario) {
+            case "city" -> new Filter(null, null, null, null, null, null, null, CITIES[17]);
+            case "ownerStatus" -> new Filter(42L, "AVAILABLE", null, null, null, null, null, null);
+            case "typeRentBedrooms" -> new Filter(null, null, "HOUSE", 3000.0, 6000.0, 2, 4, null);
+            default -> throw new IllegalArgumentException(scenario);
+        };
+
+        System.out.println();
+        System.out.println("== EXPLAIN catch-all (" + scenario + ") ==");
+        explain(catchAllSelect("EXPLAIN SELECT " + COLUMNS), true);
+        System.out.println("== EXPLAIN builder (" + scenario + ") ==");
+        explain(builderSelect("EXPLAIN SELECT " + COLUMNS), false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long catchAllQuery() throws SQLException {
+        return run(catchAllSelect("SELECT " + COLUMNS) + " LIMIT " + PAGE_SIZE, true)
+            + run(catchAllSelect("SELECT COUNT(*)"), true);
+    }
+
+    @Benchmark
+    public long builderQuery() throws SQLException {
+        return run(builderSelect("SELECT " + COLUMNS) + " LIMIT " + PAGE_SIZE, false)
+            + run(builderSelect("SELECT COUNT(*)"), false);
+    }
+
+    private String catchAllSelect(String select) {
+        return select + CATCH_ALL_WHERE;
+    }
+
+    /**
+     * 与 PropertySpecifications 生成的 SQL 等价：只拼接提供了值的条件
+     */
+    private String builderSelect(String select) {
+        List<String> predicates = new ArrayList<>();
+        if (filter.ownerId() != null) {
+            predicates.add("p.owner_id = ?");
+        }
+        if (filter.status() != null) {
+            predicates.add("p.status = ?");
+        }
+        if (filter.propertyType() != null) {
+            predicates.add("p.property_type = ?");
+        }
+        if (filter.minRent() != null && filter.maxRent() != null) {
+            predicates.add("p.rent_amount BETWEEN ? AND ?");
+        }
+        if (filter.minBedrooms() != null && filter.maxBedrooms() != null) {
+            predicates.add("p.bedrooms BETWEEN ? AND ?");
+        }
+        if (filter.city() != null) {
+            predicates.add("p.city LIKE ? ESCAPE '\\\\'");
+        }
+        return select + " FROM property_bench p"
+            + (predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates));
+    }
+
+    private long run(String sql, boolean catchAll) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, catchAll);
+            long checksum = 0;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    checksum += resultSet.getLong(1);
+                }
+            }
+            return checksum;
+        }
+    }
+
+    private void explain(String sql, boolean catchAll) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, catchAll);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                int columns = resultSet.getMetaData().getColumnCount();
+                while (resultSet.next()) {
+                    StringBuilder line = new StringBuilder();
+                    for (int i = 1; i <= columns; i++) {
+                        line.append(resultSet.getMetaData().getColumnLabel(i)).append('=')
+                            .append(resultSet.getString(i)).append(i < columns ? ", " : "");
+                    }
+                    System.out.println(line);
+                }
+            }
+        }
+    }
+
+    private void bind(PreparedStatement statement, boolean catchAll) throws SQLException {
+        int index = 1;
+        if (catchAll) {
+            Object[] values = {filter.ownerId(), filter.status(), filter.propertyType(), decimal(filter.minRent()),
+                decimal(filter.maxRent()), filter.minBedrooms(), filter.maxBedrooms(), filter.city()};
+            for (Object value : values) {
+                // 每个条件绑定两次：IS NULL 判断与比较
+                setNullable(statement, index++, value);
+                setNullable(statement, index++, value);
+            }
+            return;
+        }
+        if (filter.ownerId() != null) {
+            statement.setLong(index++, filter.ownerId());
+        }
+        if (filter.status() != null) {
+            statement.setString(index++, filter.status());
+        }
+        if (filter.propertyType() != null) {
+            statement.setString(index++, filter.propertyType());
+        }
+        if (filter.minRent() != null && filter.maxRent() != null) {
+            statement.setBigDecimal(index++, decimal(filter.minRent()));
+            statement.setBigDecimal(index++, decimal(filter.maxRent()));
+        }
+        if (filter.minBedrooms() != null && filter.maxBedrooms() != null) {
+            statement.setInt(index++, filter.minBedrooms());
+            statement.setInt(index++, filter.maxBedrooms());
+        }
+        if (filter.city() != null) {
+            statement.setString(index, filter.city() + "%");
+        }
+    }
+
+    private static void setNullable(PreparedStatement statement, int index, Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.VARCHAR);
+        } else {
+            statement.setObject(index, value);
+        }
+    }
+
+    private static BigDecimal decimal(Double value) {
+        return value == null ? null : BigDecimal.valueOf(value);
+    }
+
+    /**
+     * 表结构与索引同 docs/database/01_db_schema.sql 中的 property 表；行数不足时补齐
+     */
+    private void seedIfNeeded() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS property_bench ("
+                + "id BIGINT UNSIGNED NOT NULL AUTO_INCREMENT, "
+                + "owner_id BIGINT UNSIGNED NOT NULL, "
+                + "address VARCHAR(255) NOT NULL, "
+                + "city VARCHAR(100) DEFAULT NULL, "
+                + "state VARCHAR(100) DEFAULT NULL, "
+                + "zip_code VARCHAR(20) DEFAULT NULL, "
+                + "property_type VARCHAR(20) NOT NULL, "
+                + "bedrooms INT DEFAULT NULL, "
+                + "rent_amount DECIMAL(10,2) DEFAULT NULL, "
+                + "status VARCHAR(32) NOT NULL DEFAULT 'AVAILABLE', "
+                + "gmt_create DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                + "PRIMARY KEY (id), "
+                + "KEY idx_owner_id (owner_id), "
+                + "KEY idx_city_status (city, status), "
+                + "KEY idx_property_type (property_type), "
+                + "KEY idx_gmt_create (gmt_create)"
+                + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci");
+
+            long existing;
+            try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM property_bench")) {
+                resultSet.next();
+                existing = resultSet.getLong(1);
+            }
+            if (existing >= ROWS) {
+                return;
+            }
+
+            Random random = new Random(42);
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO property_bench "
+                + "(owner_id, address, city, state, zip_code, property_type, bedrooms, rent_amount, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (long i = existing; i < ROWS; i++) {
+                    insert.setLong(1, 1 + random.nextInt(5_000));
+                    insert.setString(2, (1 + random.nextInt(999)) + " Bench Road " + i);
+                    insert.setString(3, CITIES[random.nextInt(CITIES.length)]);
+                    insert.setString(4, "ST" + random.nextInt(50));
+                    insert.setString(5, String.format("%05d", random.nextInt(100_000)));
+                    insert.setString(6, TYPES[random.nextInt(TYPES.length)]);
+                    insert.setInt(7, 1 + random.nextInt(6));
+                    insert.setBigDecimal(8, BigDecimal.valueOf(500 + random.nextInt(19_500)));
+                    insert.setString(9, STATUSES[random.nextInt(STATUSES.length)]);
+                    insert.addBatch();
+                    if ((i + 1) % 5_000 == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            statement.execute("ANALYZE TABLE property_bench");
+        }
+    }
+
+    private static String[] buildCities() {
+        String[] cities = new String[200];
+        for (int i = 0; i < cities.length; i++) {
+            cities[i] = "City" + (char) ('A' + i % 26) + (i / 26);
+        }
+        return cities;
+    }
+
+    private record Filter(Long ownerId, String status, String propertyType, Double minRent, Double maxRent,
+                          Integer minBedrooms, Integer maxBedrooms, String city) {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(PropertyFilterQueryBenchmark.class.getSimpleName())
+            .jvmArgsAppend(
+                "-Dbench.jdbc.url=" + System.getProperty("bench.jdbc.url", "jdbc:mysql://localhost:3306/smart_property_bench"),
+                "-Dbench.jdbc.user=" + System.getProperty("bench.jdbc.user", "root"),
+                "-Dbench.jdbc.password=" + System.getProperty("bench.jdbc.password", ""))
+            .build()).run();
+    }
+}
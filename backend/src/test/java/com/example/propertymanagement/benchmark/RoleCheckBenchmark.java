@@ -0,0 +1,101 @@
+package com.example.propertymanagement.benchmark;
+
+import com.example.propertymanagement.model.Role;
+import com.example.propertymanagement.model.RoleName;
+import com.example.propertymanagement.model.User;
+import com.example.propertymanagement.security.UserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 角色判断基准：对比逐个比较 authority 字符串与读取预计算位掩码的开销。
+ * 每次调用模拟一个仪表盘请求中的角色判断（服务层范围判断 + 缓存键角色 + 推送范围，共三次）。
+ * <p>
+ * 运行方式：{@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.propertymanagement.benchmark.RoleCheckBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleCheckBenchmark {
+
+    /**
+     * 主体持有的角色，逗号分隔；租户判断需要遍历到集合末尾，是字符串比较的最坏情况
+     */
+    @Param({"ROLE_TENANT", "ROLE_OWNER,ROLE_TENANT"})
+    public String roles;
+
+    private UserPrincipal principal;
+
+    @Setup
+    public void setUp() {
+        Set<Role> roleSet = Arrays.stream(roles.split(","))
+            .map(name -> Role.builder().name(name).build())
+            .collect(Collectors.toSet());
+        principal = UserPrincipal.from(User.builder().id(1L).username("bench").password("x").roles(roleSet).build());
+    }
+
+    @Benchmark
+    public int authorityScan() {
+        int scope = 0;
+        for (int i = 0; i < 3; i++) {
+            if (scan(RoleName.ROLE_ADMIN.name())) {
+                scope += 1;
+            } else if (scan(RoleName.ROLE_OWNER.name())) {
+                scope += 2;
+            } else {
+                scope += 3;
+            }
+        }
+        return scope;
+    }
+
+    @Benchmark
+    public int roleMask() {
+        int scope = 0;
+        for (int i = 0; i < 3; i++) {
+            if (principal.isAdmin()) {
+                scope += 1;
+            } else if (principal.isOwner()) {
+                scope += 2;
+            } else {
+                scope += 3;
+            }
+        }
+        return scope;
+    }
+
+    /**
+     * 迁移前 SecurityUtils.hasRole 的实现
+     */
+    private boolean scan(String role) {
+        return principal.getAuthorities().stream()
+            .anyMatch(authority -> authority.getAuthority().equals(role));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(RoleCheckBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.util.ExportColumn;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BulkExportServiceTest {
+
+    private static final List<ExportColumn> COLUMNS = List.of(
+        ExportColumn.of("id", "ID"),
+        ExportColumn.of("address", "地址"),
+        ExportColumn.of("rentAmount", "租金"));
+
+    @Test
+    public void testFormat() {
+        assertEquals("1000000", BulkExportService.format(new BigDecimal("1E+6")));
+        assertEquals("3500.50", BulkExportService.format(new BigDecimal("3500.50")));
+        assertEquals("2024-05-01T08:30:15Z", BulkExportService.format(LocalDateTime.of(2024, 5, 1, 8, 30, 15)));
+        assertEquals("2024-05-01", BulkExportService.format(LocalDate.of(2024, 5, 1)));
+        assertEquals("LEASED", BulkExportService.format(PropertyStatus.LEASED));
+        assertEquals("42", BulkExportService.format(42L));
+    }
+
+    @Test
+    public void testCsvHeaderAndQuoting() throws IOException {
+        StringWriter out = new StringWriter();
+        BulkExportService.CsvRowWriter writer = new BulkExportService.CsvRowWriter(out, COLUMNS);
+        writer.writeHeader();
+        writer.writeRow(new Object[]{1L, "plain", new BigDecimal("100.00")});
+        writer.writeRow(new Object[]{2L, "a,b", null});
+        writer.writeRow(new Object[]{3L, "say \"hi\"", BigDecimal.ONE});
+        writer.writeRow(new Object[]{4L, "line 1\nline 2\r", BigDecimal.ZERO});
+        writer.writeRow(new Object[]{5L, "", null});
+
+        assertEquals("\uFEFFID,地址,租金\r\n"
+            + "1,plain,100.00\r\n"
+            + "2,\"a,b\",\r\n"
+            + "3,\"say \"\"hi\"\"\",1\r\n"
+            + "4,\"line 1\nline 2\r\",0\r\n"
+            + "5,,\r\n", out.toString());
+    }
+
+    @Test
+    public void testNdjsonEscapingAndTypes() throws IOException {
+        StringWriter out = new StringWriter();
+        BulkExportService.NdjsonRowWriter writer = new BulkExportService.NdjsonRowWriter(out, List.of(
+            ExportColumn.of("id", "ID"),
+            ExportColumn.of("note", "备注"),
+            ExportColumn.of("status", "状态"),
+            ExportColumn.of("rent", "租金"),
+            ExportColumn.of("active", "有效"),
+            ExportColumn.of("at", "时间")));
+        writer.writeHeader();
+        writer.writeRow(new Object[]{1L, "q\"b\\s/\n\r\t\u0001\u001f中", PropertyStatus.AVAILABLE,
+            new BigDecimal("1E+3"), true, LocalDateTime.of(2024, 1, 2, 3, 4, 5)});
+        writer.writeRow(new Object[]{2L, null, null, null, null, null});
+
+        assertEquals("{\"id\":1,\"note\":\"q\\\"b\\\\s/\\n\\r\\t\\u0001\\u001f中\",\"status\":\"AVAILABLE\","
+                + "\"rent\":1000,\"active\":true,\"at\":\"2024-01-02T03:04:05Z\"}\n"
+                + "{\"id\":2,\"note\":null,\"status\":null,\"rent\":null,\"active\":null,\"at\":null}\n",
+            out.toString());
+    }
+
+    @Test
+    public void testNdjsonKeysAreEscaped() throws IOException {
+        StringWriter out = new StringWriter();
+        new BulkExportService.NdjsonRowWriter(out, List.of(ExportColumn.of("a\"b", "x")))
+            .writeRow(new Object[]{"v"});
+
+        assertEquals("{\"a\\\"b\":\"v\"}\n", out.toString());
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.config.DashboardProperties;
+import com.example.propertymanagement.dto.dashboard.CounterDelta;
+import com.example.propertymanagement.event.PaymentRecordedEvent;
+import com.example.propertymanagement.model.Role;
+import com.example.propertymanagement.model.RoleName;
+import com.example.propertymanagement.model.User;
+import com.example.propertymanagement.security.UserPrincipal;
+import com.example.propertymanagement.util.DropOldestQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class DashboardStreamServiceTest {
+
+    private static final long OWNER_ID = 7L;
+
+    private final Queue<CounterDelta> sent = new ConcurrentLinkedQueue<>();
+    private final AtomicLong reportedDropped = new AtomicLong();
+    private DashboardStreamService service;
+
+    @AfterEach
+    public void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void testDrainDoesNotLoseWakeup() throws InterruptedException {
+        // 发送线程取空队列后停顿，期间入队的增量只能靠释放标记后的再次检查送出
+        CountDownLatch drained = new CountDownLatch(1);
+        CountDownLatch published = new CountDownLatch(1);
+        service = new DashboardStreamService(properties(16)) {
+            @Override
+            SseEmitter createEmitter(long timeoutMillis) {
+                return new RecordingEmitter(timeoutMillis, 0);
+            }
+
+            @Override
+            DropOldestQueue<CounterDelta> createQueue(int capacity) {
+                return new DropOldestQueue<>(capacity) {
+                    @Override
+                    public CounterDelta poll() {
+                        CounterDelta delta = super.poll();
+                        if (delta == null && drained.getCount() > 0) {
+                            drained.countDown();
+                            awaitQuietly(published);
+                        }
+                        return delta;
+                    }
+                };
+            }
+        };
+        service.subscribe(owner());
+
+        publish(1);
+        assertTrue(drained.await(5, TimeUnit.SECONDS));
+        publish(2);
+        published.countDown();
+
+        // 第 2 条入队时发送任务尚未结束，不会另起任务；滞留在队列中即为丢失唤醒
+        awaitCondition(() -> sent.size() >= 2);
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    public void testConcurrentPublishersDeliverEveryDelta() throws InterruptedException {
+        service = newService(1_000_000, 0);
+        service.subscribe(owner());
+
+        int producers = 4;
+        int perProducer = 5000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < perProducer; i++) {
+                    publish(producer * perProducer + i);
+                    if (i % 64 == 0) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int total = producers * perProducer;
+        awaitCondition(() -> sent.size() >= total);
+        Set<Integer> amounts = new HashSet<>();
+        for (CounterDelta delta : sent) {
+            assertTrue(amounts.add(delta.revenue().intValueExact()), "duplicate delta " + delta.revenue());
+        }
+        assertEquals(total, amounts.size());
+        assertEquals(0, reportedDropped.get());
+    }
+
+    @Test
+    public void testSlowSubscriberReportsDropped() throws InterruptedException {
+        service = newService(4, 1);
+        service.subscribe(owner());
+
+        int total = 2000;
+        for (int i = 0; i < total; i++) {
+            publish(i);
+        }
+
+        // 最新的增量不会被丢弃，最终一定会送达
+        awaitCondition(() -> sent.stream().anyMatch(delta -> delta.revenue().intValue() == total - 1));
+        Thread.sleep(50);
+        assertTrue(sent.size() < total);
+        assertTrue(reportedDropped.get() > 0);
+        assertTrue(sent.size() + reportedDropped.get() <= total);
+    }
+
+    private DashboardStreamService newService(int queueCapacity, long sendDelayMillis) {
+        return new DashboardStreamService(properties(queueCapacity)) {
+            @Override
+            SseEmitter createEmitter(long timeoutMillis) {
+                return new RecordingEmitter(timeoutMillis, sendDelayMillis);
+            }
+        };
+    }
+
+    private static DashboardProperties properties(int queueCapacity) {
+        DashboardProperties properties = new DashboardProperties();
+        properties.setStreamQueueCapacity(queueCapacity);
+        properties.setStreamSendThreads(2);
+        return properties;
+    }
+
+    private void publish(int amount) {
+        service.onPaymentRecorded(new PaymentRecordedEvent((long) amount, OWNER_ID, 1L, BigDecimal.valueOf(amount)));
+    }
+
+    private static UserPrincipal owner() {
+        User user = new User();
+        user.setId(OWNER_ID);
+        user.setUsername("owner");
+        user.getRoles().add(Role.builder().name(RoleName.ROLE_OWNER.name()).build());
+        return UserPrincipal.from(user);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("timed out waiting for pushed deltas");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 不依赖 Servlet 响应，直接记录写出的计数增量
+     */
+    private final class RecordingEmitter extends SseEmitter {
+
+        private final long sendDelayMillis;
+
+        RecordingEmitter(long timeoutMillis, long sendDelayMillis) {
+            super(timeoutMillis);
+            this.sendDelayMillis = sendDelayMillis;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof CounterDelta delta) {
+                    if (sendDelayMillis > 0) {
+                        try {
+                            Thread.sleep(sendDelayMillis);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    reportedDropped.addAndGet(delta.dropped());
+                    sent.add(delta);
+                }
+            }
+        }
+    }
+}
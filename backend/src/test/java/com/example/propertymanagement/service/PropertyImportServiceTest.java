@@ -0,0 +1,148 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.dto.property.ImportRowError;
+import com.example.propertymanagement.dto.property.PropertyImportResult;
+import com.example.propertymanagement.dto.user.UserRef;
+import com.example.propertymanagement.exception.BadRequestException;
+import com.example.propertymanagement.model.Property;
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.model.PropertyType;
+import com.example.propertymanagement.model.Role;
+import com.example.propertymanagement.model.RoleName;
+import com.example.propertymanagement.model.User;
+import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.repository.UserRepository;
+import com.example.propertymanagement.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PropertyImportServiceTest {
+
+    private final PropertyRepository propertyRepository = mock(PropertyRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final List<Property> inserted = new ArrayList<>();
+    private PropertyImportService service;
+
+    @BeforeEach
+    public void setUp() {
+        doAnswer(invocation -> inserted.addAll(invocation.getArgument(0)))
+            .when(propertyRepository).insertAll(anyList());
+        service = new PropertyImportService(propertyRepository, userRepository, mock(DashboardRollupService.class),
+            mock(PropertySearchIndex.class), mock(PropertyGeoIndex.class), mock(SuggestionService.class),
+            mock(SavedSearchService.class), mock(ApplicationEventPublisher.class),
+            mock(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testHeaderAliasesMapColumns() {
+        login(5L, "owner5", RoleName.ROLE_OWNER);
+
+        // 表头大小写、空格、下划线不敏感，未识别的列被忽略
+        PropertyImportResult result = service.importProperties(csv(
+            "Address,城市,Property_Type,Zip Code,卧室数,Rent,备注,lat,LNG\n"
+                + "朝阳路 1 号,北京,apartment,100000,2,\"3,500.50\",忽略,39.9,116.4\n"));
+
+        assertEquals(1, result.totalRows());
+        assertEquals(1, result.imported());
+        assertEquals(0, result.failed());
+        Property property = inserted.get(0);
+        assertEquals("朝阳路 1 号", property.getAddress());
+        assertEquals("北京", property.getCity());
+        assertEquals(PropertyType.APARTMENT, property.getPropertyType());
+        assertEquals("100000", property.getZipCode());
+        assertEquals(2, property.getBedrooms());
+        assertEquals(new BigDecimal("3500.50"), property.getRentAmount());
+        assertEquals(39.9, property.getLatitude());
+        assertEquals(116.4, property.getLongitude());
+        assertEquals(PropertyStatus.AVAILABLE, property.getStatus());
+        assertEquals(5L, property.getOwnerId());
+        assertEquals("owner5", property.getOwnerUsername());
+    }
+
+    @Test
+    public void testRowErrorsReportFileRowNumbers() {
+        login(5L, "owner5", RoleName.ROLE_OWNER);
+
+        PropertyImportResult result = service.importProperties(csv(
+            "地址,物业类型,租金,纬度,经度,业主用户名\n"
+                + "A 路 1 号,HOUSE,1000,,,\n"
+                + ",HOUSE,1000,,,\n"
+                + "\n"
+                + "\"B 路\n2 号\",CASTLE,1000,,,\n"
+                + "C 路 3 号,HOUSE,-1,,,\n"
+                + "D 路 4 号,HOUSE,,39.9,,\n"
+                + "E 路 5 号,HOUSE,,,,someone\n"
+                + "F 路 6 号,COMMERCIAL,,,,owner5\n"));
+
+        assertEquals(7, result.totalRows());
+        assertEquals(2, result.imported());
+        assertEquals(5, result.failed());
+        assertEquals(List.of(
+            new ImportRowError(3, "详细地址不能为空"),
+            new ImportRowError(5, "无效的物业类型: CASTLE"),
+            new ImportRowError(7, "租金不能为负数"),
+            new ImportRowError(8, "经纬度需同时填写"),
+            new ImportRowError(9, "不能为其他用户导入物业")), result.errors());
+        assertEquals(List.of("A 路 1 号", "F 路 6 号"), inserted.stream().map(Property::getAddress).toList());
+    }
+
+    @Test
+    public void testAdminResolvesOwnerByUsername() {
+        login(1L, "admin", RoleName.ROLE_ADMIN);
+        when(userRepository.findRefsByUsernameIn(anyCollection())).thenReturn(List.of(new UserRef(9L, "alice")));
+
+        PropertyImportResult result = service.importProperties(csv(
+            "owner,address,type\nalice,A 路 1 号,house\nbob,B 路 2 号,house\n"));
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(new ImportRowError(3, "未找到指定业主")), result.errors());
+        assertEquals(9L, inserted.get(0).getOwnerId());
+    }
+
+    @Test
+    public void testMissingRequiredColumns() {
+        login(5L, "owner5", RoleName.ROLE_OWNER);
+        assertThrows(BadRequestException.class, () -> service.importProperties(csv("地址,城市\nA,北京\n")));
+
+        login(1L, "admin", RoleName.ROLE_ADMIN);
+        assertThrows(BadRequestException.class, () -> service.importProperties(csv("地址,物业类型\nA,HOUSE\n")));
+    }
+
+    private static MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "properties.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void login(Long id, String username, RoleName role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.getRoles().add(Role.builder().name(role.name()).build());
+        UserPrincipal principal = UserPrincipal.from(user);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.propertymanagement.service;
+
+import com.example.propertymanagement.dto.property.PropertyDto;
+import com.example.propertymanagement.dto.property.PropertyRequest;
+import com.example.propertymanagement.model.Property;
+import com.example.propertymanagement.model.PropertyStatus;
+import com.example.propertymanagement.model.PropertyType;
+import com.example.propertymanagement.model.Role;
+import com.example.propertymanagement.model.RoleName;
+import com.example.propertymanagement.model.User;
+import com.example.propertymanagement.repository.PropertyRepository;
+import com.example.propertymanagement.repository.UserRepository;
+import com.example.propertymanagement.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PropertyServiceTest {
+
+    private static final Long OWNER_ID = 5L;
+
+    private final PropertyRepository propertyRepository = mock(PropertyRepository.class);
+    private final PropertyGeoIndex geoIndex = mock(PropertyGeoIndex.class);
+    private PropertyService service;
+    private Property stored;
+
+    @BeforeEach
+    public void setUp() {
+        service = new PropertyService(propertyRepository, mock(UserRepository.class),
+            mock(DashboardRollupService.class), mock(ApplicationEventPublisher.class),
+            mock(PropertySearchIndex.class), mock(ApproximateCountService.class), mock(PropertySnapshotCache.class),
+            geoIndex, mock(SuggestionService.class), mock(SavedSearchService.class), mock(ExportRowReader.class));
+
+        stored = Property.builder()
+            .id(1L)
+            .ownerId(OWNER_ID)
+            .ownerUsername("owner5")
+            .address("朝阳路 1 号")
+            .city("北京")
+            .propertyType(PropertyType.APARTMENT)
+            .status(PropertyStatus.AVAILABLE)
+            .rentAmount(new BigDecimal("3000"))
+            .latitude(39.9)
+            .longitude(116.4)
+            .gmtCreate(LocalDateTime.of(2024, 1, 1, 0, 0))
+            .gmtModified(LocalDateTime.of(2024, 1, 1, 0, 0))
+            .build();
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(propertyRepository.save(any(Property.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        User user = new User();
+        user.setId(OWNER_ID);
+        user.setUsername("owner5");
+        user.getRoles().add(Role.builder().name(RoleName.ROLE_OWNER.name()).build());
+        UserPrincipal principal = UserPrincipal.from(user);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testUpdateWithoutCoordinatesKeepsStoredOnes() {
+        // 编辑表单不提交经纬度
+        PropertyDto updated = service.updateProperty(1L, request(null, null));
+
+        assertEquals(new BigDecimal("3500"), stored.getRentAmount());
+        assertEquals(39.9, stored.getLatitude());
+        assertEquals(116.4, stored.getLongitude());
+        assertEquals(39.9, updated.latitude());
+        assertEquals(116.4, updated.longitude());
+        verify(geoIndex).index(stored);
+    }
+
+    @Test
+    public void testUpdateWithCoordinatesReplacesThem() {
+        service.updateProperty(1L, request(31.2, 121.5));
+
+        assertEquals(31.2, stored.getLatitude());
+        assertEquals(121.5, stored.getLongitude());
+    }
+
+    private static PropertyRequest request(Double latitude, Double longitude) {
+        return new PropertyRequest(null, "朝阳路 1 号", "北京", null, null, PropertyType.APARTMENT, 2, null, null,
+            PropertyStatus.AVAILABLE, new BigDecimal("3500"), latitude, longitude);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.propertymanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DropOldestQueueTest {
+
+    @Test
+    public void testDropsOldestWhenFull() {
+        DropOldestQueue<Integer> queue = new DropOldestQueue<>(3);
+        assertEquals(0, queue.offer(1));
+        assertEquals(0, queue.offer(2));
+        assertEquals(0, queue.offer(3));
+        assertEquals(1, queue.offer(4));
+        assertEquals(1, queue.offer(5));
+
+        assertEquals(3, queue.size());
+        assertEquals(2, queue.takeDropped());
+        assertEquals(0, queue.takeDropped());
+        assertEquals(3, queue.poll());
+        assertEquals(4, queue.poll());
+        assertEquals(5, queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentOffersKeepBoundAndAccounting() throws InterruptedException {
+        int capacity = 64;
+        int producers = 8;
+        int perProducer = 20000;
+        DropOldestQueue<Integer> queue = new DropOldestQueue<>(capacity);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] discarded = new long[producers];
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                await(start);
+                for (int i = 0; i < perProducer; i++) {
+                    discarded[producer] += queue.offer(producer * perProducer + i);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // 并发期间可能短暂超出容量，入队全部结束后不会超出
+        int size = queue.size();
+        assertTrue(size <= capacity, "size " + size + " exceeds capacity");
+        long totalDiscarded = 0;
+        for (long count : discarded) {
+            totalDiscarded += count;
+        }
+        long dropped = queue.takeDropped();
+        assertEquals(totalDiscarded, dropped);
+        assertEquals((long) producers * perProducer, size + dropped);
+
+        Set<Integer> remaining = new HashSet<>();
+        Integer item;
+        while ((item = queue.poll()) != null) {
+            assertTrue(remaining.add(item), "duplicate item " + item);
+        }
+        assertEquals(size, remaining.size());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testConcurrentConsumerSeesEveryItemOnce() throws InterruptedException {
+        int total = 100000;
+        DropOldestQueue<Integer> queue = new DropOldestQueue<>(16);
+        Set<Integer> consumed = new HashSet<>();
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                queue.offer(i);
+            }
+        });
+        producer.start();
+        while (producer.isAlive() || !queue.isEmpty()) {
+            Integer item = queue.poll();
+            if (item != null) {
+                assertTrue(consumed.add(item), "duplicate item " + item);
+            }
+        }
+        producer.join();
+
+        // 每个元素要么被取出，要么被计入丢弃数
+        assertEquals(total, consumed.size() + queue.takeDropped());
+        assertTrue(consumed.contains(total - 1));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
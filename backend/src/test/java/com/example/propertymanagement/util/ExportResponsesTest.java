@@ -0,0 +1,55 @@
+package com.example.propertymanagement.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExportResponsesTest {
+
+    private static boolean accepts(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (acceptEncoding != null) {
+            request.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        return ExportResponses.acceptsGzip(request);
+    }
+
+    @Test
+    public void testAcceptsGzip() {
+        assertTrue(accepts("gzip"));
+        assertTrue(accepts("GZIP"));
+        assertTrue(accepts("deflate, gzip, br"));
+        assertTrue(accepts("gzip;q=0.5"));
+        assertTrue(accepts("gzip; q=0.001"));
+        assertTrue(accepts("br;q=1.0, gzip;q=0.8, *;q=0.1"));
+    }
+
+    @Test
+    public void testMissingOrOtherCodings() {
+        assertFalse(accepts(null));
+        assertFalse(accepts(""));
+        assertFalse(accepts("identity"));
+        assertFalse(accepts("deflate, br"));
+        assertFalse(accepts("x-gzip"));
+    }
+
+    @Test
+    public void testZeroQualityExcludes() {
+        assertFalse(accepts("gzip;q=0"));
+        assertFalse(accepts("gzip;Q=0.0"));
+        assertFalse(accepts("gzip; q=0.000"));
+        assertFalse(accepts("br, gzip;q=0"));
+    }
+
+    @Test
+    public void testWildcard() {
+        assertTrue(accepts("*"));
+        assertTrue(accepts("br, *;q=0.5"));
+        assertFalse(accepts("*;q=0"));
+        // 明确列出的 gzip 优先于通配符
+        assertFalse(accepts("gzip;q=0, *"));
+        assertTrue(accepts("gzip, *;q=0"));
+    }
+}
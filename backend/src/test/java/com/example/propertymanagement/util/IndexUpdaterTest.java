@@ -0,0 +1,76 @@
+package com.example.propertymanagement.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class IndexUpdaterTest {
+
+    private final IndexUpdater updater = new IndexUpdater();
+    private Map<Long, String> index = new HashMap<>();
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testAppliesImmediatelyWithoutTransaction() {
+        updater.afterCommit(() -> index.put(1L, "a"));
+        assertEquals("a", index.get(1L));
+    }
+
+    @Test
+    public void testDefersUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        updater.afterCommit(() -> index.put(1L, "a"));
+        assertFalse(index.containsKey(1L));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals("a", index.get(1L));
+    }
+
+    @Test
+    public void testReplaysChangesMadeDuringRebuild() {
+        index.put(1L, "old");
+        updater.beginRebuild();
+
+        // 重建读取的快照早于这两次变更
+        Map<Long, String> rebuilt = new HashMap<>();
+        rebuilt.put(1L, "old");
+        rebuilt.put(2L, "stale");
+        updater.afterCommit(() -> index.put(1L, "new"));
+        updater.afterCommit(() -> index.remove(2L));
+
+        updater.finishRebuild(() -> index = rebuilt);
+        assertEquals("new", index.get(1L));
+        assertNull(index.get(2L));
+
+        // 重建结束后不再登记
+        updater.afterCommit(() -> index.put(3L, "c"));
+        updater.beginRebuild();
+        updater.finishRebuild(() -> index = new HashMap<>());
+        assertFalse(index.containsKey(3L));
+    }
+
+    @Test
+    public void testAbortDiscardsRecordedChanges() {
+        updater.beginRebuild();
+        updater.afterCommit(() -> index.put(1L, "a"));
+        updater.abortRebuild();
+        assertEquals("a", index.get(1L));
+
+        updater.finishRebuild(() -> index = new HashMap<>());
+        assertFalse(index.containsKey(1L));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.propertymanagement.util;
+
+import com.example.propertymanagement.exception.BadRequestException;
+import com.example.propertymanagement.model.Lease;
+import com.example.propertymanagement.model.LeaseStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class KeysetPagerTest {
+
+    private final KeysetPager<Lease> pager =
+        KeysetPager.of(Lease.class, "gmtCreate", "startDate", "rentAmount", "status", "propertyAddress");
+
+    private static Lease lease() {
+        Lease lease = new Lease();
+        lease.setId(42L);
+        lease.setGmtCreate(LocalDateTime.of(2024, 5, 1, 8, 30, 15));
+        lease.setStartDate(LocalDate.of(2024, 6, 1));
+        lease.setRentAmount(new BigDecimal("3500.50"));
+        lease.setStatus(LeaseStatus.TERMINATED);
+        lease.setPropertyAddress("朝阳区|建国路 1 号");
+        return lease;
+    }
+
+    @Test
+    public void testRoundTripKeepsTypedValue() {
+        Lease lease = lease();
+
+        KeysetPager.Cursor byTime = pager.decode(pager.encode(Sort.Order.desc("gmtCreate"), lease));
+        assertEquals("gmtCreate", byTime.property());
+        assertEquals(Sort.Direction.DESC, byTime.direction());
+        assertEquals(lease.getGmtCreate(), byTime.value());
+        assertEquals(42L, byTime.id());
+
+        assertEquals(lease.getStartDate(),
+            pager.decode(pager.encode(Sort.Order.asc("startDate"), lease)).value());
+        assertEquals(lease.getRentAmount(),
+            pager.decode(pager.encode(Sort.Order.asc("rentAmount"), lease)).value());
+        assertEquals(LeaseStatus.TERMINATED,
+            pager.decode(pager.encode(Sort.Order.asc("status"), lease)).value());
+    }
+
+    @Test
+    public void testValueMayContainSeparator() {
+        Lease lease = lease();
+
+        KeysetPager.Cursor cursor = pager.decode(pager.encode(Sort.Order.asc("propertyAddress"), lease));
+        assertEquals("朝阳区|建国路 1 号", cursor.value());
+        assertEquals(42L, cursor.id());
+    }
+
+    @Test
+    public void testIdCursorHasNoValue() {
+        KeysetPager.Cursor cursor = pager.decode(pager.encode(Sort.Order.desc("id"), lease()));
+        assertEquals("id", cursor.property());
+        assertNull(cursor.value());
+        assertEquals(42L, cursor.id());
+    }
+
+    @Test
+    public void testRejectsMalformedCursor() {
+        assertThrows(BadRequestException.class, () -> pager.decode("not base64!"));
+        assertThrows(BadRequestException.class, () -> pager.decode(encode("gmtCreate|DESC|42")));
+        assertThrows(BadRequestException.class, () -> pager.decode(encode("gmtCreate|DESC|abc|2024-05-01T08:30:15")));
+        assertThrows(BadRequestException.class, () -> pager.decode(encode("gmtCreate|SIDEWAYS|42|2024-05-01T08:30:15")));
+        assertThrows(BadRequestException.class, () -> pager.decode(encode("status|ASC|42|UNKNOWN")));
+    }
+
+    @Test
+    public void testRejectsPropertyNotAllowed() {
+        // 游标由客户端回传，不允许借此按未登记的字段排序
+        assertThrows(BadRequestException.class, () -> pager.decode(encode("tenantUsername|ASC|42|alice")));
+    }
+
+    @Test
+    public void testRejectsUnknownSortKey() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetPager.of(Lease.class, "missing"));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.propertymanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrefixIndexTest {
+
+    @Test
+    public void testRangeIncludesExactAndExtendedTerms() {
+        PrefixIndex<Long, String> index = new PrefixIndex<>();
+        index.put(1L, "Park", "park");
+        index.put(2L, "Parkside", "parkside");
+        index.put(3L, "Par", "par");
+        index.put(4L, "Pas", "pas");
+        index.put(5L, "Paris", "paris");
+
+        // 较短的词条在前，"pas" 虽在 "park" 之后但不以 "park" 开头
+        assertEquals(List.of("park", "parkside"), index.search("park", 10, value -> true));
+        assertEquals(List.of("par", "paris", "park", "parkside"), index.search("par", 10, value -> true));
+    }
+
+    @Test
+    public void testRangeUpperBoundIncludesNonAsciiTerms() {
+        PrefixIndex<Long, String> index = new PrefixIndex<>();
+        index.put(1L, "北京", "北京");
+        index.put(2L, "北京市朝阳区", "北京市朝阳区");
+        index.put(3L, "北海", "北海");
+        index.put(4L, "ab\uFFFE", "ab-high");
+        index.put(5L, "ac", "ac");
+
+        assertEquals(List.of("北京", "北京市朝阳区"), index.search("北京", 10, value -> true));
+        assertEquals(List.of("ab-high"), index.search("ab", 10, value -> true));
+    }
+
+    @Test
+    public void testSameTermKeptPerKey() {
+        PrefixIndex<Long, String> index = new PrefixIndex<>();
+        index.put(1L, "Main St", "first");
+        index.put(2L, "main st", "second");
+
+        assertEquals(2, index.size());
+        assertEquals(List.of("first", "second"), index.search("MAIN", 10, value -> true));
+    }
+
+    @Test
+    public void testPutReplacesAndRemoves() {
+        PrefixIndex<Long, String> index = new PrefixIndex<>();
+        index.put(1L, "Alpha", "alpha");
+        index.put(1L, "Beta", "beta");
+
+        assertTrue(index.search("alpha", 10, value -> true).isEmpty());
+        assertEquals(List.of("beta"), index.search("be", 10, value -> true));
+
+        index.put(1L, "  ", "blank");
+        assertEquals(0, index.size());
+
+        index.put(2L, "Gamma", "gamma");
+        index.remove(2L);
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testLimitAndFilter() {
+        PrefixIndex<Long, Integer> index = new PrefixIndex<>();
+        for (long i = 0; i < 10; i++) {
+            index.put(i, "room " + i, (int) i);
+        }
+
+        assertEquals(List.of(1, 3), index.search(" Room ", 2, value -> value % 2 == 1));
+        assertTrue(index.search("room", 0, value -> true).isEmpty());
+        assertTrue(index.search("", 10, value -> true).isEmpty());
+        assertTrue(index.search(null, 10, value -> true).isEmpty());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.propertymanagement.util;
+
+import com.example.propertymanagement.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TabularFileReaderTest {
+
+    private record Row(int number, List<String> cells) {
+    }
+
+    private static List<Row> readCsv(String content) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        TabularFileReader.readCsv(new StringReader(content), (number, cells) -> rows.add(new Row(number, cells)));
+        return rows;
+    }
+
+    private static Row row(int number, String... cells) {
+        return new Row(number, Arrays.asList(cells));
+    }
+
+    @Test
+    public void testPlainRows() throws IOException {
+        assertEquals(List.of(row(1, "地址", "城市"), row(2, "朝阳路 1 号", "北京")),
+            readCsv("地址,城市\n朝阳路 1 号,北京\n"));
+    }
+
+    @Test
+    public void testQuotedCommasAndEscapedQuotes() throws IOException {
+        assertEquals(List.of(row(1, "a,b", "say \"hi\"", "")),
+            readCsv("\"a,b\",\"say \"\"hi\"\"\",\"\""));
+    }
+
+    @Test
+    public void testQuotedNewlineKeepsRecordStartRow() throws IOException {
+        List<Row> rows = readCsv("h1,h2\n\"line 1\nline 2\",x\nnext,y\n");
+
+        assertEquals(List.of(
+            row(1, "h1", "h2"),
+            row(2, "line 1\nline 2", "x"),
+            // 引号内的换行占用了第 3 行，下一条记录从第 4 行开始
+            row(4, "next", "y")), rows);
+    }
+
+    @Test
+    public void testCrlfAndBareCr() throws IOException {
+        assertEquals(List.of(row(1, "a", "b"), row(2, "c", "d"), row(3, "e", "f")),
+            readCsv("a,b\r\nc,d\re,f\r\n"));
+    }
+
+    @Test
+    public void testQuotedCrlfIsPreserved() throws IOException {
+        assertEquals(List.of(row(1, "x\r\ny"), row(3, "z")), readCsv("\"x\r\ny\"\r\nz\r\n"));
+    }
+
+    @Test
+    public void testLeadingBomIsSkipped() throws IOException {
+        assertEquals(List.of(row(1, "地址", "城市")), readCsv("\uFEFF地址,城市\r\n"));
+        // 仅开头的 BOM 被去除
+        assertEquals(List.of(row(1, "a\uFEFF")), readCsv("a\uFEFF"));
+    }
+
+    @Test
+    public void testBlankRowsSkippedButCounted() throws IOException {
+        List<Row> rows = readCsv("h\n\n  \n,,\nvalue\n\n");
+
+        assertEquals(List.of(row(1, "h"), row(5, "value")), rows);
+    }
+
+    @Test
+    public void testEmptyCellsAndMissingTrailingNewline() throws IOException {
+        assertEquals(List.of(row(1, "a", "", "c", "")), readCsv("a,,c,"));
+        assertEquals(List.of(), readCsv(""));
+    }
+
+    @Test
+    public void testQuoteInsideUnquotedCellIsLiteral() throws IOException {
+        assertEquals(List.of(row(1, "5\" pipe", "b")), readCsv("5\" pipe,b"));
+    }
+
+    @Test
+    public void testReadDispatchesByExtension() throws IOException {
+        Path file = Files.createTempFile("tabular-", ".tmp");
+        try {
+            Files.writeString(file, "\uFEFFa,b\r\n1,2\r\n");
+            List<Row> rows = new ArrayList<>();
+            TabularFileReader.read(file, "IMPORT.CSV", (number, cells) -> rows.add(new Row(number, cells)));
+            assertEquals(List.of(row(1, "a", "b"), row(2, "1", "2")), rows);
+
+            assertThrows(BadRequestException.class, () -> TabularFileReader.read(file, "import.xls", (n, c) -> {
+            }));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.propertymanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TtlCacheTest {
+
+    @Test
+    public void testHitAfterLoad() {
+        TtlCache<String, Integer> cache = new TtlCache<>(10, 1, TimeUnit.MINUTES);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, cache.get("a", loads::incrementAndGet));
+        assertEquals(1, cache.get("a", loads::incrementAndGet));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    public void testInvalidationDuringLoadSkipsBackfill() {
+        TtlCache<String, Integer> cache = new TtlCache<>(10, 1, TimeUnit.MINUTES);
+        AtomicInteger loads = new AtomicInteger();
+
+        // 加载期间发生失效：本次结果照常返回，但不能写入缓存
+        Integer stale = cache.get("a", () -> {
+            cache.invalidateAll();
+            return loads.incrementAndGet();
+        });
+        assertEquals(1, stale);
+        assertEquals(0, cache.size());
+
+        assertEquals(2, cache.get("a", loads::incrementAndGet));
+        assertEquals(2, cache.get("a", loads::incrementAndGet));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testInvalidateIfDuringLoadSkipsBackfill() {
+        TtlCache<String, Integer> cache = new TtlCache<>(10, 1, TimeUnit.MINUTES);
+
+        // 条件失效即使未命中任何条目，也会使加载中的结果作废
+        cache.get("a", () -> {
+            cache.invalidateIf(key -> key.equals("other"));
+            return 1;
+        });
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidateIfRemovesMatchingKeys() {
+        TtlCache<String, Integer> cache = new TtlCache<>(10, 1, TimeUnit.MINUTES);
+        cache.get("owner:1", () -> 1);
+        cache.get("owner:2", () -> 2);
+        cache.get("admin", () -> 3);
+
+        assertEquals(2, cache.invalidateIf(key -> key.startsWith("owner:")));
+        assertEquals(1, cache.size());
+        assertEquals(3, cache.get("admin", () -> -1));
+        assertEquals(2, cache.stats().invalidations());
+    }
+
+    @Test
+    public void testNotCacheableValueIsNotStored() {
+        TtlCache<String, Integer> cache = new TtlCache<>(10, 1, TimeUnit.MINUTES);
+
+        assertEquals(-1, cache.get("a", () -> -1, value -> value >= 0));
+        assertEquals(0, cache.size());
+        assertNull(cache.get("b", () -> null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        TtlCache<String, Integer> cache = new TtlCache<>(2, 1, TimeUnit.MINUTES);
+        cache.get("a", () -> 1);
+        cache.get("b", () -> 2);
+        // 访问 a 后，b 成为最久未访问的条目
+        cache.get("a", () -> -1);
+        cache.get("c", () -> 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get("a", () -> -1));
+        assertEquals(-1, cache.get("b", () -> -1));
+        assertTrue(cache.stats().evictions() >= 1);
+    }
+
+    @Test
+    public void testExpiredEntryIsReloaded() {
+        TtlCache<String, Integer> cache = new TtlCache<>(10, 0, TimeUnit.NANOSECONDS);
+        cache.get("a", () -> 1);
+
+        assertEquals(2, cache.get("a", () -> 2));
+    }
+}